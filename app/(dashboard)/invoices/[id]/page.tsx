@@ -84,6 +84,11 @@ export default function InvoiceDetailPage() {
           <div>
             <strong>Balance:</strong> ${invoice.balance.toFixed(2)}
           </div>
+          {invoice.dueDate && (
+            <div>
+              <strong>Due:</strong> {new Date(invoice.dueDate).toLocaleDateString()}
+            </div>
+          )}
           {invoice.createdAt && (
             <div>
               <strong>Created:</strong> {new Date(invoice.createdAt).toLocaleDateString()}
@@ -121,6 +121,7 @@ export default function InvoicesPage() {
               <option value="">All Statuses</option>
               <option value="DRAFT">Draft</option>
               <option value="SENT">Sent</option>
+              <option value="OVERDUE">Overdue</option>
               <option value="PAID">Paid</option>
             </select>
           </div>
@@ -86,7 +86,7 @@ export function PaymentForm({ invoiceId, invoice, onSubmit, onCancel }: PaymentF
           >
             <option value="">Select an invoice</option>
             {invoices
-              .filter((inv) => inv.status === 'SENT')
+              .filter((inv) => inv.status === 'SENT' || inv.status === 'OVERDUE')
               .map((inv) => (
                 <option key={inv.id} value={inv.id}>
                   Invoice #{inv.id.substring(0, 8)} - ${inv.balance.toFixed(2)} ({inv.status})
@@ -8,12 +8,14 @@ export function StatusBadge({ status }: StatusBadgeProps) {
   const statusStyles = {
     DRAFT: 'bg-gray-100 text-gray-700 border border-gray-300',
     SENT: 'bg-primary-100 text-primary-700 border border-primary-300',
+    OVERDUE: 'bg-red-100 text-red-700 border border-red-300',
     PAID: 'bg-green-100 text-green-700 border border-green-300',
   };
 
   const statusLabels = {
     DRAFT: 'Draft',
     SENT: 'Sent',
+    OVERDUE: 'Overdue',
     PAID: 'Paid',
   };
 
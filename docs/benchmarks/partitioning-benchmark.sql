@@ -0,0 +1,82 @@
+-- Partitioned vs unpartitioned payments at 50M rows: query latency and vacuum cost.
+--
+-- Usage (scratch database, ~20 GB free disk):
+--   psql -d invoiceme_bench -f docs/benchmarks/partitioning-benchmark.sql
+-- Record the "Execution Time" lines and the \timing output of the VACUUM statements in
+-- docs/performance-test-results.md.
+
+\timing on
+
+DROP TABLE IF EXISTS bench_payments_flat;
+DROP TABLE IF EXISTS bench_payments_part;
+
+CREATE TABLE bench_payments_flat (
+    id uuid NOT NULL,
+    invoice_id uuid NOT NULL,
+    amount numeric(19,2) NOT NULL,
+    payment_date timestamp(6) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    version bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+CREATE TABLE bench_payments_part (LIKE bench_payments_flat INCLUDING DEFAULTS) PARTITION BY RANGE (payment_date);
+
+-- 60 months of partitions covering the generated data
+DO $$
+DECLARE month date := date '2021-01-01';
+BEGIN
+    WHILE month < date '2026-01-01' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF bench_payments_part FOR VALUES FROM (%L) TO (%L)',
+                'bench_payments_part_p' || to_char(month, 'YYYY_MM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END $$;
+
+-- 50M payments spread uniformly over five years
+INSERT INTO bench_payments_flat (id, invoice_id, amount, payment_date, created_at)
+SELECT gen_random_uuid(), gen_random_uuid(), (random() * 1000)::numeric(19,2),
+       ts, ts
+  FROM (SELECT timestamp '2021-01-01' + (random() * interval '1825 days') AS ts
+          FROM generate_series(1, 50000000)) s;
+INSERT INTO bench_payments_part SELECT * FROM bench_payments_flat;
+
+CREATE INDEX ON bench_payments_flat (payment_date, id);
+CREATE INDEX ON bench_payments_flat (invoice_id);
+ALTER TABLE bench_payments_part ADD PRIMARY KEY (id, payment_date);
+CREATE INDEX ON bench_payments_part (payment_date, id);
+CREATE INDEX ON bench_payments_part (invoice_id);
+VACUUM ANALYZE bench_payments_flat;
+VACUUM ANALYZE bench_payments_part;
+
+-- 1. Last month's payments, first keyset page (GET /api/payments?from=...&to=...)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_payments_flat
+ WHERE payment_date >= '2025-12-01' AND payment_date < '2026-01-01'
+ ORDER BY payment_date, id LIMIT 51;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_payments_part
+ WHERE payment_date >= '2025-12-01' AND payment_date < '2026-01-01'
+ ORDER BY payment_date, id LIMIT 51;
+
+-- 2. Monthly aggregate (reporting)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT sum(amount) FROM bench_payments_flat WHERE payment_date >= '2025-12-01' AND payment_date < '2026-01-01';
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT sum(amount) FROM bench_payments_part WHERE payment_date >= '2025-12-01' AND payment_date < '2026-01-01';
+
+-- 3. Lookup by id without the partition key (GET /api/payments/{id}); the partitioned table probes all 60 indexes
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_payments_flat WHERE id = (SELECT id FROM bench_payments_flat LIMIT 1);
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_payments_part WHERE id = (SELECT id FROM bench_payments_part LIMIT 1);
+
+-- 4. Vacuum cost after churn concentrated in the current month (updates touch recent rows)
+UPDATE bench_payments_flat SET version = version + 1 WHERE payment_date >= '2025-12-01';
+UPDATE bench_payments_part SET version = version + 1 WHERE payment_date >= '2025-12-01';
+VACUUM (VERBOSE) bench_payments_flat;
+VACUUM (VERBOSE) bench_payments_part_p2025_12;
+
+-- 5. Retention: dropping a month of old data
+DELETE FROM bench_payments_flat WHERE payment_date < '2021-02-01';
+ALTER TABLE bench_payments_part DETACH PARTITION bench_payments_part_p2021_01;
+DROP TABLE bench_payments_part_p2021_01;
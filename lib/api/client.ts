@@ -1,4 +1,5 @@
-import axios, { AxiosInstance, AxiosError } from 'axios';
+import axios, { AxiosInstance, AxiosError, InternalAxiosRequestConfig } from 'axios';
+import { LoginResponse } from '../../types/auth';
 
 /**
  * Base API client configuration.
@@ -28,20 +29,58 @@ apiClient.interceptors.request.use(
   }
 );
 
+let refreshing: Promise<string | null> | null = null;
+
+/**
+ * Exchanges the stored refresh token for a new access token. Concurrent callers share one
+ * request, since each refresh token can only be used once.
+ */
+function refreshAccessToken(): Promise<string | null> {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('authRefreshToken');
+    refreshing = (refreshToken
+      ? axios
+          .post<LoginResponse>('/api/auth/refresh', { refreshToken })
+          .then((response) => {
+            localStorage.setItem('authToken', response.data.token);
+            localStorage.setItem('authRefreshToken', response.data.refreshToken);
+            return response.data.token;
+          })
+          .catch(() => null)
+      : Promise.resolve(null)
+    ).finally(() => {
+      refreshing = null;
+    });
+  }
+  return refreshing;
+}
+
 /**
  * Response interceptor for handling common errors.
  */
 apiClient.interceptors.response.use(
   (response) => response,
-  (error: AxiosError) => {
+  async (error: AxiosError) => {
     // Handle common error cases
     if (error.response) {
       // Server responded with error status
       const status = error.response.status;
+      const request = error.config as (InternalAxiosRequestConfig & { retried?: boolean }) | undefined;
+      
+      if ((status === 401 || status === 403) && request && !request.retried && !request.url?.startsWith('/auth/')) {
+        // The access token has likely expired - refresh it once and retry
+        const token = await refreshAccessToken();
+        if (token) {
+          request.retried = true;
+          request.headers.Authorization = `Bearer ${token}`;
+          return apiClient(request);
+        }
+      }
       
       if (status === 401 || status === 403) {
         // Unauthorized or Forbidden - redirect to login
         localStorage.removeItem('authToken');
+        localStorage.removeItem('authRefreshToken');
         localStorage.removeItem('authEmail');
         // Only redirect if we're not already on the login page
         if (window.location.pathname !== '/login') {
@@ -17,6 +17,7 @@ interface AuthContextType {
 const AuthContext = createContext<AuthContextType | undefined>(undefined);
 
 const TOKEN_KEY = 'authToken';
+const REFRESH_TOKEN_KEY = 'authRefreshToken';
 const EMAIL_KEY = 'authEmail';
 
 export function AuthProvider({ children }: { children: ReactNode }) {
@@ -44,6 +45,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
       setToken(response.token);
       setEmail(response.email);
       localStorage.setItem(TOKEN_KEY, response.token);
+      localStorage.setItem(REFRESH_TOKEN_KEY, response.refreshToken);
       localStorage.setItem(EMAIL_KEY, response.email);
       router.push('/customers');
     } catch (error) {
@@ -53,7 +55,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
 
   const logout = async () => {
     try {
-      await authApi.logout();
+      await authApi.logout(localStorage.getItem(REFRESH_TOKEN_KEY));
     } catch (error) {
       // Continue with logout even if API call fails
       console.error('Logout error:', error);
@@ -61,6 +63,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
       setToken(null);
       setEmail(null);
       localStorage.removeItem(TOKEN_KEY);
+      localStorage.removeItem(REFRESH_TOKEN_KEY);
       localStorage.removeItem(EMAIL_KEY);
       router.push('/login');
     }
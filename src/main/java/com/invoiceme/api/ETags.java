@@ -0,0 +1,52 @@
+package com.invoiceme.api;
+
+/**
+ * Strong entity tags derived from the JPA {@code @Version} of an aggregate.
+ * Lets GET endpoints answer {@code If-None-Match} from a version lookup without
+ * loading or serializing the full resource.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    /**
+     * Returns the quoted strong ETag for the given version, or null if the entity has not been persisted yet.
+     */
+    public static String fromVersion(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Returns the ETag for a document rendered from the given invoice and customer versions. The
+     * layout version is part of the tag, so a renderer change invalidates documents that clients
+     * have already cached. A missing customer is tagged as {@code -}.
+     */
+    public static String fromDocumentVersion(int layoutVersion, Long version, Long customerVersion) {
+        return version != null
+                ? "\"" + layoutVersion + "." + version + "." + (customerVersion != null ? customerVersion : "-") + "\""
+                : null;
+    }
+
+    /**
+     * Checks an If-None-Match header value (a list of tags or "*") against the current ETag.
+     * Weak validators are compared by their opaque tag, as RFC 9110 requires for If-None-Match.
+     */
+    public static boolean matches(String ifNoneMatch, String currentETag) {
+        if (ifNoneMatch == null || currentETag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(currentETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.invoiceme.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.nio.file.Path;
+
+/**
+ * Hands a file body to Tomcat's sendfile support, so the connector copies it from the page
+ * cache to the socket without passing it through the JVM heap.
+ *
+ * When {@link #offer} returns true the controller must set the Content-Length and send no body;
+ * Tomcat writes the file once the response is committed. Small files are cheaper to copy than
+ * to hand off, and other containers ignore the request attributes, so those are streamed as usual.
+ */
+public final class Sendfile {
+
+    private static final String SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /** Tomcat's own default for sendfileSize: below this the regular write path is faster. */
+    private static final long MIN_SIZE = 48 * 1024;
+
+    private Sendfile() {}
+
+    public static boolean offer(HttpServletRequest request, Path file, long length) {
+        if (length < MIN_SIZE || !Boolean.TRUE.equals(request.getAttribute(SUPPORT_ATTR))) {
+            return false;
+        }
+        request.setAttribute(FILENAME_ATTR, file.toAbsolutePath().toString());
+        request.setAttribute(START_ATTR, 0L);
+        request.setAttribute(END_ATTR, length);
+        return true;
+    }
+}
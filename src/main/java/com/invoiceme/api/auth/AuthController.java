@@ -3,69 +3,135 @@ package com.invoiceme.api.auth;
 import com.invoiceme.domain.user.User;
 import com.invoiceme.infrastructure.persistence.user.UserRepository;
 import com.invoiceme.infrastructure.security.JwtUtil;
+import com.invoiceme.infrastructure.security.PasswordHashingExecutor;
+import com.invoiceme.infrastructure.security.RefreshTokenService;
+import com.invoiceme.infrastructure.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Login, registration, token refresh and logout. Password hashing runs on the
+ * {@link PasswordHashingExecutor} and the handlers return futures, so request threads are
+ * released while BCrypt works and an auth spike cannot occupy the threads serving the rest of
+ * the API. What follows the hash, saving the user and issuing the refresh token, runs on the
+ * application task executor, so the hashing threads never wait on the database.
+ * Logout revokes the access token and, when given, the refresh token's session.
+ */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashing;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final Executor requestExecutor;
     
     public AuthController(
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder,
-            JwtUtil jwtUtil) {
+            PasswordHashingExecutor passwordHashing,
+            JwtUtil jwtUtil,
+            RefreshTokenService refreshTokenService,
+            TokenRevocationList tokenRevocationList,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor requestExecutor) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.requestExecutor = requestExecutor;
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
         User user = userRepository.findByEmail(request.email())
                 .orElse(null);
         
-        if (user == null || !passwordEncoder.matches(request.password(), user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("Invalid email or password"));
+        if (user == null) {
+            return CompletableFuture.completedFuture(invalidCredentials());
         }
         
-        String token = jwtUtil.generateToken(user.getEmail());
-        return ResponseEntity.ok(new LoginResponse(token, user.getEmail()));
+        return passwordHashing.matches(request.password(), user.getPassword())
+                .thenApplyAsync(matches -> matches ? loggedIn(user) : invalidCredentials(), requestExecutor);
     }
     
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
         // Check if user already exists
         if (userRepository.findByEmail(request.email()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(new ErrorResponse("User with this email already exists"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("User with this email already exists")));
         }
         
         // Create new user with hashed password
-        String hashedPassword = passwordEncoder.encode(request.password());
-        User newUser = new User(request.email(), hashedPassword);
-        User savedUser = userRepository.save(newUser);
-        
-        // Generate token and return
-        String token = jwtUtil.generateToken(savedUser.getEmail());
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new LoginResponse(token, savedUser.getEmail()));
+        return passwordHashing.encode(request.password()).thenApplyAsync(hashedPassword -> {
+            User savedUser = userRepository.save(new User(request.email(), hashedPassword));
+            
+            // Generate tokens and return
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(tokens(savedUser, refreshTokenService.issue(savedUser.getId())));
+        }, requestExecutor);
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        return refreshTokenService.rotate(request.refreshToken())
+                .flatMap(rotation -> userRepository.findById(rotation.userId())
+                        .map(user -> tokens(user, rotation.refreshToken())))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ErrorResponse("Invalid or expired refresh token")));
     }
     
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // With JWT, logout is handled client-side by removing the token
-        // No server-side session to invalidate
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) LogoutRequest request) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.parse(authorization.substring(7));
+                if (claims.getId() != null) {
+                    tokenRevocationList.revoke(UUID.fromString(claims.getId()),
+                            LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // An invalid or expired token grants nothing and needs no revoking
+            }
+        }
+        if (request != null && request.refreshToken() != null) {
+            refreshTokenService.revoke(request.refreshToken());
+        }
         return ResponseEntity.ok().build();
     }
     
+    private ResponseEntity<?> loggedIn(User user) {
+        return ResponseEntity.ok(tokens(user, refreshTokenService.issue(user.getId())));
+    }
+    
+    private LoginResponse tokens(User user, String refreshToken) {
+        return new LoginResponse(jwtUtil.generateToken(user.getEmail(), user.getRole()), user.getEmail(), refreshToken,
+                jwtUtil.getExpirationMs() / 1000);
+    }
+    
+    private static ResponseEntity<?> invalidCredentials() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("Invalid email or password"));
+    }
+    
     // Helper class for error responses
     private record ErrorResponse(String message) {}
 }
@@ -0,0 +1,32 @@
+package com.invoiceme.api.auth;
+
+import com.invoiceme.infrastructure.security.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publishes the public keys access tokens are signed with, so a gateway can verify tokens
+ * without calling the API. Shared HMAC keys are never published; while only those are in
+ * use the key set is empty.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<String> jwks() {
+        // Short enough that a gateway sees a new key well before it becomes the active one
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyRing.jwks());
+    }
+}
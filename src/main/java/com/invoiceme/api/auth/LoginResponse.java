@@ -1,8 +1,12 @@
 package com.invoiceme.api.auth;
 
+/**
+ * Tokens for an authenticated session: a short-lived access token for the Authorization
+ * header, valid for {@code expiresIn} seconds, and a refresh token to obtain the next one.
+ */
 public record LoginResponse(
     String token,
-    String email
+    String email,
+    String refreshToken,
+    long expiresIn
 ) {}
-
-
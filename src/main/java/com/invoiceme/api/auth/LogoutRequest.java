@@ -0,0 +1,8 @@
+package com.invoiceme.api.auth;
+
+/**
+ * Optional logout body; when the refresh token is given, the session it belongs to ends too.
+ */
+public record LogoutRequest(
+    String refreshToken
+) {}
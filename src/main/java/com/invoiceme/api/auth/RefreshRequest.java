@@ -0,0 +1,8 @@
+package com.invoiceme.api.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+    @NotBlank(message = "Refresh token is required")
+    String refreshToken
+) {}
@@ -0,0 +1,61 @@
+package com.invoiceme.api.billing;
+
+import com.invoiceme.application.commands.billing.StartBillingRunCommand;
+import com.invoiceme.application.commands.billing.StartBillingRunCommandHandler;
+import com.invoiceme.application.queries.billing.GetBillingRunQuery;
+import com.invoiceme.application.queries.billing.GetBillingRunQueryHandler;
+import com.invoiceme.domain.billing.BillingRun;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/billing-runs")
+public class BillingRunController {
+    private final StartBillingRunCommandHandler startBillingRunCommandHandler;
+    private final GetBillingRunQueryHandler getBillingRunQueryHandler;
+    
+    public BillingRunController(
+            StartBillingRunCommandHandler startBillingRunCommandHandler,
+            GetBillingRunQueryHandler getBillingRunQueryHandler) {
+        this.startBillingRunCommandHandler = startBillingRunCommandHandler;
+        this.getBillingRunQueryHandler = getBillingRunQueryHandler;
+    }
+    
+    /**
+     * Starts, or resumes, the run for a billing cycle. The run continues in the background;
+     * poll the returned run for progress.
+     */
+    @PreAuthorize("hasAuthority('BILLING_WRITE')")
+    @PostMapping
+    public ResponseEntity<BillingRunDto> startBillingRun(@Valid @RequestBody StartBillingRunRequest request) {
+        BillingRun run = startBillingRunCommandHandler.handle(new StartBillingRunCommand(request.getBillingCycle()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(run));
+    }
+    
+    @PreAuthorize("hasAuthority('BILLING_READ')")
+    @GetMapping("/{id}")
+    public ResponseEntity<BillingRunDto> getBillingRun(@PathVariable UUID id) {
+        return getBillingRunQueryHandler.handle(new GetBillingRunQuery(id))
+                .map(run -> ResponseEntity.ok(toDto(run)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private BillingRunDto toDto(BillingRun run) {
+        return new BillingRunDto(
+                run.getId(),
+                run.getBillingCycle(),
+                run.getStatus(),
+                run.getTemplatesTotal(),
+                run.getInvoicesCreated(),
+                run.invoicesPerSecond(LocalDateTime.now()),
+                run.getStartedAt(),
+                run.getFinishedAt(),
+                run.getLastError());
+    }
+}
@@ -0,0 +1,107 @@
+package com.invoiceme.api.billing;
+
+import com.invoiceme.domain.billing.BillingRunStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class BillingRunDto {
+    private UUID id;
+    private LocalDate billingCycle;
+    private BillingRunStatus status;
+    private int templatesTotal;
+    private int invoicesCreated;
+    private double invoicesPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+    
+    public BillingRunDto() {}
+    
+    public BillingRunDto(UUID id, LocalDate billingCycle, BillingRunStatus status, int templatesTotal,
+                         int invoicesCreated, double invoicesPerSecond, LocalDateTime startedAt,
+                         LocalDateTime finishedAt, String lastError) {
+        this.id = id;
+        this.billingCycle = billingCycle;
+        this.status = status;
+        this.templatesTotal = templatesTotal;
+        this.invoicesCreated = invoicesCreated;
+        this.invoicesPerSecond = invoicesPerSecond;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.lastError = lastError;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public LocalDate getBillingCycle() {
+        return billingCycle;
+    }
+    
+    public void setBillingCycle(LocalDate billingCycle) {
+        this.billingCycle = billingCycle;
+    }
+    
+    public BillingRunStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BillingRunStatus status) {
+        this.status = status;
+    }
+    
+    public int getTemplatesTotal() {
+        return templatesTotal;
+    }
+    
+    public void setTemplatesTotal(int templatesTotal) {
+        this.templatesTotal = templatesTotal;
+    }
+    
+    public int getInvoicesCreated() {
+        return invoicesCreated;
+    }
+    
+    public void setInvoicesCreated(int invoicesCreated) {
+        this.invoicesCreated = invoicesCreated;
+    }
+    
+    public double getInvoicesPerSecond() {
+        return invoicesPerSecond;
+    }
+    
+    public void setInvoicesPerSecond(double invoicesPerSecond) {
+        this.invoicesPerSecond = invoicesPerSecond;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
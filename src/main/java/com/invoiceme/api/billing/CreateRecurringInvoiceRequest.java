@@ -0,0 +1,27 @@
+package com.invoiceme.api.billing;
+
+import com.invoiceme.api.invoices.AddLineItemRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class CreateRecurringInvoiceRequest {
+    @NotEmpty(message = "At least one line item is required")
+    @Valid
+    private List<AddLineItemRequest> lineItems;
+    
+    public CreateRecurringInvoiceRequest() {}
+    
+    public CreateRecurringInvoiceRequest(List<AddLineItemRequest> lineItems) {
+        this.lineItems = lineItems;
+    }
+    
+    public List<AddLineItemRequest> getLineItems() {
+        return lineItems;
+    }
+    
+    public void setLineItems(List<AddLineItemRequest> lineItems) {
+        this.lineItems = lineItems;
+    }
+}
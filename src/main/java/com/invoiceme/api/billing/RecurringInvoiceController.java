@@ -0,0 +1,76 @@
+package com.invoiceme.api.billing;
+
+import com.invoiceme.application.commands.billing.*;
+import com.invoiceme.application.queries.billing.ListRecurringInvoicesQuery;
+import com.invoiceme.application.queries.billing.ListRecurringInvoicesQueryHandler;
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recurring invoice templates of a customer, billed by the monthly billing run.
+ */
+@RestController
+@RequestMapping("/api/customers/{customerId}/recurring-invoices")
+public class RecurringInvoiceController {
+    private final CreateRecurringInvoiceCommandHandler createRecurringInvoiceCommandHandler;
+    private final DeactivateRecurringInvoiceCommandHandler deactivateRecurringInvoiceCommandHandler;
+    private final ListRecurringInvoicesQueryHandler listRecurringInvoicesQueryHandler;
+    
+    public RecurringInvoiceController(
+            CreateRecurringInvoiceCommandHandler createRecurringInvoiceCommandHandler,
+            DeactivateRecurringInvoiceCommandHandler deactivateRecurringInvoiceCommandHandler,
+            ListRecurringInvoicesQueryHandler listRecurringInvoicesQueryHandler) {
+        this.createRecurringInvoiceCommandHandler = createRecurringInvoiceCommandHandler;
+        this.deactivateRecurringInvoiceCommandHandler = deactivateRecurringInvoiceCommandHandler;
+        this.listRecurringInvoicesQueryHandler = listRecurringInvoicesQueryHandler;
+    }
+    
+    @PreAuthorize("hasAuthority('BILLING_WRITE')")
+    @PostMapping
+    public ResponseEntity<RecurringInvoiceDto> createRecurringInvoice(
+            @PathVariable UUID customerId,
+            @Valid @RequestBody CreateRecurringInvoiceRequest request) {
+        CreateRecurringInvoiceCommand command = new CreateRecurringInvoiceCommand(customerId,
+                request.getLineItems().stream()
+                        .map(item -> new CreateRecurringInvoiceCommand.LineItem(
+                                item.getDescription(), item.getQuantity(), item.getUnitPrice()))
+                        .toList());
+        RecurringInvoiceTemplate saved = createRecurringInvoiceCommandHandler.handle(command);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(saved));
+    }
+    
+    @PreAuthorize("hasAuthority('BILLING_READ')")
+    @GetMapping
+    public ResponseEntity<List<RecurringInvoiceDto>> listRecurringInvoices(@PathVariable UUID customerId) {
+        List<RecurringInvoiceDto> templates = listRecurringInvoicesQueryHandler.handle(new ListRecurringInvoicesQuery(customerId))
+                .stream()
+                .map(this::toDto)
+                .toList();
+        return ResponseEntity.ok(templates);
+    }
+    
+    @PreAuthorize("hasAuthority('BILLING_WRITE')")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<RecurringInvoiceDto> deactivateRecurringInvoice(@PathVariable UUID customerId, @PathVariable UUID id) {
+        RecurringInvoiceTemplate deactivated = deactivateRecurringInvoiceCommandHandler.handle(
+                new DeactivateRecurringInvoiceCommand(customerId, id));
+        return ResponseEntity.ok(toDto(deactivated));
+    }
+    
+    private RecurringInvoiceDto toDto(RecurringInvoiceTemplate template) {
+        return new RecurringInvoiceDto(
+                template.getId(),
+                template.getCustomerId(),
+                template.isActive(),
+                template.getLineItems().stream()
+                        .map(item -> new RecurringLineItemDto(item.getDescription(), item.getQuantity(), item.getUnitPrice()))
+                        .toList());
+    }
+}
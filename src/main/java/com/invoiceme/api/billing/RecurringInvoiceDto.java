@@ -0,0 +1,52 @@
+package com.invoiceme.api.billing;
+
+import java.util.List;
+import java.util.UUID;
+
+public class RecurringInvoiceDto {
+    private UUID id;
+    private UUID customerId;
+    private boolean active;
+    private List<RecurringLineItemDto> lineItems;
+    
+    public RecurringInvoiceDto() {}
+    
+    public RecurringInvoiceDto(UUID id, UUID customerId, boolean active, List<RecurringLineItemDto> lineItems) {
+        this.id = id;
+        this.customerId = customerId;
+        this.active = active;
+        this.lineItems = lineItems;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public UUID getCustomerId() {
+        return customerId;
+    }
+    
+    public void setCustomerId(UUID customerId) {
+        this.customerId = customerId;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+    
+    public List<RecurringLineItemDto> getLineItems() {
+        return lineItems;
+    }
+    
+    public void setLineItems(List<RecurringLineItemDto> lineItems) {
+        this.lineItems = lineItems;
+    }
+}
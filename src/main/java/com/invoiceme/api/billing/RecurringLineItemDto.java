@@ -0,0 +1,41 @@
+package com.invoiceme.api.billing;
+
+import java.math.BigDecimal;
+
+public class RecurringLineItemDto {
+    private String description;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    
+    public RecurringLineItemDto() {}
+    
+    public RecurringLineItemDto(String description, Integer quantity, BigDecimal unitPrice) {
+        this.description = description;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+}
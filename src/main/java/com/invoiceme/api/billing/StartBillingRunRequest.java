@@ -0,0 +1,24 @@
+package com.invoiceme.api.billing;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public class StartBillingRunRequest {
+    @NotNull(message = "Billing cycle is required")
+    private LocalDate billingCycle;
+    
+    public StartBillingRunRequest() {}
+    
+    public StartBillingRunRequest(LocalDate billingCycle) {
+        this.billingCycle = billingCycle;
+    }
+    
+    public LocalDate getBillingCycle() {
+        return billingCycle;
+    }
+    
+    public void setBillingCycle(LocalDate billingCycle) {
+        this.billingCycle = billingCycle;
+    }
+}
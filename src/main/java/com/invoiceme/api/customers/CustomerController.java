@@ -1,14 +1,30 @@
 package com.invoiceme.api.customers;
 
+import com.invoiceme.api.ETags;
 import com.invoiceme.application.commands.customer.*;
 import com.invoiceme.application.queries.customer.*;
 import com.invoiceme.domain.customer.Customer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -20,20 +36,33 @@ public class CustomerController {
     private final DeleteCustomerCommandHandler deleteCustomerCommandHandler;
     private final GetCustomerQueryHandler getCustomerQueryHandler;
     private final ListCustomersQueryHandler listCustomersQueryHandler;
+    private final GetCustomerVersionQueryHandler getCustomerVersionQueryHandler;
+    private final ImportCustomersCommandHandler importCustomersCommandHandler;
+    private final CustomerImportReader customerImportReader;
+    private final ObjectMapper objectMapper;
     
     public CustomerController(
             CreateCustomerCommandHandler createCustomerCommandHandler,
             UpdateCustomerCommandHandler updateCustomerCommandHandler,
             DeleteCustomerCommandHandler deleteCustomerCommandHandler,
             GetCustomerQueryHandler getCustomerQueryHandler,
-            ListCustomersQueryHandler listCustomersQueryHandler) {
+            ListCustomersQueryHandler listCustomersQueryHandler,
+            GetCustomerVersionQueryHandler getCustomerVersionQueryHandler,
+            ImportCustomersCommandHandler importCustomersCommandHandler,
+            CustomerImportReader customerImportReader,
+            ObjectMapper objectMapper) {
         this.createCustomerCommandHandler = createCustomerCommandHandler;
         this.updateCustomerCommandHandler = updateCustomerCommandHandler;
         this.deleteCustomerCommandHandler = deleteCustomerCommandHandler;
         this.getCustomerQueryHandler = getCustomerQueryHandler;
         this.listCustomersQueryHandler = listCustomersQueryHandler;
+        this.getCustomerVersionQueryHandler = getCustomerVersionQueryHandler;
+        this.importCustomersCommandHandler = importCustomersCommandHandler;
+        this.customerImportReader = customerImportReader;
+        this.objectMapper = objectMapper;
     }
     
+    @PreAuthorize("hasAuthority('CUSTOMERS_WRITE')")
     @PostMapping
     public ResponseEntity<CustomerDto> createCustomer(@Valid @RequestBody CreateCustomerRequest request) {
         CreateCustomerCommand command = new CreateCustomerCommand(request.getName(), request.getEmail());
@@ -43,18 +72,58 @@ public class CustomerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
     
+    /**
+     * Bulk import from a CSV or NDJSON upload. The response is an NDJSON stream with one
+     * result per input row, written as chunks are committed rather than buffered until the end.
+     */
+    @PreAuthorize("hasAuthority('CUSTOMERS_WRITE')")
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public void importCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body,
+            HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportCustomersCommand command = new ImportCustomersCommand(customerImportReader.read(reader, contentType));
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8))) {
+            importCustomersCommandHandler.handle(command, result -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(result));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+    
+    @PreAuthorize("hasAuthority('CUSTOMERS_READ')")
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDto> getCustomer(@PathVariable UUID id) {
+    public ResponseEntity<CustomerDto> getCustomer(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> currentETag = getCustomerVersionQueryHandler.handle(new GetCustomerVersionQuery(id))
+                    .map(ETags::fromVersion);
+            if (currentETag.isPresent() && ETags.matches(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+        
         GetCustomerQuery query = new GetCustomerQuery(id);
         return getCustomerQueryHandler.handle(query)
                 .map(customer -> {
                     CustomerDto dto = new CustomerDto(customer.getId(), customer.getName(), customer.getEmail());
-                    return ResponseEntity.ok(dto);
+                    return ResponseEntity.ok().eTag(ETags.fromVersion(customer.getVersion())).body(dto);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    @GetMapping
+    @PreAuthorize("hasAuthority('CUSTOMERS_READ')")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<CustomerDto>> listCustomers() {
         ListCustomersQuery query = new ListCustomersQuery();
         List<CustomerDto> customers = listCustomersQueryHandler.handle(query).stream()
@@ -63,6 +132,7 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
     
+    @PreAuthorize("hasAuthority('CUSTOMERS_WRITE')")
     @PutMapping("/{id}")
     public ResponseEntity<CustomerDto> updateCustomer(@PathVariable UUID id, @Valid @RequestBody CreateCustomerRequest request) {
         UpdateCustomerCommand command = new UpdateCustomerCommand(id, request.getName(), request.getEmail());
@@ -75,6 +145,7 @@ public class CustomerController {
         }
     }
     
+    @PreAuthorize("hasAuthority('CUSTOMERS_WRITE')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCustomer(@PathVariable UUID id) {
         DeleteCustomerCommand command = new DeleteCustomerCommand(id);
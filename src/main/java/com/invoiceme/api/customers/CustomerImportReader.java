@@ -0,0 +1,201 @@
+package com.invoiceme.api.customers;
+
+import com.invoiceme.application.commands.customer.CreateCustomerCommand;
+import com.invoiceme.application.commands.customer.ImportCustomerRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Lazily parses a CSV or NDJSON customer upload into import rows, one line at a time.
+ *
+ * CSV input needs a header row containing {@code name} and {@code email} columns; fields
+ * may be double-quoted but must not span lines. NDJSON input is one
+ * {@code {"name": ..., "email": ...}} object per line. Every row is validated with the
+ * same constraints as {@code POST /api/customers}.
+ */
+@Component
+public class CustomerImportReader {
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.APPLICATION_NDJSON;
+    
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    public CustomerImportReader(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+    
+    public Iterator<ImportCustomerRow> read(BufferedReader reader, MediaType contentType) {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvRows(reader);
+        }
+        if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonRows(reader);
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+    
+    private ImportCustomerRow validate(long lineNumber, String name, String email) {
+        String trimmedName = name != null ? name.trim() : null;
+        String trimmedEmail = email != null ? email.trim() : null;
+        Set<ConstraintViolation<CreateCustomerCommand>> violations =
+                validator.validate(new CreateCustomerCommand(trimmedName, trimmedEmail));
+        if (!violations.isEmpty()) {
+            return ImportCustomerRow.invalid(lineNumber, trimmedEmail, violations.iterator().next().getMessage());
+        }
+        return ImportCustomerRow.valid(lineNumber, trimmedName, trimmedEmail);
+    }
+    
+    /**
+     * Iterates over non-blank lines, tracking physical line numbers for error reporting.
+     */
+    private abstract static class LineRows implements Iterator<ImportCustomerRow> {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private String nextLine;
+        
+        LineRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        protected String readLine() {
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                } while (line != null && line.isBlank());
+                return line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        protected long lineNumber() {
+            return lineNumber;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (nextLine == null) {
+                nextLine = readLine();
+            }
+            return nextLine != null;
+        }
+        
+        @Override
+        public ImportCustomerRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = null;
+            return parse(lineNumber, line);
+        }
+        
+        protected abstract ImportCustomerRow parse(long lineNumber, String line);
+    }
+    
+    private class CsvRows extends LineRows {
+        private int nameColumn = -1;
+        private int emailColumn = -1;
+        
+        CsvRows(BufferedReader reader) {
+            super(reader);
+            String header = readLine();
+            if (header == null) {
+                return;
+            }
+            List<String> columns = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+            for (int i = 0; i < columns.size(); i++) {
+                String column = columns.get(i).trim().toLowerCase(Locale.ROOT);
+                if (column.equals("name")) {
+                    nameColumn = i;
+                } else if (column.equals("email")) {
+                    emailColumn = i;
+                }
+            }
+            if (nameColumn < 0 || emailColumn < 0) {
+                throw new IllegalArgumentException("CSV header must contain 'name' and 'email' columns");
+            }
+        }
+        
+        @Override
+        protected ImportCustomerRow parse(long lineNumber, String line) {
+            List<String> fields;
+            try {
+                fields = splitCsv(line);
+            } catch (IllegalArgumentException e) {
+                return ImportCustomerRow.invalid(lineNumber, null, e.getMessage());
+            }
+            String name = nameColumn < fields.size() ? fields.get(nameColumn) : null;
+            String email = emailColumn < fields.size() ? fields.get(emailColumn) : null;
+            return validate(lineNumber, name, email);
+        }
+    }
+    
+    private class NdjsonRows extends LineRows {
+        NdjsonRows(BufferedReader reader) {
+            super(reader);
+        }
+        
+        @Override
+        protected ImportCustomerRow parse(long lineNumber, String line) {
+            try {
+                CreateCustomerRequest request = objectMapper.readValue(line, CreateCustomerRequest.class);
+                if (request == null) {
+                    return ImportCustomerRow.invalid(lineNumber, null, "Malformed JSON");
+                }
+                return validate(lineNumber, request.getName(), request.getEmail());
+            } catch (JsonProcessingException e) {
+                return ImportCustomerRow.invalid(lineNumber, null, "Malformed JSON");
+            }
+        }
+    }
+    
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
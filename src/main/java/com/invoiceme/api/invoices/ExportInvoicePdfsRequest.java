@@ -0,0 +1,25 @@
+package com.invoiceme.api.invoices;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+public class ExportInvoicePdfsRequest {
+    @NotEmpty(message = "At least one invoice ID is required")
+    private List<UUID> invoiceIds;
+    
+    public ExportInvoicePdfsRequest() {}
+    
+    public ExportInvoicePdfsRequest(List<UUID> invoiceIds) {
+        this.invoiceIds = invoiceIds;
+    }
+    
+    public List<UUID> getInvoiceIds() {
+        return invoiceIds;
+    }
+    
+    public void setInvoiceIds(List<UUID> invoiceIds) {
+        this.invoiceIds = invoiceIds;
+    }
+}
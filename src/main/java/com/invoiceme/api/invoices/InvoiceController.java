@@ -1,18 +1,37 @@
 package com.invoiceme.api.invoices;
 
+import com.invoiceme.api.ETags;
+import com.invoiceme.api.Sendfile;
 import com.invoiceme.application.commands.invoice.*;
 import com.invoiceme.application.queries.invoice.*;
 import com.invoiceme.domain.invoice.Invoice;
 import com.invoiceme.domain.invoice.InvoiceLineItem;
 import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import com.invoiceme.infrastructure.pdf.InvoicePdfRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @RestController
 @RequestMapping("/api/invoices")
@@ -21,24 +40,40 @@ public class InvoiceController {
     private final AddLineItemCommandHandler addLineItemCommandHandler;
     private final UpdateInvoiceCommandHandler updateInvoiceCommandHandler;
     private final SendInvoiceCommandHandler sendInvoiceCommandHandler;
+    private final ReconcileInvoiceTotalsCommandHandler reconcileInvoiceTotalsCommandHandler;
     private final GetInvoiceQueryHandler getInvoiceQueryHandler;
     private final ListInvoicesQueryHandler listInvoicesQueryHandler;
+    private final GetInvoiceVersionQueryHandler getInvoiceVersionQueryHandler;
+    private final GetInvoicePdfVersionQueryHandler getInvoicePdfVersionQueryHandler;
+    private final GetInvoicePdfQueryHandler getInvoicePdfQueryHandler;
+    private final ExportInvoicePdfsQueryHandler exportInvoicePdfsQueryHandler;
     
     public InvoiceController(
             CreateInvoiceCommandHandler createInvoiceCommandHandler,
             AddLineItemCommandHandler addLineItemCommandHandler,
             UpdateInvoiceCommandHandler updateInvoiceCommandHandler,
             SendInvoiceCommandHandler sendInvoiceCommandHandler,
+            ReconcileInvoiceTotalsCommandHandler reconcileInvoiceTotalsCommandHandler,
             GetInvoiceQueryHandler getInvoiceQueryHandler,
-            ListInvoicesQueryHandler listInvoicesQueryHandler) {
+            ListInvoicesQueryHandler listInvoicesQueryHandler,
+            GetInvoiceVersionQueryHandler getInvoiceVersionQueryHandler,
+            GetInvoicePdfVersionQueryHandler getInvoicePdfVersionQueryHandler,
+            GetInvoicePdfQueryHandler getInvoicePdfQueryHandler,
+            ExportInvoicePdfsQueryHandler exportInvoicePdfsQueryHandler) {
         this.createInvoiceCommandHandler = createInvoiceCommandHandler;
         this.addLineItemCommandHandler = addLineItemCommandHandler;
         this.updateInvoiceCommandHandler = updateInvoiceCommandHandler;
         this.sendInvoiceCommandHandler = sendInvoiceCommandHandler;
+        this.reconcileInvoiceTotalsCommandHandler = reconcileInvoiceTotalsCommandHandler;
         this.getInvoiceQueryHandler = getInvoiceQueryHandler;
         this.listInvoicesQueryHandler = listInvoicesQueryHandler;
+        this.getInvoiceVersionQueryHandler = getInvoiceVersionQueryHandler;
+        this.getInvoicePdfVersionQueryHandler = getInvoicePdfVersionQueryHandler;
+        this.getInvoicePdfQueryHandler = getInvoicePdfQueryHandler;
+        this.exportInvoicePdfsQueryHandler = exportInvoicePdfsQueryHandler;
     }
     
+    @PreAuthorize("hasAuthority('INVOICES_WRITE')")
     @PostMapping
     public ResponseEntity<InvoiceDto> createInvoice(@Valid @RequestBody CreateInvoiceRequest request) {
         CreateInvoiceCommand command = new CreateInvoiceCommand(request.getCustomerId());
@@ -48,21 +83,110 @@ public class InvoiceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
     
+    @PreAuthorize("hasAuthority('INVOICES_READ')")
     @GetMapping("/{id}")
-    public ResponseEntity<InvoiceDto> getInvoice(@PathVariable UUID id) {
+    public ResponseEntity<InvoiceDto> getInvoice(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Answer polling clients from the version column alone when nothing has changed
+        if (ifNoneMatch != null) {
+            Optional<String> currentETag = getInvoiceVersionQueryHandler.handle(new GetInvoiceVersionQuery(id))
+                    .map(ETags::fromVersion);
+            if (currentETag.isPresent() && ETags.matches(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+        
         GetInvoiceQuery query = new GetInvoiceQuery(id);
         return getInvoiceQueryHandler.handle(query)
-                .map(invoice -> ResponseEntity.ok(toDto(invoice)))
+                .map(invoice -> ResponseEntity.ok()
+                        .eTag(ETags.fromVersion(invoice.getVersion()))
+                        .body(toDto(invoice)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    @GetMapping
+    /**
+     * Serves the invoice as PDF from the rendered-document cache. Byte ranges are answered by
+     * Spring's resource region support; full downloads of large files go out through sendfile.
+     */
+    @PreAuthorize("hasAuthority('INVOICES_READ')")
+    @GetMapping(value = "/{id}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<Resource> getInvoicePdf(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            HttpServletRequest request) throws IOException {
+        if (ifNoneMatch != null) {
+            Optional<String> currentETag = getInvoicePdfVersionQueryHandler.handle(new GetInvoicePdfVersionQuery(id))
+                    .map(InvoiceController::documentETag);
+            if (currentETag.isPresent() && ETags.matches(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+        
+        Optional<InvoiceDocument> found = getInvoicePdfQueryHandler.handle(new GetInvoicePdfQuery(id));
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        InvoiceDocument document = found.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(documentETag(document.version()))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename(fileName(document.invoiceId())).build().toString());
+        Resource content = document.content();
+        if (range == null && content.isFile()) {
+            long length = content.contentLength();
+            if (Sendfile.offer(request, content.getFile().toPath(), length)) {
+                return response.contentLength(length).build();
+            }
+        }
+        return response.body(content);
+    }
+    
+    /**
+     * Renders a batch of invoices into a zip archive with one PDF per invoice, streamed
+     * entry by entry as the documents come off the render pool. Unknown ids are skipped.
+     */
+    @PreAuthorize("hasAuthority('INVOICES_READ')")
+    @PostMapping("/pdf")
+    public void exportInvoicePdfs(
+            @Valid @RequestBody ExportInvoicePdfsRequest request,
+            HttpServletResponse response) throws IOException {
+        ExportInvoicePdfsQuery query = new ExportInvoicePdfsQuery(request.getInvoiceIds());
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("invoices.zip").build().toString());
+        try (ZipOutputStream zip = new ZipOutputStream(response.getOutputStream())) {
+            // The content streams are small; favour render throughput over archive size
+            zip.setLevel(Deflater.BEST_SPEED);
+            exportInvoicePdfsQueryHandler.handle(query, pdf -> {
+                try {
+                    zip.putNextEntry(new ZipEntry(fileName(pdf.invoiceId())));
+                    zip.write(pdf.content());
+                    zip.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+    
+    @PreAuthorize("hasAuthority('INVOICES_READ')")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<InvoiceDto>> listInvoices(
             @RequestParam(required = false) UUID customerId,
-            @RequestParam(required = false) InvoiceStatus status) {
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
         ListInvoicesQuery query = new ListInvoicesQuery(
                 customerId != null ? java.util.Optional.of(customerId) : java.util.Optional.empty(),
-                status != null ? java.util.Optional.of(status) : java.util.Optional.empty()
+                status != null ? java.util.Optional.of(status) : java.util.Optional.empty(),
+                Optional.ofNullable(createdFrom),
+                Optional.ofNullable(createdBefore)
         );
         List<InvoiceDto> invoices = listInvoicesQueryHandler.handle(query).stream()
                 .map(this::toDto)
@@ -70,6 +194,7 @@ public class InvoiceController {
         return ResponseEntity.ok(invoices);
     }
     
+    @PreAuthorize("hasAuthority('INVOICES_WRITE')")
     @PutMapping("/{id}")
     public ResponseEntity<InvoiceDto> updateInvoice(
             @PathVariable UUID id,
@@ -80,6 +205,7 @@ public class InvoiceController {
         return ResponseEntity.ok(dto);
     }
     
+    @PreAuthorize("hasAuthority('INVOICES_WRITE')")
     @PostMapping("/{id}/send")
     public ResponseEntity<InvoiceDto> sendInvoice(@PathVariable UUID id) {
         SendInvoiceCommand command = new SendInvoiceCommand(id);
@@ -88,6 +214,20 @@ public class InvoiceController {
         return ResponseEntity.ok(dto);
     }
     
+    /**
+     * Recomputes the invoice's stored totals and status from its line items and payments,
+     * for invoices the totals consistency job reports.
+     */
+    @PreAuthorize("hasAuthority('INVOICES_WRITE')")
+    @PostMapping("/{id}/reconcile-totals")
+    public ResponseEntity<InvoiceDto> reconcileTotals(@PathVariable UUID id) {
+        ReconcileInvoiceTotalsCommand command = new ReconcileInvoiceTotalsCommand(id);
+        Invoice reconciled = reconcileInvoiceTotalsCommandHandler.handle(command);
+        InvoiceDto dto = toDto(reconciled);
+        return ResponseEntity.ok(dto);
+    }
+    
+    @PreAuthorize("hasAuthority('INVOICES_WRITE')")
     @PostMapping("/{id}/items")
     public ResponseEntity<InvoiceDto> addLineItem(
             @PathVariable UUID id,
@@ -103,6 +243,14 @@ public class InvoiceController {
         return ResponseEntity.ok(dto);
     }
     
+    private static String fileName(UUID invoiceId) {
+        return "invoice-" + invoiceId + ".pdf";
+    }
+    
+    private static String documentETag(DocumentVersion version) {
+        return ETags.fromDocumentVersion(InvoicePdfRenderer.LAYOUT_VERSION, version.invoiceVersion(), version.customerVersion());
+    }
+    
     private InvoiceDto toDto(Invoice invoice) {
         List<InvoiceLineItemDto> lineItemDtos = invoice.getLineItems().stream()
                 .map(this::toLineItemDto)
@@ -113,7 +261,10 @@ public class InvoiceController {
                 invoice.getCustomerId(),
                 invoice.getStatus(),
                 lineItemDtos,
+                invoice.getTotal(),
+                invoice.getAmountPaid(),
                 invoice.getBalance(),
+                invoice.getDueDate(),
                 invoice.getCreatedAt(),
                 invoice.getUpdatedAt()
         );
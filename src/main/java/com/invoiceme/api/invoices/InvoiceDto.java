@@ -3,6 +3,7 @@ package com.invoiceme.api.invoices;
 import com.invoiceme.domain.invoice.InvoiceStatus;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -12,7 +13,10 @@ public class InvoiceDto {
     private UUID customerId;
     private InvoiceStatus status;
     private List<InvoiceLineItemDto> lineItems;
+    private BigDecimal total;
+    private BigDecimal amountPaid;
     private BigDecimal balance;
+    private LocalDate dueDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -21,12 +25,16 @@ public class InvoiceDto {
     
     // Constructor with all fields
     public InvoiceDto(UUID id, UUID customerId, InvoiceStatus status, List<InvoiceLineItemDto> lineItems, 
-                     BigDecimal balance, LocalDateTime createdAt, LocalDateTime updatedAt) {
+                     BigDecimal total, BigDecimal amountPaid, BigDecimal balance, LocalDate dueDate,
+                     LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.customerId = customerId;
         this.status = status;
         this.lineItems = lineItems;
+        this.total = total;
+        this.amountPaid = amountPaid;
         this.balance = balance;
+        this.dueDate = dueDate;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -64,6 +72,22 @@ public class InvoiceDto {
         this.lineItems = lineItems;
     }
     
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+    
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+    
     public BigDecimal getBalance() {
         return balance;
     }
@@ -72,6 +96,14 @@ public class InvoiceDto {
         this.balance = balance;
     }
     
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,18 +1,32 @@
 package com.invoiceme.api.payments;
 
+import com.invoiceme.api.ETags;
 import com.invoiceme.application.commands.payment.RecordPaymentCommand;
 import com.invoiceme.application.commands.payment.RecordPaymentCommandHandler;
 import com.invoiceme.application.queries.payment.GetPaymentQuery;
 import com.invoiceme.application.queries.payment.GetPaymentQueryHandler;
+import com.invoiceme.application.queries.payment.GetPaymentVersionQuery;
+import com.invoiceme.application.queries.payment.GetPaymentVersionQueryHandler;
 import com.invoiceme.application.queries.payment.ListPaymentsQuery;
 import com.invoiceme.application.queries.payment.ListPaymentsQueryHandler;
+import com.invoiceme.application.queries.payment.PaymentCursor;
+import com.invoiceme.application.queries.payment.PaymentSearchResult;
+import com.invoiceme.application.queries.payment.SearchPaymentsQuery;
+import com.invoiceme.application.queries.payment.SearchPaymentsQueryHandler;
 import com.invoiceme.domain.payment.Payment;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,16 +36,23 @@ public class PaymentController {
     private final RecordPaymentCommandHandler recordPaymentCommandHandler;
     private final GetPaymentQueryHandler getPaymentQueryHandler;
     private final ListPaymentsQueryHandler listPaymentsQueryHandler;
+    private final GetPaymentVersionQueryHandler getPaymentVersionQueryHandler;
+    private final SearchPaymentsQueryHandler searchPaymentsQueryHandler;
     
     public PaymentController(
             RecordPaymentCommandHandler recordPaymentCommandHandler,
             GetPaymentQueryHandler getPaymentQueryHandler,
-            ListPaymentsQueryHandler listPaymentsQueryHandler) {
+            ListPaymentsQueryHandler listPaymentsQueryHandler,
+            GetPaymentVersionQueryHandler getPaymentVersionQueryHandler,
+            SearchPaymentsQueryHandler searchPaymentsQueryHandler) {
         this.recordPaymentCommandHandler = recordPaymentCommandHandler;
         this.getPaymentQueryHandler = getPaymentQueryHandler;
         this.listPaymentsQueryHandler = listPaymentsQueryHandler;
+        this.getPaymentVersionQueryHandler = getPaymentVersionQueryHandler;
+        this.searchPaymentsQueryHandler = searchPaymentsQueryHandler;
     }
     
+    @PreAuthorize("hasAuthority('PAYMENTS_WRITE')")
     @PostMapping
     public ResponseEntity<PaymentDto> recordPayment(@Valid @RequestBody RecordPaymentRequest request) {
         RecordPaymentCommand command = new RecordPaymentCommand(
@@ -44,15 +65,53 @@ public class PaymentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
     
+    @PreAuthorize("hasAuthority('PAYMENTS_READ')")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PaymentPageDto> searchPayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        SearchPaymentsQuery query = new SearchPaymentsQuery(
+                Optional.ofNullable(from),
+                Optional.ofNullable(to),
+                Optional.ofNullable(minAmount),
+                Optional.ofNullable(maxAmount),
+                Optional.ofNullable(customerId),
+                Optional.ofNullable(after).map(PaymentCursor::decode),
+                limit != null ? limit : SearchPaymentsQuery.DEFAULT_LIMIT
+        );
+        PaymentSearchResult result = searchPaymentsQueryHandler.handle(query);
+        List<PaymentDto> items = result.payments().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new PaymentPageDto(items, result.nextCursor().map(PaymentCursor::encode).orElse(null)));
+    }
+    
+    @PreAuthorize("hasAuthority('PAYMENTS_READ')")
     @GetMapping("/{id}")
-    public ResponseEntity<PaymentDto> getPayment(@PathVariable UUID id) {
+    public ResponseEntity<PaymentDto> getPayment(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> currentETag = getPaymentVersionQueryHandler.handle(new GetPaymentVersionQuery(id))
+                    .map(ETags::fromVersion);
+            if (currentETag.isPresent() && ETags.matches(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+        
         GetPaymentQuery query = new GetPaymentQuery(id);
         return getPaymentQueryHandler.handle(query)
-                .map(payment -> ResponseEntity.ok(toDto(payment)))
+                .map(payment -> ResponseEntity.ok().eTag(ETags.fromVersion(payment.getVersion())).body(toDto(payment)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    @GetMapping("/invoice/{invoiceId}")
+    @PreAuthorize("hasAuthority('PAYMENTS_READ')")
+    @GetMapping(value = "/invoice/{invoiceId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<PaymentDto>> listPaymentsForInvoice(@PathVariable UUID invoiceId) {
         ListPaymentsQuery query = new ListPaymentsQuery(invoiceId);
         List<PaymentDto> payments = listPaymentsQueryHandler.handle(query).stream()
@@ -0,0 +1,34 @@
+package com.invoiceme.api.payments;
+
+import java.util.List;
+
+public class PaymentPageDto {
+    private List<PaymentDto> items;
+    private String nextCursor;
+    
+    // Default constructor
+    public PaymentPageDto() {}
+    
+    // Constructor with all fields
+    public PaymentPageDto(List<PaymentDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and setters
+    public List<PaymentDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<PaymentDto> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
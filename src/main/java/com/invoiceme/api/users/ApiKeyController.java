@@ -0,0 +1,70 @@
+package com.invoiceme.api.users;
+
+import com.invoiceme.application.commands.user.CreateApiKeyCommand;
+import com.invoiceme.application.commands.user.CreateApiKeyCommandHandler;
+import com.invoiceme.application.commands.user.CreatedApiKey;
+import com.invoiceme.application.commands.user.RevokeApiKeyCommand;
+import com.invoiceme.application.commands.user.RevokeApiKeyCommandHandler;
+import com.invoiceme.application.queries.user.ListApiKeysQuery;
+import com.invoiceme.application.queries.user.ListApiKeysQueryHandler;
+import com.invoiceme.domain.user.ApiKey;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * API keys for machine clients, managed by admins. Clients send the key in the
+ * {@code X-API-Key} header.
+ */
+@RestController
+@RequestMapping("/api/api-keys")
+@PreAuthorize("hasAuthority('USERS_MANAGE')")
+public class ApiKeyController {
+    private final CreateApiKeyCommandHandler createApiKeyCommandHandler;
+    private final RevokeApiKeyCommandHandler revokeApiKeyCommandHandler;
+    private final ListApiKeysQueryHandler listApiKeysQueryHandler;
+    
+    public ApiKeyController(
+            CreateApiKeyCommandHandler createApiKeyCommandHandler,
+            RevokeApiKeyCommandHandler revokeApiKeyCommandHandler,
+            ListApiKeysQueryHandler listApiKeysQueryHandler) {
+        this.createApiKeyCommandHandler = createApiKeyCommandHandler;
+        this.revokeApiKeyCommandHandler = revokeApiKeyCommandHandler;
+        this.listApiKeysQueryHandler = listApiKeysQueryHandler;
+    }
+    
+    @PostMapping
+    public ResponseEntity<CreatedApiKeyDto> createApiKey(
+            @Valid @RequestBody CreateApiKeyRequest request,
+            Authentication authentication) {
+        CreatedApiKey created = createApiKeyCommandHandler.handle(new CreateApiKeyCommand(
+                request.getName(), request.getScopes(), request.getExpiresAt(), authentication.getName()));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new CreatedApiKeyDto(toDto(created.apiKey()), created.key()));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<ApiKeyDto>> listApiKeys() {
+        List<ApiKeyDto> apiKeys = listApiKeysQueryHandler.handle(new ListApiKeysQuery())
+                .stream()
+                .map(this::toDto)
+                .toList();
+        return ResponseEntity.ok(apiKeys);
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiKeyDto> revokeApiKey(@PathVariable UUID id) {
+        return ResponseEntity.ok(toDto(revokeApiKeyCommandHandler.handle(new RevokeApiKeyCommand(id))));
+    }
+    
+    private ApiKeyDto toDto(ApiKey apiKey) {
+        return new ApiKeyDto(apiKey.getId(), apiKey.getName(), apiKey.getPrefix(), apiKey.getScopes(),
+                apiKey.getCreatedBy(), apiKey.getCreatedAt(), apiKey.getExpiresAt(), apiKey.getRevokedAt());
+    }
+}
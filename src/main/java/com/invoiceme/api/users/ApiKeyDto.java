@@ -0,0 +1,96 @@
+package com.invoiceme.api.users;
+
+import com.invoiceme.domain.user.Permission;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+public class ApiKeyDto {
+    private UUID id;
+    private String name;
+    private String prefix;
+    private Set<Permission> scopes;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime revokedAt;
+    
+    public ApiKeyDto() {}
+    
+    public ApiKeyDto(UUID id, String name, String prefix, Set<Permission> scopes, String createdBy,
+                     LocalDateTime createdAt, LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        this.id = id;
+        this.name = name;
+        this.prefix = prefix;
+        this.scopes = scopes;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getPrefix() {
+        return prefix;
+    }
+    
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+    
+    public Set<Permission> getScopes() {
+        return scopes;
+    }
+    
+    public void setScopes(Set<Permission> scopes) {
+        this.scopes = scopes;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+    
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.invoiceme.api.users;
+
+import com.invoiceme.domain.user.Role;
+import jakarta.validation.constraints.NotNull;
+
+public class ChangeUserRoleRequest {
+    @NotNull(message = "Role is required")
+    private Role role;
+    
+    public ChangeUserRoleRequest() {}
+    
+    public ChangeUserRoleRequest(Role role) {
+        this.role = role;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public void setRole(Role role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,53 @@
+package com.invoiceme.api.users;
+
+import com.invoiceme.domain.user.Permission;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public class CreateApiKeyRequest {
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+    
+    @NotEmpty(message = "At least one scope is required")
+    private Set<Permission> scopes;
+    
+    /** Optional; the key does not expire when absent. */
+    private LocalDateTime expiresAt;
+    
+    public CreateApiKeyRequest() {}
+    
+    public CreateApiKeyRequest(String name, Set<Permission> scopes, LocalDateTime expiresAt) {
+        this.name = name;
+        this.scopes = scopes;
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Set<Permission> getScopes() {
+        return scopes;
+    }
+    
+    public void setScopes(Set<Permission> scopes) {
+        this.scopes = scopes;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
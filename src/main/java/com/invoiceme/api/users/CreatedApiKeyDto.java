@@ -0,0 +1,32 @@
+package com.invoiceme.api.users;
+
+/**
+ * A newly created API key. {@code key} is the only time the key value is returned.
+ */
+public class CreatedApiKeyDto {
+    private ApiKeyDto apiKey;
+    private String key;
+    
+    public CreatedApiKeyDto() {}
+    
+    public CreatedApiKeyDto(ApiKeyDto apiKey, String key) {
+        this.apiKey = apiKey;
+        this.key = key;
+    }
+    
+    public ApiKeyDto getApiKey() {
+        return apiKey;
+    }
+    
+    public void setApiKey(ApiKeyDto apiKey) {
+        this.apiKey = apiKey;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+}
@@ -0,0 +1,51 @@
+package com.invoiceme.api.users;
+
+import com.invoiceme.application.commands.user.ChangeUserRoleCommand;
+import com.invoiceme.application.commands.user.ChangeUserRoleCommandHandler;
+import com.invoiceme.application.queries.user.ListUsersQuery;
+import com.invoiceme.application.queries.user.ListUsersQueryHandler;
+import com.invoiceme.domain.user.User;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * User administration, reserved for admins.
+ */
+@RestController
+@RequestMapping("/api/users")
+@PreAuthorize("hasAuthority('USERS_MANAGE')")
+public class UserController {
+    private final ListUsersQueryHandler listUsersQueryHandler;
+    private final ChangeUserRoleCommandHandler changeUserRoleCommandHandler;
+    
+    public UserController(
+            ListUsersQueryHandler listUsersQueryHandler,
+            ChangeUserRoleCommandHandler changeUserRoleCommandHandler) {
+        this.listUsersQueryHandler = listUsersQueryHandler;
+        this.changeUserRoleCommandHandler = changeUserRoleCommandHandler;
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<UserDto>> listUsers() {
+        List<UserDto> users = listUsersQueryHandler.handle(new ListUsersQuery())
+                .stream()
+                .map(this::toDto)
+                .toList();
+        return ResponseEntity.ok(users);
+    }
+    
+    @PutMapping("/{id}/role")
+    public ResponseEntity<UserDto> changeRole(@PathVariable UUID id, @Valid @RequestBody ChangeUserRoleRequest request) {
+        User user = changeUserRoleCommandHandler.handle(new ChangeUserRoleCommand(id, request.getRole()));
+        return ResponseEntity.ok(toDto(user));
+    }
+    
+    private UserDto toDto(User user) {
+        return new UserDto(user.getId(), user.getEmail(), user.getRole());
+    }
+}
@@ -0,0 +1,19 @@
+package com.invoiceme.application.commands.billing;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record CreateRecurringInvoiceCommand(UUID customerId, List<LineItem> lineItems) {
+    public CreateRecurringInvoiceCommand {
+        if (customerId == null) {
+            throw new IllegalArgumentException("Customer ID is required");
+        }
+        if (lineItems == null || lineItems.isEmpty()) {
+            throw new IllegalArgumentException("A recurring invoice needs at least one line item");
+        }
+        lineItems = List.copyOf(lineItems);
+    }
+    
+    public record LineItem(String description, Integer quantity, BigDecimal unitPrice) {}
+}
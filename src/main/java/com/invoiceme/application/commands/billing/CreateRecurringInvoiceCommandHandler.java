@@ -0,0 +1,34 @@
+package com.invoiceme.application.commands.billing;
+
+import com.invoiceme.api.exceptions.NotFoundException;
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import com.invoiceme.domain.billing.TemplateLineItem;
+import com.invoiceme.infrastructure.persistence.billing.RecurringInvoiceTemplateRepository;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class CreateRecurringInvoiceCommandHandler {
+    private final RecurringInvoiceTemplateRepository templateRepository;
+    private final CustomerRepository customerRepository;
+    
+    public CreateRecurringInvoiceCommandHandler(
+            RecurringInvoiceTemplateRepository templateRepository,
+            CustomerRepository customerRepository) {
+        this.templateRepository = templateRepository;
+        this.customerRepository = customerRepository;
+    }
+    
+    @Transactional
+    public RecurringInvoiceTemplate handle(CreateRecurringInvoiceCommand command) {
+        if (!customerRepository.existsById(command.customerId())) {
+            throw new NotFoundException("Customer not found with id: " + command.customerId());
+        }
+        RecurringInvoiceTemplate template = new RecurringInvoiceTemplate(command.customerId(),
+                command.lineItems().stream()
+                        .map(item -> new TemplateLineItem(item.description(), item.quantity(), item.unitPrice()))
+                        .toList());
+        return templateRepository.save(template);
+    }
+}
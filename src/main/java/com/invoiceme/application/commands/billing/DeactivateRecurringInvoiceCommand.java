@@ -0,0 +1,5 @@
+package com.invoiceme.application.commands.billing;
+
+import java.util.UUID;
+
+public record DeactivateRecurringInvoiceCommand(UUID customerId, UUID templateId) {}
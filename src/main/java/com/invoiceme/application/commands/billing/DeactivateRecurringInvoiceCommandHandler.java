@@ -0,0 +1,28 @@
+package com.invoiceme.application.commands.billing;
+
+import com.invoiceme.api.exceptions.NotFoundException;
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import com.invoiceme.infrastructure.persistence.billing.RecurringInvoiceTemplateRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stops billing a template from the next billing run on. Invoices already generated are kept.
+ */
+@Service
+public class DeactivateRecurringInvoiceCommandHandler {
+    private final RecurringInvoiceTemplateRepository templateRepository;
+    
+    public DeactivateRecurringInvoiceCommandHandler(RecurringInvoiceTemplateRepository templateRepository) {
+        this.templateRepository = templateRepository;
+    }
+    
+    @Transactional
+    public RecurringInvoiceTemplate handle(DeactivateRecurringInvoiceCommand command) {
+        RecurringInvoiceTemplate template = templateRepository.findById(command.templateId())
+                .filter(found -> found.getCustomerId().equals(command.customerId()))
+                .orElseThrow(() -> new NotFoundException("Recurring invoice not found with id: " + command.templateId()));
+        template.deactivate();
+        return templateRepository.save(template);
+    }
+}
@@ -0,0 +1,11 @@
+package com.invoiceme.application.commands.billing;
+
+import java.time.LocalDate;
+
+public record StartBillingRunCommand(LocalDate billingCycle) {
+    public StartBillingRunCommand {
+        if (billingCycle == null || billingCycle.getDayOfMonth() != 1) {
+            throw new IllegalArgumentException("Billing cycle must be the first day of a month");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.invoiceme.application.commands.billing;
+
+import com.invoiceme.domain.billing.BillingRun;
+import com.invoiceme.domain.billing.BillingRunStatus;
+import com.invoiceme.infrastructure.billing.BillingRunEngine;
+import com.invoiceme.infrastructure.persistence.billing.BillingRunRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Starts the billing run for a cycle in the background and returns it immediately.
+ *
+ * Starting is idempotent: a completed run is returned as is, and a failed or interrupted
+ * run is resumed from the templates it has not billed yet rather than started over.
+ */
+@Service
+public class StartBillingRunCommandHandler {
+    private final BillingRunRepository billingRunRepository;
+    private final BillingRunEngine billingRunEngine;
+    
+    public StartBillingRunCommandHandler(BillingRunRepository billingRunRepository, BillingRunEngine billingRunEngine) {
+        this.billingRunRepository = billingRunRepository;
+        this.billingRunEngine = billingRunEngine;
+    }
+    
+    public BillingRun handle(StartBillingRunCommand command) {
+        BillingRun run = billingRunRepository.findByBillingCycle(command.billingCycle())
+                .orElseGet(() -> create(command));
+        if (run.getStatus() != BillingRunStatus.COMPLETED) {
+            billingRunEngine.submit(run);
+        }
+        return run;
+    }
+    
+    private BillingRun create(StartBillingRunCommand command) {
+        try {
+            return billingRunRepository.save(new BillingRun(command.billingCycle()));
+        } catch (DataIntegrityViolationException e) {
+            // Started concurrently, e.g. by the scheduled job on another node
+            return billingRunRepository.findByBillingCycle(command.billingCycle()).orElseThrow(() -> e);
+        }
+    }
+}
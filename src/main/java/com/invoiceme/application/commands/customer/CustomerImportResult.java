@@ -0,0 +1,17 @@
+package com.invoiceme.application.commands.customer;
+
+import java.util.UUID;
+
+public record CustomerImportResult(
+    long lineNumber,
+    String email,
+    Outcome outcome,
+    UUID customerId,
+    String message
+) {
+    public enum Outcome {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
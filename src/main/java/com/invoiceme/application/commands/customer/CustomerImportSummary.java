@@ -0,0 +1,11 @@
+package com.invoiceme.application.commands.customer;
+
+public record CustomerImportSummary(
+    long created,
+    long duplicates,
+    long invalid
+) {
+    public long total() {
+        return created + duplicates + invalid;
+    }
+}
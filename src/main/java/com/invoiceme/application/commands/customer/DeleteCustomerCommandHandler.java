@@ -1,5 +1,6 @@
 package com.invoiceme.application.commands.customer;
 
+import com.invoiceme.domain.customer.Customer;
 import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,10 +17,10 @@ public class DeleteCustomerCommandHandler {
     
     @Transactional
     public void handle(DeleteCustomerCommand command) {
-        if (!customerRepository.existsById(command.customerId())) {
-            throw new RuntimeException("Customer not found with id: " + command.customerId());
-        }
-        customerRepository.deleteById(command.customerId());
+        // Load through the entity cache and delete the managed instance so Hibernate evicts it
+        Customer customer = customerRepository.findById(command.customerId())
+                .orElseThrow(() -> new RuntimeException("Customer not found with id: " + command.customerId()));
+        customerRepository.delete(customer);
     }
 }
 
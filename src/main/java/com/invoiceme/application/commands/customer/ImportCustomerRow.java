@@ -0,0 +1,24 @@
+package com.invoiceme.application.commands.customer;
+
+/**
+ * One input row of a bulk customer import. Rows that could not be parsed or
+ * failed validation carry an error and are reported back without touching the database.
+ */
+public record ImportCustomerRow(
+    long lineNumber,
+    String name,
+    String email,
+    String error
+) {
+    public static ImportCustomerRow valid(long lineNumber, String name, String email) {
+        return new ImportCustomerRow(lineNumber, name, email, null);
+    }
+    
+    public static ImportCustomerRow invalid(long lineNumber, String email, String error) {
+        return new ImportCustomerRow(lineNumber, null, email, error);
+    }
+    
+    public boolean isValid() {
+        return error == null;
+    }
+}
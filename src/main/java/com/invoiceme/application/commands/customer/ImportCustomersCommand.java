@@ -0,0 +1,10 @@
+package com.invoiceme.application.commands.customer;
+
+import java.util.Iterator;
+
+/**
+ * Rows are pulled lazily so an import of any size is processed in bounded memory.
+ */
+public record ImportCustomersCommand(
+    Iterator<ImportCustomerRow> rows
+) {}
@@ -0,0 +1,129 @@
+package com.invoiceme.application.commands.customer;
+
+import com.invoiceme.application.commands.customer.CustomerImportResult.Outcome;
+import com.invoiceme.infrastructure.persistence.customer.CustomerBulkRepository;
+import com.invoiceme.infrastructure.persistence.customer.CustomerBulkRepository.NewCustomer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Loads customers in chunks. Each chunk checks its emails against the database
+ * with one query, then inserts the new customers as one JDBC batch in its own
+ * transaction, so a failed import keeps every chunk committed before it.
+ */
+@Service
+public class ImportCustomersCommandHandler {
+    private final CustomerBulkRepository customerBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    
+    public ImportCustomersCommandHandler(
+            CustomerBulkRepository customerBulkRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${invoiceme.import.customers.chunk-size:1000}") int chunkSize) {
+        this.customerBulkRepository = customerBulkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Imports every row, reporting one result per row to {@code onResult} in input order.
+     */
+    public CustomerImportSummary handle(ImportCustomersCommand command, Consumer<CustomerImportResult> onResult) {
+        long[] counts = new long[Outcome.values().length];
+        Consumer<CustomerImportResult> counting = result -> {
+            counts[result.outcome().ordinal()]++;
+            onResult.accept(result);
+        };
+        
+        Iterator<ImportCustomerRow> rows = command.rows();
+        List<ImportCustomerRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, counting);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, counting);
+        }
+        
+        return new CustomerImportSummary(
+                counts[Outcome.CREATED.ordinal()],
+                counts[Outcome.DUPLICATE.ordinal()],
+                counts[Outcome.INVALID.ordinal()]
+        );
+    }
+    
+    private void importChunk(List<ImportCustomerRow> chunk, Consumer<CustomerImportResult> onResult) {
+        // First occurrence of each email within the chunk is a candidate; later ones are duplicates
+        Map<String, ImportCustomerRow> candidates = new LinkedHashMap<>();
+        for (ImportCustomerRow row : chunk) {
+            if (row.isValid()) {
+                candidates.putIfAbsent(row.email(), row);
+            }
+        }
+        Set<String> existing = customerBulkRepository.findExistingEmails(candidates.keySet());
+        
+        LocalDateTime now = LocalDateTime.now();
+        Map<ImportCustomerRow, NewCustomer> toInsert = new LinkedHashMap<>();
+        for (ImportCustomerRow row : candidates.values()) {
+            if (!existing.contains(row.email())) {
+                toInsert.put(row, new NewCustomer(UUID.randomUUID(), row.name(), row.email(), now));
+            }
+        }
+        
+        Set<ImportCustomerRow> lostRace = insert(toInsert);
+        
+        for (ImportCustomerRow row : chunk) {
+            NewCustomer created = toInsert.get(row);
+            if (!row.isValid()) {
+                onResult.accept(new CustomerImportResult(row.lineNumber(), row.email(), Outcome.INVALID, null, row.error()));
+            } else if (created != null && !lostRace.contains(row)) {
+                onResult.accept(new CustomerImportResult(row.lineNumber(), row.email(), Outcome.CREATED, created.id(), null));
+            } else {
+                onResult.accept(new CustomerImportResult(row.lineNumber(), row.email(), Outcome.DUPLICATE, null,
+                        "A customer with this email already exists"));
+            }
+        }
+    }
+    
+    /**
+     * Inserts the chunk as one batch. If a concurrent writer claimed one of the emails
+     * after the pre-check, falls back to row-by-row inserts and returns the rows that lost.
+     */
+    private Set<ImportCustomerRow> insert(Map<ImportCustomerRow, NewCustomer> toInsert) {
+        if (toInsert.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    customerBulkRepository.insertAll(new ArrayList<>(toInsert.values())));
+            return Set.of();
+        } catch (DataIntegrityViolationException e) {
+            Set<ImportCustomerRow> lostRace = new HashSet<>();
+            toInsert.forEach((row, customer) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> customerBulkRepository.insert(customer));
+                } catch (DataIntegrityViolationException duplicate) {
+                    lostRace.add(row);
+                }
+            });
+            return lostRace;
+        }
+    }
+}
@@ -19,7 +19,7 @@ public class AddLineItemCommandHandler {
     
     @Transactional
     public Invoice handle(AddLineItemCommand command) {
-        Invoice invoice = invoiceRepository.findById(command.invoiceId())
+        Invoice invoice = invoiceRepository.findWithLineItemsById(command.invoiceId())
                 .orElseThrow(() -> new NotFoundException("Invoice not found with id: " + command.invoiceId()));
         
         InvoiceLineItem lineItem = new InvoiceLineItem(
@@ -0,0 +1,10 @@
+package com.invoiceme.application.commands.invoice;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record ReconcileInvoiceTotalsCommand(
+    @NotNull(message = "Invoice ID is required")
+    UUID invoiceId
+) {}
@@ -0,0 +1,47 @@
+package com.invoiceme.application.commands.invoice;
+
+import com.invoiceme.api.exceptions.NotFoundException;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Repairs one invoice's stored totals and status from its line items and payments, for
+ * invoices reported by the totals consistency job. The invoice row is locked before the
+ * payments are summed, so a payment recorded meanwhile either commits first and is counted,
+ * or fails its version check afterwards.
+ */
+@Service
+public class ReconcileInvoiceTotalsCommandHandler {
+    private static final Logger log = LoggerFactory.getLogger(ReconcileInvoiceTotalsCommandHandler.class);
+    
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    
+    public ReconcileInvoiceTotalsCommandHandler(
+            InvoiceRepository invoiceRepository,
+            PaymentRepository paymentRepository) {
+        this.invoiceRepository = invoiceRepository;
+        this.paymentRepository = paymentRepository;
+    }
+    
+    @Transactional
+    public Invoice handle(ReconcileInvoiceTotalsCommand command) {
+        Invoice invoice = invoiceRepository.findForUpdateById(command.invoiceId())
+                .orElseThrow(() -> new NotFoundException("Invoice not found with id: " + command.invoiceId()));
+        BigDecimal paid = paymentRepository.sumAmountByInvoiceId(command.invoiceId());
+        
+        if (invoice.reconcileTotals(paid, LocalDate.now())) {
+            log.info("Reconciled invoice {}: total {}, amount paid {}, balance {}, status {}",
+                    invoice.getId(), invoice.getTotal(), invoice.getAmountPaid(), invoice.getBalance(), invoice.getStatus());
+        }
+        return invoice;
+    }
+}
@@ -1,28 +1,72 @@
 package com.invoiceme.application.commands.invoice;
 
 import com.invoiceme.api.exceptions.NotFoundException;
+import com.invoiceme.domain.delivery.InvoiceDelivery;
+import com.invoiceme.domain.dunning.InvoiceDunning;
 import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.infrastructure.delivery.InvoiceDeliveryEnqueued;
+import com.invoiceme.infrastructure.dunning.DunningLadder;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.delivery.InvoiceDeliveryRepository;
+import com.invoiceme.infrastructure.persistence.dunning.InvoiceDunningRepository;
 import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.time.LocalDate;
 
+/**
+ * Marks an invoice as sent and queues its delivery to the customer in the same transaction,
+ * so a sent invoice is always delivered and a rolled-back send never is. The delivery
+ * itself happens on the delivery worker, off the request thread. The invoice falls due
+ * after the configured payment term, and is enrolled on the payment reminder ladder.
+ */
 @Service
 public class SendInvoiceCommandHandler {
     private final InvoiceRepository invoiceRepository;
+    private final CustomerRepository customerRepository;
+    private final InvoiceDeliveryRepository invoiceDeliveryRepository;
+    private final InvoiceDunningRepository invoiceDunningRepository;
+    private final DunningLadder dunningLadder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int paymentTermDays;
     
-    public SendInvoiceCommandHandler(InvoiceRepository invoiceRepository) {
+    public SendInvoiceCommandHandler(
+            InvoiceRepository invoiceRepository,
+            CustomerRepository customerRepository,
+            InvoiceDeliveryRepository invoiceDeliveryRepository,
+            InvoiceDunningRepository invoiceDunningRepository,
+            DunningLadder dunningLadder,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${invoiceme.invoices.payment-term-days:" + Invoice.DEFAULT_PAYMENT_TERM_DAYS + "}") int paymentTermDays) {
         this.invoiceRepository = invoiceRepository;
+        this.customerRepository = customerRepository;
+        this.invoiceDeliveryRepository = invoiceDeliveryRepository;
+        this.invoiceDunningRepository = invoiceDunningRepository;
+        this.dunningLadder = dunningLadder;
+        this.eventPublisher = eventPublisher;
+        this.paymentTermDays = paymentTermDays;
     }
     
     @Transactional
     public Invoice handle(SendInvoiceCommand command) {
-        Invoice invoice = invoiceRepository.findById(command.invoiceId())
+        Invoice invoice = invoiceRepository.findWithLineItemsById(command.invoiceId())
                 .orElseThrow(() -> new NotFoundException("Invoice not found with id: " + command.invoiceId()));
+        String recipient = customerRepository.findById(invoice.getCustomerId())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Cannot send invoice: customer no longer exists with id: " + invoice.getCustomerId()))
+                .getEmail();
         
-        invoice.markAsSent();
-        return invoiceRepository.save(invoice);
+        LocalDate today = LocalDate.now();
+        invoice.markAsSent(today.plusDays(paymentTermDays));
+        Invoice sent = invoiceRepository.save(invoice);
+        InvoiceDelivery delivery = invoiceDeliveryRepository.save(new InvoiceDelivery(sent.getId(), recipient));
+        if (!dunningLadder.isEmpty()) {
+            invoiceDunningRepository.save(new InvoiceDunning(sent.getId(), today, dunningLadder.reminderOn(today, 0)));
+        }
+        eventPublisher.publishEvent(new InvoiceDeliveryEnqueued(delivery.getId()));
+        return sent;
     }
 }
-
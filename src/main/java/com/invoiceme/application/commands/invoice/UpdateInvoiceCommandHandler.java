@@ -18,7 +18,7 @@ public class UpdateInvoiceCommandHandler {
     
     @Transactional
     public Invoice handle(UpdateInvoiceCommand command) {
-        Invoice invoice = invoiceRepository.findById(command.invoiceId())
+        Invoice invoice = invoiceRepository.findWithLineItemsById(command.invoiceId())
                 .orElseThrow(() -> new NotFoundException("Invoice not found with id: " + command.invoiceId()));
         
         invoice.updateCustomerId(command.customerId());
@@ -0,0 +1,7 @@
+package com.invoiceme.application.commands.user;
+
+import com.invoiceme.domain.user.Role;
+
+import java.util.UUID;
+
+public record ChangeUserRoleCommand(UUID userId, Role role) {}
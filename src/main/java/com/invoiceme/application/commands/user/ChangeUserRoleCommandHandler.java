@@ -0,0 +1,28 @@
+package com.invoiceme.application.commands.user;
+
+import com.invoiceme.api.exceptions.NotFoundException;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Changes a user's role. Access tokens carry the role they were issued with, so the change
+ * applies from the user's next login or token refresh.
+ */
+@Service
+public class ChangeUserRoleCommandHandler {
+    private final UserRepository userRepository;
+    
+    public ChangeUserRoleCommandHandler(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    @Transactional
+    public User handle(ChangeUserRoleCommand command) {
+        User user = userRepository.findById(command.userId())
+                .orElseThrow(() -> new NotFoundException("User not found with id: " + command.userId()));
+        user.setRole(command.role());
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,13 @@
+package com.invoiceme.application.commands.user;
+
+import com.invoiceme.domain.user.Permission;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public record CreateApiKeyCommand(
+    String name,
+    Set<Permission> scopes,
+    LocalDateTime expiresAt,
+    String createdBy
+) {}
@@ -0,0 +1,33 @@
+package com.invoiceme.application.commands.user;
+
+import com.invoiceme.domain.user.ApiKey;
+import com.invoiceme.infrastructure.persistence.user.ApiKeyRepository;
+import com.invoiceme.infrastructure.security.ApiKeySecrets;
+import com.invoiceme.infrastructure.security.ApiKeysChanged;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Creates an API key for a machine client. The key can be used as soon as the transaction
+ * commits on this node, and within the registry's refresh interval on the others.
+ */
+@Service
+public class CreateApiKeyCommandHandler {
+    private final ApiKeyRepository apiKeyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public CreateApiKeyCommandHandler(ApiKeyRepository apiKeyRepository, ApplicationEventPublisher eventPublisher) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Transactional
+    public CreatedApiKey handle(CreateApiKeyCommand command) {
+        ApiKeySecrets.Generated generated = ApiKeySecrets.generate();
+        ApiKey apiKey = apiKeyRepository.save(new ApiKey(command.name(), generated.prefix(),
+                ApiKeySecrets.sha256Hex(generated.key()), command.scopes(), command.createdBy(), command.expiresAt()));
+        eventPublisher.publishEvent(new ApiKeysChanged());
+        return new CreatedApiKey(apiKey, generated.key());
+    }
+}
@@ -0,0 +1,8 @@
+package com.invoiceme.application.commands.user;
+
+import com.invoiceme.domain.user.ApiKey;
+
+/**
+ * A new API key together with its value, which is not stored and cannot be shown again.
+ */
+public record CreatedApiKey(ApiKey apiKey, String key) {}
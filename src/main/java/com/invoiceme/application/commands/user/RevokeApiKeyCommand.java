@@ -0,0 +1,5 @@
+package com.invoiceme.application.commands.user;
+
+import java.util.UUID;
+
+public record RevokeApiKeyCommand(UUID apiKeyId) {}
@@ -0,0 +1,34 @@
+package com.invoiceme.application.commands.user;
+
+import com.invoiceme.api.exceptions.NotFoundException;
+import com.invoiceme.domain.user.ApiKey;
+import com.invoiceme.infrastructure.persistence.user.ApiKeyRepository;
+import com.invoiceme.infrastructure.security.ApiKeysChanged;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Revokes an API key. The key stops working as soon as the transaction commits on this node,
+ * and within the registry's refresh interval on the others.
+ */
+@Service
+public class RevokeApiKeyCommandHandler {
+    private final ApiKeyRepository apiKeyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public RevokeApiKeyCommandHandler(ApiKeyRepository apiKeyRepository, ApplicationEventPublisher eventPublisher) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Transactional
+    public ApiKey handle(RevokeApiKeyCommand command) {
+        ApiKey apiKey = apiKeyRepository.findById(command.apiKeyId())
+                .orElseThrow(() -> new NotFoundException("API key not found with id: " + command.apiKeyId()));
+        apiKey.revoke();
+        ApiKey revoked = apiKeyRepository.save(apiKey);
+        eventPublisher.publishEvent(new ApiKeysChanged());
+        return revoked;
+    }
+}
@@ -0,0 +1,5 @@
+package com.invoiceme.application.queries.billing;
+
+import java.util.UUID;
+
+public record GetBillingRunQuery(UUID billingRunId) {}
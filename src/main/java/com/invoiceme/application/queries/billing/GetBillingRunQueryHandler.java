@@ -0,0 +1,22 @@
+package com.invoiceme.application.queries.billing;
+
+import com.invoiceme.domain.billing.BillingRun;
+import com.invoiceme.infrastructure.persistence.billing.BillingRunRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class GetBillingRunQueryHandler {
+    private final BillingRunRepository billingRunRepository;
+    
+    public GetBillingRunQueryHandler(BillingRunRepository billingRunRepository) {
+        this.billingRunRepository = billingRunRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<BillingRun> handle(GetBillingRunQuery query) {
+        return billingRunRepository.findById(query.billingRunId());
+    }
+}
@@ -0,0 +1,22 @@
+package com.invoiceme.application.queries.billing;
+
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import com.invoiceme.infrastructure.persistence.billing.RecurringInvoiceTemplateRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class ListRecurringInvoicesQueryHandler {
+    private final RecurringInvoiceTemplateRepository templateRepository;
+    
+    public ListRecurringInvoicesQueryHandler(RecurringInvoiceTemplateRepository templateRepository) {
+        this.templateRepository = templateRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<RecurringInvoiceTemplate> handle(ListRecurringInvoicesQuery query) {
+        return templateRepository.findByCustomerId(query.customerId());
+    }
+}
@@ -3,6 +3,7 @@ package com.invoiceme.application.queries.customer;
 import com.invoiceme.domain.customer.Customer;
 import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 import java.util.Optional;
@@ -15,6 +16,7 @@ public class GetCustomerQueryHandler {
         this.customerRepository = customerRepository;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Customer> handle(GetCustomerQuery query) {
         return customerRepository.findById(query.customerId());
     }
@@ -0,0 +1,6 @@
+package com.invoiceme.application.queries.customer;
+
+import java.util.UUID;
+
+public record GetCustomerVersionQuery(UUID customerId) {}
+
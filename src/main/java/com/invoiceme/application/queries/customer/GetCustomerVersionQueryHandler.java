@@ -0,0 +1,22 @@
+package com.invoiceme.application.queries.customer;
+
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class GetCustomerVersionQueryHandler {
+    private final CustomerRepository customerRepository;
+    
+    public GetCustomerVersionQueryHandler(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Long> handle(GetCustomerVersionQuery query) {
+        return customerRepository.findVersionById(query.customerId());
+    }
+}
+
@@ -3,6 +3,7 @@ package com.invoiceme.application.queries.customer;
 import com.invoiceme.domain.customer.Customer;
 import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,6 +15,7 @@ public class ListCustomersQueryHandler {
         this.customerRepository = customerRepository;
     }
     
+    @Transactional(readOnly = true)
     public List<Customer> handle(ListCustomersQuery query) {
         return customerRepository.findAll();
     }
@@ -0,0 +1,20 @@
+package com.invoiceme.application.queries.invoice;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Renders a batch of invoices, e.g. for a month-end mail run. Unknown ids are skipped.
+ */
+public record ExportInvoicePdfsQuery(List<UUID> invoiceIds) {
+    public static final int MAX_INVOICES = 10_000;
+    
+    public ExportInvoicePdfsQuery {
+        if (invoiceIds == null || invoiceIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one invoice ID is required");
+        }
+        if (invoiceIds.size() > MAX_INVOICES) {
+            throw new IllegalArgumentException("At most " + MAX_INVOICES + " invoices can be exported at once");
+        }
+    }
+}
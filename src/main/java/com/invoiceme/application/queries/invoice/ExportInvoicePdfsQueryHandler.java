@@ -0,0 +1,79 @@
+package com.invoiceme.application.queries.invoice;
+
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.infrastructure.archive.ArchivedInvoice;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.pdf.InvoicePdf;
+import com.invoiceme.infrastructure.pdf.InvoicePdfBatchRenderer;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Renders invoices in chunks: each chunk is loaded with two queries (invoices with line
+ * items, then their customers), archived invoices are filled in from the archive, and the
+ * chunk is rendered in parallel while only one chunk of documents is held in memory.
+ */
+@Service
+public class ExportInvoicePdfsQueryHandler {
+    static final int CHUNK_SIZE = 500;
+    
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceArchive invoiceArchive;
+    private final CustomerRepository customerRepository;
+    private final InvoicePdfBatchRenderer batchRenderer;
+    
+    public ExportInvoicePdfsQueryHandler(
+            InvoiceRepository invoiceRepository,
+            InvoiceArchive invoiceArchive,
+            CustomerRepository customerRepository,
+            InvoicePdfBatchRenderer batchRenderer) {
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceArchive = invoiceArchive;
+        this.customerRepository = customerRepository;
+        this.batchRenderer = batchRenderer;
+    }
+    
+    /**
+     * Passes each rendered invoice to {@code sink} in request order.
+     *
+     * @return number of invoices rendered
+     */
+    public int handle(ExportInvoicePdfsQuery query, Consumer<InvoicePdf> sink) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(query.invoiceIds()));
+        int rendered = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            List<Invoice> invoices = load(chunk);
+            Map<UUID, Customer> customers = customerRepository.findAllById(
+                            invoices.stream().map(Invoice::getCustomerId).distinct().toList()).stream()
+                    .collect(Collectors.toMap(Customer::getId, Function.identity()));
+            batchRenderer.renderAll(invoices, customers::get, sink);
+            rendered += invoices.size();
+        }
+        return rendered;
+    }
+    
+    private List<Invoice> load(List<UUID> ids) {
+        Map<UUID, Invoice> hot = invoiceRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+        List<Invoice> invoices = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Optional.ofNullable(hot.get(id))
+                    .or(() -> invoiceArchive.find(id).map(ArchivedInvoice::toInvoice))
+                    .ifPresent(invoices::add);
+        }
+        return invoices;
+    }
+}
@@ -0,0 +1,71 @@
+package com.invoiceme.application.queries.invoice;
+
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import com.invoiceme.infrastructure.pdf.InvoicePdf;
+import com.invoiceme.infrastructure.pdf.InvoicePdfRenderer;
+import com.invoiceme.infrastructure.pdf.RenderedDocumentCache;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Renders a single invoice, including archived ones, as PDF. Rendering happens after the
+ * reads have returned their connections to the pool.
+ *
+ * SENT and PAID documents only change together with the invoice or customer version, so they
+ * are kept in the {@link RenderedDocumentCache}: a repeat download costs one version lookup and
+ * is served from the cached file. Drafts change with every edit and are always rendered.
+ */
+@Service
+public class GetInvoicePdfQueryHandler {
+    private final GetInvoiceQueryHandler getInvoiceQueryHandler;
+    private final GetInvoicePdfVersionQueryHandler getInvoicePdfVersionQueryHandler;
+    private final CustomerRepository customerRepository;
+    private final InvoicePdfRenderer invoicePdfRenderer;
+    private final RenderedDocumentCache documentCache;
+    
+    public GetInvoicePdfQueryHandler(
+            GetInvoiceQueryHandler getInvoiceQueryHandler,
+            GetInvoicePdfVersionQueryHandler getInvoicePdfVersionQueryHandler,
+            CustomerRepository customerRepository,
+            InvoicePdfRenderer invoicePdfRenderer,
+            RenderedDocumentCache documentCache) {
+        this.getInvoiceQueryHandler = getInvoiceQueryHandler;
+        this.getInvoicePdfVersionQueryHandler = getInvoicePdfVersionQueryHandler;
+        this.customerRepository = customerRepository;
+        this.invoicePdfRenderer = invoicePdfRenderer;
+        this.documentCache = documentCache;
+    }
+    
+    public Optional<InvoiceDocument> handle(GetInvoicePdfQuery query) {
+        UUID invoiceId = query.invoiceId();
+        Optional<DocumentVersion> version = getInvoicePdfVersionQueryHandler.handle(new GetInvoicePdfVersionQuery(invoiceId));
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Path> cached = documentCache.get(invoiceId, version.get());
+        if (cached.isPresent()) {
+            return Optional.of(new InvoiceDocument(invoiceId, version.get(), new FileSystemResource(cached.get())));
+        }
+        
+        return getInvoiceQueryHandler.handle(new GetInvoiceQuery(invoiceId))
+                .map(invoice -> {
+                    Customer customer = customerRepository.findById(invoice.getCustomerId()).orElse(null);
+                    InvoicePdf pdf = invoicePdfRenderer.render(invoice, customer);
+                    DocumentVersion rendered = new DocumentVersion(
+                            invoice.getVersion(), customer != null ? customer.getVersion() : null);
+                    if (invoice.getStatus() == InvoiceStatus.DRAFT) {
+                        return new InvoiceDocument(invoiceId, rendered, new ByteArrayResource(pdf.content()));
+                    }
+                    Path file = documentCache.put(invoiceId, rendered, pdf.content());
+                    return new InvoiceDocument(invoiceId, rendered, new FileSystemResource(file));
+                });
+    }
+}
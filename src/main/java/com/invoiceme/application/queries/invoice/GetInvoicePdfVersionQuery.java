@@ -0,0 +1,5 @@
+package com.invoiceme.application.queries.invoice;
+
+import java.util.UUID;
+
+public record GetInvoicePdfVersionQuery(UUID invoiceId) {}
@@ -0,0 +1,38 @@
+package com.invoiceme.application.queries.invoice;
+
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Reads the invoice and customer versions a PDF of the invoice is rendered from, used to
+ * address the rendered-document cache and to answer conditional GETs.
+ */
+@Service
+public class GetInvoicePdfVersionQueryHandler {
+    private final InvoiceRepository invoiceRepository;
+    private final CustomerRepository customerRepository;
+    private final InvoiceArchive invoiceArchive;
+    
+    public GetInvoicePdfVersionQueryHandler(
+            InvoiceRepository invoiceRepository,
+            CustomerRepository customerRepository,
+            InvoiceArchive invoiceArchive) {
+        this.invoiceRepository = invoiceRepository;
+        this.customerRepository = customerRepository;
+        this.invoiceArchive = invoiceArchive;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<DocumentVersion> handle(GetInvoicePdfVersionQuery query) {
+        return invoiceRepository.findDocumentVersionById(query.invoiceId())
+                .or(() -> invoiceArchive.find(query.invoiceId())
+                        .map(invoice -> new DocumentVersion(invoice.version(),
+                                customerRepository.findVersionById(invoice.customerId()).orElse(null))));
+    }
+}
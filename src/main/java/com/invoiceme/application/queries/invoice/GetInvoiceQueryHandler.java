@@ -1,22 +1,33 @@
 package com.invoiceme.application.queries.invoice;
 
 import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.infrastructure.archive.ArchivedInvoice;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
 import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Reads an invoice from the database, falling back to the cold archive for PAID
+ * invoices that the archive job has moved out of the hot tables.
+ */
 @Service
 public class GetInvoiceQueryHandler {
     private final InvoiceRepository invoiceRepository;
+    private final InvoiceArchive invoiceArchive;
     
-    public GetInvoiceQueryHandler(InvoiceRepository invoiceRepository) {
+    public GetInvoiceQueryHandler(InvoiceRepository invoiceRepository, InvoiceArchive invoiceArchive) {
         this.invoiceRepository = invoiceRepository;
+        this.invoiceArchive = invoiceArchive;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Invoice> handle(GetInvoiceQuery query) {
-        return invoiceRepository.findById(query.invoiceId());
+        return invoiceRepository.findWithLineItemsById(query.invoiceId())
+                .or(() -> invoiceArchive.find(query.invoiceId()).map(ArchivedInvoice::toInvoice));
     }
 }
 
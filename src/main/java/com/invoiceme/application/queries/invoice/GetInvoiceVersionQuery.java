@@ -0,0 +1,6 @@
+package com.invoiceme.application.queries.invoice;
+
+import java.util.UUID;
+
+public record GetInvoiceVersionQuery(UUID invoiceId) {}
+
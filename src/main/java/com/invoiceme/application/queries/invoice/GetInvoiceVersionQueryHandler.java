@@ -0,0 +1,27 @@
+package com.invoiceme.application.queries.invoice;
+
+import com.invoiceme.infrastructure.archive.ArchivedInvoice;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class GetInvoiceVersionQueryHandler {
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceArchive invoiceArchive;
+    
+    public GetInvoiceVersionQueryHandler(InvoiceRepository invoiceRepository, InvoiceArchive invoiceArchive) {
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceArchive = invoiceArchive;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Long> handle(GetInvoiceVersionQuery query) {
+        return invoiceRepository.findVersionById(query.invoiceId())
+                .or(() -> invoiceArchive.find(query.invoiceId()).map(ArchivedInvoice::version));
+    }
+}
+
@@ -0,0 +1,11 @@
+package com.invoiceme.application.queries.invoice;
+
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import org.springframework.core.io.Resource;
+
+import java.util.UUID;
+
+/**
+ * A rendered invoice document: a cached file for SENT and PAID invoices, in memory for drafts.
+ */
+public record InvoiceDocument(UUID invoiceId, DocumentVersion version, Resource content) {}
@@ -2,16 +2,25 @@ package com.invoiceme.application.queries.invoice;
 
 import com.invoiceme.domain.invoice.InvoiceStatus;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Creation-date bounds are half-open, [createdFrom, createdBefore), and let Postgres
+ * prune the monthly invoice partitions it does not need to scan.
+ */
 public record ListInvoicesQuery(
     Optional<UUID> customerId,
-    Optional<InvoiceStatus> status
+    Optional<InvoiceStatus> status,
+    Optional<LocalDateTime> createdFrom,
+    Optional<LocalDateTime> createdBefore
 ) {
     public ListInvoicesQuery() {
         this(Optional.empty(), Optional.empty());
     }
+    
+    public ListInvoicesQuery(Optional<UUID> customerId, Optional<InvoiceStatus> status) {
+        this(customerId, status, Optional.empty(), Optional.empty());
+    }
 }
-
-
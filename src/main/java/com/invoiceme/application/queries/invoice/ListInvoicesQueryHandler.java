@@ -2,10 +2,12 @@ package com.invoiceme.application.queries.invoice;
 
 import com.invoiceme.domain.invoice.Invoice;
 import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceSpecifications;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class ListInvoicesQueryHandler {
@@ -15,20 +17,21 @@ public class ListInvoicesQueryHandler {
         this.invoiceRepository = invoiceRepository;
     }
     
+    @Transactional(readOnly = true)
     public List<Invoice> handle(ListInvoicesQuery query) {
-        if (query.customerId().isPresent() && query.status().isPresent()) {
-            return invoiceRepository.findByCustomerIdAndStatus(
-                    query.customerId().get(),
-                    query.status().get()
-            );
-        } else if (query.customerId().isPresent()) {
-            return invoiceRepository.findByCustomerId(query.customerId().get());
-        } else if (query.status().isPresent()) {
-            return invoiceRepository.findByStatus(query.status().get());
-        } else {
-            return invoiceRepository.findAll();
+        Specification<Invoice> spec = Specification.where(null);
+        if (query.customerId().isPresent()) {
+            spec = spec.and(InvoiceSpecifications.forCustomer(query.customerId().get()));
         }
+        if (query.status().isPresent()) {
+            spec = spec.and(InvoiceSpecifications.withStatus(query.status().get()));
+        }
+        if (query.createdFrom().isPresent()) {
+            spec = spec.and(InvoiceSpecifications.createdOnOrAfter(query.createdFrom().get()));
+        }
+        if (query.createdBefore().isPresent()) {
+            spec = spec.and(InvoiceSpecifications.createdBefore(query.createdBefore().get()));
+        }
+        return invoiceRepository.findAll(spec);
     }
 }
-
-
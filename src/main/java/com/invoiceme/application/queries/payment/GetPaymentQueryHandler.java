@@ -1,23 +1,34 @@
 package com.invoiceme.application.queries.payment;
 
 import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
 import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Loads a payment by id. Payments of archived invoices are read from the archive.
+ */
 @Service
 public class GetPaymentQueryHandler {
     private final PaymentRepository paymentRepository;
+    private final InvoiceArchive invoiceArchive;
     
-    public GetPaymentQueryHandler(PaymentRepository paymentRepository) {
+    public GetPaymentQueryHandler(PaymentRepository paymentRepository, InvoiceArchive invoiceArchive) {
         this.paymentRepository = paymentRepository;
+        this.invoiceArchive = invoiceArchive;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Payment> handle(GetPaymentQuery query) {
-        return paymentRepository.findById(query.paymentId());
+        UUID paymentId = query.paymentId();
+        return paymentRepository.findById(paymentId)
+                .or(() -> invoiceArchive.findByPaymentId(paymentId)
+                        .flatMap(invoice -> invoice.toPayments().stream()
+                                .filter(payment -> payment.getId().equals(paymentId))
+                                .findFirst()));
     }
 }
-
-
@@ -0,0 +1,6 @@
+package com.invoiceme.application.queries.payment;
+
+import java.util.UUID;
+
+public record GetPaymentVersionQuery(UUID paymentId) {}
+
@@ -0,0 +1,32 @@
+package com.invoiceme.application.queries.payment;
+
+import com.invoiceme.infrastructure.archive.ArchivedInvoice;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class GetPaymentVersionQueryHandler {
+    private final PaymentRepository paymentRepository;
+    private final InvoiceArchive invoiceArchive;
+    
+    public GetPaymentVersionQueryHandler(PaymentRepository paymentRepository, InvoiceArchive invoiceArchive) {
+        this.paymentRepository = paymentRepository;
+        this.invoiceArchive = invoiceArchive;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Long> handle(GetPaymentVersionQuery query) {
+        UUID paymentId = query.paymentId();
+        return paymentRepository.findVersionById(paymentId)
+                .or(() -> invoiceArchive.findByPaymentId(paymentId)
+                        .flatMap(invoice -> invoice.payments().stream()
+                                .filter(payment -> payment.id().equals(paymentId))
+                                .map(ArchivedInvoice.ArchivedPayment::version)
+                                .findFirst()));
+    }
+}
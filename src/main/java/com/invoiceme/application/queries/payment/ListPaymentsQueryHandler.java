@@ -1,22 +1,42 @@
 package com.invoiceme.application.queries.payment;
 
 import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.archive.ArchivedInvoice;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
 import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Lists the payments of an invoice. Payments of archived invoices, whose rows are gone from the
+ * invoices table, are read from the archive.
+ */
 @Service
 public class ListPaymentsQueryHandler {
     private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceArchive invoiceArchive;
     
-    public ListPaymentsQueryHandler(PaymentRepository paymentRepository) {
+    public ListPaymentsQueryHandler(PaymentRepository paymentRepository, InvoiceRepository invoiceRepository,
+            InvoiceArchive invoiceArchive) {
         this.paymentRepository = paymentRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceArchive = invoiceArchive;
     }
     
+    @Transactional(readOnly = true)
     public List<Payment> handle(ListPaymentsQuery query) {
-        return paymentRepository.findByInvoiceId(query.invoiceId());
+        List<Payment> payments = paymentRepository.findByInvoiceId(query.invoiceId());
+        if (!payments.isEmpty() || invoiceRepository.existsById(query.invoiceId())) {
+            return payments;
+        }
+        return invoiceArchive.find(query.invoiceId())
+                .map(ArchivedInvoice::toPayments)
+                .orElse(payments);
     }
 }
 
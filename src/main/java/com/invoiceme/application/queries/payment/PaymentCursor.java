@@ -0,0 +1,32 @@
+package com.invoiceme.application.queries.payment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the (payment_date, id) ordering of payments.
+ * Encoded as an opaque URL-safe token so clients just echo it back.
+ */
+public record PaymentCursor(LocalDateTime paymentDate, UUID id) {
+    
+    public String encode() {
+        String raw = paymentDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static PaymentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new PaymentCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid payment cursor: " + token);
+        }
+    }
+}
+
@@ -0,0 +1,12 @@
+package com.invoiceme.application.queries.payment;
+
+import com.invoiceme.domain.payment.Payment;
+
+import java.util.List;
+import java.util.Optional;
+
+public record PaymentSearchResult(
+    List<Payment> payments,
+    Optional<PaymentCursor> nextCursor
+) {}
+
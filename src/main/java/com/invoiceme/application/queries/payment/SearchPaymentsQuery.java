@@ -0,0 +1,30 @@
+package com.invoiceme.application.queries.payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cross-invoice payment search, e.g. for bank reconciliation.
+ * Date range is [from, to); amount range is inclusive on both ends.
+ */
+public record SearchPaymentsQuery(
+    Optional<LocalDateTime> from,
+    Optional<LocalDateTime> to,
+    Optional<BigDecimal> minAmount,
+    Optional<BigDecimal> maxAmount,
+    Optional<UUID> customerId,
+    Optional<PaymentCursor> after,
+    int limit
+) {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    
+    public SearchPaymentsQuery {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
+
@@ -0,0 +1,118 @@
+package com.invoiceme.application.queries.payment;
+
+import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Searches payments in the hot table and in the {@link InvoiceArchive}, so ranges that reach
+ * back past the archive cutoff still return every payment. Both sources are read in
+ * (payment date, id) order and merged; a payment present in both (an archive run that did not
+ * commit yet) is returned once, from the table.
+ */
+@Service
+public class SearchPaymentsQueryHandler {
+    private static final Sort KEYSET_ORDER = Sort.by("paymentDate", "id");
+    /** {@link #KEYSET_ORDER} in Java; databases compare UUIDs as unsigned bytes. */
+    private static final Comparator<Payment> KEYSET = Comparator.comparing(Payment::getPaymentDate)
+            .thenComparing(payment -> payment.getId().getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(payment -> payment.getId().getLeastSignificantBits(), Long::compareUnsigned);
+    
+    private final PaymentRepository paymentRepository;
+    private final InvoiceArchive invoiceArchive;
+    
+    public SearchPaymentsQueryHandler(PaymentRepository paymentRepository, InvoiceArchive invoiceArchive) {
+        this.paymentRepository = paymentRepository;
+        this.invoiceArchive = invoiceArchive;
+    }
+    
+    @Transactional(readOnly = true)
+    public PaymentSearchResult handle(SearchPaymentsQuery query) {
+        Specification<Payment> spec = Specification.where(null);
+        if (query.from().isPresent()) {
+            spec = spec.and(PaymentSpecifications.paidOnOrAfter(query.from().get()));
+        }
+        if (query.to().isPresent()) {
+            spec = spec.and(PaymentSpecifications.paidBefore(query.to().get()));
+        }
+        if (query.minAmount().isPresent()) {
+            spec = spec.and(PaymentSpecifications.amountAtLeast(query.minAmount().get()));
+        }
+        if (query.maxAmount().isPresent()) {
+            spec = spec.and(PaymentSpecifications.amountAtMost(query.maxAmount().get()));
+        }
+        if (query.customerId().isPresent()) {
+            spec = spec.and(PaymentSpecifications.forCustomer(query.customerId().get()));
+        }
+        if (query.after().isPresent()) {
+            PaymentCursor cursor = query.after().get();
+            spec = spec.and(PaymentSpecifications.after(cursor.paymentDate(), cursor.id()));
+        }
+        
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Payment> rows = merge(
+                paymentRepository.findBy(spec, q -> q.sortBy(KEYSET_ORDER).limit(query.limit() + 1).all()),
+                archivedPayments(query),
+                query.limit() + 1);
+        if (rows.size() <= query.limit()) {
+            return new PaymentSearchResult(rows, Optional.empty());
+        }
+        
+        List<Payment> page = rows.subList(0, query.limit());
+        Payment last = page.get(page.size() - 1);
+        return new PaymentSearchResult(page, Optional.of(new PaymentCursor(last.getPaymentDate(), last.getId())));
+    }
+    
+    private Stream<Payment> archivedPayments(SearchPaymentsQuery query) {
+        return invoiceArchive.payments(
+                        query.from().orElse(null),
+                        query.to().orElse(null),
+                        query.after().map(PaymentCursor::paymentDate).orElse(null),
+                        query.after().map(PaymentCursor::id).orElse(null))
+                .filter(entry -> query.minAmount().map(min -> entry.payment().getAmount().compareTo(min) >= 0).orElse(true))
+                .filter(entry -> query.maxAmount().map(max -> entry.payment().getAmount().compareTo(max) <= 0).orElse(true))
+                .filter(entry -> query.customerId().map(entry.invoice().customerId()::equals).orElse(true))
+                .map(InvoiceArchive.PaymentEntry::payment);
+    }
+    
+    /**
+     * Merges the table rows with the lazily read archive rows, both in keyset order, into at most
+     * {@code limit} payments. Rows past the last table row are only taken when the table ran out,
+     * which it did if it returned fewer than {@code limit} rows.
+     */
+    private static List<Payment> merge(List<Payment> rows, Stream<Payment> archived, int limit) {
+        Set<UUID> ids = rows.stream().map(Payment::getId).collect(Collectors.toSet());
+        Iterator<Payment> fromArchive = archived.filter(payment -> !ids.contains(payment.getId())).iterator();
+        if (!fromArchive.hasNext()) {
+            return rows;
+        }
+        List<Payment> merged = new ArrayList<>(limit);
+        int next = 0;
+        Payment pending = fromArchive.next();
+        while (merged.size() < limit && (next < rows.size() || pending != null)) {
+            if (pending == null || (next < rows.size() && KEYSET.compare(rows.get(next), pending) < 0)) {
+                merged.add(rows.get(next++));
+            } else {
+                merged.add(pending);
+                pending = fromArchive.hasNext() ? fromArchive.next() : null;
+            }
+        }
+        return merged;
+    }
+}
+
@@ -0,0 +1,22 @@
+package com.invoiceme.application.queries.user;
+
+import com.invoiceme.domain.user.ApiKey;
+import com.invoiceme.infrastructure.persistence.user.ApiKeyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class ListApiKeysQueryHandler {
+    private final ApiKeyRepository apiKeyRepository;
+    
+    public ListApiKeysQueryHandler(ApiKeyRepository apiKeyRepository) {
+        this.apiKeyRepository = apiKeyRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ApiKey> handle(ListApiKeysQuery query) {
+        return apiKeyRepository.findAll();
+    }
+}
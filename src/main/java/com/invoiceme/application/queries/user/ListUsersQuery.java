@@ -0,0 +1,3 @@
+package com.invoiceme.application.queries.user;
+
+public record ListUsersQuery() {}
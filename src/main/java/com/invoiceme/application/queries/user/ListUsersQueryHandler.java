@@ -0,0 +1,22 @@
+package com.invoiceme.application.queries.user;
+
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class ListUsersQueryHandler {
+    private final UserRepository userRepository;
+    
+    public ListUsersQueryHandler(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<User> handle(ListUsersQuery query) {
+        return userRepository.findAll();
+    }
+}
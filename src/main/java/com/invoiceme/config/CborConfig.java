@@ -0,0 +1,23 @@
+package com.invoiceme.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Registers a CBOR message converter so clients can opt into a compact binary
+ * representation with {@code Accept: application/cbor}. The mapper is built from
+ * Boot's auto-configured builder so it serializes dates and DTOs the same way as JSON.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
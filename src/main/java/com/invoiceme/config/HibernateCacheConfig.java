@@ -0,0 +1,67 @@
+package com.invoiceme.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for rarely changing, frequently read entities
+ * (customers and users, plus the user email natural-id lookup).
+ *
+ * Regions live in an in-process Caffeine JCache manager owned by this application
+ * context. Each region is bounded by size and expires entries after a TTL, so
+ * rows changed outside Hibernate are picked up again within that window.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    // Region names referenced by the @Cache / @NaturalIdCache annotations on the entities
+    public static final String CUSTOMERS_REGION = "customers";
+    public static final String USERS_REGION = "users";
+    public static final String USERS_BY_EMAIL_REGION = "users-by-email";
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${invoiceme.cache.customers.max-size:10000}") long customersMaxSize,
+            @Value("${invoiceme.cache.users.max-size:1000}") long usersMaxSize,
+            @Value("${invoiceme.cache.ttl:PT10M}") Duration ttl) {
+        // A private URI per context keeps test contexts from sharing (and closing) each other's regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("invoiceme:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(CUSTOMERS_REGION, region(customersMaxSize, ttl));
+        cacheManager.createCache(USERS_REGION, region(usersMaxSize, ttl));
+        cacheManager.createCache(USERS_BY_EMAIL_REGION, region(usersMaxSize, ttl));
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Feeds the hibernate.* Micrometer metrics, including per-region hit/miss counts
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+    
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
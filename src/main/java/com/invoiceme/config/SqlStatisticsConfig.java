@@ -0,0 +1,20 @@
+package com.invoiceme.config;
+
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.observation.boot.autoconfigure.ProxyDataSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Proxies JDBC result sets as well as connections and statements, so the rows each request
+ * reads can be counted. datasource-micrometer only does so when tracing fetches, which would
+ * add a span per result set.
+ */
+@Configuration
+public class SqlStatisticsConfig {
+
+    @Bean
+    public ProxyDataSourceBuilderCustomizer resultSetProxyCustomizer() {
+        return (builder, dataSource, beanName, dataSourceName) -> builder.proxyResultSet(ResultSetProxyLogicFactory.DEFAULT);
+    }
+}
@@ -0,0 +1,75 @@
+package com.invoiceme.domain.billing;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Records that a template has been billed for a cycle. The primary key makes a second
+ * invoice for the same template and cycle impossible, whichever run or node attempts it.
+ */
+@Entity
+@Table(name = "billed_templates", indexes = {
+    @Index(name = "idx_billed_templates_billing_run_id", columnList = "billing_run_id")
+})
+@IdClass(BilledTemplate.Key.class)
+public class BilledTemplate {
+    @Id
+    @Column(name = "template_id")
+    private UUID templateId;
+    
+    @Id
+    @Column(name = "billing_cycle")
+    private LocalDate billingCycle;
+    
+    @Column(name = "invoice_id", nullable = false)
+    private UUID invoiceId;
+    
+    @Column(name = "billing_run_id", nullable = false)
+    private UUID billingRunId;
+    
+    // Default constructor for JPA
+    protected BilledTemplate() {}
+    
+    public UUID getTemplateId() {
+        return templateId;
+    }
+    
+    public LocalDate getBillingCycle() {
+        return billingCycle;
+    }
+    
+    public UUID getInvoiceId() {
+        return invoiceId;
+    }
+    
+    public UUID getBillingRunId() {
+        return billingRunId;
+    }
+    
+    public static class Key implements Serializable {
+        private UUID templateId;
+        private LocalDate billingCycle;
+        
+        protected Key() {}
+        
+        public Key(UUID templateId, LocalDate billingCycle) {
+            this.templateId = templateId;
+            this.billingCycle = billingCycle;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(templateId, key.templateId) && Objects.equals(billingCycle, key.billingCycle);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(templateId, billingCycle);
+        }
+    }
+}
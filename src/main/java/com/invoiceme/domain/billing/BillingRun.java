@@ -0,0 +1,111 @@
+package com.invoiceme.domain.billing;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One billing cycle's run over all active recurring invoice templates.
+ * There is at most one run per cycle. Its progress columns are maintained with SQL
+ * updates in the same transactions that insert the invoices, so they stay exact
+ * across crashes and resumes.
+ */
+@Entity
+@Table(name = "billing_runs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_billing_runs_billing_cycle", columnNames = "billing_cycle")
+})
+public class BillingRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    /** First day of the billed month. */
+    @Column(name = "billing_cycle", nullable = false)
+    private LocalDate billingCycle;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private BillingRunStatus status;
+    
+    @Column(name = "templates_total", nullable = false)
+    private int templatesTotal;
+    
+    @Column(name = "invoices_created", nullable = false)
+    private int invoicesCreated;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "resumed_at")
+    private LocalDateTime resumedAt;
+    
+    @Column(name = "invoices_at_resume", nullable = false)
+    private int invoicesAtResume;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    // Default constructor for JPA
+    protected BillingRun() {}
+    
+    public BillingRun(LocalDate billingCycle) {
+        if (billingCycle == null || billingCycle.getDayOfMonth() != 1) {
+            throw new IllegalArgumentException("Billing cycle must be the first day of a month");
+        }
+        this.billingCycle = billingCycle;
+        this.status = BillingRunStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Invoices generated per second by the current attempt, i.e. since the last resume.
+     */
+    public double invoicesPerSecond(LocalDateTime now) {
+        LocalDateTime since = resumedAt != null ? resumedAt : startedAt;
+        LocalDateTime until = finishedAt != null ? finishedAt : now;
+        long elapsedMs = Math.max(1, Duration.between(since, until).toMillis());
+        return (invoicesCreated - invoicesAtResume) * 1000.0 / elapsedMs;
+    }
+    
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+    
+    public LocalDate getBillingCycle() {
+        return billingCycle;
+    }
+    
+    public BillingRunStatus getStatus() {
+        return status;
+    }
+    
+    public int getTemplatesTotal() {
+        return templatesTotal;
+    }
+    
+    public int getInvoicesCreated() {
+        return invoicesCreated;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public LocalDateTime getResumedAt() {
+        return resumedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+}
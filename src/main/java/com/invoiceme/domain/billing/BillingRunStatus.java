@@ -0,0 +1,10 @@
+package com.invoiceme.domain.billing;
+
+/**
+ * Lifecycle of a billing run: Running → Completed, or Failed and resumable.
+ */
+public enum BillingRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
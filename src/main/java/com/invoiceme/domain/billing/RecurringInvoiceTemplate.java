@@ -0,0 +1,111 @@
+package com.invoiceme.domain.billing;
+
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A customer's monthly subscription: the line items billed on every billing cycle.
+ * Deactivated templates are kept so past billing runs still reference them.
+ */
+@Entity
+@Table(name = "recurring_invoice_templates", indexes = {
+    @Index(name = "idx_recurring_invoice_templates_customer_id", columnList = "customer_id")
+})
+public class RecurringInvoiceTemplate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+    
+    @ElementCollection
+    @CollectionTable(
+        name = "recurring_invoice_template_items",
+        joinColumns = @JoinColumn(name = "template_id")
+    )
+    @OrderColumn(name = "position")
+    private List<TemplateLineItem> lineItems;
+    
+    @Column(name = "active", nullable = false)
+    private boolean active;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
+    // Default constructor for JPA
+    protected RecurringInvoiceTemplate() {
+        this.lineItems = new ArrayList<>();
+    }
+    
+    public RecurringInvoiceTemplate(UUID customerId, List<TemplateLineItem> lineItems) {
+        if (customerId == null) {
+            throw new IllegalArgumentException("Customer ID cannot be null");
+        }
+        if (lineItems == null || lineItems.isEmpty()) {
+            throw new IllegalArgumentException("A recurring invoice needs at least one line item");
+        }
+        this.customerId = customerId;
+        this.lineItems = new ArrayList<>(lineItems);
+        this.active = true;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Builds the draft invoice for one billing cycle. The invoice is not persisted.
+     */
+    public Invoice toInvoice() {
+        Invoice invoice = new Invoice(customerId);
+        for (TemplateLineItem item : lineItems) {
+            invoice.addLineItem(new InvoiceLineItem(item.getDescription(), item.getQuantity(), item.getUnitPrice()));
+        }
+        return invoice;
+    }
+    
+    public void deactivate() {
+        this.active = false;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+    
+    public UUID getCustomerId() {
+        return customerId;
+    }
+    
+    public List<TemplateLineItem> getLineItems() {
+        return Collections.unmodifiableList(lineItems);
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,49 @@
+package com.invoiceme.domain.billing;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Value object for a line item copied onto every invoice generated from a recurring template.
+ */
+@Embeddable
+public class TemplateLineItem {
+    @Column(name = "description", nullable = false)
+    private String description;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
+    private BigDecimal unitPrice;
+    
+    // Default constructor for JPA
+    protected TemplateLineItem() {}
+    
+    public TemplateLineItem(String description, Integer quantity, BigDecimal unitPrice) {
+        if (description == null || description.trim().isEmpty()) {
+            throw new IllegalArgumentException("Description cannot be null or empty");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        if (unitPrice == null || unitPrice.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Unit price cannot be null or negative");
+        }
+        this.description = description;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+}
@@ -1,11 +1,14 @@
 package com.invoiceme.domain.customer;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "customers")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -23,6 +26,10 @@ public class Customer {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Default constructor for JPA
     protected Customer() {}
     
@@ -46,6 +53,10 @@ public class Customer {
         return email;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
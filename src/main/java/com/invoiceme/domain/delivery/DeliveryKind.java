@@ -0,0 +1,10 @@
+package com.invoiceme.domain.delivery;
+
+/**
+ * What a queued delivery sends: the invoice itself when it is sent, or a payment reminder
+ * queued by the dunning run.
+ */
+public enum DeliveryKind {
+    INVOICE,
+    REMINDER
+}
@@ -0,0 +1,14 @@
+package com.invoiceme.domain.delivery;
+
+/**
+ * Lifecycle of a queued invoice delivery.
+ * Pending → Sending → Sent, back to Pending for a retry, or Failed once retries are exhausted.
+ * A reminder whose invoice was paid before it went out ends as Cancelled.
+ */
+public enum DeliveryStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,120 @@
+package com.invoiceme.domain.delivery;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A queued request to deliver an invoice, or a payment reminder for it, to its customer.
+ * Invoice deliveries are inserted in the same transaction that sends the invoice and
+ * reminders by the dunning run; the delivery worker then moves them through their
+ * states with plain SQL updates.
+ */
+@Entity
+@Table(name = "invoice_deliveries", indexes = {
+    @Index(name = "idx_invoice_deliveries_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_invoice_deliveries_invoice_id", columnList = "invoice_id")
+})
+public class InvoiceDelivery {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "invoice_id", nullable = false)
+    private UUID invoiceId;
+    
+    @Column(name = "recipient", nullable = false, length = 320)
+    private String recipient;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16, columnDefinition = "varchar(16) default 'INVOICE'")
+    private DeliveryKind kind;
+    
+    /** Position of a reminder on the dunning ladder, starting at 1; null for invoice deliveries. */
+    @Column(name = "reminder_number")
+    private Integer reminderNumber;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private DeliveryStatus status;
+    
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    
+    /** When the delivery is next due; while SENDING, when the worker's claim expires. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    // Default constructor for JPA
+    protected InvoiceDelivery() {}
+    
+    // Constructor for queueing a new delivery
+    public InvoiceDelivery(UUID invoiceId, String recipient) {
+        if (invoiceId == null) {
+            throw new IllegalArgumentException("Invoice ID cannot be null");
+        }
+        if (recipient == null || recipient.isBlank()) {
+            throw new IllegalArgumentException("Recipient cannot be blank");
+        }
+        this.invoiceId = invoiceId;
+        this.recipient = recipient;
+        this.kind = DeliveryKind.INVOICE;
+        this.status = DeliveryStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+    
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+    
+    public UUID getInvoiceId() {
+        return invoiceId;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public DeliveryKind getKind() {
+        return kind;
+    }
+    
+    public Integer getReminderNumber() {
+        return reminderNumber;
+    }
+    
+    public DeliveryStatus getStatus() {
+        return status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+}
@@ -0,0 +1,74 @@
+package com.invoiceme.domain.dunning;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reminder state of one sent invoice: how many payment reminders have been queued and
+ * when the next one is due. Inserted in the same transaction that sends the invoice; the
+ * dunning run advances it with conditional SQL updates and deletes it once the reminder
+ * ladder is exhausted or the invoice is no longer open.
+ */
+@Entity
+@Table(name = "invoice_dunning", indexes = {
+    @Index(name = "idx_invoice_dunning_next_reminder", columnList = "next_reminder_on, invoice_id")
+})
+public class InvoiceDunning {
+    @Id
+    @Column(name = "invoice_id")
+    private UUID invoiceId;
+
+    /** Reminder dates are counted from this day. */
+    @Column(name = "sent_on", nullable = false)
+    private LocalDate sentOn;
+
+    @Column(name = "reminders_sent", nullable = false)
+    private int remindersSent;
+
+    @Column(name = "next_reminder_on", nullable = false)
+    private LocalDate nextReminderOn;
+
+    @Column(name = "last_reminder_at")
+    private LocalDateTime lastReminderAt;
+
+    // Default constructor for JPA
+    protected InvoiceDunning() {}
+
+    public InvoiceDunning(UUID invoiceId, LocalDate sentOn, LocalDate firstReminderOn) {
+        if (invoiceId == null) {
+            throw new IllegalArgumentException("Invoice ID cannot be null");
+        }
+        if (sentOn == null || firstReminderOn == null) {
+            throw new IllegalArgumentException("Send date and first reminder date are required");
+        }
+        if (firstReminderOn.isBefore(sentOn)) {
+            throw new IllegalArgumentException("First reminder cannot be due before the invoice was sent");
+        }
+        this.invoiceId = invoiceId;
+        this.sentOn = sentOn;
+        this.nextReminderOn = firstReminderOn;
+    }
+
+    // Getters
+    public UUID getInvoiceId() {
+        return invoiceId;
+    }
+
+    public LocalDate getSentOn() {
+        return sentOn;
+    }
+
+    public int getRemindersSent() {
+        return remindersSent;
+    }
+
+    public LocalDate getNextReminderOn() {
+        return nextReminderOn;
+    }
+
+    public LocalDateTime getLastReminderAt() {
+        return lastReminderAt;
+    }
+}
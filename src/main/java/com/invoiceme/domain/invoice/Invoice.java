@@ -2,6 +2,7 @@ package com.invoiceme.domain.invoice;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -10,12 +11,20 @@ import java.util.UUID;
 
 /**
  * Domain entity representing an Invoice.
- * Manages its own lifecycle (Draft → Sent → Paid) and calculates balance from line items.
+ * Manages its own lifecycle (Draft → Sent → Overdue → Paid) and calculates balance from line items.
+ * The due date is fixed when the invoice is sent; the Sent → Overdue transition is made in bulk
+ * by the overdue invoice job.
+ * Total, amount paid and balance are stored so reads and aggregates need no per-row arithmetic.
  * Enforces business rules: invoices can only be updated in Draft state.
  */
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_customer_id", columnList = "customer_id")
+})
 public class Invoice {
+    /** Payment term applied when an invoice is sent without an explicit due date. */
+    public static final int DEFAULT_PAYMENT_TERM_DAYS = 30;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -27,22 +36,43 @@ public class Invoice {
     @Column(name = "status", nullable = false)
     private InvoiceStatus status;
     
+    // No foreign key: on Postgres invoices is range-partitioned, so its primary key is (id, created_at)
     @ElementCollection
-    @CollectionTable(name = "invoice_line_items", joinColumns = @JoinColumn(name = "invoice_id"))
+    @CollectionTable(
+        name = "invoice_line_items",
+        joinColumns = @JoinColumn(name = "invoice_id"),
+        foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
+        indexes = @Index(name = "idx_invoice_line_items_invoice_id", columnList = "invoice_id")
+    )
     private List<InvoiceLineItem> lineItems;
     
+    @Column(name = "total", nullable = false, precision = 19, scale = 2, columnDefinition = "numeric(19,2) default 0")
+    private BigDecimal total;
+    
+    @Column(name = "amount_paid", nullable = false, precision = 19, scale = 2, columnDefinition = "numeric(19,2) default 0")
+    private BigDecimal amountPaid;
+    
     @Column(name = "balance", nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
     
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Default constructor for JPA
     protected Invoice() {
         this.lineItems = new ArrayList<>();
+        this.total = BigDecimal.ZERO;
+        this.amountPaid = BigDecimal.ZERO;
         this.balance = BigDecimal.ZERO;
     }
     
@@ -54,10 +84,34 @@ public class Invoice {
         this.customerId = customerId;
         this.status = InvoiceStatus.DRAFT;
         this.lineItems = new ArrayList<>();
+        this.total = BigDecimal.ZERO;
+        this.amountPaid = BigDecimal.ZERO;
         this.balance = BigDecimal.ZERO;
         this.createdAt = LocalDateTime.now();
     }
     
+    /**
+     * Rebuilds an invoice read back from the archive. The result is detached and
+     * must never be persisted; archived invoices are PAID and therefore immutable.
+     */
+    public static Invoice restore(UUID id, UUID customerId, InvoiceStatus status, List<InvoiceLineItem> lineItems,
+                                  BigDecimal total, BigDecimal amountPaid, BigDecimal balance, LocalDate dueDate,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        Invoice invoice = new Invoice();
+        invoice.id = id;
+        invoice.customerId = customerId;
+        invoice.status = status;
+        invoice.lineItems.addAll(lineItems);
+        invoice.total = total;
+        invoice.amountPaid = amountPaid;
+        invoice.balance = balance;
+        invoice.dueDate = dueDate;
+        invoice.createdAt = createdAt;
+        invoice.updatedAt = updatedAt;
+        invoice.version = version;
+        return invoice;
+    }
+    
     // Getters
     public UUID getId() {
         return id;
@@ -75,10 +129,26 @@ public class Invoice {
         return Collections.unmodifiableList(lineItems);
     }
     
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+    
     public BigDecimal getBalance() {
         return balance;
     }
     
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -90,7 +160,7 @@ public class Invoice {
     /**
      * Adds a line item to the invoice.
      * Only allowed in Draft state.
-     * Recalculates balance after adding the line item.
+     * Recalculates total and balance after adding the line item.
      */
     public void addLineItem(InvoiceLineItem lineItem) {
         if (status != InvoiceStatus.DRAFT) {
@@ -99,8 +169,9 @@ public class Invoice {
         if (lineItem == null) {
             throw new IllegalArgumentException("Line item cannot be null");
         }
+        lineItem.assignToInvoice(createdAt);
         lineItems.add(lineItem);
-        recalculateBalance();
+        recalculateTotals();
         this.updatedAt = LocalDateTime.now();
     }
     
@@ -120,27 +191,38 @@ public class Invoice {
     }
     
     /**
-     * Marks the invoice as Sent.
+     * Marks the invoice as Sent, due {@link #DEFAULT_PAYMENT_TERM_DAYS} days from today.
+     */
+    public void markAsSent() {
+        markAsSent(LocalDate.now().plusDays(DEFAULT_PAYMENT_TERM_DAYS));
+    }
+    
+    /**
+     * Marks the invoice as Sent with the given due date.
      * State transition: Draft → Sent
      * Only allowed from Draft state.
      */
-    public void markAsSent() {
+    public void markAsSent(LocalDate dueDate) {
         if (status != InvoiceStatus.DRAFT) {
             throw new IllegalStateException("Cannot mark invoice as Sent from " + status + " state. Only Draft invoices can be sent.");
         }
+        if (dueDate == null) {
+            throw new IllegalArgumentException("Due date cannot be null");
+        }
         this.status = InvoiceStatus.SENT;
+        this.dueDate = dueDate;
         this.updatedAt = LocalDateTime.now();
     }
     
     /**
      * Applies a payment to the invoice.
      * Reduces balance and transitions to Paid state if balance reaches zero.
-     * State transition: Sent → Paid (when balance reaches zero)
-     * Only allowed in Sent state.
+     * State transition: Sent or Overdue → Paid (when balance reaches zero)
+     * Only allowed in Sent or Overdue state.
      */
     public void applyPayment(BigDecimal paymentAmount) {
-        if (status != InvoiceStatus.SENT) {
-            throw new IllegalStateException("Cannot apply payment to invoice in " + status + " state. Only Sent invoices can receive payments.");
+        if (status != InvoiceStatus.SENT && status != InvoiceStatus.OVERDUE) {
+            throw new IllegalStateException("Cannot apply payment to invoice in " + status + " state. Only Sent or Overdue invoices can receive payments.");
         }
         if (paymentAmount == null || paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Payment amount must be greater than zero");
@@ -149,6 +231,7 @@ public class Invoice {
             throw new IllegalArgumentException("Payment amount cannot exceed invoice balance");
         }
         
+        this.amountPaid = this.amountPaid.add(paymentAmount);
         this.balance = this.balance.subtract(paymentAmount);
         
         // Transition to Paid state if balance reaches zero
@@ -160,13 +243,55 @@ public class Invoice {
     }
     
     /**
-     * Recalculates the invoice balance from line items.
-     * Balance = sum of (quantity × unit price) for all line items.
+     * Recomputes the stored subtotals, total, amount paid and balance from the line items and
+     * the payments recorded against the invoice, and brings the status in line with the
+     * balance: a Sent or Overdue invoice with nothing left to pay becomes Paid, and a Paid
+     * invoice with a balance reopens as Sent, or Overdue once past its due date.
+     * Used to repair invoices whose stored values disagree with their sources.
+     *
+     * @return whether anything changed
+     */
+    public boolean reconcileTotals(BigDecimal paymentsTotal, LocalDate today) {
+        if (paymentsTotal == null || paymentsTotal.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Payments total cannot be null or negative");
+        }
+        boolean changed = false;
+        for (InvoiceLineItem lineItem : lineItems) {
+            changed |= lineItem.reconcileSubtotal();
+        }
+        BigDecimal storedTotal = total;
+        BigDecimal storedAmountPaid = amountPaid;
+        BigDecimal storedBalance = balance;
+        InvoiceStatus storedStatus = status;
+        
+        this.amountPaid = paymentsTotal;
+        recalculateTotals();
+        if ((status == InvoiceStatus.SENT || status == InvoiceStatus.OVERDUE)
+                && balance.compareTo(BigDecimal.ZERO) == 0 && amountPaid.compareTo(BigDecimal.ZERO) > 0) {
+            this.status = InvoiceStatus.PAID;
+        } else if (status == InvoiceStatus.PAID && balance.compareTo(BigDecimal.ZERO) > 0) {
+            this.status = dueDate != null && dueDate.isBefore(today) ? InvoiceStatus.OVERDUE : InvoiceStatus.SENT;
+        }
+        
+        changed |= storedTotal == null || storedTotal.compareTo(total) != 0
+                || storedAmountPaid == null || storedAmountPaid.compareTo(amountPaid) != 0
+                || storedBalance == null || storedBalance.compareTo(balance) != 0
+                || storedStatus != status;
+        if (changed) {
+            this.updatedAt = LocalDateTime.now();
+        }
+        return changed;
+    }
+    
+    /**
+     * Recalculates the invoice total from the stored line item subtotals.
+     * Total = sum of line item subtotals; Balance = Total - Amount paid.
      */
-    private void recalculateBalance() {
-        this.balance = lineItems.stream()
+    private void recalculateTotals() {
+        this.total = lineItems.stream()
                 .map(InvoiceLineItem::getSubtotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.balance = this.total.subtract(this.amountPaid);
     }
     
     @PrePersist
@@ -174,6 +299,12 @@ public class Invoice {
         if (this.createdAt == null) {
             this.createdAt = LocalDateTime.now();
         }
+        if (this.total == null) {
+            this.total = BigDecimal.ZERO;
+        }
+        if (this.amountPaid == null) {
+            this.amountPaid = BigDecimal.ZERO;
+        }
         if (this.balance == null) {
             this.balance = BigDecimal.ZERO;
         }
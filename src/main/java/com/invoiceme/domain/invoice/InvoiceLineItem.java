@@ -2,12 +2,15 @@ package com.invoiceme.domain.invoice;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Value object representing a line item on an invoice.
  * Encapsulates description, quantity, and unit price with subtotal calculation.
+ * The subtotal is computed once when quantity or unit price change and persisted,
+ * so reads and SQL aggregates never repeat the multiplication.
  */
 @Embeddable
 public class InvoiceLineItem {
@@ -23,6 +26,13 @@ public class InvoiceLineItem {
     @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
     private BigDecimal unitPrice;
     
+    @Column(name = "subtotal", nullable = false, precision = 19, scale = 2, columnDefinition = "numeric(19,2) default 0")
+    private BigDecimal subtotal;
+    
+    // Copy of the owning invoice's created_at, the partition key of invoice_line_items on Postgres
+    @Column(name = "invoice_created_at")
+    private LocalDateTime invoiceCreatedAt;
+    
     // Default constructor for JPA
     protected InvoiceLineItem() {}
     
@@ -41,6 +51,25 @@ public class InvoiceLineItem {
         this.description = description;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
+        recalculateSubtotal();
+    }
+    
+    /**
+     * Rebuilds a line item read back from the archive, keeping its original id and stored subtotal.
+     */
+    public static InvoiceLineItem restore(UUID lineItemId, String description, Integer quantity,
+                                          BigDecimal unitPrice, BigDecimal subtotal) {
+        InvoiceLineItem lineItem = new InvoiceLineItem();
+        lineItem.lineItemId = lineItemId;
+        lineItem.description = description;
+        lineItem.quantity = quantity;
+        lineItem.unitPrice = unitPrice;
+        lineItem.subtotal = subtotal;
+        return lineItem;
+    }
+    
+    void assignToInvoice(LocalDateTime invoiceCreatedAt) {
+        this.invoiceCreatedAt = invoiceCreatedAt;
     }
     
     public UUID getLineItemId() {
@@ -60,10 +89,10 @@ public class InvoiceLineItem {
     }
     
     /**
-     * Calculates the subtotal for this line item (quantity × unit price).
+     * Returns the stored subtotal for this line item (quantity × unit price).
      */
     public BigDecimal getSubtotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        return subtotal;
     }
     
     public void updateDescription(String description) {
@@ -78,6 +107,7 @@ public class InvoiceLineItem {
             throw new IllegalArgumentException("Quantity must be greater than zero");
         }
         this.quantity = quantity;
+        recalculateSubtotal();
     }
     
     public void updateUnitPrice(BigDecimal unitPrice) {
@@ -85,6 +115,23 @@ public class InvoiceLineItem {
             throw new IllegalArgumentException("Unit price cannot be null or negative");
         }
         this.unitPrice = unitPrice;
+        recalculateSubtotal();
+    }
+    
+    /**
+     * Recomputes the stored subtotal, for rows written before it was stored or changed outside
+     * the domain model.
+     *
+     * @return whether the stored subtotal was wrong
+     */
+    boolean reconcileSubtotal() {
+        BigDecimal stored = subtotal;
+        recalculateSubtotal();
+        return stored == null || stored.compareTo(subtotal) != 0;
+    }
+    
+    private void recalculateSubtotal() {
+        this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
     }
     
     @Override
@@ -2,11 +2,13 @@ package com.invoiceme.domain.invoice;
 
 /**
  * Enum representing the lifecycle states of an Invoice.
- * State transitions: Draft → Sent → Paid
+ * State transitions: Draft → Sent → Paid, or Draft → Sent → Overdue → Paid
+ * once the due date has passed (set by the overdue invoice job).
  */
 public enum InvoiceStatus {
     DRAFT,
     SENT,
+    OVERDUE,
     PAID
 }
 
@@ -10,7 +10,10 @@ import java.util.UUID;
  * Applies to an invoice and updates the invoice balance.
  */
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_payment_date_id", columnList = "payment_date, id"),
+    @Index(name = "idx_payments_invoice_id", columnList = "invoice_id")
+})
 public class Payment {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -28,6 +31,10 @@ public class Payment {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Default constructor for JPA
     protected Payment() {}
     
@@ -48,6 +55,21 @@ public class Payment {
         this.createdAt = LocalDateTime.now();
     }
     
+    /**
+     * Rebuilds a payment read back from the invoice archive. The result is detached and never persisted.
+     */
+    public static Payment restore(UUID id, UUID invoiceId, BigDecimal amount, LocalDateTime paymentDate,
+                                  LocalDateTime createdAt, Long version) {
+        Payment payment = new Payment();
+        payment.id = id;
+        payment.invoiceId = invoiceId;
+        payment.amount = amount;
+        payment.paymentDate = paymentDate;
+        payment.createdAt = createdAt;
+        payment.version = version;
+        return payment;
+    }
+    
     // Getters
     public UUID getId() {
         return id;
@@ -65,6 +87,10 @@ public class Payment {
         return paymentDate;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,129 @@
+package com.invoiceme.domain.user;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A long-lived key for a machine client, such as an ERP integration.
+ *
+ * A key grants only the permissions in its scopes and never user management. The key value
+ * is shown once on creation. After that only its public prefix, which identifies the key,
+ * and the SHA-256 of the whole value are kept.
+ */
+@Entity
+@Table(name = "api_keys")
+public class ApiKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+    
+    @Column(nullable = false, unique = true, length = 16)
+    private String prefix;
+    
+    /** Hex SHA-256 of the whole key value. */
+    @Column(name = "key_hash", nullable = false, length = 64)
+    private String keyHash;
+    
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "api_key_scopes", joinColumns = @JoinColumn(name = "api_key_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 32)
+    private Set<Permission> scopes;
+    
+    @Column(name = "created_by", nullable = false)
+    private String createdBy;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+    
+    // Default constructor for JPA
+    protected ApiKey() {
+        this.scopes = new HashSet<>();
+    }
+    
+    public ApiKey(String name, String prefix, String keyHash, Set<Permission> scopes, String createdBy,
+                  LocalDateTime expiresAt) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("API key name cannot be blank");
+        }
+        if (prefix == null || prefix.isBlank() || keyHash == null || keyHash.isBlank()) {
+            throw new IllegalArgumentException("API key prefix and hash are required");
+        }
+        if (scopes == null || scopes.isEmpty()) {
+            throw new IllegalArgumentException("An API key needs at least one scope");
+        }
+        if (scopes.contains(Permission.USERS_MANAGE)) {
+            throw new IllegalArgumentException("API keys cannot manage users");
+        }
+        if (expiresAt != null && !expiresAt.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("API key expiry must be in the future");
+        }
+        this.name = name;
+        this.prefix = prefix;
+        this.keyHash = keyHash;
+        this.scopes = new HashSet<>(scopes);
+        this.createdBy = createdBy;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    /** Stops the key from authenticating. Revoking a revoked key keeps the original time. */
+    public void revoke() {
+        if (revokedAt == null) {
+            revokedAt = LocalDateTime.now();
+        }
+    }
+    
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getPrefix() {
+        return prefix;
+    }
+    
+    public String getKeyHash() {
+        return keyHash;
+    }
+    
+    public Set<Permission> getScopes() {
+        return scopes.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(scopes));
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+}
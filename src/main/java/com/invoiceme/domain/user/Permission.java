@@ -0,0 +1,17 @@
+package com.invoiceme.domain.user;
+
+/**
+ * An action a user may be allowed to take. The name is used as the Spring Security
+ * authority, so controllers check it with {@code hasAuthority('INVOICES_WRITE')}.
+ */
+public enum Permission {
+    CUSTOMERS_READ,
+    CUSTOMERS_WRITE,
+    INVOICES_READ,
+    INVOICES_WRITE,
+    PAYMENTS_READ,
+    PAYMENTS_WRITE,
+    BILLING_READ,
+    BILLING_WRITE,
+    USERS_MANAGE
+}
@@ -0,0 +1,105 @@
+package com.invoiceme.domain.user;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A refresh token issued to a user, stored only as a hash of its value.
+ *
+ * Every refresh exchanges the token for a new one in the same family and marks the old one
+ * used. A used token presented again means it was copied, so the whole family is revoked and
+ * both the thief and the user have to log in again.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    /** Shared by a login's original token and every token it was rotated into. */
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+    
+    /** Hex SHA-256 of the token value. */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+    
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+    
+    // Default constructor for JPA
+    protected RefreshToken() {}
+    
+    public RefreshToken(UUID userId, UUID familyId, String tokenHash, LocalDateTime expiresAt) {
+        if (userId == null || familyId == null) {
+            throw new IllegalArgumentException("User ID and family ID are required");
+        }
+        if (tokenHash == null || tokenHash.isBlank()) {
+            throw new IllegalArgumentException("Token hash cannot be blank");
+        }
+        if (expiresAt == null) {
+            throw new IllegalArgumentException("Expiry is required");
+        }
+        this.userId = userId;
+        this.familyId = familyId;
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Whether the token can still be exchanged: not expired, not yet rotated and not revoked.
+     */
+    public boolean isUsable(LocalDateTime now) {
+        return usedAt == null && revokedAt == null && now.isBefore(expiresAt);
+    }
+    
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public UUID getFamilyId() {
+        return familyId;
+    }
+    
+    public String getTokenHash() {
+        return tokenHash;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+    
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.invoiceme.domain.user;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An access token revoked before its expiry, by its {@code jti}. Rows are only needed until
+ * the token would have expired anyway and are purged after that. Request authentication
+ * never reads this table directly; it consults the in-memory revocation list built from it.
+ */
+@Entity
+@Table(name = "revoked_access_tokens", indexes = {
+    @Index(name = "idx_revoked_access_tokens_revoked_at", columnList = "revoked_at")
+})
+public class RevokedAccessToken {
+    @Id
+    @Column(name = "jti")
+    private UUID jti;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    
+    // Default constructor for JPA
+    protected RevokedAccessToken() {}
+    
+    // Getters
+    public UUID getJti() {
+        return jti;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+}
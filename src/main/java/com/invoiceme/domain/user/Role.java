@@ -0,0 +1,29 @@
+package com.invoiceme.domain.user;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A user's role and the permissions it grants. Users registered through the API are
+ * accountants; user management is reserved for admins.
+ */
+public enum Role {
+    ADMIN(EnumSet.allOf(Permission.class)),
+    ACCOUNTANT(EnumSet.complementOf(EnumSet.of(Permission.USERS_MANAGE))),
+    READ_ONLY(EnumSet.of(
+            Permission.CUSTOMERS_READ,
+            Permission.INVOICES_READ,
+            Permission.PAYMENTS_READ,
+            Permission.BILLING_READ));
+
+    private final Set<Permission> permissions;
+
+    Role(EnumSet<Permission> permissions) {
+        this.permissions = Collections.unmodifiableSet(permissions);
+    }
+
+    public Set<Permission> getPermissions() {
+        return permissions;
+    }
+}
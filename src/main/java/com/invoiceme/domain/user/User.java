@@ -1,22 +1,33 @@
 package com.invoiceme.domain.user;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
     
     @Column(nullable = false)
     private String password; // BCrypt hashed
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 16, columnDefinition = "varchar(16) default 'ADMIN'")
+    private Role role;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -28,8 +39,16 @@ public class User {
     
     // Constructor for creating new users
     public User(String email, String password) {
+        this(email, password, Role.ACCOUNTANT);
+    }
+    
+    public User(String email, String password, Role role) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role is required");
+        }
         this.email = email;
         this.password = password; // Should be BCrypt hashed before calling
+        this.role = role;
         this.createdAt = LocalDateTime.now();
     }
     
@@ -46,6 +65,10 @@ public class User {
         return password;
     }
     
+    public Role getRole() {
+        return role;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -65,6 +88,14 @@ public class User {
         this.updatedAt = LocalDateTime.now();
     }
     
+    public void setRole(Role role) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role is required");
+        }
+        this.role = role;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
     @PrePersist
     protected void onCreate() {
         if (this.createdAt == null) {
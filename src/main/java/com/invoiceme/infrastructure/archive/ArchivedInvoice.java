@@ -0,0 +1,74 @@
+package com.invoiceme.infrastructure.archive;
+
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.domain.payment.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One archived invoice together with its line items and payments, as stored in a segment record.
+ */
+public record ArchivedInvoice(
+        UUID id,
+        UUID customerId,
+        InvoiceStatus status,
+        List<LineItem> lineItems,
+        BigDecimal total,
+        BigDecimal amountPaid,
+        BigDecimal balance,
+        LocalDate dueDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version,
+        List<ArchivedPayment> payments
+) {
+    public record LineItem(UUID lineItemId, String description, Integer quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+    }
+
+    public record ArchivedPayment(UUID id, BigDecimal amount, LocalDateTime paymentDate, LocalDateTime createdAt, Long version) {
+    }
+
+    public static ArchivedInvoice of(Invoice invoice, List<Payment> payments) {
+        return new ArchivedInvoice(
+                invoice.getId(),
+                invoice.getCustomerId(),
+                invoice.getStatus(),
+                invoice.getLineItems().stream()
+                        .map(item -> new LineItem(item.getLineItemId(), item.getDescription(), item.getQuantity(),
+                                item.getUnitPrice(), item.getSubtotal()))
+                        .toList(),
+                invoice.getTotal(),
+                invoice.getAmountPaid(),
+                invoice.getBalance(),
+                invoice.getDueDate(),
+                invoice.getCreatedAt(),
+                invoice.getUpdatedAt(),
+                invoice.getVersion(),
+                payments.stream()
+                        .map(payment -> new ArchivedPayment(payment.getId(), payment.getAmount(), payment.getPaymentDate(),
+                                payment.getCreatedAt(), payment.getVersion()))
+                        .toList()
+        );
+    }
+
+    public Invoice toInvoice() {
+        List<InvoiceLineItem> items = lineItems.stream()
+                .map(item -> InvoiceLineItem.restore(item.lineItemId(), item.description(), item.quantity(),
+                        item.unitPrice(), item.subtotal()))
+                .toList();
+        return Invoice.restore(id, customerId, status, items, total, amountPaid, balance, dueDate, createdAt, updatedAt, version);
+    }
+
+    public List<Payment> toPayments() {
+        return payments.stream()
+                .map(payment -> Payment.restore(payment.id(), id, payment.amount(), payment.paymentDate(),
+                        payment.createdAt(), payment.version()))
+                .toList();
+    }
+}
@@ -0,0 +1,395 @@
+package com.invoiceme.infrastructure.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.domain.payment.Payment;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold storage for PAID invoices, kept in immutable segment files on local disk.
+ *
+ * Each archive run writes one segment: {@code <name>.seg} holds the deflate-compressed JSON
+ * of every {@link ArchivedInvoice}, back to back, and {@code <name>.idx} holds one fixed-size
+ * entry per record (invoice id, offset, compressed and raw length). {@code <name>.pidx} maps the
+ * id of every archived payment to its invoice id and payment date. The index file is moved into
+ * place last, so a segment without one is incomplete and ignored.
+ *
+ * All index entries are held in memory; segments are memory-mapped on first read, so a lookup
+ * is a hash probe plus inflating a single record straight from the page cache. Payments are
+ * also kept ordered by (payment date, id), the keyset order of payment search, so a date range
+ * only inflates the invoices of payments inside it. When several
+ * nodes share the directory, a miss rescans it (at most once per rescan interval) to pick up
+ * segments written elsewhere.
+ */
+@Component
+public class InvoiceArchive {
+    private static final Logger log = LoggerFactory.getLogger(InvoiceArchive.class);
+
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    static final String PAYMENT_INDEX_SUFFIX = ".pidx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** msb, lsb, offset, compressed length, raw length. */
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES * 3 + Integer.BYTES * 2;
+    /** payment msb, lsb, invoice msb, lsb, payment date epoch second, nanos. */
+    private static final int PAYMENT_ENTRY_BYTES = Long.BYTES * 5 + Integer.BYTES;
+    private static final UUID MIN_ID = new UUID(0, 0);
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long rescanIntervalNanos;
+
+    private final Map<UUID, Location> index = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> paymentInvoices = new ConcurrentHashMap<>();
+    private final NavigableMap<PaymentKey, UUID> paymentsByDate = new ConcurrentSkipListMap<>();
+    private final Set<String> loadedSegments = new HashSet<>();
+    private volatile long lastScanNanos;
+
+    public InvoiceArchive(
+            ObjectMapper objectMapper,
+            @Value("${invoiceme.archive.directory:data/archive}") Path directory,
+            @Value("${invoiceme.archive.rescan-interval:PT10S}") Duration rescanInterval) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.rescanIntervalNanos = rescanInterval.toNanos();
+    }
+
+    @PostConstruct
+    void loadIndex() {
+        int segments = scan();
+        if (segments > 0) {
+            log.info("Loaded {} archived invoices from {} segments in {}", index.size(), segments, directory);
+        }
+    }
+
+    /**
+     * Looks up an archived invoice by id.
+     */
+    public Optional<ArchivedInvoice> find(UUID invoiceId) {
+        return lookup(index, invoiceId).map(this::read);
+    }
+
+    /**
+     * Looks up the archived invoice that a payment belongs to, by payment id.
+     */
+    public Optional<ArchivedInvoice> findByPaymentId(UUID paymentId) {
+        return lookup(paymentInvoices, paymentId).flatMap(this::find);
+    }
+
+    /**
+     * Streams archived payments in (payment date, id) order, lazily inflating their invoices.
+     * Bounds may be null: {@code from} is inclusive, {@code to} exclusive, and the
+     * {@code afterDate}/{@code afterId} keyset position exclusive.
+     */
+    public Stream<PaymentEntry> payments(LocalDateTime from, LocalDateTime to, LocalDateTime afterDate, UUID afterId) {
+        if (System.nanoTime() - lastScanNanos > rescanIntervalNanos) {
+            scan();
+        }
+        NavigableMap<PaymentKey, UUID> range = paymentsByDate;
+        PaymentKey lower = from != null ? new PaymentKey(from, MIN_ID) : null;
+        PaymentKey after = afterDate != null ? new PaymentKey(afterDate, afterId) : null;
+        if (after != null && (lower == null || after.compareTo(lower) >= 0)) {
+            range = range.tailMap(after, false);
+        } else if (lower != null) {
+            range = range.tailMap(lower, true);
+        }
+        if (to != null) {
+            PaymentKey upper = new PaymentKey(to, MIN_ID);
+            if (range.isEmpty() || range.firstKey().compareTo(upper) >= 0) {
+                return Stream.empty();
+            }
+            range = range.headMap(upper, false);
+        }
+        return range.entrySet().stream()
+                .flatMap(entry -> find(entry.getValue()).stream()
+                        .flatMap(invoice -> invoice.toPayments().stream()
+                                .filter(payment -> payment.getId().equals(entry.getKey().id()))
+                                .map(payment -> new PaymentEntry(invoice, payment))));
+    }
+
+    private <V> Optional<V> lookup(Map<UUID, V> map, UUID id) {
+        V value = map.get(id);
+        if (value == null && System.nanoTime() - lastScanNanos > rescanIntervalNanos) {
+            scan();
+            value = map.get(id);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Writes the invoices as a new segment and adds them to the index. Returns only once
+     * both files are flushed to disk, so callers may delete the source rows afterwards.
+     *
+     * @return the segment file name
+     */
+    public synchronized String append(List<ArchivedInvoice> invoices) {
+        if (invoices.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to archive");
+        }
+        String name = LocalDateTime.now().format(SEGMENT_NAME)
+                + "-" + Integer.toHexString(ThreadLocalRandom.current().nextInt());
+        Path segment = directory.resolve(name + SEGMENT_SUFFIX);
+        Path indexFile = directory.resolve(name + INDEX_SUFFIX);
+        Path segmentTemp = directory.resolve(name + SEGMENT_SUFFIX + TEMP_SUFFIX);
+        Path indexTemp = directory.resolve(name + INDEX_SUFFIX + TEMP_SUFFIX);
+        Path paymentIndexFile = directory.resolve(name + PAYMENT_INDEX_SUFFIX);
+        Path paymentIndexTemp = directory.resolve(name + PAYMENT_INDEX_SUFFIX + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            ByteBuffer entries = ByteBuffer.allocate(invoices.size() * INDEX_ENTRY_BYTES).order(ByteOrder.BIG_ENDIAN);
+            int paymentCount = invoices.stream().mapToInt(invoice -> invoice.payments().size()).sum();
+            ByteBuffer paymentEntries = ByteBuffer.allocate(paymentCount * PAYMENT_ENTRY_BYTES).order(ByteOrder.BIG_ENDIAN);
+            try (FileChannel channel = FileChannel.open(segmentTemp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long offset = 0;
+                for (ArchivedInvoice invoice : invoices) {
+                    byte[] raw = objectMapper.writeValueAsBytes(invoice);
+                    byte[] compressed = deflate(raw);
+                    if (offset + compressed.length > Integer.MAX_VALUE) {
+                        throw new IllegalStateException("Archive segment would exceed 2 GB; archive smaller batches");
+                    }
+                    channel.write(ByteBuffer.wrap(compressed));
+                    entries.putLong(invoice.id().getMostSignificantBits())
+                            .putLong(invoice.id().getLeastSignificantBits())
+                            .putLong(offset)
+                            .putInt(compressed.length)
+                            .putInt(raw.length);
+                    offset += compressed.length;
+                    for (ArchivedInvoice.ArchivedPayment payment : invoice.payments()) {
+                        paymentEntries.putLong(payment.id().getMostSignificantBits())
+                                .putLong(payment.id().getLeastSignificantBits())
+                                .putLong(invoice.id().getMostSignificantBits())
+                                .putLong(invoice.id().getLeastSignificantBits())
+                                .putLong(payment.paymentDate().toEpochSecond(ZoneOffset.UTC))
+                                .putInt(payment.paymentDate().getNano());
+                    }
+                }
+                channel.force(true);
+            }
+            try (FileChannel channel = FileChannel.open(paymentIndexTemp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channel.write(paymentEntries.flip());
+                channel.force(true);
+            }
+            try (FileChannel channel = FileChannel.open(indexTemp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channel.write(entries.flip());
+                channel.force(true);
+            }
+            Files.move(segmentTemp, segment, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(paymentIndexTemp, paymentIndexFile, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTemp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment " + segment, e);
+        } finally {
+            deleteQuietly(segmentTemp);
+            deleteQuietly(indexTemp);
+            deleteQuietly(paymentIndexTemp);
+        }
+        load(name);
+        return name + SEGMENT_SUFFIX;
+    }
+
+    /**
+     * Loads index files not seen yet, oldest first, so a later copy of an invoice wins.
+     *
+     * @return number of segments loaded
+     */
+    private synchronized int scan() {
+        lastScanNanos = System.nanoTime();
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        List<String> names;
+        try (Stream<Path> files = Files.list(directory)) {
+            names = files.map(path -> path.getFileName().toString())
+                    .filter(file -> file.endsWith(INDEX_SUFFIX))
+                    .map(file -> file.substring(0, file.length() - INDEX_SUFFIX.length()))
+                    .filter(name -> !loadedSegments.contains(name))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list archive directory " + directory, e);
+        }
+        names.forEach(this::load);
+        return names.size();
+    }
+
+    private synchronized void load(String name) {
+        Segment segment = new Segment(directory.resolve(name + SEGMENT_SUFFIX));
+        List<Location> locations = new ArrayList<>();
+        try {
+            ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(name + INDEX_SUFFIX)));
+            while (entries.remaining() >= INDEX_ENTRY_BYTES) {
+                UUID id = new UUID(entries.getLong(), entries.getLong());
+                Location location = new Location(segment, entries.getLong(), entries.getInt(), entries.getInt());
+                index.put(id, location);
+                locations.add(location);
+            }
+            Path paymentIndexFile = directory.resolve(name + PAYMENT_INDEX_SUFFIX);
+            if (Files.exists(paymentIndexFile)) {
+                ByteBuffer paymentEntries = ByteBuffer.wrap(Files.readAllBytes(paymentIndexFile));
+                while (paymentEntries.remaining() >= PAYMENT_ENTRY_BYTES) {
+                    UUID paymentId = new UUID(paymentEntries.getLong(), paymentEntries.getLong());
+                    UUID invoiceId = new UUID(paymentEntries.getLong(), paymentEntries.getLong());
+                    LocalDateTime paymentDate = LocalDateTime.ofEpochSecond(
+                            paymentEntries.getLong(), paymentEntries.getInt(), ZoneOffset.UTC);
+                    indexPayment(paymentId, invoiceId, paymentDate);
+                }
+            } else {
+                // Segments written before payment indexes existed: read the payments from the records.
+                for (Location location : locations) {
+                    ArchivedInvoice invoice = read(location);
+                    invoice.payments().forEach(payment -> indexPayment(payment.id(), invoice.id(), payment.paymentDate()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive index " + name, e);
+        }
+        loadedSegments.add(name);
+    }
+
+    private void indexPayment(UUID paymentId, UUID invoiceId, LocalDateTime paymentDate) {
+        paymentInvoices.put(paymentId, invoiceId);
+        paymentsByDate.put(new PaymentKey(paymentDate, paymentId), invoiceId);
+    }
+
+    private ArchivedInvoice read(Location location) {
+        ByteBuffer compressed = location.segment().mapped().slice((int) location.offset(), location.length());
+        byte[] raw = new byte[location.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = inflater.inflate(raw);
+            if (read != raw.length || !inflater.finished()) {
+                throw new IllegalStateException("Corrupt archive record in " + location.segment().path());
+            }
+            return objectMapper.readValue(raw, ArchivedInvoice.class);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archive record in " + location.segment().path(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private record Location(Segment segment, long offset, int length, int rawLength) {
+    }
+
+    /**
+     * An archived payment together with the invoice it belongs to.
+     */
+    public record PaymentEntry(ArchivedInvoice invoice, Payment payment) {
+    }
+
+    /**
+     * Orders like {@code order by payment_date, id}: databases compare UUIDs as unsigned bytes.
+     */
+    private record PaymentKey(LocalDateTime paymentDate, UUID id) implements Comparable<PaymentKey> {
+        @Override
+        public int compareTo(PaymentKey other) {
+            int byDate = paymentDate.compareTo(other.paymentDate);
+            if (byDate != 0) {
+                return byDate;
+            }
+            int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), other.id.getMostSignificantBits());
+            return byHigh != 0 ? byHigh : Long.compareUnsigned(id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * A segment file, mapped read-only the first time a record in it is read.
+     * The mapping lives as long as the segment is referenced from the index.
+     */
+    private static final class Segment {
+        private final Path path;
+        private volatile MappedByteBuffer mapped;
+
+        Segment(Path path) {
+            this.path = path;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        MappedByteBuffer mapped() {
+            MappedByteBuffer buffer = mapped;
+            if (buffer == null) {
+                synchronized (this) {
+                    buffer = mapped;
+                    if (buffer == null) {
+                        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Could not map archive segment " + path, e);
+                        }
+                        mapped = buffer;
+                    }
+                }
+            }
+            return buffer;
+        }
+    }
+}
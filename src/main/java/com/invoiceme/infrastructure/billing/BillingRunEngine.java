@@ -0,0 +1,239 @@
+package com.invoiceme.infrastructure.billing;
+
+import com.invoiceme.domain.billing.BillingRun;
+import com.invoiceme.domain.billing.BillingRunStatus;
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import com.invoiceme.infrastructure.persistence.billing.BillingBulkRepository;
+import com.invoiceme.infrastructure.persistence.billing.BillingBulkRepository.BilledTemplateRow;
+import com.invoiceme.infrastructure.persistence.billing.BillingRunRepository;
+import com.invoiceme.infrastructure.persistence.billing.RecurringInvoiceTemplateRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceBulkRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceBulkRepository.NewInvoice;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a billing cycle's invoices from the active recurring templates.
+ *
+ * The unbilled template ids are split into one contiguous partition per worker thread.
+ * Each partition is billed in batches, and each batch is one transaction: the billed
+ * templates are recorded, the invoices and line items are inserted as JDBC batches,
+ * and the run's progress counter is bumped. A crash therefore loses at most the
+ * uncommitted batches, and the next attempt starts from the templates that have no
+ * billed record for the cycle. The billed record's primary key (template, cycle) rules
+ * out a second invoice even if two nodes work on the same run.
+ */
+@Component
+public class BillingRunEngine {
+    private static final Logger log = LoggerFactory.getLogger(BillingRunEngine.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BillingBulkRepository billingBulkRepository;
+    private final BillingRunRepository billingRunRepository;
+    private final RecurringInvoiceTemplateRepository templateRepository;
+    private final InvoiceBulkRepository invoiceBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean resumeOnStartup;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService coordinator;
+    private final Set<UUID> activeRuns = ConcurrentHashMap.newKeySet();
+
+    public BillingRunEngine(
+            BillingBulkRepository billingBulkRepository,
+            BillingRunRepository billingRunRepository,
+            RecurringInvoiceTemplateRepository templateRepository,
+            InvoiceBulkRepository invoiceBulkRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${invoiceme.billing.threads:0}") int threads,
+            @Value("${invoiceme.billing.batch-size:500}") int batchSize,
+            @Value("${invoiceme.billing.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.billingBulkRepository = billingBulkRepository;
+        this.billingRunRepository = billingRunRepository;
+        this.templateRepository = templateRepository;
+        this.invoiceBulkRepository = invoiceBulkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.resumeOnStartup = resumeOnStartup;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "billing-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "billing-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int poolSize() {
+        return workers.getMaximumPoolSize();
+    }
+
+    /**
+     * Whether this node is currently working on the run.
+     */
+    public boolean isActive(UUID runId) {
+        return activeRuns.contains(runId);
+    }
+
+    /**
+     * Starts or resumes the run in the background, unless this node is already working on it.
+     */
+    public void submit(BillingRun run) {
+        if (!activeRuns.add(run.getId())) {
+            return;
+        }
+        coordinator.execute(() -> {
+            try {
+                run(run.getId(), run.getBillingCycle());
+            } catch (RuntimeException e) {
+                log.error("Billing run {} for {} failed; submit it again to resume", run.getId(), run.getBillingCycle(), e);
+            } finally {
+                activeRuns.remove(run.getId());
+            }
+        });
+    }
+
+    /**
+     * Runs left RUNNING by a crash or shutdown are resumed once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        for (BillingRun run : billingRunRepository.findByStatus(BillingRunStatus.RUNNING)) {
+            log.info("Resuming interrupted billing run {} for {}", run.getId(), run.getBillingCycle());
+            submit(run);
+        }
+    }
+
+    /**
+     * Bills every template still unbilled for the cycle, on the calling thread and the worker
+     * pool, and returns the number of invoices this attempt created. Safe to call again after
+     * a failure or crash.
+     */
+    public int run(UUID runId, LocalDate cycle) {
+        List<UUID> templateIds = billingBulkRepository.findUnbilledTemplateIds(cycle);
+        LocalDateTime started = LocalDateTime.now();
+        billingBulkRepository.startAttempt(runId, templateIds.size(), started);
+        log.info("Billing run {} for {}: {} templates to bill", runId, cycle, templateIds.size());
+
+        int partitions = Math.max(1, Math.min(poolSize(), (templateIds.size() + batchSize - 1) / batchSize));
+        int partitionSize = (templateIds.size() + partitions - 1) / partitions;
+        List<Future<Integer>> futures = new ArrayList<>(partitions);
+        for (int start = 0; start < templateIds.size(); start += partitionSize) {
+            List<UUID> partition = templateIds.subList(start, Math.min(start + partitionSize, templateIds.size()));
+            futures.add(workers.submit(() -> billPartition(runId, cycle, partition)));
+        }
+
+        int created = 0;
+        try {
+            for (Future<Integer> future : futures) {
+                created += future.get();
+            }
+        } catch (InterruptedException e) {
+            // Left RUNNING on purpose: the run is resumed on the next startup
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during billing run " + runId, e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            String error = String.valueOf(e.getCause().getMessage());
+            billingBulkRepository.finish(runId, BillingRunStatus.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                    LocalDateTime.now());
+            throw new IllegalStateException("Billing run " + runId + " failed", e.getCause());
+        }
+
+        LocalDateTime finished = LocalDateTime.now();
+        billingBulkRepository.finish(runId, BillingRunStatus.COMPLETED, null, finished);
+        long elapsedMs = Math.max(1, Duration.between(started, finished).toMillis());
+        log.info("Billing run {} for {} completed: {} invoices in {} ms ({} invoices/s)",
+                runId, cycle, created, elapsedMs, created * 1000L / elapsedMs);
+        return created;
+    }
+
+    private int billPartition(UUID runId, LocalDate cycle, List<UUID> templateIds) {
+        int created = 0;
+        for (int start = 0; start < templateIds.size(); start += batchSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Billing run " + runId + " was cancelled");
+            }
+            created += billBatch(runId, cycle, templateIds.subList(start, Math.min(start + batchSize, templateIds.size())));
+        }
+        return created;
+    }
+
+    private int billBatch(UUID runId, LocalDate cycle, List<UUID> templateIds) {
+        List<NewInvoice> invoices = new ArrayList<>(templateIds.size());
+        List<BilledTemplateRow> billed = new ArrayList<>(templateIds.size());
+        for (RecurringInvoiceTemplate template : templateRepository.findByIdIn(templateIds)) {
+            if (!template.isActive()) {
+                continue;
+            }
+            UUID invoiceId = UUID.randomUUID();
+            invoices.add(new NewInvoice(invoiceId, template.toInvoice()));
+            billed.add(new BilledTemplateRow(template.getId(), invoiceId));
+        }
+        if (invoices.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Billed records first, so a duplicate fails before any invoice is written
+                billingBulkRepository.insertBilledTemplates(runId, cycle, billed);
+                invoiceBulkRepository.insertAll(invoices);
+                billingBulkRepository.addInvoicesCreated(runId, invoices.size());
+            });
+            return invoices.size();
+        } catch (DataIntegrityViolationException e) {
+            // Some of these templates were billed concurrently by another node; bill the rest
+            List<UUID> unbilled = billingBulkRepository.findUnbilledTemplateIds(cycle, templateIds);
+            if (unbilled.size() == templateIds.size()) {
+                throw e;
+            }
+            log.debug("Billing run {}: {} of {} templates in batch already billed elsewhere",
+                    runId, templateIds.size() - unbilled.size(), templateIds.size());
+            return unbilled.isEmpty() ? 0 : billBatch(runId, cycle, unbilled);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,156 @@
+package com.invoiceme.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Listens for invalidation notifications from other nodes and evicts the affected
+ * entries from the local second-level cache.
+ *
+ * Uses its own JDBC connection outside the pool, since LISTEN ties up the session for
+ * the lifetime of the node. Whenever the connection is (re)established every region is
+ * cleared, because notifications sent while this node was not listening are lost.
+ */
+@Component
+@ConditionalOnProperty(name = "invoiceme.cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationListener implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+    
+    private final DataSourceProperties dataSourceProperties;
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    public CacheInvalidationListener(
+            DataSourceProperties dataSourceProperties,
+            EntityManagerFactory entityManagerFactory,
+            CacheInvalidationPublisher publisher,
+            ObjectMapper objectMapper,
+            @Value("${invoiceme.cache.invalidation.poll-timeout-ms:500}") int pollTimeoutMs,
+            @Value("${invoiceme.cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.warn("Cross-node cache invalidation requires PostgreSQL; listener disabled");
+                    running = false;
+                    return;
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CacheInvalidationPublisher.CHANNEL);
+                }
+                sessionFactory.getCache().evictAllRegions();
+                log.info("Listening for cache invalidations on {}", CacheInvalidationPublisher.CHANNEL);
+                
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener connection failed; reconnecting in {} ms", reconnectDelayMs, e);
+                    sleep(reconnectDelayMs);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Applies one notification payload. Notifications from this node are ignored, since
+     * Hibernate already updated the local cache when the transaction committed.
+     */
+    public void handle(String payload) {
+        CacheInvalidationMessage message;
+        try {
+            message = objectMapper.readValue(payload, CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+            return;
+        }
+        if (publisher.getNodeId().equals(message.origin())) {
+            return;
+        }
+        
+        CacheImplementor cache = sessionFactory.getCache();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(message.entityName());
+        if (persister == null) {
+            return;
+        }
+        for (UUID id : message.ids()) {
+            cache.evictEntityData(message.entityName(), id);
+        }
+        // Natural-id entries are keyed by the (possibly old) natural id, so drop the whole region
+        if (persister.hasNaturalIdCache()) {
+            cache.evictNaturalIdData(message.entityName());
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.invoiceme.infrastructure.cache;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payload of a cross-node invalidation notification: the entities of one type that
+ * changed in a committed transaction on the {@code origin} node.
+ */
+public record CacheInvalidationMessage(
+    String origin,
+    String entityName,
+    List<UUID> ids
+) {}
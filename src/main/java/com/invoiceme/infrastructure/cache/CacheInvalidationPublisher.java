@@ -0,0 +1,154 @@
+package com.invoiceme.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Collects updates and deletes of second-level-cached entities during a transaction
+ * and announces them to the other nodes with {@code pg_notify}.
+ *
+ * The notifications are issued just before the commit, after Hibernate's final flush, on the
+ * transaction's own connection. Postgres delivers them only if the transaction commits, and
+ * together with it, so rolled-back changes are never published, a crash cannot separate the
+ * commit from its notifications, and no second connection is taken from the pool.
+ */
+@Component
+@ConditionalOnProperty(name = "invoiceme.cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationPublisher implements PostUpdateEventListener, PostDeleteEventListener {
+    public static final String CHANNEL = "invoiceme_cache_invalidation";
+    
+    // Keeps each payload well under Postgres' 8000-byte NOTIFY limit
+    private static final int MAX_IDS_PER_MESSAGE = 100;
+    
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    public CacheInvalidationPublisher(EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+    }
+    
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+    
+    /**
+     * Identifies this node so it can ignore its own notifications.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        collect(event.getSession(), event.getPersister(), event.getId());
+    }
+    
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        collect(event.getSession(), event.getPersister(), event.getId());
+    }
+    
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+    
+    private void collect(EventSource session, EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache() || !(id instanceof UUID uuid)) {
+            return;
+        }
+        // Keyed by session, so a nested transaction's changes go out with its own commit
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(session);
+        if (pending == null) {
+            pending = new PendingInvalidations(session);
+            TransactionSynchronizationManager.bindResource(session, pending);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) pending);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) pending);
+        }
+        pending.add(persister.getEntityName(), uuid);
+    }
+    
+    void publish(SessionImplementor session, Map<String, Set<UUID>> changes) {
+        List<String> payloads = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Set<UUID>> entry : changes.entrySet()) {
+                List<UUID> ids = new ArrayList<>(entry.getValue());
+                for (int from = 0; from < ids.size(); from += MAX_IDS_PER_MESSAGE) {
+                    List<UUID> slice = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_MESSAGE));
+                    payloads.add(objectMapper.writeValueAsString(
+                            new CacheInvalidationMessage(nodeId, entry.getKey(), List.copyOf(slice))));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cache invalidation message", e);
+        }
+        
+        // A failed statement aborts a Postgres transaction, so a failure here fails the commit
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+                for (String payload : payloads) {
+                    statement.setString(1, CHANNEL);
+                    statement.setString(2, payload);
+                    statement.execute();
+                }
+            }
+        });
+    }
+    
+    private class PendingInvalidations implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+        private final Object key;
+        private final Map<String, Set<UUID>> changes = new LinkedHashMap<>();
+        
+        PendingInvalidations(Object key) {
+            this.key = key;
+        }
+        
+        void add(String entityName, UUID id) {
+            changes.computeIfAbsent(entityName, name -> new LinkedHashSet<>()).add(id);
+        }
+        
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            publish(session, changes);
+        }
+        
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+        }
+    }
+}
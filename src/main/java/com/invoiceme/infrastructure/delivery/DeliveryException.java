@@ -0,0 +1,23 @@
+package com.invoiceme.infrastructure.delivery;
+
+/**
+ * A failed delivery attempt. Permanent failures (an unparseable address, a missing invoice)
+ * are not retried; everything else is retried with backoff.
+ */
+public class DeliveryException extends RuntimeException {
+    private final boolean permanent;
+
+    public DeliveryException(String message, boolean permanent) {
+        super(message);
+        this.permanent = permanent;
+    }
+
+    public DeliveryException(String message, boolean permanent, Throwable cause) {
+        super(message, cause);
+        this.permanent = permanent;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
@@ -0,0 +1,9 @@
+package com.invoiceme.infrastructure.delivery;
+
+import java.util.UUID;
+
+/**
+ * Published when a delivery is queued; the worker picks it up as soon as the
+ * enqueuing transaction commits instead of waiting for its next poll.
+ */
+public record InvoiceDeliveryEnqueued(UUID deliveryId) {}
@@ -0,0 +1,12 @@
+package com.invoiceme.infrastructure.delivery;
+
+/**
+ * Sends composed invoice messages. Called from the delivery worker pool, so implementations
+ * must be thread-safe; they may block on network I/O.
+ *
+ * Throw {@link DeliveryException} to report whether a failure is worth retrying; any other
+ * runtime exception is treated as transient.
+ */
+public interface InvoiceDeliveryTransport {
+    void send(InvoiceEmail email);
+}
@@ -0,0 +1,456 @@
+package com.invoiceme.infrastructure.delivery;
+
+import com.invoiceme.application.queries.invoice.GetInvoicePdfQuery;
+import com.invoiceme.application.queries.invoice.GetInvoicePdfQueryHandler;
+import com.invoiceme.application.queries.invoice.InvoiceDocument;
+import com.invoiceme.domain.delivery.DeliveryKind;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the invoice delivery queue on a pool of worker threads.
+ *
+ * A single dispatcher thread claims due deliveries in batches, hands them to the pool and
+ * writes the outcomes back in batches. A claim moves the row to SENDING and pushes its
+ * due time out by the lease, so a delivery held by a node that dies is picked up again
+ * once the lease expires: delivery is at least once. Claims are conditional updates,
+ * which lets several nodes drain the same queue.
+ *
+ * At most {@code max-per-domain} deliveries to the same recipient domain are in flight,
+ * so one slow or throttling mail host cannot occupy the whole pool. Domains at their limit are
+ * excluded from the claim query, so a backlog for one domain does not hold up the deliveries
+ * queued behind it either. Failed attempts are
+ * retried with exponential backoff and jitter until {@code max-attempts} is reached.
+ *
+ * Payment reminders share the queue. A reminder whose invoice was paid while it waited is
+ * cancelled instead of sent.
+ */
+@Component
+@ConditionalOnProperty(name = "invoiceme.delivery.enabled", havingValue = "true", matchIfMissing = true)
+public class InvoiceDeliveryWorker implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(InvoiceDeliveryWorker.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GetInvoicePdfQueryHandler getInvoicePdfQueryHandler;
+    private final InvoiceDeliveryTransport transport;
+    private final int threads;
+    private final int batchSize;
+    private final int maxPerDomain;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lease;
+    private final long pollIntervalMs;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter cancelled;
+    private final Timer sendTime;
+    private final Timer deliveryLag;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> inFlightByDomain = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Outcome> outcomes = new ConcurrentLinkedQueue<>();
+    private final Semaphore wakeups = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread dispatcher;
+    private ThreadPoolExecutor executor;
+
+    public InvoiceDeliveryWorker(
+            JdbcTemplate jdbcTemplate,
+            GetInvoicePdfQueryHandler getInvoicePdfQueryHandler,
+            InvoiceDeliveryTransport transport,
+            MeterRegistry meterRegistry,
+            @Value("${invoiceme.delivery.threads:4}") int threads,
+            @Value("${invoiceme.delivery.batch-size:50}") int batchSize,
+            @Value("${invoiceme.delivery.max-per-domain:2}") int maxPerDomain,
+            @Value("${invoiceme.delivery.max-attempts:8}") int maxAttempts,
+            @Value("${invoiceme.delivery.backoff-base:PT30S}") Duration backoffBase,
+            @Value("${invoiceme.delivery.backoff-max:PT1H}") Duration backoffMax,
+            @Value("${invoiceme.delivery.lease:PT5M}") Duration lease,
+            @Value("${invoiceme.delivery.poll-interval-ms:1000}") long pollIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.getInvoicePdfQueryHandler = getInvoicePdfQueryHandler;
+        this.transport = transport;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxPerDomain = maxPerDomain;
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+        this.lease = lease;
+        this.pollIntervalMs = pollIntervalMs;
+
+        this.sent = Counter.builder("invoiceme.delivery.sent")
+                .description("Invoices delivered").register(meterRegistry);
+        this.retried = Counter.builder("invoiceme.delivery.retried")
+                .description("Delivery attempts that failed and were rescheduled").register(meterRegistry);
+        this.failed = Counter.builder("invoiceme.delivery.failed")
+                .description("Deliveries given up after a permanent failure or the last attempt").register(meterRegistry);
+        this.cancelled = Counter.builder("invoiceme.delivery.cancelled")
+                .description("Reminders dropped because their invoice was no longer open").register(meterRegistry);
+        this.sendTime = Timer.builder("invoiceme.delivery.send")
+                .description("Time spent in the transport per attempt").register(meterRegistry);
+        this.deliveryLag = Timer.builder("invoiceme.delivery.lag")
+                .description("Time from enqueue to successful delivery").register(meterRegistry);
+        Gauge.builder("invoiceme.delivery.queue.depth", this, InvoiceDeliveryWorker::queueDepth)
+                .description("Deliveries not yet sent or failed").register(meterRegistry);
+        Gauge.builder("invoiceme.delivery.queue.oldest-due", this, InvoiceDeliveryWorker::oldestDueSeconds)
+                .description("Seconds the longest-waiting due delivery has been waiting")
+                .baseUnit("seconds").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "invoice-delivery-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "invoice-delivery-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Invoice deliveries still in flight at shutdown; they are retried once their lease expires");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                flushOutcomes();
+            } catch (RuntimeException e) {
+                log.warn("Could not record delivery outcomes at shutdown", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @TransactionalEventListener
+    public void onEnqueued(InvoiceDeliveryEnqueued event) {
+        wakeups.release();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                int claimed = dispatch();
+                // A full batch means more work is likely waiting; otherwise sleep until woken
+                if (claimed < batchSize) {
+                    wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Invoice delivery dispatch failed", e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records finished attempts, then claims as many due deliveries as there are free workers
+     * and submits them. Returns the number of deliveries claimed.
+     */
+    synchronized int dispatch() {
+        flushOutcomes();
+        int free = threads - inFlight.get();
+        if (free <= 0) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> domainLoad = new HashMap<>();
+        inFlightByDomain.forEach((domain, count) -> domainLoad.put(domain, count.get()));
+        List<Claim> selected = new ArrayList<>();
+        while (selected.size() < free) {
+            List<Claim> candidates = dueCandidates(now, domainLoad, selected);
+            // Skip domains that reach their limit within the page; they are excluded from the next one
+            for (Claim candidate : candidates) {
+                if (selected.size() == free) {
+                    break;
+                }
+                int load = domainLoad.getOrDefault(candidate.domain(), 0);
+                if (load < maxPerDomain) {
+                    domainLoad.put(candidate.domain(), load + 1);
+                    selected.add(candidate);
+                }
+            }
+            // A full page left unclaimed slots only by skipping a domain that is now excluded
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+        if (selected.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp leaseUntil = Timestamp.valueOf(now.plus(lease));
+        int[] counts = jdbcTemplate.batchUpdate(
+                "update invoice_deliveries set status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? "
+                        + "where id = ? and status in ('PENDING', 'SENDING') and next_attempt_at <= ?",
+                selected.stream()
+                        .map(claim -> new Object[] {leaseUntil, claim.id(), Timestamp.valueOf(now)})
+                        .toList());
+        int claimed = 0;
+        for (int i = 0; i < counts.length; i++) {
+            // Zero rows: another node claimed it between the select and the update
+            if (counts[i] == 1) {
+                submit(selected.get(i));
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * The earliest due deliveries, leaving out domains at their limit and deliveries already
+     * selected in this round.
+     */
+    private List<Claim> dueCandidates(LocalDateTime now, Map<String, Integer> domainLoad, List<Claim> selected) {
+        StringBuilder sql = new StringBuilder(
+                "select id, invoice_id, recipient, kind, reminder_number, attempts, created_at from invoice_deliveries "
+                        + "where status in ('PENDING', 'SENDING') and next_attempt_at <= ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(now));
+        domainLoad.forEach((domain, load) -> {
+            if (load >= maxPerDomain) {
+                sql.append(" and lower(recipient) not like ? escape '\\'");
+                args.add("%@" + domain.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_"));
+            }
+        });
+        for (Claim claim : selected) {
+            sql.append(" and id <> ?");
+            args.add(claim.id());
+        }
+        sql.append(" order by next_attempt_at limit ?");
+        args.add(batchSize);
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new Claim(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("invoice_id", UUID.class),
+                        rs.getString("recipient"),
+                        DeliveryKind.valueOf(rs.getString("kind")),
+                        rs.getObject("reminder_number", Integer.class),
+                        rs.getInt("attempts") + 1,
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                args.toArray());
+    }
+
+    private void submit(Claim claim) {
+        inFlight.incrementAndGet();
+        inFlightByDomain.computeIfAbsent(claim.domain(), d -> new AtomicInteger()).incrementAndGet();
+        executor.execute(() -> deliver(claim));
+    }
+
+    private void deliver(Claim claim) {
+        Outcome outcome;
+        try {
+            String closedStatus = claim.kind() == DeliveryKind.REMINDER ? closedInvoiceStatus(claim) : null;
+            if (closedStatus != null) {
+                outcome = new Outcome(claim, "Invoice is " + closedStatus + "; reminder not sent", false, true);
+            } else {
+                InvoiceEmail email = compose(claim);
+                Timer.Sample sample = Timer.start();
+                try {
+                    transport.send(email);
+                } finally {
+                    sample.stop(sendTime);
+                }
+                outcome = new Outcome(claim, null, false, false);
+            }
+        } catch (DeliveryException e) {
+            outcome = new Outcome(claim, describe(e), e.isPermanent(), false);
+        } catch (RuntimeException e) {
+            outcome = new Outcome(claim, describe(e), false, false);
+        } finally {
+            inFlight.decrementAndGet();
+            inFlightByDomain.get(claim.domain()).decrementAndGet();
+        }
+        outcomes.add(outcome);
+        wakeups.release();
+    }
+
+    private InvoiceEmail compose(Claim claim) {
+        InvoiceDocument document = getInvoicePdfQueryHandler.handle(new GetInvoicePdfQuery(claim.invoiceId()))
+                .orElseThrow(() -> new DeliveryException("Invoice not found with id: " + claim.invoiceId(), true));
+        if (claim.kind() == DeliveryKind.REMINDER) {
+            String subject = claim.reminderNumber() > 1
+                    ? "Reminder " + claim.reminderNumber() + ": invoice " + claim.invoiceId() + " is overdue"
+                    : "Payment reminder: invoice " + claim.invoiceId();
+            return new InvoiceEmail(
+                    claim.id(),
+                    claim.recipient(),
+                    subject,
+                    "Our records show invoice " + claim.invoiceId() + " is still unpaid. A copy is attached; "
+                            + "please disregard this reminder if payment is already on its way.",
+                    "invoice-" + claim.invoiceId() + ".pdf",
+                    document.content());
+        }
+        return new InvoiceEmail(
+                claim.id(),
+                claim.recipient(),
+                "Invoice " + claim.invoiceId(),
+                "Please find attached invoice " + claim.invoiceId() + ".",
+                "invoice-" + claim.invoiceId() + ".pdf",
+                document.content());
+    }
+
+    /**
+     * The invoice's status if it no longer needs chasing, or null while it is still open.
+     */
+    private String closedInvoiceStatus(Claim claim) {
+        List<String> status = jdbcTemplate.queryForList("select status from invoices where id = ?", String.class,
+                claim.invoiceId());
+        if (status.isEmpty()) {
+            return "gone";
+        }
+        boolean open = InvoiceStatus.SENT.name().equals(status.get(0)) || InvoiceStatus.OVERDUE.name().equals(status.get(0));
+        return open ? null : status.get(0);
+    }
+
+    private synchronized void flushOutcomes() {
+        List<Object[]> delivered = new ArrayList<>();
+        List<Object[]> dropped = new ArrayList<>();
+        List<Object[]> rescheduled = new ArrayList<>();
+        List<Object[]> abandoned = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        Outcome outcome;
+        while ((outcome = outcomes.poll()) != null) {
+            Claim claim = outcome.claim();
+            if (outcome.cancelled()) {
+                dropped.add(new Object[] {outcome.error(), claim.id()});
+            } else if (outcome.error() == null) {
+                delivered.add(new Object[] {Timestamp.valueOf(now), claim.id()});
+                deliveryLag.record(Duration.between(claim.createdAt(), now));
+            } else if (outcome.permanent() || claim.attempt() >= maxAttempts) {
+                abandoned.add(new Object[] {outcome.error(), claim.id()});
+                log.warn("Giving up delivery {} of invoice {} to {} after {} attempt(s): {}",
+                        claim.id(), claim.invoiceId(), claim.recipient(), claim.attempt(), outcome.error());
+            } else {
+                Timestamp retryAt = Timestamp.valueOf(now.plus(retryDelay(claim.attempt())));
+                rescheduled.add(new Object[] {retryAt, outcome.error(), claim.id()});
+            }
+        }
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.batchUpdate("update invoice_deliveries set status = 'SENT', sent_at = ?, last_error = null "
+                    + "where id = ?", delivered);
+            sent.increment(delivered.size());
+        }
+        if (!rescheduled.isEmpty()) {
+            jdbcTemplate.batchUpdate("update invoice_deliveries set status = 'PENDING', next_attempt_at = ?, last_error = ? "
+                    + "where id = ?", rescheduled);
+            retried.increment(rescheduled.size());
+        }
+        if (!dropped.isEmpty()) {
+            jdbcTemplate.batchUpdate("update invoice_deliveries set status = 'CANCELLED', last_error = ? where id = ?",
+                    dropped);
+            cancelled.increment(dropped.size());
+        }
+        if (!abandoned.isEmpty()) {
+            jdbcTemplate.batchUpdate("update invoice_deliveries set status = 'FAILED', last_error = ? where id = ?",
+                    abandoned);
+            failed.increment(abandoned.size());
+        }
+    }
+
+    /**
+     * Exponential backoff from the base delay, capped at the maximum, with the upper half
+     * randomised so deliveries that failed together do not retry together.
+     */
+    Duration retryDelay(int attempt) {
+        long baseMs = backoffBase.toMillis();
+        long capMs = backoffMax.toMillis();
+        long delayMs = attempt > 31 ? capMs : Math.min(capMs, baseMs << Math.max(0, attempt - 1));
+        return Duration.ofMillis(delayMs / 2 + ThreadLocalRandom.current().nextLong(delayMs / 2 + 1));
+    }
+
+    private double queueDepth() {
+        Long depth = jdbcTemplate.queryForObject(
+                "select count(*) from invoice_deliveries where status in ('PENDING', 'SENDING')", Long.class);
+        return depth != null ? depth : 0;
+    }
+
+    private double oldestDueSeconds() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "select min(next_attempt_at) from invoice_deliveries "
+                        + "where status in ('PENDING', 'SENDING') and next_attempt_at <= ?",
+                Timestamp.class, Timestamp.valueOf(now));
+        return oldest != null ? Duration.between(oldest.toLocalDateTime(), now).toMillis() / 1000.0 : 0;
+    }
+
+    private static String describe(RuntimeException e) {
+        String message = e.getCause() != null && e.getCause().getMessage() != null
+                ? e.getMessage() + ": " + e.getCause().getMessage()
+                : String.valueOf(e.getMessage());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private record Claim(UUID id, UUID invoiceId, String recipient, DeliveryKind kind, Integer reminderNumber,
+                         int attempt, LocalDateTime createdAt) {
+        String domain() {
+            return recipient.substring(recipient.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Outcome(Claim claim, String error, boolean permanent, boolean cancelled) {}
+}
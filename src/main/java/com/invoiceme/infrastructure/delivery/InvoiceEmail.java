@@ -0,0 +1,17 @@
+package com.invoiceme.infrastructure.delivery;
+
+import org.springframework.core.io.Resource;
+
+import java.util.UUID;
+
+/**
+ * A composed invoice message, handed to the transport. The delivery id is stable across
+ * retries, so transports can pass it on for de-duplication downstream.
+ */
+public record InvoiceEmail(
+        UUID deliveryId,
+        String recipient,
+        String subject,
+        String body,
+        String attachmentName,
+        Resource attachment) {}
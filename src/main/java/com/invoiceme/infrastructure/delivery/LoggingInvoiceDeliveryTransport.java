@@ -0,0 +1,20 @@
+package com.invoiceme.infrastructure.delivery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default transport for local development: logs each message instead of sending it.
+ */
+@Component
+@ConditionalOnProperty(name = "invoiceme.delivery.transport", havingValue = "log", matchIfMissing = true)
+public class LoggingInvoiceDeliveryTransport implements InvoiceDeliveryTransport {
+    private static final Logger log = LoggerFactory.getLogger(LoggingInvoiceDeliveryTransport.class);
+
+    @Override
+    public void send(InvoiceEmail email) {
+        log.info("Delivering \"{}\" to {} with attachment {}", email.subject(), email.recipient(), email.attachmentName());
+    }
+}
@@ -0,0 +1,61 @@
+package com.invoiceme.infrastructure.delivery;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends invoices through the SMTP relay configured under {@code spring.mail.*}.
+ */
+@Component
+@ConditionalOnProperty(name = "invoiceme.delivery.transport", havingValue = "smtp")
+public class SmtpInvoiceDeliveryTransport implements InvoiceDeliveryTransport {
+    static final String DELIVERY_ID_HEADER = "X-InvoiceMe-Delivery-Id";
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public SmtpInvoiceDeliveryTransport(
+            JavaMailSender mailSender,
+            @Value("${invoiceme.delivery.from:invoices@invoiceme.local}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public void send(InvoiceEmail email) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+            helper.setFrom(from);
+            helper.setTo(email.recipient());
+            helper.setSubject(email.subject());
+            helper.setText(email.body());
+            helper.addAttachment(email.attachmentName(), email.attachment(), "application/pdf");
+            message.setHeader(DELIVERY_ID_HEADER, email.deliveryId().toString());
+        } catch (MessagingException e) {
+            throw new DeliveryException("Could not compose message for " + email.recipient(), true, e);
+        }
+        try {
+            mailSender.send(message);
+        } catch (MailParseException | MailPreparationException e) {
+            throw new DeliveryException("Could not compose message for " + email.recipient(), true, e);
+        } catch (MailSendException e) {
+            // The relay rejected the address itself: retrying will not help
+            boolean rejected = e.getFailedMessages().values().stream()
+                    .anyMatch(cause -> cause instanceof SendFailedException failed
+                            && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0);
+            throw new DeliveryException("Could not send message to " + email.recipient(), rejected, e);
+        }
+    }
+}
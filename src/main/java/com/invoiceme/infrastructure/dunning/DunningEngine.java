@@ -0,0 +1,152 @@
+package com.invoiceme.infrastructure.dunning;
+
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository.Advance;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository.DueReminder;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository.NewReminder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Queues the payment reminders that have fallen due.
+ *
+ * Every sent invoice has a reminder state (invoice_dunning) holding the date of its next
+ * reminder. A run walks the states due today with a keyset cursor over the
+ * (next reminder, invoice) index, so it reads only the reminders it sends and never touches
+ * invoices whose next reminder is still ahead. Each page is one transaction: states whose
+ * invoice was paid, archived or deleted are dropped, the others are moved to their next rung
+ * and their reminders are inserted into the invoice delivery queue.
+ *
+ * Reminders are spread over time at {@code max-per-minute} by giving each one its own due time
+ * in the queue, continuing after any reminders still waiting from an earlier run, so a large
+ * run cannot flood the mail relay or crowd out invoice deliveries.
+ */
+@Component
+public class DunningEngine {
+    private final DunningBulkRepository dunningBulkRepository;
+    private final DunningLadder ladder;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration spacing;
+    private final Counter remindersQueued;
+
+    public DunningEngine(
+            DunningBulkRepository dunningBulkRepository,
+            DunningLadder ladder,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${invoiceme.dunning.batch-size:500}") int batchSize,
+            @Value("${invoiceme.dunning.max-per-minute:600}") int maxPerMinute) {
+        if (maxPerMinute <= 0) {
+            throw new IllegalArgumentException("invoiceme.dunning.max-per-minute must be positive");
+        }
+        this.dunningBulkRepository = dunningBulkRepository;
+        this.ladder = ladder;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.spacing = Duration.ofMinutes(1).dividedBy(maxPerMinute);
+        this.remindersQueued = Counter.builder("invoiceme.dunning.reminders")
+                .description("Payment reminders queued for delivery").register(meterRegistry);
+    }
+
+    /**
+     * Queues every reminder due on {@code today}. Safe to run again, or on several nodes at once.
+     */
+    public DunningReport run(LocalDate today) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime queuedUntil = dunningBulkRepository.lastQueuedReminderAt();
+        LocalDateTime nextSlot = queuedUntil != null && queuedUntil.isAfter(now) ? queuedUntil.plus(spacing) : now;
+
+        int queued = 0;
+        int closed = 0;
+        DueReminder cursor = null;
+        while (true) {
+            List<DueReminder> page = dunningBulkRepository.findDue(today, cursor, batchSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            cursor = page.get(page.size() - 1);
+            LocalDateTime firstSlot = nextSlot;
+            PageResult result = transactionTemplate.execute(status -> processPage(page, today, now, firstSlot));
+            queued += result.queued();
+            closed += result.closed();
+            nextSlot = nextSlot.plus(spacing.multipliedBy(result.queued()));
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+        remindersQueued.increment(queued);
+        return new DunningReport(queued, closed);
+    }
+
+    private PageResult processPage(List<DueReminder> page, LocalDate today, LocalDateTime now, LocalDateTime firstSlot) {
+        List<DueReminder> dropped = new ArrayList<>();
+        List<DueReminder> advancing = new ArrayList<>();
+        List<Advance> advances = new ArrayList<>();
+        List<DueReminder> lastRung = new ArrayList<>();
+        for (DueReminder row : page) {
+            if (!isOpen(row) || row.remindersSent() >= ladder.size()) {
+                dropped.add(row);
+                continue;
+            }
+            int rung = ladder.latestRungDue(row.sentOn(), today, row.remindersSent());
+            LocalDate next = ladder.reminderOn(row.sentOn(), rung + 1);
+            if (next == null) {
+                lastRung.add(row);
+            } else {
+                advancing.add(row);
+                advances.add(new Advance(row.invoiceId(), row.remindersSent(), rung + 1, next));
+            }
+        }
+
+        int closed = count(dunningBulkRepository.delete(dropped));
+        List<NewReminder> reminders = new ArrayList<>();
+        LocalDateTime slot = firstSlot;
+        // Only the node whose conditional update won queues the reminder
+        int[] advanced = dunningBulkRepository.advance(advances, now);
+        for (int i = 0; i < advanced.length; i++) {
+            if (advanced[i] == 1) {
+                reminders.add(reminder(advancing.get(i), advances.get(i).remindersSent(), slot));
+                slot = slot.plus(spacing);
+            }
+        }
+        int[] finished = dunningBulkRepository.delete(lastRung);
+        for (int i = 0; i < finished.length; i++) {
+            if (finished[i] == 1) {
+                reminders.add(reminder(lastRung.get(i), ladder.size(), slot));
+                slot = slot.plus(spacing);
+            }
+        }
+        dunningBulkRepository.queueReminders(reminders, now);
+        return new PageResult(reminders.size(), closed);
+    }
+
+    private static NewReminder reminder(DueReminder row, int reminderNumber, LocalDateTime notBefore) {
+        return new NewReminder(row.invoiceId(), row.recipient(), reminderNumber, notBefore);
+    }
+
+    private static boolean isOpen(DueReminder row) {
+        return row.recipient() != null
+                && (InvoiceStatus.SENT.name().equals(row.invoiceStatus())
+                        || InvoiceStatus.OVERDUE.name().equals(row.invoiceStatus()));
+    }
+
+    private static int count(int[] updateCounts) {
+        return Arrays.stream(updateCounts).sum();
+    }
+
+    public record DunningReport(int remindersQueued, int statesClosed) {}
+
+    private record PageResult(int queued, int closed) {}
+}
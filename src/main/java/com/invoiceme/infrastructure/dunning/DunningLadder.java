@@ -0,0 +1,52 @@
+package com.invoiceme.infrastructure.dunning;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The payment reminder schedule: reminders go out the configured numbers of days after an
+ * invoice was sent, each one escalating on the last. An empty ladder disables dunning.
+ */
+@Component
+public class DunningLadder {
+    private final List<Integer> days;
+
+    public DunningLadder(@Value("${invoiceme.dunning.ladder-days:3,10,30}") List<Integer> days) {
+        for (int i = 0; i < days.size(); i++) {
+            if (days.get(i) <= 0 || (i > 0 && days.get(i) <= days.get(i - 1))) {
+                throw new IllegalArgumentException("Dunning ladder days must be positive and ascending: " + days);
+            }
+        }
+        this.days = List.copyOf(days);
+    }
+
+    public boolean isEmpty() {
+        return days.isEmpty();
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    /**
+     * Due date of the reminder at the given zero-based rung, or null past the last rung.
+     */
+    public LocalDate reminderOn(LocalDate sentOn, int rung) {
+        return rung < days.size() ? sentOn.plusDays(days.get(rung)) : null;
+    }
+
+    /**
+     * The highest rung, not below {@code fromRung}, that is due on {@code today}. When a run was
+     * missed and several rungs fell due, only the most escalated reminder is sent.
+     */
+    public int latestRungDue(LocalDate sentOn, LocalDate today, int fromRung) {
+        int rung = fromRung;
+        while (rung + 1 < days.size() && !reminderOn(sentOn, rung + 1).isAfter(today)) {
+            rung++;
+        }
+        return rung;
+    }
+}
@@ -0,0 +1,34 @@
+package com.invoiceme.infrastructure.jobs;
+
+import com.invoiceme.infrastructure.dunning.DunningEngine;
+import com.invoiceme.infrastructure.dunning.DunningEngine.DunningReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Queues the day's payment reminders each night. Runs on every node; reminder state changes
+ * are conditional, so each reminder is queued once.
+ */
+@Component
+public class DunningJob {
+    private static final Logger log = LoggerFactory.getLogger(DunningJob.class);
+
+    private final DunningEngine dunningEngine;
+
+    public DunningJob(DunningEngine dunningEngine) {
+        this.dunningEngine = dunningEngine;
+    }
+
+    @Scheduled(cron = "${invoiceme.jobs.dunning.cron:0 0 3 * * *}")
+    public void runScheduled() {
+        DunningReport report = dunningEngine.run(LocalDate.now());
+        if (report.remindersQueued() > 0 || report.statesClosed() > 0) {
+            log.info("Dunning run queued {} reminders and closed {} paid or removed invoices",
+                    report.remindersQueued(), report.statesClosed());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.invoiceme.infrastructure.jobs;
+
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.archive.ArchivedInvoice;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves PAID invoices that have not changed for {@code invoiceme.jobs.archive.min-age},
+ * together with their line items and payments, out of the hot tables into the {@link InvoiceArchive}.
+ *
+ * Each batch runs in one transaction: the invoice rows are selected {@code for update}, so
+ * no payment or reconciliation can change them meanwhile, the archive is built from rows read
+ * under that lock, written to a segment and flushed, and only then are the rows deleted. If the
+ * node dies before the commit, the invoices are still in the database and are archived again
+ * by the next run; the newer segment copy shadows the older one.
+ */
+@Component
+public class InvoiceArchiveJob {
+    private static final Logger log = LoggerFactory.getLogger(InvoiceArchiveJob.class);
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final InvoiceArchive archive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public InvoiceArchiveJob(
+            InvoiceRepository invoiceRepository,
+            PaymentRepository paymentRepository,
+            InvoiceArchive archive,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${invoiceme.jobs.archive.min-age:P365D}") Duration minAge,
+            @Value("${invoiceme.jobs.archive.batch-size:1000}") int batchSize) {
+        this.invoiceRepository = invoiceRepository;
+        this.paymentRepository = paymentRepository;
+        this.archive = archive;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${invoiceme.jobs.archive.initial-delay-ms:600000}",
+            fixedDelayString = "${invoiceme.jobs.archive.interval-ms:3600000}")
+    public void runScheduled() {
+        ArchiveResult result = run(LocalDateTime.now());
+        if (result.invoices() > 0) {
+            log.info("Archived {} invoices and {} payments into {} segments",
+                    result.invoices(), result.payments(), result.segments());
+        }
+    }
+
+    /**
+     * Archives every PAID invoice last updated before {@code now - minAge}, one segment per batch.
+     */
+    public ArchiveResult run(LocalDateTime now) {
+        Timestamp cutoff = Timestamp.valueOf(now.minus(minAge));
+        int invoices = 0;
+        int payments = 0;
+        int segments = 0;
+        while (true) {
+            ArchiveResult batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (batch == null || batch.invoices() == 0) {
+                break;
+            }
+            invoices += batch.invoices();
+            payments += batch.payments();
+            segments += batch.segments();
+            if (batch.invoices() < batchSize) {
+                break;
+            }
+        }
+        return new ArchiveResult(invoices, payments, segments);
+    }
+
+    /** Must run in a transaction, which holds the row locks from the select to the deletes. */
+    private ArchiveResult archiveBatch(Timestamp cutoff) {
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "select id from invoices where status = 'PAID' and coalesce(updated_at, created_at) < ? "
+                        + "order by id limit ? for update",
+                UUID.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return new ArchiveResult(0, 0, 0);
+        }
+
+        Map<UUID, List<Payment>> paymentsByInvoice = paymentRepository.findByInvoiceIdIn(ids).stream()
+                .collect(Collectors.groupingBy(Payment::getInvoiceId));
+        List<Invoice> batch = invoiceRepository.findByIdIn(ids);
+        archive.append(batch.stream()
+                .map(invoice -> ArchivedInvoice.of(invoice, paymentsByInvoice.getOrDefault(invoice.getId(), List.of())))
+                .toList());
+
+        // The rows are locked and were selected as PAID, so every child row belongs to an invoice deleted here
+        List<Object[]> args = ids.stream().map(id -> new Object[] {id}).toList();
+        jdbcTemplate.batchUpdate("delete from payments where invoice_id = ?", args);
+        jdbcTemplate.batchUpdate("delete from invoice_line_items where invoice_id = ?", args);
+        int deleted = Arrays.stream(jdbcTemplate.batchUpdate("delete from invoices where id = ? and status = 'PAID'", args))
+                .map(count -> Math.max(count, 0))
+                .sum();
+        if (deleted != ids.size()) {
+            // Cannot happen while the locks hold; never commit children without their invoice
+            throw new IllegalStateException("Archived invoices changed while locked: deleted " + deleted + " of " + ids.size());
+        }
+        int payments = paymentsByInvoice.values().stream().mapToInt(List::size).sum();
+        return new ArchiveResult(deleted, payments, 1);
+    }
+
+    public record ArchiveResult(int invoices, int payments, int segments) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.invoiceme.infrastructure.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verifies the precomputed money columns against their sources with set-based SQL:
+ * line item subtotals against quantity × unit price, invoice totals against the sum of
+ * subtotals, amount paid against the sum of payments, and balance against total − amount paid.
+ *
+ * The check only reads. Mismatches are counted and logged with the ids of some affected
+ * invoices, which are repaired one at a time through
+ * {@code POST /api/invoices/{id}/reconcile-totals}. That recomputes the invoice in the domain
+ * model with its row locked, so it cannot race a payment or leave the status behind the balance.
+ * Legacy rows still at the column defaults are filled on startup by {@link StoredTotalsBackfill}.
+ */
+@Component
+public class InvoiceTotalsConsistencyJob {
+    private static final Logger log = LoggerFactory.getLogger(InvoiceTotalsConsistencyJob.class);
+
+    private static final String LINE_ITEM_SUBTOTAL_MISMATCH =
+            "li.subtotal <> li.quantity * li.unit_price";
+    private static final String TOTAL_MISMATCH =
+            "i.total <> coalesce((select sum(li.subtotal) from invoice_line_items li where li.invoice_id = i.id), 0)";
+    private static final String AMOUNT_PAID_MISMATCH =
+            "i.amount_paid <> coalesce((select sum(p.amount) from payments p where p.invoice_id = i.id), 0)";
+    private static final String BALANCE_MISMATCH =
+            "i.balance <> i.total - i.amount_paid";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int reportedInvoices;
+
+    public InvoiceTotalsConsistencyJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${invoiceme.jobs.totals-consistency.reported-invoices:20}") int reportedInvoices) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reportedInvoices = reportedInvoices;
+    }
+
+    @Scheduled(
+            initialDelayString = "${invoiceme.jobs.totals-consistency.initial-delay-ms:60000}",
+            fixedDelayString = "${invoiceme.jobs.totals-consistency.interval-ms:3600000}")
+    public void runScheduled() {
+        ConsistencyReport report = run();
+        if (report.hasMismatches()) {
+            log.warn("Invoice totals consistency check found mismatches: {}; reconcile them with "
+                    + "POST /api/invoices/{id}/reconcile-totals", report);
+        } else {
+            log.debug("Invoice totals consistency check passed");
+        }
+    }
+
+    /** Runs every check once, without changing anything. */
+    @Transactional(readOnly = true)
+    public ConsistencyReport run() {
+        int lineItems = count("select count(*) from invoice_line_items li where " + LINE_ITEM_SUBTOTAL_MISMATCH);
+        int totals = count("select count(*) from invoices i where " + TOTAL_MISMATCH);
+        int amountsPaid = count("select count(*) from invoices i where " + AMOUNT_PAID_MISMATCH);
+        int balances = count("select count(*) from invoices i where " + BALANCE_MISMATCH);
+
+        List<UUID> invoiceIds = lineItems + totals + amountsPaid + balances == 0
+                ? List.of()
+                : jdbcTemplate.queryForList("select i.id from invoices i where " + TOTAL_MISMATCH
+                        + " or " + AMOUNT_PAID_MISMATCH + " or " + BALANCE_MISMATCH
+                        + " or exists (select 1 from invoice_line_items li where li.invoice_id = i.id and "
+                        + LINE_ITEM_SUBTOTAL_MISMATCH + ") order by i.id limit ?", UUID.class, reportedInvoices);
+
+        return new ConsistencyReport(lineItems, totals, amountsPaid, balances, invoiceIds);
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Mismatch counts per check, and the ids of up to {@code reported-invoices} invoices with
+     * any mismatch.
+     */
+    public record ConsistencyReport(int lineItemSubtotals, int invoiceTotals, int amountsPaid, int balances,
+                                    List<UUID> invoiceIds) {
+        public boolean hasMismatches() {
+            return lineItemSubtotals + invoiceTotals + amountsPaid + balances > 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.invoiceme.infrastructure.jobs;
+
+import com.invoiceme.application.commands.billing.StartBillingRunCommand;
+import com.invoiceme.application.commands.billing.StartBillingRunCommandHandler;
+import com.invoiceme.domain.billing.BillingRun;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Starts the current month's billing run on the 1st. Starting is idempotent, so the job
+ * may fire on every node; the unique billing cycle leaves a single run.
+ */
+@Component
+public class MonthlyBillingJob {
+    private static final Logger log = LoggerFactory.getLogger(MonthlyBillingJob.class);
+
+    private final StartBillingRunCommandHandler startBillingRunCommandHandler;
+
+    public MonthlyBillingJob(StartBillingRunCommandHandler startBillingRunCommandHandler) {
+        this.startBillingRunCommandHandler = startBillingRunCommandHandler;
+    }
+
+    @Scheduled(cron = "${invoiceme.jobs.billing.cron:0 0 2 1 * *}")
+    public void runScheduled() {
+        BillingRun run = startBillingRunCommandHandler.handle(
+                new StartBillingRunCommand(LocalDate.now().withDayOfMonth(1)));
+        log.info("Billing run {} for {} is {}", run.getId(), run.getBillingCycle(), run.getStatus());
+    }
+}
@@ -0,0 +1,117 @@
+package com.invoiceme.infrastructure.jobs;
+
+import com.invoiceme.domain.invoice.Invoice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Moves SENT invoices whose due date has passed to OVERDUE, one set-based UPDATE per batch.
+ *
+ * On Postgres the candidates are found through a partial index on {@code (due_date)} covering
+ * only SENT rows. Invoices leave the index as soon as they become overdue or paid, so it stays
+ * as small as the set of open invoices and each run reads only the rows it changes. The index
+ * is created on startup if it is missing (concurrently, unless invoices is partitioned, where
+ * Postgres only supports a plain build). Other databases fall back to a scan.
+ *
+ * Invoices sent before due dates were stored have none, and {@code due_date < ?} never matches
+ * them. Each run first gives them one, {@code payment-term-days} after they were last updated,
+ * which for a SENT invoice is when it was sent or last paid against.
+ */
+@Component
+public class OverdueInvoiceJob {
+    private static final Logger log = LoggerFactory.getLogger(OverdueInvoiceJob.class);
+
+    static final String INDEX_NAME = "idx_invoices_sent_due_date";
+
+    // The outer status check keeps an invoice paid since the subquery ran from being reopened
+    private static final String MARK_OVERDUE_SQL =
+            "update invoices set status = 'OVERDUE', version = version + 1, updated_at = ? "
+                    + "where status = 'SENT' and id in ("
+                    + "select id from invoices where status = 'SENT' and due_date < ? order by due_date limit ?)";
+
+    private static final String BACKFILL_DUE_DATE_SQL =
+            "update invoices set due_date = cast(coalesce(updated_at, created_at) as date) + cast(? as integer), version = version + 1 "
+                    + "where status = 'SENT' and due_date is null and id in ("
+                    + "select id from invoices where status = 'SENT' and due_date is null limit ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int paymentTermDays;
+
+    public OverdueInvoiceJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${invoiceme.jobs.overdue.batch-size:1000}") int batchSize,
+            @Value("${invoiceme.invoices.payment-term-days:" + Invoice.DEFAULT_PAYMENT_TERM_DAYS + "}") int paymentTermDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.paymentTermDays = paymentTermDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        if (!isPostgres()) {
+            return;
+        }
+        String concurrently = isPartitioned() ? "" : "concurrently ";
+        jdbcTemplate.execute("create index " + concurrently + "if not exists " + INDEX_NAME
+                + " on invoices (due_date) where status = 'SENT'");
+    }
+
+    @Scheduled(
+            initialDelayString = "${invoiceme.jobs.overdue.initial-delay-ms:60000}",
+            fixedDelayString = "${invoiceme.jobs.overdue.interval-ms:900000}")
+    public void runScheduled() {
+        int marked = run(LocalDate.now());
+        if (marked > 0) {
+            log.info("Marked {} invoices overdue", marked);
+        }
+    }
+
+    /**
+     * Marks every SENT invoice due before {@code today} as OVERDUE. Each batch commits on
+     * its own, so a long catch-up never holds locks on more than one batch of rows.
+     *
+     * @return number of invoices marked overdue
+     */
+    public int run(LocalDate today) {
+        int backfilled;
+        do {
+            backfilled = jdbcTemplate.update(BACKFILL_DUE_DATE_SQL, paymentTermDays, batchSize);
+        } while (backfilled == batchSize);
+
+        int total = 0;
+        int marked;
+        do {
+            marked = jdbcTemplate.update(MARK_OVERDUE_SQL,
+                    Timestamp.valueOf(LocalDateTime.now()), Date.valueOf(today), batchSize);
+            total += marked;
+        } while (marked == batchSize);
+        return total;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid "
+                        + "where c.relname = 'invoices' and c.relnamespace = current_schema()::regnamespace",
+                Integer.class);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.invoiceme.infrastructure.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps monthly range partitions created ahead of time for the tables converted by
+ * db/postgres/partition-tables.sql, so inserts never fall into the default partition.
+ *
+ * If the default partition already holds rows for a month being created (for example a
+ * payment dated beyond the horizon), they are moved into the new partition before it is
+ * attached. Does nothing on databases other than Postgres or for tables that are not partitioned.
+ */
+@Component
+public class PartitionMaintenanceJob {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+    
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    
+    /** Partitioned table to its partition key column. */
+    static final Map<String, String> PARTITION_KEYS = new LinkedHashMap<>();
+    static {
+        PARTITION_KEYS.put("invoices", "created_at");
+        PARTITION_KEYS.put("invoice_line_items", "invoice_created_at");
+        PARTITION_KEYS.put("payments", "payment_date");
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    
+    public PartitionMaintenanceJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${invoiceme.jobs.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+    
+    @Scheduled(
+            initialDelayString = "${invoiceme.jobs.partitions.initial-delay-ms:0}",
+            fixedDelayString = "${invoiceme.jobs.partitions.interval-ms:86400000}")
+    public void runScheduled() {
+        List<String> created = run(YearMonth.now());
+        if (!created.isEmpty()) {
+            log.info("Created partitions {}", created);
+        }
+    }
+    
+    /**
+     * Ensures partitions exist from {@code currentMonth} through {@code monthsAhead} months later.
+     *
+     * @return names of the partitions created by this run
+     */
+    @Transactional
+    public List<String> run(YearMonth currentMonth) {
+        List<String> created = new ArrayList<>();
+        if (!isPostgres()) {
+            return created;
+        }
+        for (Map.Entry<String, String> entry : PARTITION_KEYS.entrySet()) {
+            String table = entry.getKey();
+            if (!isPartitioned(table)) {
+                continue;
+            }
+            boolean hasDefault = relationExists(table + "_default");
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = currentMonth.plusMonths(i);
+                String partition = partitionName(table, month);
+                if (relationExists(partition)) {
+                    continue;
+                }
+                for (String sql : partitionDdl(table, entry.getValue(), month, hasDefault)) {
+                    jdbcTemplate.execute(sql);
+                }
+                created.add(partition);
+            }
+        }
+        return created;
+    }
+    
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+    
+    static List<String> partitionDdl(String table, String key, YearMonth month, boolean hasDefault) {
+        String partition = partitionName(table, month);
+        String bounds = "for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')";
+        if (!hasDefault) {
+            return List.of("create table " + partition + " partition of " + table + " " + bounds);
+        }
+        String range = key + " >= '" + month.atDay(1) + "' and " + key + " < '" + month.plusMonths(1).atDay(1) + "'";
+        return List.of(
+                "create table " + partition + " (like " + table + " including defaults including constraints)",
+                "insert into " + partition + " select * from " + table + "_default where " + range,
+                "delete from " + table + "_default where " + range,
+                "alter table " + table + " attach partition " + partition + " " + bounds
+        );
+    }
+    
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+    
+    private boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid "
+                        + "where c.relname = ? and c.relnamespace = current_schema()::regnamespace",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+    
+    private boolean relationExists(String name) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from pg_class where relname = ? and relnamespace = current_schema()::regnamespace",
+                Integer.class, name);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.invoiceme.infrastructure.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fills the stored subtotal, total and amount paid columns of rows written before they existed.
+ * Schema updates add them with the column default of 0, so every legacy invoice would read as
+ * a zero total until reconciled, and adding a line item to a legacy draft would recompute its
+ * balance from zero subtotals.
+ *
+ * Runs once on startup in batches. Each batch locks its invoices {@code for update}, sets
+ * subtotal = quantity × unit price, total = sum of subtotals and amount paid = sum of payments,
+ * and bumps the version so ETags change; {@code updated_at} is kept, so archiving age is too. Only columns still at 0 while
+ * their sources are not are written, so the backfill is idempotent and never overwrites a value
+ * the domain model stored; the balance was always stored and is left alone. Invoices whose
+ * values are wrong for other reasons are left to {@link InvoiceTotalsConsistencyJob}.
+ */
+@Component
+public class StoredTotalsBackfill {
+    private static final Logger log = LoggerFactory.getLogger(StoredTotalsBackfill.class);
+
+    private static final String LEGACY_SUBTOTAL =
+            "li.subtotal = 0 and li.quantity * li.unit_price <> 0";
+    private static final String LEGACY_INVOICE =
+            "exists (select 1 from invoice_line_items li where li.invoice_id = i.id and " + LEGACY_SUBTOTAL + ") "
+                    + "or (i.total = 0 and exists (select 1 from invoice_line_items li "
+                    + "where li.invoice_id = i.id and li.quantity * li.unit_price <> 0)) "
+                    + "or (i.amount_paid = 0 and exists (select 1 from payments p where p.invoice_id = i.id and p.amount <> 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public StoredTotalsBackfill(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${invoiceme.jobs.totals-backfill.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        int backfilled = run();
+        if (backfilled > 0) {
+            log.info("Backfilled stored totals of {} legacy invoices", backfilled);
+        }
+    }
+
+    /**
+     * Backfills every legacy invoice, one transaction per batch.
+     *
+     * @return number of invoices backfilled
+     */
+    public int run() {
+        int total = 0;
+        UUID after = null;
+        while (true) {
+            UUID from = after;
+            List<UUID> ids = transactionTemplate.execute(status -> backfillBatch(from));
+            if (ids == null || ids.isEmpty()) {
+                return total;
+            }
+            total += ids.size();
+            if (ids.size() < batchSize) {
+                return total;
+            }
+            // Walk forward by id, so an invoice whose sources sum to 0 is not picked up again
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<UUID> backfillBatch(UUID after) {
+        List<UUID> ids = after == null
+                ? jdbcTemplate.queryForList("select i.id from invoices i where (" + LEGACY_INVOICE + ") "
+                        + "order by i.id limit ? for update", UUID.class, batchSize)
+                : jdbcTemplate.queryForList("select i.id from invoices i where i.id > ? and (" + LEGACY_INVOICE + ") "
+                        + "order by i.id limit ? for update", UUID.class, after, batchSize);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        List<Object[]> args = ids.stream().map(id -> new Object[] {id}).toList();
+        jdbcTemplate.batchUpdate("update invoice_line_items li set subtotal = li.quantity * li.unit_price "
+                + "where li.invoice_id = ? and " + LEGACY_SUBTOTAL, args);
+
+        jdbcTemplate.batchUpdate("update invoices i set "
+                + "total = case when i.total = 0 then coalesce((select sum(li.subtotal) from invoice_line_items li "
+                + "where li.invoice_id = i.id), 0) else i.total end, "
+                + "amount_paid = case when i.amount_paid = 0 then coalesce((select sum(p.amount) from payments p "
+                + "where p.invoice_id = i.id), 0) else i.amount_paid end, "
+                + "version = i.version + 1 "
+                + "where i.id = ?", args);
+        return ids;
+    }
+}
@@ -0,0 +1,9 @@
+package com.invoiceme.infrastructure.pdf;
+
+/**
+ * The versions a rendered invoice document is derived from. The document prints the customer's
+ * name and email, so a customer edit has to address a new document just like an invoice edit.
+ * The customer version is null once the customer no longer exists.
+ */
+public record DocumentVersion(Long invoiceVersion, Long customerVersion) {
+}
@@ -0,0 +1,9 @@
+package com.invoiceme.infrastructure.pdf;
+
+import java.util.UUID;
+
+/**
+ * A rendered invoice document.
+ */
+public record InvoicePdf(UUID invoiceId, Long version, byte[] content, int pages) {
+}
@@ -0,0 +1,81 @@
+package com.invoiceme.infrastructure.pdf;
+
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Renders many invoices in parallel on a fixed pool of worker threads.
+ *
+ * The work queue is bounded; once it is full the submitting thread renders the next invoice
+ * itself, which throttles submission to the speed of the pool instead of queueing without limit.
+ */
+@Component
+public class InvoicePdfBatchRenderer {
+    private final InvoicePdfRenderer renderer;
+    private final ThreadPoolExecutor executor;
+
+    public InvoicePdfBatchRenderer(
+            InvoicePdfRenderer renderer,
+            @Value("${invoiceme.pdf.batch.threads:0}") int threads,
+            @Value("${invoiceme.pdf.batch.queue-capacity:1024}") int queueCapacity) {
+        this.renderer = renderer;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int poolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Renders the invoices and hands each document to {@code sink} in input order, on the
+     * calling thread. {@code customers} is called from worker threads and must be thread-safe;
+     * it may return null for unknown customers.
+     */
+    public void renderAll(List<Invoice> invoices, Function<UUID, Customer> customers, Consumer<InvoicePdf> sink) {
+        List<Future<InvoicePdf>> futures = new ArrayList<>(invoices.size());
+        try {
+            for (Invoice invoice : invoices) {
+                futures.add(executor.submit(() -> renderer.render(invoice, customers.apply(invoice.getCustomerId()))));
+            }
+            for (Future<InvoicePdf> future : futures) {
+                sink.accept(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering invoices", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not render invoice", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
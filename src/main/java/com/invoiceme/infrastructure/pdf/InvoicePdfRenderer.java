@@ -0,0 +1,313 @@
+package com.invoiceme.infrastructure.pdf;
+
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Renders an invoice as an A4 PDF using the built-in Helvetica fonts, paginating the line items.
+ *
+ * Everything that does not depend on the invoice is compiled once when the renderer is
+ * created: the file header with the catalog and font objects, and the static drawing
+ * operators of the first and continuation pages (title, labels, table header, rules).
+ * Rendering an invoice only appends its text to those templates, measured with the cached
+ * font metrics, and writes the page objects and cross-reference table. The renderer holds
+ * no mutable state and is safe to call from many threads.
+ */
+@Component
+public class InvoicePdfRenderer {
+    /** Bump whenever the output changes, so cached documents and their ETags are replaced. */
+    public static final int LAYOUT_VERSION = 2;
+    
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int LEFT = 50;
+    private static final int RIGHT = 545;
+    private static final int QUANTITY_RIGHT = 380;
+    private static final int UNIT_PRICE_RIGHT = 470;
+    private static final int LABEL_X = 300;
+    private static final int TOTALS_LABEL_X = 330;
+    private static final float DESCRIPTION_WIDTH = 260;
+    private static final int ROW_HEIGHT = 16;
+    private static final int FIRST_PAGE_TABLE_TOP = 628;
+    private static final int NEXT_PAGE_TABLE_TOP = 738;
+    private static final int TABLE_BOTTOM = 72;
+    /** The totals block: a spacer and three rows. */
+    private static final int TOTALS_ROWS = 4;
+    static final int FIRST_PAGE_ROWS = (FIRST_PAGE_TABLE_TOP - TABLE_BOTTOM) / ROW_HEIGHT + 1;
+    static final int NEXT_PAGE_ROWS = (NEXT_PAGE_TABLE_TOP - TABLE_BOTTOM) / ROW_HEIGHT + 1;
+
+    private static final String REGULAR = "F1";
+    private static final String BOLD = "F2";
+    private static final String ELLIPSIS = "...";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /** Objects 1 (catalog), 3 and 4 (fonts) live in the compiled header; 2 is the page tree. */
+    private static final int FIRST_PAGE_OBJECT = 5;
+
+    private final byte[] header;
+    private final int[] headerOffsets;
+    private final String firstPageTemplate;
+    private final String nextPageTemplate;
+
+    public InvoicePdfRenderer() {
+        PdfOutput out = new PdfOutput(512);
+        headerOffsets = new int[5];
+        // The binary comment marks the file as binary for transfer tools
+        out.write("%PDF-1.4\n%\u00E2\u00E3\u00CF\u00D3\n");
+        headerOffsets[1] = out.size();
+        out.write("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        headerOffsets[3] = out.size();
+        out.write("3 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+        headerOffsets[4] = out.size();
+        out.write("4 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+        header = out.toByteArray();
+
+        StringBuilder first = new StringBuilder();
+        text(first, BOLD, 24, LEFT, 770, "INVOICE");
+        first.append("0.45 g\n");
+        text(first, BOLD, 9, LABEL_X, 776, "Invoice no.");
+        text(first, BOLD, 9, LABEL_X, 762, "Status");
+        text(first, BOLD, 9, LABEL_X, 748, "Issued");
+        text(first, BOLD, 9, LABEL_X, 734, "Last updated");
+        text(first, BOLD, 9, LABEL_X, 720, "Due");
+        text(first, BOLD, 9, LEFT, 700, "Bill to");
+        first.append("0 g\n");
+        tableHeader(first, FIRST_PAGE_TABLE_TOP + ROW_HEIGHT + 6);
+        firstPageTemplate = first.toString();
+
+        StringBuilder next = new StringBuilder();
+        text(next, BOLD, 14, LEFT, 780, "Invoice (continued)");
+        tableHeader(next, NEXT_PAGE_TABLE_TOP + ROW_HEIGHT + 6);
+        nextPageTemplate = next.toString();
+    }
+
+    /**
+     * Number of pages an invoice with the given number of line items renders to.
+     */
+    public static int pageCount(int lineItems) {
+        int pages = 1;
+        int capacity = FIRST_PAGE_ROWS;
+        int remaining = lineItems;
+        while (remaining > capacity) {
+            remaining -= capacity;
+            capacity = NEXT_PAGE_ROWS;
+            pages++;
+        }
+        return remaining + TOTALS_ROWS > capacity ? pages + 1 : pages;
+    }
+
+    /**
+     * Renders the invoice. The customer may be null (for example after it was deleted),
+     * in which case only the customer id is printed.
+     */
+    public InvoicePdf render(Invoice invoice, Customer customer) {
+        List<InvoiceLineItem> items = invoice.getLineItems();
+        int pages = pageCount(items.size());
+        int objects = FIRST_PAGE_OBJECT + 2 * pages;
+        int[] offsets = new int[objects];
+        System.arraycopy(headerOffsets, 0, offsets, 0, headerOffsets.length);
+
+        PdfOutput out = new PdfOutput(header.length + 2048 * pages + 96 * items.size());
+        out.write(header);
+        offsets[2] = out.size();
+        out.write("2 0 obj\n<< /Type /Pages /Kids [");
+        for (int page = 0; page < pages; page++) {
+            out.write(FIRST_PAGE_OBJECT + 2 * page).write(" 0 R ");
+        }
+        out.write("] /Count ").write(pages)
+                .write(" /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]")
+                .write(" /Resources << /Font << /F1 3 0 R /F2 4 0 R >> >> >>\nendobj\n");
+
+        String invoiceNumber = invoice.getId().toString();
+        int item = 0;
+        StringBuilder content = new StringBuilder(4096);
+        for (int page = 1; page <= pages; page++) {
+            content.setLength(0);
+            int y;
+            int capacity;
+            if (page == 1) {
+                content.append(firstPageTemplate);
+                textRight(content, REGULAR, 9, RIGHT, 776, invoiceNumber);
+                textRight(content, REGULAR, 9, RIGHT, 762, invoice.getStatus().name());
+                textRight(content, REGULAR, 9, RIGHT, 748, date(invoice.getCreatedAt()));
+                textRight(content, REGULAR, 9, RIGHT, 734, date(invoice.getUpdatedAt()));
+                textRight(content, REGULAR, 9, RIGHT, 720, invoice.getDueDate() != null ? DATE.format(invoice.getDueDate()) : "-");
+                if (customer != null) {
+                    text(content, BOLD, 11, LEFT, 684, customer.getName());
+                    text(content, REGULAR, 10, LEFT, 670, customer.getEmail());
+                } else {
+                    text(content, REGULAR, 10, LEFT, 684, "Customer " + invoice.getCustomerId());
+                }
+                y = FIRST_PAGE_TABLE_TOP;
+                capacity = FIRST_PAGE_ROWS;
+            } else {
+                content.append(nextPageTemplate);
+                textRight(content, REGULAR, 9, RIGHT, 780, invoiceNumber);
+                y = NEXT_PAGE_TABLE_TOP;
+                capacity = NEXT_PAGE_ROWS;
+            }
+
+            for (int row = 0; row < capacity && item < items.size(); row++, item++) {
+                InvoiceLineItem lineItem = items.get(item);
+                showText(content, REGULAR, 10, LEFT, y, truncate(lineItem.getDescription(), 10, DESCRIPTION_WIDTH));
+                textRight(content, REGULAR, 10, QUANTITY_RIGHT, y, Integer.toString(lineItem.getQuantity()));
+                textRight(content, REGULAR, 10, UNIT_PRICE_RIGHT, y, money(lineItem.getUnitPrice()));
+                textRight(content, REGULAR, 10, RIGHT, y, money(lineItem.getSubtotal()));
+                y -= ROW_HEIGHT;
+            }
+
+            if (page == pages) {
+                totals(content, y - ROW_HEIGHT, invoice);
+            }
+            String footer = "Page " + page + " of " + pages;
+            text(content, REGULAR, 8, (PAGE_WIDTH - StandardFontMetrics.width(StandardFontMetrics.HELVETICA, footer, 8)) / 2, 30, footer);
+
+            int pageObject = FIRST_PAGE_OBJECT + 2 * (page - 1);
+            offsets[pageObject] = out.size();
+            out.write(pageObject).write(" 0 obj\n<< /Type /Page /Parent 2 0 R /Contents ")
+                    .write(pageObject + 1).write(" 0 R >>\nendobj\n");
+            offsets[pageObject + 1] = out.size();
+            out.write(pageObject + 1).write(" 0 obj\n<< /Length ").write(content.length()).write(" >>\nstream\n")
+                    .write(content)
+                    .write("\nendstream\nendobj\n");
+        }
+
+        int xref = out.size();
+        out.write("xref\n0 ").write(objects).write("\n0000000000 65535 f \n");
+        for (int object = 1; object < objects; object++) {
+            out.xrefEntry(offsets[object]);
+        }
+        out.write("trailer\n<< /Size ").write(objects).write(" /Root 1 0 R >>\nstartxref\n")
+                .write(xref).write("\n%%EOF\n");
+        return new InvoicePdf(invoice.getId(), invoice.getVersion(), out.toByteArray(), pages);
+    }
+
+    private static void tableHeader(StringBuilder content, int y) {
+        text(content, BOLD, 9, LEFT, y, "Description");
+        textRight(content, BOLD, 9, QUANTITY_RIGHT, y, "Qty");
+        textRight(content, BOLD, 9, UNIT_PRICE_RIGHT, y, "Unit price");
+        textRight(content, BOLD, 9, RIGHT, y, "Amount");
+        rule(content, LEFT, y - 6);
+    }
+
+    private static void totals(StringBuilder content, int y, Invoice invoice) {
+        rule(content, TOTALS_LABEL_X, y + ROW_HEIGHT - 4);
+        text(content, REGULAR, 10, TOTALS_LABEL_X, y, "Total");
+        textRight(content, REGULAR, 10, RIGHT, y, money(invoice.getTotal()));
+        y -= ROW_HEIGHT;
+        text(content, REGULAR, 10, TOTALS_LABEL_X, y, "Amount paid");
+        textRight(content, REGULAR, 10, RIGHT, y, money(invoice.getAmountPaid()));
+        y -= ROW_HEIGHT;
+        text(content, BOLD, 10, TOTALS_LABEL_X, y, "Balance due");
+        textRight(content, BOLD, 10, RIGHT, y, money(invoice.getBalance()));
+    }
+
+    private static void rule(StringBuilder content, int fromX, int y) {
+        content.append("0.5 w ").append(fromX).append(' ').append(y).append(" m ")
+                .append(RIGHT).append(' ').append(y).append(" l S\n");
+    }
+
+    private static void textRight(StringBuilder content, String font, int size, float right, float y, String text) {
+        String encoded = StandardFontMetrics.toWinAnsi(text);
+        float width = StandardFontMetrics.width(metrics(font), encoded, size);
+        showText(content, font, size, right - width, y, encoded);
+    }
+
+    private static void text(StringBuilder content, String font, int size, float x, float y, String text) {
+        showText(content, font, size, x, y, StandardFontMetrics.toWinAnsi(text));
+    }
+
+    private static void showText(StringBuilder content, String font, int size, float x, float y, String encoded) {
+        content.append("BT /").append(font).append(' ').append(size).append(" Tf ");
+        number(content, x).append(' ');
+        number(content, y).append(" Td (");
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                content.append('\\');
+            }
+            content.append(c);
+        }
+        content.append(") Tj ET\n");
+    }
+
+    /**
+     * Encodes text and shortens it with an ellipsis so that it fits within {@code maxWidth} points.
+     */
+    private static String truncate(String text, int size, float maxWidth) {
+        String encoded = StandardFontMetrics.toWinAnsi(text);
+        int[] metrics = StandardFontMetrics.HELVETICA;
+        if (StandardFontMetrics.width(metrics, encoded, size) <= maxWidth) {
+            return encoded;
+        }
+        float available = maxWidth - StandardFontMetrics.width(metrics, ELLIPSIS, size);
+        float width = 0;
+        int end = 0;
+        while (end < encoded.length()) {
+            float next = width + metrics[encoded.charAt(end) - 32] * size / 1000f;
+            if (next > available) {
+                break;
+            }
+            width = next;
+            end++;
+        }
+        return encoded.substring(0, end) + ELLIPSIS;
+    }
+
+    private static int[] metrics(String font) {
+        return BOLD.equals(font) ? StandardFontMetrics.HELVETICA_BOLD : StandardFontMetrics.HELVETICA;
+    }
+
+    /**
+     * Appends a coordinate with at most two decimals, as PDF content streams do not accept exponents.
+     */
+    private static StringBuilder number(StringBuilder content, float value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            content.append('-');
+            hundredths = -hundredths;
+        }
+        content.append(hundredths / 100);
+        long fraction = hundredths % 100;
+        if (fraction != 0) {
+            content.append('.').append((char) ('0' + fraction / 10));
+            if (fraction % 10 != 0) {
+                content.append((char) ('0' + fraction % 10));
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Formats an amount with two decimals and thousands separators, e.g. 12,345.60.
+     */
+    static String money(BigDecimal amount) {
+        String plain = amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+        boolean negative = plain.startsWith("-");
+        String digits = negative ? plain.substring(1) : plain;
+        int point = digits.length() - 3;
+        StringBuilder formatted = new StringBuilder(digits.length() + digits.length() / 3 + 1);
+        if (negative) {
+            formatted.append('-');
+        }
+        for (int i = 0; i < point; i++) {
+            if (i > 0 && (point - i) % 3 == 0) {
+                formatted.append(',');
+            }
+            formatted.append(digits.charAt(i));
+        }
+        return formatted.append(digits, point, digits.length()).toString();
+    }
+
+    private static String date(LocalDateTime dateTime) {
+        return dateTime != null ? DATE.format(dateTime) : "-";
+    }
+}
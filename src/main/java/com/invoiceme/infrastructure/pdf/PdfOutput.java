@@ -0,0 +1,63 @@
+package com.invoiceme.infrastructure.pdf;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer for assembling a PDF file. Tracks the current offset for the
+ * cross-reference table and writes strings one char per byte (Latin-1 / WinAnsi).
+ */
+final class PdfOutput {
+    private byte[] buffer;
+    private int size;
+
+    PdfOutput(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    PdfOutput write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    PdfOutput write(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    PdfOutput write(int number) {
+        return write(Integer.toString(number));
+    }
+
+    /**
+     * Writes a cross-reference entry: a 10-digit offset, generation 0, in use.
+     */
+    PdfOutput xrefEntry(int offset) {
+        ensureCapacity(20);
+        for (int i = 9; i >= 0; i--) {
+            buffer[size + i] = (byte) ('0' + offset % 10);
+            offset /= 10;
+        }
+        size += 10;
+        return write(" 00000 n \n");
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
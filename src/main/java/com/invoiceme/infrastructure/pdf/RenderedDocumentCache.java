@@ -0,0 +1,232 @@
+package com.invoiceme.infrastructure.pdf;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local file cache for rendered invoice documents, bounded by total size on disk.
+ *
+ * A document is addressed by the SHA-256 of invoice id, invoice and customer version and
+ * renderer layout version, so an entry never has to be invalidated: any change to the invoice
+ * or its customer bumps a version and simply addresses a different file. Files are spread over 256 subdirectories
+ * by the first byte of the hash and written through a temporary file and an atomic rename,
+ * so readers never see a partial document.
+ *
+ * The least recently used entries are evicted once the cache exceeds its maximum size.
+ * Recency is tracked in memory; after a restart the entries are ordered by modification time.
+ * {@link #get} hands out a path that the container opens later, for streaming or sendfile, so
+ * the file of an evicted entry is only deleted {@code delete-delay} after its eviction. An open
+ * file stays readable once it is deleted. Files are deleted outside the cache's lock.
+ */
+@Component
+public class RenderedDocumentCache {
+    private static final Logger log = LoggerFactory.getLogger(RenderedDocumentCache.class);
+
+    private static final String SUFFIX = ".pdf";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long deleteDelayNanos;
+
+    /** Key to file size, in access order. */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    /** Evicted entries whose files are still on disk, oldest eviction first. */
+    private final ArrayDeque<PendingDelete> pendingDeletes = new ArrayDeque<>();
+
+    public RenderedDocumentCache(
+            @Value("${invoiceme.pdf.cache.directory:data/pdf-cache}") Path directory,
+            @Value("${invoiceme.pdf.cache.max-size:512MB}") DataSize maxSize,
+            @Value("${invoiceme.pdf.cache.delete-delay:PT1M}") Duration deleteDelay) {
+        this.directory = directory;
+        this.maxBytes = maxSize.toBytes();
+        this.deleteDelayNanos = deleteDelay.toNanos();
+    }
+
+    @PostConstruct
+    void loadEntries() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        record Existing(String key, long size, long modified) {
+        }
+        List<Existing> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    existing.add(new Existing(name.substring(0, name.length() - SUFFIX.length()),
+                            attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read document cache " + directory, e);
+        }
+        existing.sort(Comparator.comparingLong(Existing::modified));
+        List<String> expired;
+        synchronized (this) {
+            existing.forEach(entry -> {
+                entries.put(entry.key(), entry.size());
+                totalBytes += entry.size();
+            });
+            // Nothing has been handed out yet, so evicted files can go right away
+            long now = System.nanoTime();
+            evict(now);
+            expired = takeExpiredDeletes(now);
+        }
+        expired.forEach(this::delete);
+        log.info("Document cache holds {} files ({} bytes) in {}", entries.size(), totalBytes, directory);
+    }
+
+    /**
+     * Returns the cached file for this document version, marking it as recently used. The file
+     * stays on disk for at least {@code delete-delay}, even if the entry is evicted meanwhile.
+     */
+    public Optional<Path> get(UUID invoiceId, DocumentVersion version) {
+        String key = key(invoiceId, version);
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return Optional.empty();
+            }
+        }
+        Path file = file(key);
+        if (!Files.exists(file)) {
+            remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Stores a rendered document and returns its file, evicting least recently used files as needed.
+     */
+    public Path put(UUID invoiceId, DocumentVersion version, byte[] content) {
+        String key = key(invoiceId, version);
+        Path file = file(key);
+        Path temp = file.resolveSibling(key + "-" + Thread.currentThread().threadId() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Could not write cached document " + file, e);
+        }
+        List<String> expired;
+        synchronized (this) {
+            Long previous = entries.put(key, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0);
+            pendingDeletes.removeIf(pending -> pending.key().equals(key));
+            long now = System.nanoTime();
+            evict(now + deleteDelayNanos);
+            expired = takeExpiredDeletes(now);
+        }
+        expired.forEach(this::delete);
+        return file;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    /**
+     * Must hold the lock. Evicts eldest entries until the cache fits, scheduling their files for
+     * deletion at {@code deleteAtNanos}; the newest entry always stays.
+     */
+    private void evict(long deleteAtNanos) {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            pendingDeletes.add(new PendingDelete(entry.getKey(), deleteAtNanos));
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    /** Must hold the lock. Removes and returns the keys whose files are due for deletion. */
+    private List<String> takeExpiredDeletes(long now) {
+        List<String> expired = new ArrayList<>();
+        while (!pendingDeletes.isEmpty() && pendingDeletes.peekFirst().deleteAtNanos() - now <= 0) {
+            expired.add(pendingDeletes.pollFirst().key());
+        }
+        return expired;
+    }
+
+    private void delete(String key) {
+        synchronized (this) {
+            if (entries.containsKey(key)) {
+                // Rendered and cached again since it was evicted
+                return;
+            }
+        }
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            log.warn("Could not delete cached document {}", key, e);
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    static String key(UUID invoiceId, DocumentVersion version) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((invoiceId + ":" + version.invoiceVersion() + ":" + version.customerVersion()
+                            + ":" + InvoicePdfRenderer.LAYOUT_VERSION)
+                    .getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record PendingDelete(String key, long deleteAtNanos) {
+    }
+}
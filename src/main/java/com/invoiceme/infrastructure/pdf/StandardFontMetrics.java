@@ -0,0 +1,125 @@
+package com.invoiceme.infrastructure.pdf;
+
+/**
+ * Glyph widths of the standard Helvetica fonts in WinAnsiEncoding, taken from the Adobe
+ * core font AFM files. Standard fonts are never embedded, so these tables are all the
+ * renderer needs to measure and align text.
+ */
+final class StandardFontMetrics {
+
+    /** Widths in 1/1000 em for codes 32..255. */
+    static final int[] HELVETICA = {
+        278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+        556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+        1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+        667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+        333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+        556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584, 350,
+        556, 350, 222, 556, 333, 1000, 556, 556, 333, 1000, 667, 333, 1000, 350, 611, 350,
+        350, 222, 222, 333, 333, 350, 556, 1000, 333, 1000, 500, 333, 944, 350, 500, 667,
+        278, 333, 556, 556, 556, 556, 260, 556, 333, 737, 370, 556, 584, 333, 737, 333,
+        400, 584, 333, 333, 333, 556, 537, 278, 333, 333, 365, 556, 834, 834, 834, 611,
+        667, 667, 667, 667, 667, 667, 1000, 722, 667, 667, 667, 667, 278, 278, 278, 278,
+        722, 722, 778, 778, 778, 778, 778, 584, 778, 722, 722, 722, 722, 667, 667, 611,
+        556, 556, 556, 556, 556, 556, 889, 500, 556, 556, 556, 556, 278, 278, 278, 278,
+        556, 556, 556, 556, 556, 556, 556, 584, 611, 556, 556, 556, 556, 500, 556, 500
+    };
+
+    static final int[] HELVETICA_BOLD = {
+        278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+        556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+        975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+        667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+        333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+        611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584, 350,
+        556, 350, 278, 556, 500, 1000, 556, 556, 333, 1000, 667, 333, 1000, 350, 611, 350,
+        350, 278, 278, 500, 500, 350, 556, 1000, 333, 1000, 556, 333, 944, 350, 500, 667,
+        278, 333, 556, 556, 556, 556, 280, 556, 333, 737, 370, 556, 584, 333, 737, 333,
+        400, 584, 333, 333, 333, 611, 556, 278, 333, 333, 365, 556, 834, 834, 834, 611,
+        722, 722, 722, 722, 722, 722, 1000, 722, 667, 667, 667, 667, 278, 278, 278, 278,
+        722, 722, 778, 778, 778, 778, 778, 584, 778, 722, 722, 722, 722, 667, 667, 611,
+        556, 556, 556, 556, 556, 556, 889, 556, 556, 556, 556, 556, 278, 278, 278, 278,
+        611, 611, 611, 611, 611, 611, 611, 584, 611, 611, 611, 611, 611, 556, 611, 556
+    };
+
+    private StandardFontMetrics() {
+    }
+
+    /**
+     * Maps text to WinAnsiEncoding, one char per byte. Characters the encoding cannot
+     * represent become '?', control characters become spaces.
+     */
+    static String toWinAnsi(String text) {
+        StringBuilder encoded = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char mapped = winAnsi(c);
+            if (mapped != c && encoded == null) {
+                encoded = new StringBuilder(text.length()).append(text, 0, i);
+            }
+            if (encoded != null) {
+                encoded.append(mapped);
+            }
+        }
+        return encoded != null ? encoded.toString() : text;
+    }
+
+    /**
+     * Width of WinAnsi-encoded text in points.
+     */
+    static float width(int[] metrics, String encoded, float size) {
+        int units = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            units += metrics[encoded.charAt(i) - 32];
+        }
+        return units * size / 1000f;
+    }
+
+    private static char winAnsi(char c) {
+        if (c >= 32 && c < 127) {
+            return c;
+        }
+        if (c < 32 || c == 127) {
+            return ' ';
+        }
+        if (c == '\u00A0') {
+            return ' ';
+        }
+        if (c == '\u00AD') {
+            return '-';
+        }
+        if (c > 160 && c <= 255) {
+            return c;
+        }
+        return switch (c) {
+            case '\u20AC' -> (char) 128;
+            case '\u201A' -> (char) 130;
+            case '\u0192' -> (char) 131;
+            case '\u201E' -> (char) 132;
+            case '\u2026' -> (char) 133;
+            case '\u2020' -> (char) 134;
+            case '\u2021' -> (char) 135;
+            case '\u02C6' -> (char) 136;
+            case '\u2030' -> (char) 137;
+            case '\u0160' -> (char) 138;
+            case '\u2039' -> (char) 139;
+            case '\u0152' -> (char) 140;
+            case '\u017D' -> (char) 142;
+            case '\u2018' -> (char) 145;
+            case '\u2019' -> (char) 146;
+            case '\u201C' -> (char) 147;
+            case '\u201D' -> (char) 148;
+            case '\u2022' -> (char) 149;
+            case '\u2013' -> (char) 150;
+            case '\u2014' -> (char) 151;
+            case '\u02DC' -> (char) 152;
+            case '\u2122' -> (char) 153;
+            case '\u0161' -> (char) 154;
+            case '\u203A' -> (char) 155;
+            case '\u0153' -> (char) 156;
+            case '\u017E' -> (char) 158;
+            case '\u0178' -> (char) 159;
+            default -> '?';
+        };
+    }
+}
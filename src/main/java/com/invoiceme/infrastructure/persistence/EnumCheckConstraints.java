@@ -0,0 +1,81 @@
+package com.invoiceme.infrastructure.persistence;
+
+import com.invoiceme.domain.delivery.DeliveryKind;
+import com.invoiceme.domain.delivery.DeliveryStatus;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Widens the check constraints Hibernate generates for enum columns when a value is added.
+ *
+ * Hibernate declares {@code check (status in (...))} when it creates a table, but
+ * {@code ddl-auto: update} never revisits existing constraints, so a new enum value would be
+ * rejected by a database created before it existed. On Postgres, each registered column's
+ * constraint is replaced on startup if it lacks any current value. Depends on the entity
+ * manager factory so it runs after the schema update.
+ */
+@Component
+public class EnumCheckConstraints {
+    private static final Logger log = LoggerFactory.getLogger(EnumCheckConstraints.class);
+
+    /** Enum columns whose types have gained values since their tables were first created. */
+    static final List<EnumColumn> COLUMNS = List.of(
+            new EnumColumn("invoices", "status", InvoiceStatus.class),
+            new EnumColumn("invoice_deliveries", "status", DeliveryStatus.class),
+            new EnumColumn("invoice_deliveries", "kind", DeliveryKind.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EnumCheckConstraints(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void widen() {
+        if (!isPostgres()) {
+            return;
+        }
+        for (EnumColumn column : COLUMNS) {
+            List<Constraint> constraints = jdbcTemplate.query(
+                    "select con.conname, pg_get_constraintdef(con.oid) from pg_constraint con "
+                            + "join pg_class c on c.oid = con.conrelid "
+                            + "where c.relname = ? and c.relnamespace = current_schema()::regnamespace and con.contype = 'c'",
+                    (rs, rowNum) -> new Constraint(rs.getString(1), rs.getString(2)),
+                    column.table());
+            for (Constraint constraint : constraints) {
+                if (!constraint.definition().contains("(" + column.column() + ")")
+                        || column.values().stream().allMatch(value -> constraint.definition().contains("'" + value + "'"))) {
+                    continue;
+                }
+                String values = column.values().stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+                jdbcTemplate.execute("alter table " + column.table() + " drop constraint " + constraint.name()
+                        + ", add constraint " + constraint.name() + " check (" + column.column() + " in (" + values + "))");
+                log.info("Widened check constraint {} on {}.{} to {}", constraint.name(), column.table(), column.column(), values);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    record EnumColumn(String table, String column, Class<? extends Enum<?>> type) {
+        List<String> values() {
+            return Arrays.stream(type.getEnumConstants()).map(Enum::name).toList();
+        }
+    }
+
+    private record Constraint(String name, String definition) {}
+}
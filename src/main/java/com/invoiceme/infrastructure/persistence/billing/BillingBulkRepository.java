@@ -0,0 +1,94 @@
+package com.invoiceme.infrastructure.persistence.billing;
+
+import com.invoiceme.domain.billing.BillingRunStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based JDBC access for billing runs: finding the templates still to bill for a cycle,
+ * recording billed templates, and maintaining run progress.
+ */
+@Repository
+public class BillingBulkRepository {
+    private static final String UNBILLED_TEMPLATES =
+            "select t.id from recurring_invoice_templates t "
+                    + "join customers c on c.id = t.customer_id "
+                    + "where t.active = true "
+                    + "and not exists (select 1 from billed_templates b "
+                    + "where b.template_id = t.id and b.billing_cycle = :cycle)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    public BillingBulkRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+    
+    /**
+     * Ids of the active templates of existing customers not yet billed for the cycle, in id order.
+     */
+    public List<UUID> findUnbilledTemplateIds(LocalDate cycle) {
+        return namedParameterJdbcTemplate.queryForList(
+                UNBILLED_TEMPLATES + " order by t.id",
+                new MapSqlParameterSource("cycle", Date.valueOf(cycle)),
+                UUID.class);
+    }
+    
+    /**
+     * The subset of the given templates that is still unbilled for the cycle.
+     */
+    public List<UUID> findUnbilledTemplateIds(LocalDate cycle, Collection<UUID> templateIds) {
+        return namedParameterJdbcTemplate.queryForList(
+                UNBILLED_TEMPLATES + " and t.id in (:ids) order by t.id",
+                new MapSqlParameterSource("cycle", Date.valueOf(cycle)).addValue("ids", templateIds),
+                UUID.class);
+    }
+    
+    /**
+     * Records the billed templates. Fails with a duplicate key if any of them was billed for the
+     * cycle already, which rolls back the caller's transaction together with its invoices.
+     */
+    public void insertBilledTemplates(UUID runId, LocalDate cycle, List<BilledTemplateRow> rows) {
+        jdbcTemplate.batchUpdate(
+                "insert into billed_templates (template_id, billing_cycle, invoice_id, billing_run_id) values (?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setObject(1, row.templateId());
+                    ps.setDate(2, Date.valueOf(cycle));
+                    ps.setObject(3, row.invoiceId());
+                    ps.setObject(4, runId);
+                });
+    }
+    
+    public void addInvoicesCreated(UUID runId, int invoices) {
+        jdbcTemplate.update("update billing_runs set invoices_created = invoices_created + ? where id = ?", invoices, runId);
+    }
+    
+    /**
+     * Starts an attempt at the run: marks it RUNNING and resets the attempt's rate baseline.
+     */
+    public void startAttempt(UUID runId, int templatesRemaining, LocalDateTime now) {
+        jdbcTemplate.update(
+                "update billing_runs set status = ?, templates_total = invoices_created + ?, "
+                        + "invoices_at_resume = invoices_created, resumed_at = ?, finished_at = null, last_error = null "
+                        + "where id = ?",
+                BillingRunStatus.RUNNING.name(), templatesRemaining, Timestamp.valueOf(now), runId);
+    }
+    
+    public void finish(UUID runId, BillingRunStatus status, String error, LocalDateTime now) {
+        jdbcTemplate.update("update billing_runs set status = ?, finished_at = ?, last_error = ? where id = ?",
+                status.name(), Timestamp.valueOf(now), error, runId);
+    }
+    
+    public record BilledTemplateRow(UUID templateId, UUID invoiceId) {}
+}
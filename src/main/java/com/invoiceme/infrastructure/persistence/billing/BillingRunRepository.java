@@ -0,0 +1,22 @@
+package com.invoiceme.infrastructure.persistence.billing;
+
+import com.invoiceme.domain.billing.BillingRun;
+import com.invoiceme.domain.billing.BillingRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads and creates billing runs. Progress and status changes go through
+ * {@link BillingBulkRepository}, in the transactions that generate the invoices.
+ */
+@Repository
+public interface BillingRunRepository extends JpaRepository<BillingRun, UUID> {
+    Optional<BillingRun> findByBillingCycle(LocalDate billingCycle);
+
+    List<BillingRun> findByStatus(BillingRunStatus status);
+}
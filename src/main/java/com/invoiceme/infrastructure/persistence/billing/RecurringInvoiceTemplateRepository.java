@@ -0,0 +1,24 @@
+package com.invoiceme.infrastructure.persistence.billing;
+
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RecurringInvoiceTemplateRepository extends JpaRepository<RecurringInvoiceTemplate, UUID> {
+    @Override
+    @EntityGraph(attributePaths = "lineItems")
+    Optional<RecurringInvoiceTemplate> findById(UUID id);
+
+    @EntityGraph(attributePaths = "lineItems")
+    List<RecurringInvoiceTemplate> findByCustomerId(UUID customerId);
+
+    @EntityGraph(attributePaths = "lineItems")
+    List<RecurringInvoiceTemplate> findByIdIn(Collection<UUID> ids);
+}
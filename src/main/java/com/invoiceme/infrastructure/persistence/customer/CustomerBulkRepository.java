@@ -0,0 +1,62 @@
+package com.invoiceme.infrastructure.persistence.customer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based JDBC access for bulk customer loads, bypassing the persistence context.
+ * On Postgres, batched inserts are rewritten into multi-row statements by the driver
+ * ({@code reWriteBatchedInserts=true} on the datasource URL).
+ */
+@Repository
+public class CustomerBulkRepository {
+    private static final String INSERT_SQL =
+            "insert into customers (id, name, email, created_at, version) values (?, ?, ?, ?, 0)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    public CustomerBulkRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+    
+    /**
+     * Returns the subset of the given emails that already exist, in a single
+     * query answered by the unique index on customers.email.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "select email from customers where email in (:emails)",
+                Map.of("emails", emails),
+                String.class));
+    }
+    
+    public void insertAll(List<NewCustomer> customers) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, customers, customers.size(), (ps, customer) -> {
+            ps.setObject(1, customer.id());
+            ps.setString(2, customer.name());
+            ps.setString(3, customer.email());
+            ps.setTimestamp(4, Timestamp.valueOf(customer.createdAt()));
+        });
+    }
+    
+    public void insert(NewCustomer customer) {
+        insertAll(List.of(customer));
+    }
+    
+    public record NewCustomer(UUID id, String name, String email, LocalDateTime createdAt) {}
+}
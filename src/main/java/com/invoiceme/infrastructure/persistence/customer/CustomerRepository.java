@@ -2,13 +2,16 @@ package com.invoiceme.infrastructure.persistence.customer;
 
 import com.invoiceme.domain.customer.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 }
 
-
-
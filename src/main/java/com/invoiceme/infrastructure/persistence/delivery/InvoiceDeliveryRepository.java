@@ -0,0 +1,13 @@
+package com.invoiceme.infrastructure.persistence.delivery;
+
+import com.invoiceme.domain.delivery.InvoiceDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InvoiceDeliveryRepository extends JpaRepository<InvoiceDelivery, UUID> {
+    List<InvoiceDelivery> findByInvoiceId(UUID invoiceId);
+}
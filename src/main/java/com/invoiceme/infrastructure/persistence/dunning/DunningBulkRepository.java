@@ -0,0 +1,123 @@
+package com.invoiceme.infrastructure.persistence.dunning;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based JDBC access for the dunning run: walking the due reminder states in index order,
+ * advancing them, and queueing the reminders on the invoice delivery queue.
+ *
+ * State changes are conditional on the number of reminders already sent, so when two nodes
+ * process the same state only one of them advances it and queues its reminder.
+ */
+@Repository
+public class DunningBulkRepository {
+    private static final String DUE_SELECT =
+            "select d.invoice_id, d.sent_on, d.reminders_sent, d.next_reminder_on, i.status, c.email "
+                    + "from invoice_dunning d "
+                    + "left join invoices i on i.id = d.invoice_id "
+                    + "left join customers c on c.id = i.customer_id "
+                    + "where d.next_reminder_on <= ? ";
+    private static final String DUE_ORDER = "order by d.next_reminder_on, d.invoice_id limit ?";
+
+    private static final RowMapper<DueReminder> DUE_REMINDER = (rs, rowNum) -> new DueReminder(
+            rs.getObject("invoice_id", UUID.class),
+            rs.getDate("sent_on").toLocalDate(),
+            rs.getInt("reminders_sent"),
+            rs.getDate("next_reminder_on").toLocalDate(),
+            rs.getString("status"),
+            rs.getString("email"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DunningBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The next page of reminder states due on {@code today}, in (next reminder, invoice) order,
+     * strictly after {@code after} when given. Answered by the index on those two columns, so
+     * the cost is proportional to the page, not to the number of open invoices.
+     */
+    public List<DueReminder> findDue(LocalDate today, DueReminder after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(DUE_SELECT + DUE_ORDER, DUE_REMINDER, Date.valueOf(today), limit);
+        }
+        Date afterDate = Date.valueOf(after.nextReminderOn());
+        return jdbcTemplate.query(
+                DUE_SELECT + "and (d.next_reminder_on > ? or (d.next_reminder_on = ? and d.invoice_id > ?)) " + DUE_ORDER,
+                DUE_REMINDER, Date.valueOf(today), afterDate, afterDate, after.invoiceId(), limit);
+    }
+
+    /**
+     * Moves each state to its next reminder. Returns one update count per row; zero means the
+     * state was advanced concurrently and the caller must not queue its reminder.
+     */
+    public int[] advance(List<Advance> rows, LocalDateTime now) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(
+                "update invoice_dunning set reminders_sent = ?, next_reminder_on = ?, last_reminder_at = ? "
+                        + "where invoice_id = ? and reminders_sent = ?",
+                rows.stream()
+                        .map(row -> new Object[] {row.remindersSent(), Date.valueOf(row.nextReminderOn()),
+                                Timestamp.valueOf(now), row.invoiceId(), row.expectedRemindersSent()})
+                        .toList());
+    }
+
+    /**
+     * Deletes states whose ladder is exhausted or whose invoice is no longer open, with the same
+     * per-row counts as {@link #advance}.
+     */
+    public int[] delete(List<DueReminder> rows) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(
+                "delete from invoice_dunning where invoice_id = ? and reminders_sent = ?",
+                rows.stream().map(row -> new Object[] {row.invoiceId(), row.remindersSent()}).toList());
+    }
+
+    public void queueReminders(List<NewReminder> reminders, LocalDateTime now) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into invoice_deliveries (id, invoice_id, recipient, kind, reminder_number, status, attempts, "
+                        + "next_attempt_at, created_at) values (?, ?, ?, 'REMINDER', ?, 'PENDING', 0, ?, ?)",
+                reminders, reminders.size(), (ps, reminder) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, reminder.invoiceId());
+                    ps.setString(3, reminder.recipient());
+                    ps.setInt(4, reminder.reminderNumber());
+                    ps.setTimestamp(5, Timestamp.valueOf(reminder.notBefore()));
+                    ps.setTimestamp(6, Timestamp.valueOf(now));
+                });
+    }
+
+    /**
+     * When the last reminder still waiting in the delivery queue is due, or null if none is.
+     */
+    public LocalDateTime lastQueuedReminderAt() {
+        Timestamp last = jdbcTemplate.queryForObject(
+                "select max(next_attempt_at) from invoice_deliveries where status = 'PENDING' and kind = 'REMINDER'",
+                Timestamp.class);
+        return last != null ? last.toLocalDateTime() : null;
+    }
+
+    public record DueReminder(UUID invoiceId, LocalDate sentOn, int remindersSent, LocalDate nextReminderOn,
+                              String invoiceStatus, String recipient) {}
+
+    public record Advance(UUID invoiceId, int expectedRemindersSent, int remindersSent, LocalDate nextReminderOn) {}
+
+    public record NewReminder(UUID invoiceId, String recipient, int reminderNumber, LocalDateTime notBefore) {}
+}
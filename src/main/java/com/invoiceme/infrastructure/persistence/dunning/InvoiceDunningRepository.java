@@ -0,0 +1,11 @@
+package com.invoiceme.infrastructure.persistence.dunning;
+
+import com.invoiceme.domain.dunning.InvoiceDunning;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface InvoiceDunningRepository extends JpaRepository<InvoiceDunning, UUID> {
+}
@@ -0,0 +1,70 @@
+package com.invoiceme.infrastructure.persistence.invoice;
+
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batched JDBC inserts of new invoices and their line items, bypassing the persistence
+ * context. The invoices are built and validated by the domain model first; only the
+ * writes are set-based.
+ */
+@Repository
+public class InvoiceBulkRepository {
+    private static final String INSERT_INVOICE_SQL =
+            "insert into invoices (id, customer_id, status, total, amount_paid, balance, created_at, updated_at, version) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_LINE_ITEM_SQL =
+            "insert into invoice_line_items (invoice_id, line_item_id, description, quantity, unit_price, subtotal, invoice_created_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public InvoiceBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Inserts the invoices under the given ids, in the caller's transaction.
+     */
+    public void insertAll(List<NewInvoice> invoices) {
+        jdbcTemplate.batchUpdate(INSERT_INVOICE_SQL, invoices, invoices.size(), (ps, row) -> {
+            Invoice invoice = row.invoice();
+            ps.setObject(1, row.id());
+            ps.setObject(2, invoice.getCustomerId());
+            ps.setString(3, invoice.getStatus().name());
+            ps.setBigDecimal(4, invoice.getTotal());
+            ps.setBigDecimal(5, invoice.getAmountPaid());
+            ps.setBigDecimal(6, invoice.getBalance());
+            ps.setTimestamp(7, Timestamp.valueOf(invoice.getCreatedAt()));
+            ps.setTimestamp(8, invoice.getUpdatedAt() != null ? Timestamp.valueOf(invoice.getUpdatedAt()) : null);
+        });
+        
+        List<LineItemRow> lineItems = new ArrayList<>();
+        for (NewInvoice row : invoices) {
+            for (InvoiceLineItem lineItem : row.invoice().getLineItems()) {
+                lineItems.add(new LineItemRow(row.id(), row.invoice(), lineItem));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINE_ITEM_SQL, lineItems, lineItems.size(), (ps, row) -> {
+            InvoiceLineItem lineItem = row.lineItem();
+            ps.setObject(1, row.invoiceId());
+            ps.setObject(2, lineItem.getLineItemId());
+            ps.setString(3, lineItem.getDescription());
+            ps.setInt(4, lineItem.getQuantity());
+            ps.setBigDecimal(5, lineItem.getUnitPrice());
+            ps.setBigDecimal(6, lineItem.getSubtotal());
+            ps.setTimestamp(7, Timestamp.valueOf(row.invoice().getCreatedAt()));
+        });
+    }
+    
+    public record NewInvoice(UUID id, Invoice invoice) {}
+    
+    private record LineItemRow(UUID invoiceId, Invoice invoice, InvoiceLineItem lineItem) {}
+}
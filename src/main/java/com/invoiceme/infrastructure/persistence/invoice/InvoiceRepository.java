@@ -2,17 +2,69 @@ package com.invoiceme.infrastructure.persistence.invoice;
 
 import com.invoiceme.domain.invoice.Invoice;
 import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Open-session-in-view is disabled, so every method whose result is mapped to an
+ * InvoiceDto fetches the line items eagerly through an entity graph.
+ */
 @Repository
-public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
+public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, JpaSpecificationExecutor<Invoice> {
+    @EntityGraph(attributePaths = "lineItems")
+    Optional<Invoice> findWithLineItemsById(UUID id);
+
+    @Override
+    @EntityGraph(attributePaths = "lineItems")
+    List<Invoice> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "lineItems")
+    List<Invoice> findAll(Specification<Invoice> spec);
+
+    @EntityGraph(attributePaths = "lineItems")
+    List<Invoice> findByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "lineItems")
     List<Invoice> findByCustomerId(UUID customerId);
+
+    @EntityGraph(attributePaths = "lineItems")
     List<Invoice> findByStatus(InvoiceStatus status);
+
+    @EntityGraph(attributePaths = "lineItems")
     List<Invoice> findByCustomerIdAndStatus(UUID customerId, InvoiceStatus status);
-}
 
+    /**
+     * Reads the invoice and locks its row until the transaction ends. Line items are not
+     * fetched here, since the lock must not extend to an outer join; they load on first access.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Invoice i where i.id = :id")
+    Optional<Invoice> findForUpdateById(@Param("id") UUID id);
 
+    /**
+     * Reads only the version column, used to answer conditional GETs without hydrating line items.
+     */
+    @Query("select i.version from Invoice i where i.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Reads the invoice version together with its customer's, which a rendered PDF depends on.
+     */
+    @Query("select new com.invoiceme.infrastructure.pdf.DocumentVersion(i.version, c.version) "
+            + "from Invoice i left join Customer c on c.id = i.customerId where i.id = :id")
+    Optional<DocumentVersion> findDocumentVersionById(@Param("id") UUID id);
+}
@@ -0,0 +1,33 @@
+package com.invoiceme.infrastructure.persistence.invoice;
+
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Composable invoice filters. The created_at predicates are plain range comparisons on
+ * the partition key so the Postgres planner can prune monthly partitions.
+ */
+public final class InvoiceSpecifications {
+    
+    private InvoiceSpecifications() {}
+    
+    public static Specification<Invoice> forCustomer(UUID customerId) {
+        return (root, query, cb) -> cb.equal(root.get("customerId"), customerId);
+    }
+    
+    public static Specification<Invoice> withStatus(InvoiceStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Invoice> createdOnOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+    
+    public static Specification<Invoice> createdBefore(LocalDateTime before) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), before);
+    }
+}
@@ -2,14 +2,27 @@ package com.invoiceme.infrastructure.persistence.payment;
 
 import com.invoiceme.domain.payment.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment> {
     List<Payment> findByInvoiceId(UUID invoiceId);
-}
 
+    List<Payment> findByInvoiceIdIn(Collection<UUID> invoiceIds);
+
+    @Query("select coalesce(sum(p.amount), 0) from Payment p where p.invoiceId = :invoiceId")
+    BigDecimal sumAmountByInvoiceId(@Param("invoiceId") UUID invoiceId);
+
+    @Query("select p.version from Payment p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+}
 
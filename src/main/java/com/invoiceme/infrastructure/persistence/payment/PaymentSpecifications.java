@@ -0,0 +1,61 @@
+package com.invoiceme.infrastructure.persistence.payment;
+
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.payment.Payment;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Composable filters for payment search. Date and keyset predicates are written
+ * against (payment_date, id) so they are served by idx_payments_payment_date_id.
+ */
+public final class PaymentSpecifications {
+    
+    private PaymentSpecifications() {}
+    
+    public static Specification<Payment> paidOnOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("paymentDate"), from);
+    }
+    
+    public static Specification<Payment> paidBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("paymentDate"), to);
+    }
+    
+    public static Specification<Payment> amountAtLeast(BigDecimal minAmount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+    
+    public static Specification<Payment> amountAtMost(BigDecimal maxAmount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+    
+    /**
+     * Restricts to payments on invoices of the given customer (semi-join on invoices.customer_id).
+     */
+    public static Specification<Payment> forCustomer(UUID customerId) {
+        return (root, query, cb) -> {
+            Subquery<UUID> invoiceIds = query.subquery(UUID.class);
+            Root<Invoice> invoice = invoiceIds.from(Invoice.class);
+            invoiceIds.select(invoice.get("id")).where(cb.equal(invoice.get("customerId"), customerId));
+            return root.get("invoiceId").in(invoiceIds);
+        };
+    }
+    
+    /**
+     * Keyset predicate: rows strictly after (paymentDate, id) in that order.
+     */
+    public static Specification<Payment> after(LocalDateTime paymentDate, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("paymentDate"), paymentDate),
+                cb.and(
+                        cb.equal(root.get("paymentDate"), paymentDate),
+                        cb.greaterThan(root.<UUID>get("id"), id)
+                )
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.invoiceme.infrastructure.persistence.user;
+
+import com.invoiceme.domain.user.ApiKey;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
+    @EntityGraph(attributePaths = "scopes")
+    List<ApiKey> findByRevokedAtIsNull();
+    
+    @Override
+    @EntityGraph(attributePaths = "scopes")
+    List<ApiKey> findAll();
+}
@@ -0,0 +1,9 @@
+package com.invoiceme.infrastructure.persistence.user;
+
+import com.invoiceme.domain.user.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    Optional<User> findByEmail(String email);
+}
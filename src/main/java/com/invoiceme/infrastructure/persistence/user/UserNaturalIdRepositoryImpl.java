@@ -0,0 +1,28 @@
+package com.invoiceme.infrastructure.persistence.user;
+
+import com.invoiceme.domain.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Resolves users by email through Hibernate's natural-id API instead of a derived
+ * query, so repeat lookups (every authenticated request) are served from the
+ * users-by-email and users cache regions without touching the database.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
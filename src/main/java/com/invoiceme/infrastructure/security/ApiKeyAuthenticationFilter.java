@@ -0,0 +1,54 @@
+package com.invoiceme.infrastructure.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates machine clients by the API key in the {@code X-API-Key} header. Keys are
+ * verified against the {@link ApiKeyRegistry} in memory. No password is hashed and no user is
+ * loaded. The request gets the key's scopes as authorities. A request with an invalid key
+ * stays unauthenticated and is refused like any other.
+ */
+@Component
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-API-Key";
+
+    private final ApiKeyRegistry apiKeyRegistry;
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public ApiKeyAuthenticationFilter(ApiKeyRegistry apiKeyRegistry, MeterRegistry meterRegistry) {
+        this.apiKeyRegistry = apiKeyRegistry;
+        this.accepted = Counter.builder("invoiceme.auth.api-key.requests").tag("result", "accepted")
+                .description("Requests bearing an API key").register(meterRegistry);
+        this.rejected = Counter.builder("invoiceme.auth.api-key.requests").tag("result", "rejected")
+                .description("Requests bearing an API key").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            ApiKeyRegistry.ActiveKey apiKey = apiKeyRegistry.verify(key);
+            if (apiKey != null) {
+                accepted.increment();
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "api-key:" + apiKey.name(), null, apiKey.authorities()));
+            } else {
+                rejected.increment();
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
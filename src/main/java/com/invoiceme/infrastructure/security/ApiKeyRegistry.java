@@ -0,0 +1,91 @@
+package com.invoiceme.infrastructure.security;
+
+import com.invoiceme.domain.user.ApiKey;
+import com.invoiceme.domain.user.Permission;
+import com.invoiceme.infrastructure.persistence.user.ApiKeyRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The active API keys, held in memory by prefix so that verifying a key costs one SHA-256 and
+ * a map lookup.
+ *
+ * The whole set is loaded at startup, reloaded when a key is created or revoked on this node,
+ * and refreshed periodically to pick up changes made on other nodes. A key whose prefix is not
+ * in the set is rejected without a query, so traffic with made-up keys never reaches the
+ * database. Each key's authorities are built when it is loaded.
+ */
+@Component
+public class ApiKeyRegistry {
+    static final String ROLE = "ROLE_API_CLIENT";
+
+    private final ApiKeyRepository apiKeyRepository;
+    private volatile Map<String, ActiveKey> byPrefix = Map.of();
+
+    public ApiKeyRegistry(ApiKeyRepository apiKeyRepository, MeterRegistry meterRegistry) {
+        this.apiKeyRepository = apiKeyRepository;
+        Gauge.builder("invoiceme.auth.api-keys.active", this, registry -> registry.byPrefix.size())
+                .description("API keys loaded for verification").register(meterRegistry);
+    }
+
+    /**
+     * The key the value belongs to, or null when it is malformed, unknown, revoked, expired or
+     * does not match. The hashes are compared in constant time.
+     */
+    public ActiveKey verify(String key) {
+        String prefix = ApiKeySecrets.prefixOf(key);
+        ActiveKey active = prefix != null ? byPrefix.get(prefix) : null;
+        if (active == null || !MessageDigest.isEqual(active.hash(), ApiKeySecrets.sha256(key))) {
+            return null;
+        }
+        if (active.expiresAt() != null && active.expiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        return active;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${invoiceme.auth.api-keys.refresh-interval-ms:30000}",
+            fixedDelayString = "${invoiceme.auth.api-keys.refresh-interval-ms:30000}")
+    public synchronized void reload() {
+        Map<String, ActiveKey> loaded = new HashMap<>();
+        for (ApiKey apiKey : apiKeyRepository.findByRevokedAtIsNull()) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(new SimpleGrantedAuthority(ROLE));
+            for (Permission scope : apiKey.getScopes()) {
+                authorities.add(new SimpleGrantedAuthority(scope.name()));
+            }
+            loaded.put(apiKey.getPrefix(), new ActiveKey(apiKey.getId(), apiKey.getName(),
+                    HexFormat.of().parseHex(apiKey.getKeyHash()), apiKey.getExpiresAt(), List.copyOf(authorities)));
+        }
+        byPrefix = Map.copyOf(loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(ApiKeysChanged event) {
+        reload();
+    }
+
+    public record ActiveKey(
+            UUID id,
+            String name,
+            byte[] hash,
+            LocalDateTime expiresAt,
+            List<GrantedAuthority> authorities) {}
+}
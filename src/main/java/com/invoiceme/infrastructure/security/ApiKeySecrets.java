@@ -0,0 +1,57 @@
+package com.invoiceme.infrastructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Generates and takes apart API key values.
+ *
+ * A key reads {@code imk_<prefix>_<secret>}. The prefix is 12 hex characters that identify the
+ * key and may appear in logs. The secret is 256 random bits, base64url encoded. Only the
+ * SHA-256 of the whole value is stored.
+ */
+public final class ApiKeySecrets {
+    private static final String MARKER = "imk_";
+    private static final int PREFIX_LENGTH = 12;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ApiKeySecrets() {}
+
+    /** A new key value and the prefix it contains. */
+    public static Generated generate() {
+        byte[] prefix = new byte[PREFIX_LENGTH / 2];
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(prefix);
+        RANDOM.nextBytes(secret);
+        String prefixHex = HexFormat.of().formatHex(prefix);
+        return new Generated(prefixHex,
+                MARKER + prefixHex + "_" + Base64.getUrlEncoder().withoutPadding().encodeToString(secret));
+    }
+
+    /** The prefix of a well-formed key value, or null for anything else. */
+    public static String prefixOf(String key) {
+        if (key == null || key.length() <= MARKER.length() + PREFIX_LENGTH + 1 || !key.startsWith(MARKER)
+                || key.charAt(MARKER.length() + PREFIX_LENGTH) != '_') {
+            return null;
+        }
+        return key.substring(MARKER.length(), MARKER.length() + PREFIX_LENGTH);
+    }
+
+    public static byte[] sha256(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String sha256Hex(String key) {
+        return HexFormat.of().formatHex(sha256(key));
+    }
+
+    public record Generated(String prefix, String key) {}
+}
@@ -0,0 +1,7 @@
+package com.invoiceme.infrastructure.security;
+
+/**
+ * Published when an API key is created or revoked; the registry reloads once the change
+ * commits instead of waiting for its next refresh.
+ */
+public record ApiKeysChanged() {}
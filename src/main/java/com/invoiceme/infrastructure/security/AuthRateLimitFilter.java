@@ -0,0 +1,238 @@
+package com.invoiceme.infrastructure.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the authentication endpoints ahead of the password check.
+ *
+ * Every request to {@code /api/auth/**} takes a token from its client address's bucket, which
+ * caps how much BCrypt work one client can demand. Logins also take a token from the bucket of
+ * the email they name, which slows password guessing against one account spread over many
+ * addresses. That token is taken before the password is checked, so concurrent guesses cannot
+ * all get through before the first failure is counted, and handed back once a login succeeds.
+ * A request over either limit is answered with 429 and a Retry-After header without reaching
+ * the controller. A login body too large to look for the email in is answered with 413, so
+ * padding the body cannot skip the email limit.
+ *
+ * The client address is the request's remote address; behind a reverse proxy, enable
+ * {@code server.forward-headers-strategy} so it is the client's rather than the proxy's.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private static final String AUTH_PATH = "/api/auth/";
+    private static final String LOGIN_PATH = "/api/auth/login";
+    /** Login bodies are two short fields; a larger one is rejected rather than parsed. */
+    private static final int MAX_LOGIN_BODY = 4096;
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter byAddress;
+    private final TokenBucketRateLimiter byEmail;
+    private final ObjectMapper objectMapper;
+    private final Counter addressLimited;
+    private final Counter emailLimited;
+
+    public AuthRateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${invoiceme.auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${invoiceme.auth.rate-limit.ip.burst:20}") int ipBurst,
+            @Value("${invoiceme.auth.rate-limit.ip.per-minute:60}") int ipPerMinute,
+            @Value("${invoiceme.auth.rate-limit.email.burst:5}") int emailBurst,
+            @Value("${invoiceme.auth.rate-limit.email.per-minute:5}") int emailPerMinute,
+            @Value("${invoiceme.auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.byAddress = new TokenBucketRateLimiter(ipBurst, ipPerMinute, maxKeys);
+        this.byEmail = new TokenBucketRateLimiter(emailBurst, emailPerMinute, maxKeys);
+        this.addressLimited = Counter.builder("invoiceme.auth.rate-limited").tag("key", "ip")
+                .description("Authentication requests rejected by the rate limiter").register(meterRegistry);
+        this.emailLimited = Counter.builder("invoiceme.auth.rate-limited").tag("key", "email")
+                .description("Authentication requests rejected by the rate limiter").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(AUTH_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long wait = byAddress.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            addressLimited.increment();
+            reject(request, response, wait);
+            return;
+        }
+        if (!"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_LOGIN_BODY + 1);
+        if (body.length > MAX_LOGIN_BODY) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Login request body exceeds " + MAX_LOGIN_BODY + " bytes");
+            return;
+        }
+        String email = loginEmail(body);
+        if (email != null) {
+            wait = byEmail.tryAcquire(email);
+            if (wait > 0) {
+                emailLimited.increment();
+                reject(request, response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+        if (email == null) {
+            return;
+        }
+        if (request.isAsyncStarted()) {
+            // The password is checked off the request thread; refund once the response is final
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    refundUnlessFailed(email, response);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+            });
+        } else {
+            refundUnlessFailed(email, response);
+        }
+    }
+
+    private void refundUnlessFailed(String email, HttpServletResponse response) {
+        if (response.getStatus() != HttpStatus.UNAUTHORIZED.value()) {
+            byEmail.refund(email);
+        }
+    }
+
+    /** Drops buckets that have refilled, so memory follows the set of recently active clients. */
+    @Scheduled(fixedDelayString = "${invoiceme.auth.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        byAddress.evictIdle();
+        byEmail.evictIdle();
+    }
+
+    private String loginEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the controller; only the address limit applies
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        writeError(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                "Too many authentication attempts; retry in " + retryAfterSeconds + " seconds");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                status.value(), status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+
+    /**
+     * Replays the part of the body that has already been read, followed by the rest, so the
+     * controller can bind it.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] head;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] head) {
+            super(request);
+            this.head = head;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream in = new SequenceInputStream(new ByteArrayInputStream(head), super.getInputStream());
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = in.read();
+                    finished = b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = in.read(buffer, offset, length);
+                    finished = n < 0;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Cached login bodies are read synchronously");
+                }
+            };
+        }
+    }
+}
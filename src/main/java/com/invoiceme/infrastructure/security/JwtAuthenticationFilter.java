@@ -1,28 +1,48 @@
 package com.invoiceme.infrastructure.security;
 
+import com.invoiceme.domain.user.Role;
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
 
+/**
+ * Authenticates requests bearing an access token. The token carries the user's role, so the
+ * authorities come from {@link RoleAuthorities} and no user is loaded; a role change applies
+ * from the user's next token. Tokens issued before roles existed fall back to loading the user.
+ * Verifying the token is observed as its own span, apart from the rest of the filter chain.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
+    private final ObservationRegistry observationRegistry;
     
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(
+            JwtUtil jwtUtil,
+            UserDetailsService userDetailsService,
+            TokenRevocationList tokenRevocationList,
+            ObservationRegistry observationRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.observationRegistry = observationRegistry;
     }
     
     @Override
@@ -36,29 +56,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         
+        Observation.createNotStarted("invoiceme.auth.jwt", observationRegistry)
+                .contextualName("JwtAuthenticationFilter.authenticate")
+                .observe(() -> authenticate(request, authHeader.substring(7)));
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    private void authenticate(HttpServletRequest request, String token) {
         try {
-            final String jwt = authHeader.substring(7);
-            final String email = jwtUtil.extractEmail(jwt);
+            // Parsing verifies the signature and expiry
+            final Claims claims = jwtUtil.parse(token);
+            final String email = claims.getSubject();
+            // Tokens issued before jtis were added cannot be revoked and simply run out
+            final boolean revoked = claims.getId() != null
+                    && tokenRevocationList.isRevoked(UUID.fromString(claims.getId()));
+        
+            if (email != null && !revoked && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Role role = jwtUtil.extractRole(claims);
+                Collection<? extends GrantedAuthority> authorities = role != null
+                        ? RoleAuthorities.of(role)
+                        : userDetailsService.loadUserByUsername(email).getAuthorities();
             
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                
-                if (jwtUtil.validateToken(jwt, email)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        email,
+                        null,
+                        authorities
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
         }
-        
-        filterChain.doFilter(request, response);
     }
 }
-
-
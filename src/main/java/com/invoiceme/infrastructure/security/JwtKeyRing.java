@@ -0,0 +1,217 @@
+package com.invoiceme.infrastructure.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The keys access tokens are signed and verified with, each identified by a {@code kid}.
+ *
+ * Keys come from {@code jwt.keys.directory}, which is re-read every minute, so keys can be
+ * rotated without a restart:
+ * <ul>
+ *   <li>{@code <kid>.key} holds a base64 HMAC secret of at least 256 bits.</li>
+ *   <li>{@code <kid>.pem} holds a PKCS#8 Ed25519 or RSA private key, and {@code <kid>.pub.pem}
+ *       its X.509 public key. A public key on its own only verifies, which is how a retired
+ *       key is kept until the tokens it signed have expired.</li>
+ *   <li>{@code active} names the kid to sign with. It may be left out when only one key can sign.</li>
+ * </ul>
+ * The {@code jwt.secret} key, under kid {@value #SECRET_KID}, also verifies tokens, including
+ * those issued before tokens carried a kid. It signs only when the directory has no keys.
+ *
+ * Each load builds an immutable {@link KeySet} and swaps it in whole, so verification looks
+ * the kid up in a map without locking and never sees half a rotation. A directory that fails
+ * to load leaves the previous keys in place. The public keys are also published as a JWKS,
+ * serialised once per load, so a gateway can verify tokens itself.
+ */
+@Component
+public class JwtKeyRing {
+    static final String SECRET_KID = "jwt-secret";
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String ACTIVE_FILE = "active";
+    private static final String HMAC_SUFFIX = ".key";
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+    private static final String PRIVATE_SUFFIX = ".pem";
+
+    private final Key secretKey;
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private volatile KeySet keySet;
+
+    public JwtKeyRing(
+            @Value("${jwt.secret:your-256-bit-secret-key-for-jwt-token-generation-must-be-at-least-256-bits}") String secret,
+            @Value("${jwt.keys.directory:}") String directory,
+            ObjectMapper objectMapper) {
+        this.secretKey = secret.isBlank() ? null : Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.objectMapper = objectMapper;
+        // Fail fast on a broken directory at startup rather than run without keys
+        this.keySet = load();
+    }
+
+    /** The key to verify a token with, or null when the kid is unknown. */
+    public Key verificationKey(String kid) {
+        return keySet.verificationKeys().get(kid != null ? kid : SECRET_KID);
+    }
+
+    /** The key to sign new tokens with, together with its kid, from the same generation. */
+    public SigningKey signingKey() {
+        return keySet.signing();
+    }
+
+    /** Current keys as a JWKS document. */
+    public String jwks() {
+        return keySet.jwks();
+    }
+
+    /** Re-reads the key directory; keeps the current keys when it cannot be loaded. */
+    @Scheduled(initialDelayString = "${jwt.keys.reload-interval-ms:60000}",
+            fixedDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            KeySet loaded = load();
+            if (!loaded.verificationKeys().keySet().equals(keySet.verificationKeys().keySet())
+                    || !loaded.signing().kid().equals(keySet.signing().kid())) {
+                log.info("Loaded JWT keys {}, signing with {}", loaded.verificationKeys().keySet(), loaded.signing().kid());
+            }
+            keySet = loaded;
+        } catch (RuntimeException e) {
+            log.error("Cannot load JWT keys from {}; keeping keys {}", directory, keySet.verificationKeys().keySet(), e);
+        }
+    }
+
+    private KeySet load() {
+        Map<String, Key> verificationKeys = new HashMap<>();
+        Map<String, Key> signingKeys = new HashMap<>();
+        Map<String, PublicKey> publicKeys = new TreeMap<>();
+        String active = null;
+        if (directory != null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.equals(ACTIVE_FILE)) {
+                        active = Files.readString(file).trim();
+                    } else if (name.endsWith(HMAC_SUFFIX)) {
+                        String kid = kid(name, HMAC_SUFFIX);
+                        Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(Files.readString(file).trim()));
+                        verificationKeys.put(kid, key);
+                        signingKeys.put(kid, key);
+                    } else if (name.endsWith(PUBLIC_SUFFIX)) {
+                        PublicKey key = publicKey(Files.readString(file));
+                        verificationKeys.put(kid(name, PUBLIC_SUFFIX), key);
+                        publicKeys.put(kid(name, PUBLIC_SUFFIX), key);
+                    } else if (name.endsWith(PRIVATE_SUFFIX)) {
+                        signingKeys.put(kid(name, PRIVATE_SUFFIX), privateKey(Files.readString(file)));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read JWT keys from " + directory, e);
+            }
+            for (String kid : signingKeys.keySet()) {
+                if (!verificationKeys.containsKey(kid)) {
+                    throw new IllegalStateException("JWT key " + kid + " has no " + kid + PUBLIC_SUFFIX);
+                }
+            }
+        }
+        if (secretKey != null) {
+            verificationKeys.putIfAbsent(SECRET_KID, secretKey);
+        }
+
+        String signingKid;
+        if (active != null) {
+            signingKid = active;
+        } else if (signingKeys.size() == 1) {
+            signingKid = signingKeys.keySet().iterator().next();
+        } else if (signingKeys.isEmpty() && secretKey != null) {
+            signingKid = SECRET_KID;
+            signingKeys.put(SECRET_KID, secretKey);
+        } else if (signingKeys.isEmpty()) {
+            throw new IllegalStateException("Set jwt.secret or put a signing key in jwt.keys.directory");
+        } else {
+            throw new IllegalStateException("Name the JWT key to sign with in " + directory.resolve(ACTIVE_FILE));
+        }
+        Key signingKey = signingKeys.get(signingKid);
+        if (signingKey == null) {
+            throw new IllegalStateException("No JWT signing key with kid " + signingKid);
+        }
+        return new KeySet(Map.copyOf(verificationKeys), new SigningKey(signingKid, signingKey), jwks(publicKeys));
+    }
+
+    private String jwks(Map<String, PublicKey> publicKeys) {
+        List<Map<String, ?>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, key) -> keys.add(Jwks.builder().key(key).id(kid).publicKeyUse("sig").build()));
+        try {
+            return objectMapper.writeValueAsString(Map.of("keys", keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise JWKS", e);
+        }
+    }
+
+    private static String kid(String fileName, String suffix) {
+        return fileName.substring(0, fileName.length() - suffix.length());
+    }
+
+    private static PublicKey publicKey(String pem) {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(der(pem));
+        for (String algorithm : List.of("Ed25519", "RSA")) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (GeneralSecurityException e) {
+                // Try the next algorithm
+            }
+        }
+        throw new IllegalStateException("Public key is neither Ed25519 nor RSA");
+    }
+
+    private static PrivateKey privateKey(String pem) {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(der(pem));
+        for (String algorithm : List.of("Ed25519", "RSA")) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+            } catch (GeneralSecurityException e) {
+                // Try the next algorithm
+            }
+        }
+        throw new IllegalStateException("Private key is neither Ed25519 nor RSA");
+    }
+
+    private static byte[] der(String pem) {
+        return Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", "").trim());
+    }
+
+    /** A signing key and the kid that goes in the header of the tokens it signs. */
+    public record SigningKey(String kid, Key key) {}
+
+    /** One consistent generation of keys; replaced whole on reload. */
+    private record KeySet(Map<String, Key> verificationKeys, SigningKey signing, String jwks) {}
+}
@@ -1,28 +1,50 @@
 package com.invoiceme.infrastructure.security;
 
+import com.invoiceme.domain.user.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues and parses access tokens. Access tokens are short-lived and carry a unique
+ * {@code jti}, so a single token can be revoked; sessions outlive them through refresh tokens.
+ * They also carry the user's role, so requests are authorized without loading the user.
+ * Tokens are signed with the {@link JwtKeyRing}'s active key and name it in their {@code kid}
+ * header, which picks the key they are verified with.
+ */
 @Component
 public class JwtUtil {
     
-    @Value("${jwt.secret:your-256-bit-secret-key-for-jwt-token-generation-must-be-at-least-256-bits}")
-    private String secret;
+    public static final String ROLE_CLAIM = "role";
     
-    @Value("${jwt.expiration:86400000}") // 24 hours default
+    @Value("${jwt.expiration:900000}") // 15 minutes default
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        // Built once; the locator reads the ring's current keys on every parse
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
     
     public String extractEmail(String token) {
@@ -38,10 +60,21 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
     
+    /**
+     * Verifies the token's signature and expiry and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parse(String token) {
+        return extractAllClaims(token);
+    }
+    
+    public long getExpirationMs() {
+        return expiration;
+    }
+    
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -50,18 +83,30 @@ public class JwtUtil {
         return extractExpiration(token).before(new Date());
     }
     
-    public String generateToken(String email) {
+    public String generateToken(String email, Role role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, role.name());
         return createToken(claims, email);
     }
     
+    /**
+     * The role the token was issued for, or null for tokens issued before roles existed.
+     */
+    public Role extractRole(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return role != null ? Role.valueOf(role) : null;
+    }
+    
     private String createToken(Map<String, Object> claims, String subject) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey.key())
                 .compact();
     }
     
@@ -0,0 +1,11 @@
+package com.invoiceme.infrastructure.security;
+
+/**
+ * Thrown when password hashing work is shed because the hashing pool is saturated.
+ * The request can be retried shortly.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        super("Authentication is temporarily overloaded; please retry shortly");
+    }
+}
@@ -0,0 +1,118 @@
+package com.invoiceme.infrastructure.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool, off the request threads.
+ *
+ * BCrypt is deliberately slow, so a login spike on request threads would occupy all of them
+ * and queue every other request behind it. Here at most {@code threads} hashes run at once
+ * (by default half the cores) and at most {@code queue-capacity} wait. Work beyond that is
+ * shed with {@link PasswordHashingBusyException} straight away, as is queued work that waited
+ * longer than {@code max-queue-wait}, whose client has most likely given up.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final Timer queueWait;
+    private final Timer encodeTime;
+    private final Timer matchTime;
+    private final Counter shed;
+
+    public PasswordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${invoiceme.auth.hashing.threads:0}") int threads,
+            @Value("${invoiceme.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${invoiceme.auth.hashing.max-queue-wait:PT2S}") Duration maxQueueWait) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.queueWait = Timer.builder("invoiceme.auth.hash.queue-wait")
+                .description("Time password hashing work waited for a hashing thread").register(meterRegistry);
+        this.encodeTime = Timer.builder("invoiceme.auth.hash.time").tag("operation", "encode")
+                .description("Time spent hashing or verifying a password").register(meterRegistry);
+        this.matchTime = Timer.builder("invoiceme.auth.hash.time").tag("operation", "matches")
+                .description("Time spent hashing or verifying a password").register(meterRegistry);
+        this.shed = Counter.builder("invoiceme.auth.hash.shed")
+                .description("Password hashing requests refused because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("invoiceme.auth.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing work waiting for a hashing thread").register(meterRegistry);
+    }
+
+    /**
+     * Hashes a password for storage.
+     *
+     * @throws PasswordHashingBusyException when the pool and its queue are full
+     */
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against its stored hash.
+     *
+     * @throws PasswordHashingBusyException when the pool and its queue are full
+     */
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Timer hashTime, Supplier<T> hash) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    shed.increment();
+                    result.completeExceptionally(new PasswordHashingBusyException());
+                    return;
+                }
+                try {
+                    result.complete(hashTime.record(hash));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            throw new PasswordHashingBusyException();
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.invoiceme.infrastructure.security;
+
+import com.invoiceme.domain.user.RefreshToken;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens.
+ *
+ * Token values are 256 random bits handed to the client once; only their SHA-256 is stored,
+ * so the table is useless to whoever reads it. A salted slow hash is unnecessary at this
+ * entropy. Each refresh marks the presented token used with a conditional update and issues
+ * its successor, so of two concurrent refreshes with the same token only one succeeds.
+ */
+@Service
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lifetime;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${jwt.refresh-expiration:P30D}") Duration lifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lifetime = lifetime;
+    }
+
+    /** Starts a new token family for a fresh login and returns the token value. */
+    @Transactional
+    public String issue(UUID userId) {
+        return issue(userId, UUID.randomUUID());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor. Empty when the token is unknown, expired or
+     * revoked; when it was already used, its family is revoked as well, since someone else
+     * holds a copy.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(token));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken current = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getUsedAt() != null && current.getRevokedAt() == null) {
+            revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        if (!current.isUsable(now)) {
+            return Optional.empty();
+        }
+        int claimed = jdbcTemplate.update(
+                "update refresh_tokens set used_at = ? where id = ? and used_at is null and revoked_at is null",
+                Timestamp.valueOf(now), current.getId());
+        if (claimed == 0) {
+            // A concurrent refresh with the same token won; treat this one as the replay
+            revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId())));
+    }
+
+    /** Revokes the token's whole family, ending the session it belongs to. */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> revokeFamily(refreshToken.getFamilyId()));
+    }
+
+    public Duration getLifetime() {
+        return lifetime;
+    }
+
+    private String issue(UUID userId, UUID familyId) {
+        byte[] value = new byte[32];
+        RANDOM.nextBytes(value);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+        refreshTokenRepository.save(new RefreshToken(userId, familyId, hash(token), LocalDateTime.now().plus(lifetime)));
+        return token;
+    }
+
+    private void revokeFamily(UUID familyId) {
+        jdbcTemplate.update("update refresh_tokens set revoked_at = ? where family_id = ? and revoked_at is null",
+                Timestamp.valueOf(LocalDateTime.now()), familyId);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Rotation(UUID userId, String refreshToken) {}
+}
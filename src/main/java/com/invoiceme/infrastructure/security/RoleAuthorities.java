@@ -0,0 +1,39 @@
+package com.invoiceme.infrastructure.security;
+
+import com.invoiceme.domain.user.Permission;
+import com.invoiceme.domain.user.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Spring Security authorities of each role, compiled once from the permission table.
+ *
+ * A role's authorities are {@code ROLE_<name>} followed by the names of its permissions. Roles
+ * and permissions are fixed at compile time, so every authentication of a role shares one
+ * immutable list and resolving a user's authorities is a map lookup.
+ */
+public final class RoleAuthorities {
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+            for (Permission permission : role.getPermissions()) {
+                authorities.add(new SimpleGrantedAuthority(permission.name()));
+            }
+            AUTHORITIES.put(role, List.copyOf(authorities));
+        }
+    }
+
+    private RoleAuthorities() {}
+
+    public static List<GrantedAuthority> of(Role role) {
+        return AUTHORITIES.get(role);
+    }
+}
@@ -0,0 +1,177 @@
+package com.invoiceme.infrastructure.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string, such as a client address or an email.
+ *
+ * Each key's bucket holds up to {@code burst} tokens and refills continuously at
+ * {@code perMinute}. Keys are spread over a fixed number of lock stripes, so callers only
+ * contend when their keys hash to the same stripe, and every operation is a map lookup and
+ * a little arithmetic under an uncontended monitor.
+ *
+ * Memory is bounded: each stripe is an access-ordered map holding at most its share of
+ * {@code maxKeys}, and the least recently used bucket is dropped when a stripe is full.
+ * A bucket left alone long enough to refill completely is indistinguishable from a new one,
+ * so such idle buckets are dropped as well, on insert and by {@link #evictIdle}.
+ */
+public class TokenBucketRateLimiter {
+    private static final int STRIPES = 64;
+
+    private final double burst;
+    private final double tokensPerNano;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TokenBucketRateLimiter(int burst, int perMinute, int maxKeys) {
+        this(burst, perMinute, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int burst, int perMinute, int maxKeys, LongSupplier nanoClock) {
+        if (burst <= 0 || perMinute <= 0) {
+            throw new IllegalArgumentException("Rate limit burst and rate must be positive");
+        }
+        if (maxKeys < STRIPES) {
+            throw new IllegalArgumentException("Rate limiter must track at least " + STRIPES + " keys");
+        }
+        this.burst = burst;
+        this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.idleNanos = (long) Math.ceil(burst / tokensPerNano);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxKeys / STRIPES);
+        }
+    }
+
+    /**
+     * Takes a token from the key's bucket. Returns zero when one was available, otherwise
+     * how many nanoseconds until one will be; nothing is taken in that case.
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                stripe.put(key, bucket);
+            } else {
+                refill(bucket, now);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return nanosUntilToken(bucket);
+        }
+    }
+
+    /**
+     * How many nanoseconds until the key's bucket holds a token, without taking one.
+     */
+    public long waitNanos(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                return 0;
+            }
+            refill(bucket, now);
+            return bucket.tokens >= 1 ? 0 : nanosUntilToken(bucket);
+        }
+    }
+
+    /**
+     * Puts back a token taken by {@link #tryAcquire}, for a request that turned out not to
+     * count against the limit. The bucket never holds more than its burst.
+     */
+    public void refund(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket != null) {
+                refill(bucket, now);
+                bucket.tokens = Math.min(burst, bucket.tokens + 1);
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that have refilled completely. Each stripe is in access order, so
+     * the sweep stops at the first bucket that is still in use.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> buckets = stripe.values().iterator();
+                while (buckets.hasNext() && isIdle(buckets.next(), now)) {
+                    buckets.remove();
+                }
+            }
+        }
+    }
+
+    /** Number of buckets currently held. */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private void refill(Bucket bucket, long now) {
+        long elapsed = now - bucket.updatedAt;
+        if (elapsed > 0) {
+            bucket.tokens = Math.min(burst, bucket.tokens + elapsed * tokensPerNano);
+            bucket.updatedAt = now;
+        }
+    }
+
+    private long nanosUntilToken(Bucket bucket) {
+        return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+    }
+
+    private boolean isIdle(Bucket bucket, long now) {
+        return now - bucket.updatedAt >= idleNanos;
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > capacity || isIdle(eldest.getValue(), nanoClock.getAsLong());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.invoiceme.infrastructure.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the revoked access tokens, so checking a token on each request needs no
+ * database round trip.
+ *
+ * Revoked {@code jti}s live in the revoked_access_tokens table. Every few minutes the table is
+ * purged of expired rows and loaded into a Bloom filter; in between, revocations made since
+ * the last rebuild, on this node or picked up from the table every few seconds, are kept in an
+ * exact set. A token absent from both is accepted without further work, which is the case for
+ * nearly every request. Only a Bloom filter hit is confirmed against the table, since it may
+ * be one of its rare false positives.
+ *
+ * A revocation made on another node takes effect here within the refresh interval.
+ */
+@Component
+public class TokenRevocationList {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_FILTER_ENTRIES = 1024;
+    /** Rows are re-read this far back on refresh, in case another node's clock or commit lags. */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, LocalDateTime> recent = new ConcurrentHashMap<>();
+    private final Counter confirmations;
+    private volatile UuidBloomFilter snapshot = new UuidBloomFilter(MIN_FILTER_ENTRIES, FALSE_POSITIVE_RATE);
+    private LocalDateTime refreshedUpTo;
+
+    public TokenRevocationList(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.confirmations = Counter.builder("invoiceme.auth.revocation.confirmations")
+                .description("Bloom filter hits confirmed against the revoked token table").register(meterRegistry);
+        Gauge.builder("invoiceme.auth.revocation.recent", recent, Map::size)
+                .description("Revocations held exactly until the next Bloom filter rebuild").register(meterRegistry);
+    }
+
+    public boolean isRevoked(UUID jti) {
+        if (recent.containsKey(jti)) {
+            return true;
+        }
+        if (!snapshot.mightContain(jti)) {
+            return false;
+        }
+        confirmations.increment();
+        Integer rows = jdbcTemplate.queryForObject(
+                "select count(*) from revoked_access_tokens where jti = ?", Integer.class, jti);
+        return rows != null && rows > 0;
+    }
+
+    /**
+     * Revokes an access token until {@code expiresAt}, when it would stop being accepted anyway.
+     */
+    public void revoke(UUID jti, LocalDateTime expiresAt) {
+        try {
+            jdbcTemplate.update("insert into revoked_access_tokens (jti, expires_at, revoked_at) values (?, ?, ?)",
+                    jti, Timestamp.valueOf(expiresAt), Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Already revoked, for example by a repeated logout
+        }
+        recent.put(jti, expiresAt);
+    }
+
+    /** Picks up revocations made on other nodes since the last refresh. */
+    @Scheduled(fixedDelayString = "${invoiceme.auth.revocation.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (refreshedUpTo == null) {
+            return;
+        }
+        List<Revocation> revocations = jdbcTemplate.query(
+                "select jti, expires_at, revoked_at from revoked_access_tokens where revoked_at > ?",
+                (rs, rowNum) -> new Revocation(rs.getObject("jti", UUID.class),
+                        rs.getTimestamp("expires_at").toLocalDateTime(), rs.getTimestamp("revoked_at").toLocalDateTime()),
+                Timestamp.valueOf(refreshedUpTo.minus(REFRESH_OVERLAP)));
+        for (Revocation revocation : revocations) {
+            recent.put(revocation.jti(), revocation.expiresAt());
+            if (revocation.revokedAt().isAfter(refreshedUpTo)) {
+                refreshedUpTo = revocation.revokedAt();
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        recent.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    /**
+     * Purges expired revocations and rebuilds the Bloom filter from the rest, after which the
+     * exact set only needs the revocations made since.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${invoiceme.auth.revocation.rebuild-interval-ms:300000}",
+            fixedDelayString = "${invoiceme.auth.revocation.rebuild-interval-ms:300000}")
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("delete from revoked_access_tokens where expires_at < ?", Timestamp.valueOf(now));
+        List<UUID> revoked = jdbcTemplate.queryForList("select jti from revoked_access_tokens", UUID.class);
+        UuidBloomFilter filter = new UuidBloomFilter(Math.max(MIN_FILTER_ENTRIES, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.forEach(filter::put);
+        snapshot = filter;
+        revoked.forEach(recent::remove);
+        if (refreshedUpTo == null) {
+            refreshedUpTo = now;
+        }
+    }
+
+    private record Revocation(UUID jti, LocalDateTime expiresAt, LocalDateTime revokedAt) {}
+}
@@ -0,0 +1,54 @@
+package com.invoiceme.infrastructure.security;
+
+import java.util.UUID;
+
+/**
+ * A Bloom filter over random UUIDs. Answers "definitely not added" or "possibly added", with
+ * false positives at about the rate it was sized for and no false negatives.
+ *
+ * A random UUID's two halves are already uniformly distributed, so they are only mixed once
+ * and combined by double hashing rather than rehashed per probe. Not thread-safe while being
+ * filled; publish it safely once complete and it can be read concurrently.
+ */
+final class UuidBloomFilter {
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    UuidBloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = new long[(int) Math.max(1, (optimalBits + 63) / 64)];
+        this.bitCount = bits.length * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * ln2));
+    }
+
+    void put(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits());
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits());
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The SplitMix64 finalizer; spreads the fixed version and variant bits of a UUID half. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,97 @@
+package com.invoiceme.infrastructure.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The most SQL statements an endpoint or a handler may run.
+ *
+ * Budgets are lists of {@code name=statements}, where an endpoint is named by its method and
+ * mapping pattern ({@code GET /api/invoices/{id}=2}) and a handler by its class
+ * ({@code ListInvoicesQueryHandler=1}). Endpoints and handlers without a budget are not
+ * checked. A statement count that grows with the data, the mark of an N+1 query, overruns any
+ * fixed budget as soon as there is enough data.
+ *
+ * In {@code log} mode an overrun is logged; in {@code fail} mode, used by the tests, it throws
+ * {@link QueryBudgetExceededException}.
+ */
+@Component
+public class QueryBudget {
+    private static final Logger log = LoggerFactory.getLogger(QueryBudget.class);
+
+    public enum Mode { OFF, LOG, FAIL }
+
+    private final Mode mode;
+    private final Map<String, Integer> requestBudgets;
+    private final Map<String, Integer> handlerBudgets;
+    private final Counter requestsExceeded;
+    private final Counter handlersExceeded;
+
+    public QueryBudget(
+            MeterRegistry meterRegistry,
+            @Value("${invoiceme.query-budget.mode:log}") String mode,
+            @Value("${invoiceme.query-budget.requests:}") List<String> requestBudgets,
+            @Value("${invoiceme.query-budget.handlers:}") List<String> handlerBudgets) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.requestBudgets = parse(requestBudgets);
+        this.handlerBudgets = parse(handlerBudgets);
+        this.requestsExceeded = Counter.builder("invoiceme.sql.budget.exceeded").tag("scope", "request")
+                .description("Requests and handler calls that ran more SQL statements than their budget")
+                .register(meterRegistry);
+        this.handlersExceeded = Counter.builder("invoiceme.sql.budget.exceeded").tag("scope", "handler")
+                .description("Requests and handler calls that ran more SQL statements than their budget")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param endpoint method and mapping pattern, such as {@code GET /api/invoices}
+     * @throws QueryBudgetExceededException in fail mode, when the budget is exceeded
+     */
+    public void checkRequest(String endpoint, QueryStatistics statistics) {
+        check(endpoint, requestBudgets.get(endpoint), statistics, requestsExceeded);
+    }
+
+    /**
+     * @param handler the handler's simple class name
+     * @throws QueryBudgetExceededException in fail mode, when the budget is exceeded
+     */
+    public void checkHandler(String handler, QueryStatistics statistics) {
+        check(handler, handlerBudgets.get(handler), statistics, handlersExceeded);
+    }
+
+    private void check(String name, Integer budget, QueryStatistics statistics, Counter exceeded) {
+        if (mode == Mode.OFF || budget == null || statistics.getStatements() <= budget) {
+            return;
+        }
+        exceeded.increment();
+        String message = name + " ran " + statistics.getStatements() + " SQL statements; its budget is " + budget;
+        if (mode == Mode.FAIL) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn("{} ({})", message, statistics);
+    }
+
+    private static Map<String, Integer> parse(List<String> budgets) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String budget : budgets) {
+            if (budget.isBlank()) {
+                continue;
+            }
+            int separator = budget.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Query budget must read name=statements: " + budget);
+            }
+            parsed.put(budget.substring(0, separator).trim(), Integer.parseInt(budget.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(parsed);
+    }
+}
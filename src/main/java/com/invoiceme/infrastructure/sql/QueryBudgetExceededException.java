@@ -0,0 +1,11 @@
+package com.invoiceme.infrastructure.sql;
+
+/**
+ * Thrown when a request or handler ran more SQL statements than its budget allows and
+ * budgets are enforced, which they are in tests, so an N+1 regression fails the build.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
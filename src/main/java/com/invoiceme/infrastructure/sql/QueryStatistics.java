@@ -0,0 +1,71 @@
+package com.invoiceme.infrastructure.sql;
+
+/**
+ * SQL statements, time and rows counted for one scope on one thread, such as an HTTP request
+ * or a handler call.
+ *
+ * Scopes nest: a handler's scope opens inside its request's, and a statement counts towards
+ * every scope open on the thread. Work handed to another thread is not counted.
+ */
+public final class QueryStatistics implements AutoCloseable {
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final QueryStatistics parent;
+    private int statements;
+    private long nanos;
+    private long rows;
+
+    private QueryStatistics(QueryStatistics parent) {
+        this.parent = parent;
+    }
+
+    /** Starts counting on this thread until {@link #close()}. */
+    public static QueryStatistics open() {
+        QueryStatistics statistics = new QueryStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    static void recordStatement(long nanos, long rows) {
+        for (QueryStatistics scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.nanos += nanos;
+            scope.rows += rows;
+        }
+    }
+
+    static void recordRow() {
+        for (QueryStatistics scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    /** Statements sent to the database; a JDBC batch counts once. */
+    public int getStatements() {
+        return statements;
+    }
+
+    /** Time spent executing statements, not including reading their results. */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /** Rows read plus rows changed. */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d statements in %.1f ms, %d rows", statements, nanos / 1_000_000.0, rows);
+    }
+}
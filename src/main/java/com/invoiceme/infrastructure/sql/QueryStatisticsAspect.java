@@ -0,0 +1,35 @@
+package com.invoiceme.infrastructure.sql;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL each command and query handler runs and checks it against the handler's
+ * {@link QueryBudget}. It runs outside the transaction advice, so statements flushed on
+ * commit count too.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryStatisticsAspect {
+    private final QueryBudget queryBudget;
+
+    public QueryStatisticsAspect(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Around("execution(public * com.invoiceme.application..*Handler.handle(..))")
+    public Object countHandlerQueries(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result;
+        QueryStatistics statistics = QueryStatistics.open();
+        try (statistics) {
+            result = joinPoint.proceed();
+        }
+        queryBudget.checkHandler(joinPoint.getSignature().getDeclaringType().getSimpleName(), statistics);
+        return result;
+    }
+}
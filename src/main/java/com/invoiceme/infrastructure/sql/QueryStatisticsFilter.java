@@ -0,0 +1,92 @@
+package com.invoiceme.infrastructure.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL each request runs, including the security filters', and checks it against
+ * the request's {@link QueryBudget}.
+ *
+ * Responses with a body are checked by {@link QueryStatisticsResponseAdvice} just before the
+ * body is written, while an overrun can still become an error response and the counts can
+ * still be sent as headers. Others are checked here once the request completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+    static final String STATISTICS_ATTRIBUTE = QueryStatisticsFilter.class.getName() + ".statistics";
+    static final String CHECKED_ATTRIBUTE = QueryStatisticsFilter.class.getName() + ".checked";
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+    static final String QUERY_ROWS_HEADER = "X-Query-Rows";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatisticsFilter.class);
+
+    private final QueryBudget queryBudget;
+    private final boolean headers;
+
+    public QueryStatisticsFilter(
+            QueryBudget queryBudget,
+            @Value("${invoiceme.query-budget.headers:false}") boolean headers) {
+        this.queryBudget = queryBudget;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStatistics statistics = QueryStatistics.open();
+        request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statistics.close();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{}: {}", endpoint(request), statistics);
+        }
+        if (request.getAttribute(CHECKED_ATTRIBUTE) == null && !request.isAsyncStarted()) {
+            if (!response.isCommitted()) {
+                addHeaders(response, statistics);
+            }
+            queryBudget.checkRequest(endpoint(request), statistics);
+        }
+    }
+
+    /** Checks the request's budget once; returns false when it was checked already. */
+    boolean check(HttpServletRequest request, HttpServletResponse response) {
+        QueryStatistics statistics = (QueryStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+        if (statistics == null || request.getAttribute(CHECKED_ATTRIBUTE) != null) {
+            return false;
+        }
+        request.setAttribute(CHECKED_ATTRIBUTE, Boolean.TRUE);
+        addHeaders(response, statistics);
+        queryBudget.checkRequest(endpoint(request), statistics);
+        return true;
+    }
+
+    private void addHeaders(HttpServletResponse response, QueryStatistics statistics) {
+        if (headers) {
+            response.setHeader(QUERY_COUNT_HEADER, Integer.toString(statistics.getStatements()));
+            response.setHeader(QUERY_TIME_HEADER, String.format("%.3f", statistics.getNanos() / 1_000_000.0));
+            response.setHeader(QUERY_ROWS_HEADER, Long.toString(statistics.getRows()));
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
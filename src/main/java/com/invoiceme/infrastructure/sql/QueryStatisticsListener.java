@@ -0,0 +1,77 @@
+package com.invoiceme.infrastructure.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Feeds every statement run through the pool into the {@link QueryStatistics} open on the
+ * calling thread. The pool is wrapped in a datasource-proxy by datasource-micrometer, which
+ * registers this listener; result sets are proxied too, so rows read are counted as
+ * {@code next()} returns them. Each statement is also recorded by shape in
+ * {@link SqlStatementStatistics}.
+ */
+@Component
+public class QueryStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+    private static final String STARTED_AT = QueryStatisticsListener.class.getName() + ".startedAt";
+
+    private final SqlStatementStatistics statementStatistics;
+
+    public QueryStatisticsListener(SqlStatementStatistics statementStatistics) {
+        this.statementStatistics = statementStatistics;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        long nanos = startedAt != null ? System.nanoTime() - startedAt : execInfo.getElapsedTime() * 1_000_000;
+        long rowsChanged = rowsChanged(execInfo.getResult());
+        QueryStatistics.recordStatement(nanos, rowsChanged);
+        // A batch is one execution; its time and rows are credited to its first statement's shape
+        if (!queryInfoList.isEmpty()) {
+            statementStatistics.recordExecution(queryInfoList.get(0).getQuery(), nanos, rowsChanged);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            QueryStatistics.recordRow();
+            statementStatistics.recordRowRead();
+        }
+    }
+
+    private static long rowsChanged(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(0, count.longValue());
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,40 @@
+package com.invoiceme.infrastructure.sql;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Checks the request's query budget and adds the query count headers just before a response
+ * body is written, after the handler's SQL has run but while the response can still change.
+ */
+@ControllerAdvice
+public class QueryStatisticsResponseAdvice implements ResponseBodyAdvice<Object> {
+    private final QueryStatisticsFilter queryStatisticsFilter;
+
+    public QueryStatisticsResponseAdvice(QueryStatisticsFilter queryStatisticsFilter) {
+        this.queryStatisticsFilter = queryStatisticsFilter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            queryStatisticsFilter.check(servletRequest.getServletRequest(), servletResponse.getServletResponse());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,99 @@
+package com.invoiceme.infrastructure.sql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reduces a SQL statement to its shape, so statements that differ only in their literals are
+ * counted together: literals become {@code ?}, IN lists of any length become {@code (?)} and
+ * whitespace is collapsed. Statements are scanned once, character by character; batch loads
+ * can bind thousands of IN parameters, which a backtracking regex would recurse over.
+ *
+ * Hibernate sends a bounded set of statement texts, so fingerprints are cached by text; once
+ * the cache is full, further statements are normalised on every call.
+ */
+public final class SqlFingerprint {
+    private static final int MAX_CACHED = 10_000;
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = CACHE.get(sql);
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        fingerprint = normalize(sql);
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // A string literal; '' inside it is an escaped quote
+                i++;
+                while (i < length && (sql.charAt(i) != '\'' || (i + 1 < length && sql.charAt(i + 1) == '\''))) {
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isDigit(c) && !continuesWord(out)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!out.isEmpty()) {
+                    out.append(' ');
+                }
+            } else if (c == ')') {
+                collapseParameterList(out);
+                out.append(c);
+                i++;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString();
+    }
+
+    /** Whether a digit here belongs to an identifier, such as {@code l1_0}, rather than a number. */
+    private static boolean continuesWord(StringBuilder out) {
+        if (out.isEmpty()) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$' || previous == '.';
+    }
+
+    /** Reduces a just-closed {@code (?, ?, ...)} to {@code (?)}; other parentheses are left alone. */
+    private static void collapseParameterList(StringBuilder out) {
+        int i = out.length() - 1;
+        boolean parameter = false;
+        while (i >= 0 && "?, ".indexOf(out.charAt(i)) >= 0) {
+            parameter |= out.charAt(i) == '?';
+            i--;
+        }
+        if (parameter && i >= 0 && out.charAt(i) == '(') {
+            out.setLength(i + 1);
+            out.append('?');
+        }
+    }
+}
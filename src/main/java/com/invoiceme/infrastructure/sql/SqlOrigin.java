@@ -0,0 +1,36 @@
+package com.invoiceme.infrastructure.sql;
+
+/**
+ * The code a statement is attributed to in {@link SqlStatementStatistics}: the repository
+ * method running on this thread, or else the handler, as set by {@link SqlOriginAspect}.
+ * Statements a handler causes outside any repository method, such as lazy collection loads,
+ * are attributed to the handler.
+ */
+final class SqlOrigin {
+    static final String UNKNOWN = "(no repository or handler)";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private SqlOrigin() {
+    }
+
+    static String current() {
+        String origin = CURRENT.get();
+        return origin != null ? origin : UNKNOWN;
+    }
+
+    /** Makes {@code origin} current and returns the origin to restore afterwards. */
+    static String enter(String origin) {
+        String previous = CURRENT.get();
+        CURRENT.set(origin);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.invoiceme.infrastructure.sql;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Names the code running SQL on this thread for {@link SqlStatementStatistics}: the handler,
+ * and within it the repository method, such as {@code InvoiceRepository.findByCustomerIdAndStatus}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlOriginAspect {
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.invoiceme.application..*Handler.handle(..))")
+    public Object nameHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedAs(joinPoint.getSignature().getDeclaringType().getSimpleName() + ".handle", joinPoint);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object nameRepositoryMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                type -> repositoryName(joinPoint.getThis()));
+        return proceedAs(repository + "." + joinPoint.getSignature().getName(), joinPoint);
+    }
+
+    private static Object proceedAs(String origin, ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = SqlOrigin.enter(origin);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            SqlOrigin.restore(previous);
+        }
+    }
+
+    /** The application's repository interface the proxy implements, rather than the proxy class. */
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (Repository.class.isAssignableFrom(type)) {
+                return type.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,118 @@
+package com.invoiceme.infrastructure.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, time and rows for every statement shape the application runs, per repository
+ * method or handler, in place of {@code pg_stat_statements}, which the managed Postgres does
+ * not offer.
+ *
+ * Statements are keyed by their {@link SqlOrigin} and {@link SqlFingerprint}. Each key's
+ * counters are {@link LongAdder}s and a {@link LongAccumulator}, which spread concurrent
+ * updates over per-thread cells, so recording takes no lock and request threads running the
+ * same statement do not contend on one counter. Once {@code max-statements} keys are tracked,
+ * further new keys are counted under one overflow entry, which bounds memory.
+ */
+@Component
+public class SqlStatementStatistics {
+    static final String OTHER_STATEMENTS = "(other statements)";
+
+    private final int maxStatements;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Entry overflow = new Entry(new Key(OTHER_STATEMENTS, OTHER_STATEMENTS));
+    private final ThreadLocal<Entry> lastExecuted = new ThreadLocal<>();
+
+    public SqlStatementStatistics(@Value("${invoiceme.sql.statistics.max-statements:2000}") int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    /** Records one execution; rows the statement reads are added as the result set is read. */
+    void recordExecution(String sql, long nanos, long rowsChanged) {
+        Entry entry = entryFor(new Key(SqlOrigin.current(), SqlFingerprint.of(sql)));
+        entry.calls.increment();
+        entry.totalNanos.add(nanos);
+        entry.maxNanos.accumulate(nanos);
+        if (rowsChanged > 0) {
+            entry.rows.add(rowsChanged);
+        }
+        lastExecuted.set(entry);
+    }
+
+    /** Counts a row read towards the statement this thread executed last. */
+    void recordRowRead() {
+        Entry entry = lastExecuted.get();
+        if (entry != null) {
+            entry.rows.increment();
+        }
+    }
+
+    /** The statements with the most total execution time, most first. */
+    public List<StatementStatistics> top(int limit) {
+        List<StatementStatistics> all = new ArrayList<>(entries.size() + 1);
+        entries.values().forEach(entry -> all.add(entry.snapshot()));
+        if (overflow.calls.sum() > 0) {
+            all.add(overflow.snapshot());
+        }
+        return all.stream()
+                .sorted(Comparator.comparingDouble(StatementStatistics::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        entries.clear();
+        overflow.reset();
+    }
+
+    private Entry entryFor(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        if (entries.size() >= maxStatements) {
+            return overflow;
+        }
+        return entries.computeIfAbsent(key, Entry::new);
+    }
+
+    /** One statement's totals, as read at one moment. */
+    public record StatementStatistics(
+            String origin, String statement, long calls, double totalMs, double meanMs, double maxMs, long rows) {}
+
+    private record Key(String origin, String fingerprint) {}
+
+    private static final class Entry {
+        final Key key;
+        final LongAdder calls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        StatementStatistics snapshot() {
+            long count = calls.sum();
+            long total = totalNanos.sum();
+            return new StatementStatistics(key.origin(), key.fingerprint(), count, total / 1_000_000.0,
+                    count > 0 ? total / 1_000_000.0 / count : 0, maxNanos.get() / 1_000_000.0, rows.sum());
+        }
+
+        void reset() {
+            calls.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            rows.reset();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.invoiceme.infrastructure.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/sqlstatements}: the statements taking the most database time since startup
+ * or the last reset, with the repository method or handler that ran them. Reading it answers
+ * which queries to index or rewrite first; {@code DELETE} starts a new measurement.
+ */
+@Component
+@Endpoint(id = "sqlstatements")
+public class SqlStatementsEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStatementStatistics statistics;
+
+    public SqlStatementsEndpoint(SqlStatementStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public List<SqlStatementStatistics.StatementStatistics> statements(@Nullable Integer limit) {
+        return statistics.top(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
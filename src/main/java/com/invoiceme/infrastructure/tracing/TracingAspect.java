@@ -0,0 +1,79 @@
+package com.invoiceme.infrastructure.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Observes every controller method and every command and query handler, so a trace shows
+ * where a request's time went between the HTTP span and the SQL spans beneath it.
+ *
+ * Observations are named after the class and method, such as
+ * {@code CustomerController.createCustomer}; Micrometer's tracing handler exports that as the
+ * lower-hyphen span name {@code customer-controller.create-customer}. A controller method
+ * returning a future is observed until the future completes, not just until it returns.
+ * The aspect runs outside the transaction advice, so a handler's span includes its commit and
+ * the statements flushed then.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+    static final String CONTROLLER_OBSERVATION = "invoiceme.controller";
+    static final String HANDLER_OBSERVATION = "invoiceme.handler";
+
+    private final ObservationRegistry observationRegistry;
+
+    public TracingAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *) && execution(public * *(..))")
+    public Object observeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(CONTROLLER_OBSERVATION, joinPoint);
+    }
+
+    @Around("execution(public * com.invoiceme.application..*Handler.handle(..))")
+    public Object observeHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(HANDLER_OBSERVATION, joinPoint);
+    }
+
+    private Object observe(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.isNoop()) {
+            return joinPoint.proceed();
+        }
+        String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(name, observationRegistry)
+                .contextualName(type + "." + method)
+                .lowCardinalityKeyValue("class", type)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        Object result;
+        try (Observation.Scope scope = observation.openScope()) {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            observation.stop();
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, error) -> {
+                if (error != null) {
+                    observation.error(error);
+                }
+                observation.stop();
+            });
+        } else {
+            observation.stop();
+        }
+        return result;
+    }
+}
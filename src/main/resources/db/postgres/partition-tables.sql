@@ -0,0 +1,77 @@
+-- Converts invoices, invoice_line_items and payments to monthly range partitions.
+--
+-- Run once, during a maintenance window, against a database whose schema was created by
+-- Hibernate (ddl-auto). The application keeps future partitions created afterwards
+-- (PartitionMaintenanceJob). Rows outside every monthly partition land in <table>_default.
+--
+--   invoices            partitioned on created_at,          primary key (id, created_at)
+--   invoice_line_items  partitioned on invoice_created_at   (copy of the invoice's created_at)
+--   payments            partitioned on payment_date,        primary key (id, payment_date)
+--
+-- Lookups by id alone still work but probe every partition's primary key index; queries
+-- that bound the partition key (payment search, invoice list createdFrom/createdBefore)
+-- are pruned to the matching months.
+
+BEGIN;
+
+-- Helper: one partition per month between the oldest row and three months from now
+CREATE OR REPLACE FUNCTION pg_temp.create_monthly_partitions(parent text, key text, source text)
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+    first_month date;
+    last_month date := date_trunc('month', now() + interval '3 months');
+    month date;
+BEGIN
+    EXECUTE format('SELECT date_trunc(''month'', coalesce(min(%I), now())) FROM %I', key, source) INTO first_month;
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                parent || '_p' || to_char(month, 'YYYY_MM'), parent, month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', parent || '_default', parent);
+END;
+$$;
+
+-- invoices
+ALTER TABLE invoices RENAME TO invoices_unpartitioned;
+CREATE TABLE invoices (LIKE invoices_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+SELECT pg_temp.create_monthly_partitions('invoices', 'created_at', 'invoices_unpartitioned');
+INSERT INTO invoices SELECT * FROM invoices_unpartitioned;
+
+-- invoice_line_items: copy the parent's created_at so line items are co-partitioned with their invoice
+ALTER TABLE invoice_line_items ADD COLUMN IF NOT EXISTS invoice_created_at timestamp(6);
+UPDATE invoice_line_items li SET invoice_created_at = i.created_at
+  FROM invoices_unpartitioned i
+ WHERE i.id = li.invoice_id AND li.invoice_created_at IS NULL;
+ALTER TABLE invoice_line_items RENAME TO invoice_line_items_unpartitioned;
+CREATE TABLE invoice_line_items (LIKE invoice_line_items_unpartitioned INCLUDING DEFAULTS)
+    PARTITION BY RANGE (invoice_created_at);
+SELECT pg_temp.create_monthly_partitions('invoice_line_items', 'invoice_created_at', 'invoice_line_items_unpartitioned');
+INSERT INTO invoice_line_items SELECT * FROM invoice_line_items_unpartitioned;
+
+-- payments
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+CREATE TABLE payments (LIKE payments_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (payment_date);
+SELECT pg_temp.create_monthly_partitions('payments', 'payment_date', 'payments_unpartitioned');
+INSERT INTO payments SELECT * FROM payments_unpartitioned;
+
+DROP TABLE invoice_line_items_unpartitioned;
+DROP TABLE invoices_unpartitioned;
+DROP TABLE payments_unpartitioned;
+
+-- Keys and indexes are declared on the parents and cascade to every partition
+ALTER TABLE invoices ADD PRIMARY KEY (id, created_at);
+CREATE INDEX idx_invoices_customer_id ON invoices (customer_id);
+CREATE INDEX idx_invoice_line_items_invoice_id ON invoice_line_items (invoice_id);
+-- Open invoices only, for OverdueInvoiceJob
+CREATE INDEX idx_invoices_sent_due_date ON invoices (due_date) WHERE status = 'SENT';
+ALTER TABLE payments ADD PRIMARY KEY (id, payment_date);
+CREATE INDEX idx_payments_payment_date_id ON payments (payment_date, id);
+CREATE INDEX idx_payments_invoice_id ON payments (invoice_id);
+
+COMMIT;
+
+ANALYZE invoices;
+ANALYZE invoice_line_items;
+ANALYZE payments;
@@ -4,6 +4,7 @@ import com.invoiceme.application.commands.customer.*;
 import com.invoiceme.application.queries.customer.*;
 import com.invoiceme.domain.customer.Customer;
 import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.security.WithRole;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
+@WithRole
 @AutoConfigureWebMvc
 @ActiveProfiles("test")
 @DisplayName("Customer API Integration Tests")
@@ -54,6 +56,9 @@ class CustomerControllerTest {
     @MockBean
     private ListCustomersQueryHandler listCustomersQueryHandler;
     
+    @MockBean
+    private GetCustomerVersionQueryHandler getCustomerVersionQueryHandler;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -209,5 +214,19 @@ class CustomerControllerTest {
         
         verify(getCustomerQueryHandler, times(1)).handle(any());
     }
+    
+    @Test
+    @DisplayName("GET /api/customers/{id} - should return 304 when If-None-Match matches current version")
+    void shouldReturnNotModifiedForUnchangedCustomer() throws Exception {
+        // Given
+        when(getCustomerVersionQueryHandler.handle(any())).thenReturn(Optional.of(0L));
+        
+        // When & Then
+        mockMvc.perform(get("/api/customers/" + testCustomerId)
+                .header("If-None-Match", "W/\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0\""));
+        
+        verify(getCustomerQueryHandler, never()).handle(any());
+    }
 }
-
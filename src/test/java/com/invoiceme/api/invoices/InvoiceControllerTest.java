@@ -6,6 +6,7 @@ import com.invoiceme.domain.invoice.Invoice;
 import com.invoiceme.domain.invoice.InvoiceLineItem;
 import com.invoiceme.domain.invoice.InvoiceStatus;
 import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.security.WithRole;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,12 +27,14 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
+@WithRole
 @AutoConfigureWebMvc
 @ActiveProfiles("test")
 @DisplayName("Invoice API Integration Tests")
@@ -61,6 +64,9 @@ class InvoiceControllerTest {
     @MockBean
     private ListInvoicesQueryHandler listInvoicesQueryHandler;
     
+    @MockBean
+    private GetInvoiceVersionQueryHandler getInvoiceVersionQueryHandler;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -217,6 +223,24 @@ class InvoiceControllerTest {
         verify(listInvoicesQueryHandler, times(1)).handle(any(ListInvoicesQuery.class));
     }
     
+    @Test
+    @DisplayName("GET /api/invoices - should pass creation date range to the query")
+    void shouldListInvoicesWithCreatedRange() throws Exception {
+        // Given
+        when(listInvoicesQueryHandler.handle(any(ListInvoicesQuery.class))).thenReturn(List.of());
+        
+        // When & Then
+        mockMvc.perform(get("/api/invoices")
+                .param("createdFrom", "2024-03-01T00:00:00")
+                .param("createdBefore", "2024-04-01T00:00:00"))
+                .andExpect(status().isOk());
+        
+        verify(listInvoicesQueryHandler).handle(argThat(query ->
+                query.createdFrom().equals(Optional.of(LocalDateTime.of(2024, 3, 1, 0, 0)))
+                        && query.createdBefore().equals(Optional.of(LocalDateTime.of(2024, 4, 1, 0, 0)))
+                        && query.customerId().isEmpty()));
+    }
+    
     @Test
     @DisplayName("PUT /api/invoices/{id} - should reject update for Sent invoice")
     void shouldRejectUpdateForSentInvoice() throws Exception {
@@ -236,5 +260,55 @@ class InvoiceControllerTest {
         
         verify(updateInvoiceCommandHandler, times(1)).handle(any(UpdateInvoiceCommand.class));
     }
+    
+    @Test
+    @DisplayName("GET /api/invoices/{id} - should return ETag derived from invoice version")
+    void shouldReturnETagForInvoice() throws Exception {
+        // Given
+        Invoice invoice = createInvoiceWithId(testCustomerId, testInvoiceId);
+        java.lang.reflect.Field versionField = Invoice.class.getDeclaredField("version");
+        versionField.setAccessible(true);
+        versionField.set(invoice, 3L);
+        
+        when(getInvoiceQueryHandler.handle(any(GetInvoiceQuery.class))).thenReturn(Optional.of(invoice));
+        
+        // When & Then
+        mockMvc.perform(get("/api/invoices/" + testInvoiceId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+    
+    @Test
+    @DisplayName("GET /api/invoices/{id} - should return 304 from version lookup when ETag matches")
+    void shouldReturnNotModifiedWhenETagMatches() throws Exception {
+        // Given
+        when(getInvoiceVersionQueryHandler.handle(any(GetInvoiceVersionQuery.class))).thenReturn(Optional.of(3L));
+        
+        // When & Then
+        mockMvc.perform(get("/api/invoices/" + testInvoiceId)
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+        
+        verify(getInvoiceQueryHandler, never()).handle(any(GetInvoiceQuery.class));
+    }
+    
+    @Test
+    @DisplayName("GET /api/invoices/{id} - should return full body when ETag is stale")
+    void shouldReturnInvoiceWhenETagIsStale() throws Exception {
+        // Given
+        Invoice invoice = createInvoiceWithId(testCustomerId, testInvoiceId);
+        
+        when(getInvoiceVersionQueryHandler.handle(any(GetInvoiceVersionQuery.class))).thenReturn(Optional.of(4L));
+        when(getInvoiceQueryHandler.handle(any(GetInvoiceQuery.class))).thenReturn(Optional.of(invoice));
+        
+        // When & Then
+        mockMvc.perform(get("/api/invoices/" + testInvoiceId)
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(testInvoiceId.toString()));
+        
+        verify(getInvoiceQueryHandler, times(1)).handle(any(GetInvoiceQuery.class));
+    }
 }
-
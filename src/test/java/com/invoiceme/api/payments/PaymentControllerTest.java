@@ -2,12 +2,18 @@ package com.invoiceme.api.payments;
 
 import com.invoiceme.application.commands.payment.RecordPaymentCommandHandler;
 import com.invoiceme.application.queries.payment.GetPaymentQueryHandler;
+import com.invoiceme.application.queries.payment.GetPaymentVersionQueryHandler;
 import com.invoiceme.application.queries.payment.ListPaymentsQueryHandler;
+import com.invoiceme.application.queries.payment.PaymentCursor;
+import com.invoiceme.application.queries.payment.PaymentSearchResult;
+import com.invoiceme.application.queries.payment.SearchPaymentsQuery;
+import com.invoiceme.application.queries.payment.SearchPaymentsQueryHandler;
 import com.invoiceme.domain.invoice.Invoice;
 import com.invoiceme.domain.invoice.InvoiceLineItem;
 import com.invoiceme.domain.payment.Payment;
 import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
 import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.security.WithRole;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,8 +22,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -27,6 +35,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,6 +43,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
+@WithRole
 @AutoConfigureWebMvc
 @ActiveProfiles("test")
 @DisplayName("Payment API Integration Tests")
@@ -57,6 +67,12 @@ class PaymentControllerTest {
     @MockBean
     private ListPaymentsQueryHandler listPaymentsQueryHandler;
     
+    @MockBean
+    private GetPaymentVersionQueryHandler getPaymentVersionQueryHandler;
+    
+    @MockBean
+    private SearchPaymentsQueryHandler searchPaymentsQueryHandler;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -182,6 +198,29 @@ class PaymentControllerTest {
         verify(recordPaymentCommandHandler, times(1)).handle(any());
     }
     
+    @Test
+    @DisplayName("POST /api/payments - should return 409 when the invoice was changed concurrently")
+    void shouldReturnConflictOnConcurrentInvoiceUpdate() throws Exception {
+        // Given
+        RecordPaymentRequest request = new RecordPaymentRequest(
+                testInvoiceId,
+                new BigDecimal("100.00"),
+                LocalDateTime.now()
+        );
+        
+        when(recordPaymentCommandHandler.handle(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Invoice.class, testInvoiceId));
+        
+        // When & Then
+        mockMvc.perform(post("/api/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+        
+        verify(recordPaymentCommandHandler, times(1)).handle(any());
+    }
+    
     @Test
     @DisplayName("POST /api/payments - should reject payment for Draft invoice")
     void shouldRejectPaymentForDraftInvoice() throws Exception {
@@ -204,5 +243,59 @@ class PaymentControllerTest {
         
         verify(recordPaymentCommandHandler, times(1)).handle(any());
     }
+    
+    @Test
+    @DisplayName("GET /api/payments/{id} - should return 304 when If-None-Match matches")
+    void shouldReturnNotModifiedForUnchangedPayment() throws Exception {
+        // Given
+        when(getPaymentVersionQueryHandler.handle(any())).thenReturn(Optional.of(0L));
+        
+        // When & Then
+        mockMvc.perform(get("/api/payments/" + testPaymentId)
+                .header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+        
+        verify(getPaymentQueryHandler, never()).handle(any());
+    }
+    
+    @Test
+    @DisplayName("GET /api/payments - should search payments with filters and return next cursor")
+    void shouldSearchPaymentsWithFilters() throws Exception {
+        // Given
+        Payment payment = createPaymentWithId(testInvoiceId, new BigDecimal("150.00"), testPaymentId);
+        PaymentCursor next = new PaymentCursor(payment.getPaymentDate(), testPaymentId);
+        
+        when(searchPaymentsQueryHandler.handle(any()))
+                .thenReturn(new PaymentSearchResult(List.of(payment), Optional.of(next)));
+        
+        // When & Then
+        mockMvc.perform(get("/api/payments")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00")
+                .param("minAmount", "100")
+                .param("customerId", testCustomerId.toString())
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(testPaymentId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value(next.encode()));
+        
+        ArgumentCaptor<SearchPaymentsQuery> captor = ArgumentCaptor.forClass(SearchPaymentsQuery.class);
+        verify(searchPaymentsQueryHandler).handle(captor.capture());
+        SearchPaymentsQuery query = captor.getValue();
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), query.from().orElseThrow());
+        assertEquals(testCustomerId, query.customerId().orElseThrow());
+        assertTrue(query.maxAmount().isEmpty());
+        assertEquals(1, query.limit());
+    }
+    
+    @Test
+    @DisplayName("GET /api/payments - should reject malformed cursor")
+    void shouldRejectMalformedCursor() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/payments").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        
+        verify(searchPaymentsQueryHandler, never()).handle(any());
+    }
 }
-
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -115,6 +118,41 @@ class InvoiceTest {
         assertEquals(InvoiceStatus.SENT, invoice.getStatus());
     }
     
+    @Test
+    @DisplayName("Should set the due date when sent, defaulting to the standard payment term")
+    void markAsSent_ShouldSetDueDate() {
+        // Given
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        Invoice withTerms = new Invoice(UUID.randomUUID());
+        assertNull(invoice.getDueDate());
+        
+        // When
+        invoice.markAsSent();
+        withTerms.markAsSent(LocalDate.of(2026, 12, 15));
+        
+        // Then
+        assertEquals(LocalDate.now().plusDays(Invoice.DEFAULT_PAYMENT_TERM_DAYS), invoice.getDueDate());
+        assertEquals(LocalDate.of(2026, 12, 15), withTerms.getDueDate());
+        assertThrows(IllegalArgumentException.class, () -> new Invoice(UUID.randomUUID()).markAsSent(null));
+    }
+    
+    @Test
+    @DisplayName("Should accept payments on an Overdue invoice and transition to Paid")
+    void applyPayment_ToOverdueInvoice_ShouldTransitionToPaid() {
+        // Given
+        Invoice invoice = Invoice.restore(UUID.randomUUID(), UUID.randomUUID(), InvoiceStatus.OVERDUE,
+                List.of(new InvoiceLineItem("Service", 1, new BigDecimal("80.00"))),
+                new BigDecimal("80.00"), BigDecimal.ZERO, new BigDecimal("80.00"), LocalDate.now().minusDays(3),
+                LocalDateTime.now().minusDays(33), null, 1L);
+        
+        // When
+        invoice.applyPayment(new BigDecimal("80.00"));
+        
+        // Then
+        assertEquals(InvoiceStatus.PAID, invoice.getStatus());
+        assertEquals(0, BigDecimal.ZERO.compareTo(invoice.getBalance()));
+    }
+    
     @Test
     @DisplayName("Should not allow marking Sent invoice as Sent again")
     void markAsSent_FromSent_ShouldThrowException() {
@@ -254,5 +292,58 @@ class InvoiceTest {
         assertThrows(IllegalArgumentException.class, 
                 () -> invoice.updateCustomerId(null));
     }
+    
+    @Test
+    @DisplayName("Should store total and amount paid alongside balance")
+    void applyPayment_ShouldTrackTotalAndAmountPaid() {
+        // Given
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        invoice.addLineItem(new InvoiceLineItem("Service 1", 2, new BigDecimal("100.00")));
+        invoice.addLineItem(new InvoiceLineItem("Service 2", 1, new BigDecimal("50.00")));
+        invoice.markAsSent();
+        
+        // When
+        invoice.applyPayment(new BigDecimal("75.00"));
+        
+        // Then
+        assertEquals(new BigDecimal("250.00"), invoice.getTotal());
+        assertEquals(new BigDecimal("75.00"), invoice.getAmountPaid());
+        assertEquals(new BigDecimal("175.00"), invoice.getBalance());
+    }
+    
+    @Test
+    @DisplayName("Should keep line item subtotal in sync with quantity and unit price")
+    void lineItemUpdates_ShouldRecalculateStoredSubtotal() {
+        // Given
+        InvoiceLineItem lineItem = new InvoiceLineItem("Service", 2, new BigDecimal("10.00"));
+        assertEquals(new BigDecimal("20.00"), lineItem.getSubtotal());
+        
+        // When
+        lineItem.updateQuantity(3);
+        lineItem.updateUnitPrice(new BigDecimal("12.50"));
+        
+        // Then
+        assertEquals(new BigDecimal("37.50"), lineItem.getSubtotal());
+    }
+    
+    @Test
+    @DisplayName("Should reopen a paid invoice as overdue when reconciled payments fall short")
+    void reconcileTotals_ShouldBringStatusInLineWithBalance() {
+        // Given
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        invoice.addLineItem(new InvoiceLineItem("Service", 2, new BigDecimal("50.00")));
+        invoice.markAsSent(LocalDate.now().minusDays(1));
+        invoice.applyPayment(new BigDecimal("100.00"));
+        assertEquals(InvoiceStatus.PAID, invoice.getStatus());
+        
+        // When
+        boolean changed = invoice.reconcileTotals(new BigDecimal("60.00"), LocalDate.now());
+        
+        // Then
+        assertTrue(changed);
+        assertEquals(new BigDecimal("60.00"), invoice.getAmountPaid());
+        assertEquals(new BigDecimal("40.00"), invoice.getBalance());
+        assertEquals(InvoiceStatus.OVERDUE, invoice.getStatus());
+        assertFalse(invoice.reconcileTotals(new BigDecimal("60.00"), LocalDate.now()));
+    }
 }
-
@@ -0,0 +1,45 @@
+package com.invoiceme.infrastructure.dunning;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Dunning Ladder Tests")
+class DunningLadderTest {
+
+    private static final LocalDate SENT_ON = LocalDate.of(2026, 10, 1);
+
+    private final DunningLadder ladder = new DunningLadder(List.of(3, 10, 30));
+
+    @Test
+    @DisplayName("Should count reminder dates from the send date and end after the last rung")
+    void shouldDateRungsFromSendDate() {
+        assertEquals(LocalDate.of(2026, 10, 4), ladder.reminderOn(SENT_ON, 0));
+        assertEquals(LocalDate.of(2026, 10, 11), ladder.reminderOn(SENT_ON, 1));
+        assertEquals(LocalDate.of(2026, 10, 31), ladder.reminderOn(SENT_ON, 2));
+        assertNull(ladder.reminderOn(SENT_ON, 3));
+    }
+
+    @Test
+    @DisplayName("Should skip to the most escalated rung due when runs were missed")
+    void shouldSkipToLatestDueRung() {
+        assertEquals(0, ladder.latestRungDue(SENT_ON, SENT_ON.plusDays(3), 0));
+        assertEquals(0, ladder.latestRungDue(SENT_ON, SENT_ON.plusDays(9), 0));
+        assertEquals(1, ladder.latestRungDue(SENT_ON, SENT_ON.plusDays(10), 0));
+        assertEquals(2, ladder.latestRungDue(SENT_ON, SENT_ON.plusDays(90), 0));
+        assertEquals(2, ladder.latestRungDue(SENT_ON, SENT_ON.plusDays(30), 2));
+    }
+
+    @Test
+    @DisplayName("Should reject rungs that are not positive and ascending")
+    void shouldRejectInvalidLadder() {
+        assertThrows(IllegalArgumentException.class, () -> new DunningLadder(List.of(0, 10)));
+        assertThrows(IllegalArgumentException.class, () -> new DunningLadder(List.of(10, 3)));
+        assertThrows(IllegalArgumentException.class, () -> new DunningLadder(List.of(3, 3)));
+        assertTrue(new DunningLadder(List.of()).isEmpty());
+    }
+}
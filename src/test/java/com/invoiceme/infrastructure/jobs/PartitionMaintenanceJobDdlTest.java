@@ -0,0 +1,68 @@
+package com.invoiceme.infrastructure.jobs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Partition Maintenance DDL Tests")
+class PartitionMaintenanceJobDdlTest {
+
+    @Test
+    @DisplayName("Should name partitions after the table and the zero-padded year and month")
+    void shouldNamePartitions() {
+        assertEquals("payments_p2024_03", PartitionMaintenanceJob.partitionName("payments", YearMonth.of(2024, 3)));
+        assertEquals("invoices_p2024_12", PartitionMaintenanceJob.partitionName("invoices", YearMonth.of(2024, 12)));
+        assertEquals("invoice_line_items_p0999_01",
+                PartitionMaintenanceJob.partitionName("invoice_line_items", YearMonth.of(999, 1)));
+    }
+
+    @Test
+    @DisplayName("Should create the partition directly when the table has no default partition")
+    void shouldCreatePartitionWithoutDefault() {
+        List<String> ddl = PartitionMaintenanceJob.partitionDdl("payments", "payment_date", YearMonth.of(2024, 3), false);
+
+        assertEquals(List.of("create table payments_p2024_03 partition of payments "
+                + "for values from ('2024-03-01') to ('2024-04-01')"), ddl);
+    }
+
+    @Test
+    @DisplayName("Should move matching rows out of the default partition before attaching")
+    void shouldMoveRowsOutOfDefault() {
+        List<String> ddl = PartitionMaintenanceJob.partitionDdl("invoices", "created_at", YearMonth.of(2024, 3), true);
+
+        assertEquals(List.of(
+                "create table invoices_p2024_03 (like invoices including defaults including constraints)",
+                "insert into invoices_p2024_03 select * from invoices_default "
+                        + "where created_at >= '2024-03-01' and created_at < '2024-04-01'",
+                "delete from invoices_default where created_at >= '2024-03-01' and created_at < '2024-04-01'",
+                "alter table invoices attach partition invoices_p2024_03 "
+                        + "for values from ('2024-03-01') to ('2024-04-01')"
+        ), ddl);
+    }
+
+    @Test
+    @DisplayName("Should end December's range on the first of January of the next year")
+    void shouldRollOverYear() {
+        String bounds = "for values from ('2024-12-01') to ('2025-01-01')";
+
+        assertEquals(List.of("create table payments_p2024_12 partition of payments " + bounds),
+                PartitionMaintenanceJob.partitionDdl("payments", "payment_date", YearMonth.of(2024, 12), false));
+        List<String> withDefault = PartitionMaintenanceJob.partitionDdl(
+                "invoice_line_items", "invoice_created_at", YearMonth.of(2024, 12), true);
+        assertTrue(withDefault.get(1).endsWith("invoice_created_at >= '2024-12-01' and invoice_created_at < '2025-01-01'"));
+        assertTrue(withDefault.get(3).endsWith(bounds));
+    }
+
+    @Test
+    @DisplayName("Should bound February by the first of March in leap and common years")
+    void shouldBoundFebruary() {
+        assertTrue(PartitionMaintenanceJob.partitionDdl("payments", "payment_date", YearMonth.of(2024, 2), false).get(0)
+                .endsWith("for values from ('2024-02-01') to ('2024-03-01')"));
+        assertTrue(PartitionMaintenanceJob.partitionDdl("payments", "payment_date", YearMonth.of(2025, 2), false).get(0)
+                .endsWith("for values from ('2025-02-01') to ('2025-03-01')"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.invoiceme.infrastructure.pdf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rendered Document Cache Tests")
+class RenderedDocumentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should return the stored file for the same invoice version only")
+    void shouldAddressDocumentsByInvoiceVersion() throws Exception {
+        // Given
+        RenderedDocumentCache cache = new RenderedDocumentCache(directory, DataSize.ofKilobytes(64), Duration.ZERO);
+        UUID invoiceId = UUID.randomUUID();
+
+        // When
+        Path file = cache.put(invoiceId, version(3), "version three".getBytes());
+
+        // Then
+        assertEquals(Optional.of(file), cache.get(invoiceId, version(3)));
+        assertEquals("version three", Files.readString(file));
+        assertTrue(file.startsWith(directory));
+        assertTrue(cache.get(invoiceId, version(4)).isEmpty());
+        assertTrue(cache.get(invoiceId, new DocumentVersion(3L, 8L)).isEmpty());
+        assertTrue(cache.get(UUID.randomUUID(), version(3)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should delete least recently used documents once the size limit is exceeded")
+    void shouldEvictLeastRecentlyUsed() {
+        // Given
+        RenderedDocumentCache cache = new RenderedDocumentCache(directory, DataSize.ofBytes(3000), Duration.ZERO);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        Path firstFile = cache.put(first, version(0), new byte[1000]);
+        Path secondFile = cache.put(second, version(0), new byte[1000]);
+        cache.put(third, version(0), new byte[1000]);
+        cache.get(first, version(0));
+
+        // When
+        cache.put(UUID.randomUUID(), version(0), new byte[1000]);
+
+        // Then
+        assertEquals(3, cache.size());
+        assertEquals(3000, cache.totalBytes());
+        assertTrue(cache.get(second, version(0)).isEmpty());
+        assertFalse(Files.exists(secondFile));
+        assertTrue(cache.get(first, version(0)).isPresent());
+        assertTrue(Files.exists(firstFile));
+    }
+
+    @Test
+    @DisplayName("Should keep the files of evicted documents until the delete delay has passed")
+    void shouldDelayDeletingEvictedFiles() {
+        // Given
+        RenderedDocumentCache cache = new RenderedDocumentCache(directory, DataSize.ofBytes(2000), Duration.ofHours(1));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Path firstFile = cache.put(first, version(0), new byte[1000]);
+        Path secondFile = cache.put(second, version(0), new byte[1000]);
+
+        // When
+        cache.put(UUID.randomUUID(), version(0), new byte[1000]);
+
+        // Then
+        assertTrue(cache.get(first, version(0)).isEmpty());
+        assertTrue(Files.exists(firstFile));
+        assertEquals(2000, cache.totalBytes());
+
+        // Re-rendering an evicted document cancels its pending delete
+        assertEquals(firstFile, cache.put(first, version(0), new byte[1000]));
+        assertTrue(cache.get(second, version(0)).isEmpty());
+        assertTrue(Files.exists(secondFile));
+        assertEquals(Optional.of(firstFile), cache.get(first, version(0)));
+    }
+
+    @Test
+    @DisplayName("Should pick up existing documents and drop temporary files on startup")
+    void shouldReloadEntriesFromDisk() throws Exception {
+        // Given
+        UUID invoiceId = UUID.randomUUID();
+        Path file = new RenderedDocumentCache(directory, DataSize.ofKilobytes(64), Duration.ZERO)
+                .put(invoiceId, version(1), new byte[500]);
+        Path leftover = file.resolveSibling("interrupted-write.tmp");
+        Files.write(leftover, new byte[100]);
+
+        // When
+        RenderedDocumentCache cache = new RenderedDocumentCache(directory, DataSize.ofKilobytes(64), Duration.ZERO);
+        cache.loadEntries();
+
+        // Then
+        assertEquals(1, cache.size());
+        assertEquals(500, cache.totalBytes());
+        assertEquals(Optional.of(file), cache.get(invoiceId, version(1)));
+        assertFalse(Files.exists(leftover));
+    }
+
+    private static DocumentVersion version(long invoiceVersion) {
+        return new DocumentVersion(invoiceVersion, 1L);
+    }
+}
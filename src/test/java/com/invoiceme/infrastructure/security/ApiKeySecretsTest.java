@@ -0,0 +1,38 @@
+package com.invoiceme.infrastructure.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("API Key Secrets Tests")
+class ApiKeySecretsTest {
+
+    @Test
+    @DisplayName("Should generate distinct keys that carry their prefix")
+    void shouldGenerateKeysWithPrefix() {
+        // Given
+        ApiKeySecrets.Generated first = ApiKeySecrets.generate();
+        ApiKeySecrets.Generated second = ApiKeySecrets.generate();
+
+        // When / Then
+        assertTrue(first.key().startsWith("imk_" + first.prefix() + "_"));
+        assertEquals(12, first.prefix().length());
+        assertEquals(first.prefix(), ApiKeySecrets.prefixOf(first.key()));
+        assertNotEquals(first.key(), second.key());
+        assertNotEquals(first.prefix(), second.prefix());
+        assertEquals(64, ApiKeySecrets.sha256Hex(first.key()).length());
+    }
+
+    @Test
+    @DisplayName("Should find no prefix in malformed keys")
+    void shouldRejectMalformedKeys() {
+        // When / Then
+        assertNull(ApiKeySecrets.prefixOf(null));
+        assertNull(ApiKeySecrets.prefixOf(""));
+        assertNull(ApiKeySecrets.prefixOf("imk_0123456789ab_"));
+        assertNull(ApiKeySecrets.prefixOf("imk_0123456789abXsecret"));
+        assertNull(ApiKeySecrets.prefixOf("Bearer eyJhbGciOiJIUzI1NiJ9"));
+        assertEquals("0123456789ab", ApiKeySecrets.prefixOf("imk_0123456789ab_secret"));
+    }
+}
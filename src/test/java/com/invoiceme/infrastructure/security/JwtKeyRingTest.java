@@ -0,0 +1,162 @@
+package com.invoiceme.infrastructure.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.domain.user.Role;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JWT Key Ring Tests")
+class JwtKeyRingTest {
+
+    private static final String SECRET = "test-secret-key-for-jwt-token-generation-must-be-at-least-256-bits-long";
+
+    @TempDir
+    Path keys;
+
+    @Test
+    @DisplayName("Should sign with jwt.secret and accept tokens without a kid when no directory is set")
+    void shouldFallBackToSecret() {
+        // Given
+        JwtKeyRing ring = new JwtKeyRing(SECRET, "", new ObjectMapper());
+        JwtUtil jwtUtil = jwtUtil(ring);
+        String legacyToken = Jwts.builder()
+                .subject("legacy@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When
+        String token = jwtUtil.generateToken("user@example.com", Role.ACCOUNTANT);
+
+        // Then
+        assertEquals(JwtKeyRing.SECRET_KID, ring.signingKey().kid());
+        assertEquals("user@example.com", jwtUtil.parse(token).getSubject());
+        assertEquals("legacy@example.com", jwtUtil.parse(legacyToken).getSubject());
+        assertEquals("{\"keys\":[]}", ring.jwks());
+    }
+
+    @Test
+    @DisplayName("Should keep verifying retired keys after rotation until their files are removed")
+    void shouldRotateKeys() throws Exception {
+        // Given
+        writeEd25519(keys, "2026-01");
+        JwtKeyRing ring = new JwtKeyRing(SECRET, keys.toString(), new ObjectMapper());
+        JwtUtil jwtUtil = jwtUtil(ring);
+        String oldToken = jwtUtil.generateToken("user@example.com", Role.ACCOUNTANT);
+
+        // When
+        writeEd25519(keys, "2026-02");
+        Files.writeString(keys.resolve("active"), "2026-02\n");
+        ring.reload();
+        String newToken = jwtUtil.generateToken("user@example.com", Role.ACCOUNTANT);
+
+        // Then
+        assertEquals("2026-02", ring.signingKey().kid());
+        assertEquals("user@example.com", jwtUtil.parse(oldToken).getSubject());
+        assertEquals("user@example.com", jwtUtil.parse(newToken).getSubject());
+
+        // When the old key is retired
+        Files.delete(keys.resolve("2026-01.pem"));
+        Files.delete(keys.resolve("2026-01.pub.pem"));
+        ring.reload();
+
+        // Then
+        assertThrows(JwtException.class, () -> jwtUtil.parse(oldToken));
+        assertEquals("user@example.com", jwtUtil.parse(newToken).getSubject());
+    }
+
+    @Test
+    @DisplayName("Should keep the current keys when the directory cannot be loaded")
+    void shouldKeepKeysOnBadReload() throws Exception {
+        // Given
+        writeHmac(keys, "hmac-1");
+        JwtKeyRing ring = new JwtKeyRing(SECRET, keys.toString(), new ObjectMapper());
+        JwtUtil jwtUtil = jwtUtil(ring);
+        String token = jwtUtil.generateToken("user@example.com", Role.ACCOUNTANT);
+
+        // When
+        Files.writeString(keys.resolve("active"), "missing");
+        ring.reload();
+
+        // Then
+        assertEquals("hmac-1", ring.signingKey().kid());
+        assertEquals("user@example.com", jwtUtil.parse(token).getSubject());
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(SECRET, keys.toString(), new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("Should publish only public keys, enough to verify tokens elsewhere")
+    void shouldPublishPublicKeys() throws Exception {
+        // Given
+        writeHmac(keys, "hmac-1");
+        writeEd25519(keys, "ed-1");
+        Files.writeString(keys.resolve("active"), "ed-1");
+        JwtKeyRing ring = new JwtKeyRing(SECRET, keys.toString(), new ObjectMapper());
+        String token = jwtUtil(ring).generateToken("user@example.com", Role.ADMIN);
+
+        // When
+        JwkSet jwks = Jwks.setParser().build().parse(ring.jwks());
+
+        // Then
+        Set<String> kids = jwks.getKeys().stream().map(Jwk::getId).collect(Collectors.toSet());
+        assertEquals(Set.of("ed-1"), kids);
+        assertFalse(ring.jwks().contains("\"d\""));
+        String subject = Jwts.parser()
+                .keyLocator(header -> jwks.getKeys().stream()
+                        .filter(jwk -> jwk.getId().equals(((JwsHeader) header).getKeyId()))
+                        .findFirst().orElseThrow().toKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        assertEquals("user@example.com", subject);
+    }
+
+    private static JwtUtil jwtUtil(JwtKeyRing ring) {
+        JwtUtil jwtUtil = new JwtUtil(ring);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        return jwtUtil;
+    }
+
+    static void writeEd25519(Path directory, String kid) throws IOException, NoSuchAlgorithmException {
+        KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Files.writeString(directory.resolve(kid + ".pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        Files.writeString(directory.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+    }
+
+    static void writeHmac(Path directory, String kid) throws IOException {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        Files.writeString(directory.resolve(kid + ".key"), Base64.getEncoder().encodeToString(secret));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,107 @@
+package com.invoiceme.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Hashing Executor Tests")
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash on the pool and record hash time and queue wait")
+    void shouldHashOnPool() throws Exception {
+        // Given
+        release.countDown();
+        executor = new PasswordHashingExecutor(new BlockingEncoder(), meterRegistry, 1, 4, Duration.ofSeconds(5));
+
+        // When
+        String hash = executor.encode("secret").get(5, TimeUnit.SECONDS);
+        boolean matches = executor.matches("secret", hash).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("hashed:secret", hash);
+        assertTrue(matches);
+        assertEquals(1, meterRegistry.timer("invoiceme.auth.hash.time", "operation", "encode").count());
+        assertEquals(1, meterRegistry.timer("invoiceme.auth.hash.time", "operation", "matches").count());
+        assertEquals(2, meterRegistry.timer("invoiceme.auth.hash.queue-wait").count());
+    }
+
+    @Test
+    @DisplayName("Should shed work at once when every thread is busy and the queue is full")
+    void shouldShedWhenSaturated() throws Exception {
+        // Given
+        executor = new PasswordHashingExecutor(new BlockingEncoder(), meterRegistry, 1, 1, Duration.ofSeconds(5));
+        CompletableFuture<String> running = executor.encode("first");
+        CompletableFuture<String> queued = executor.encode("second");
+
+        // When / Then
+        assertThrows(PasswordHashingBusyException.class, () -> executor.encode("third"));
+        assertEquals(1.0, meterRegistry.counter("invoiceme.auth.hash.shed").count());
+        assertEquals(1.0, meterRegistry.get("invoiceme.auth.hash.queue").gauge().value());
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should drop queued work that waited longer than its clients would")
+    void shouldShedStaleWork() throws Exception {
+        // Given
+        executor = new PasswordHashingExecutor(new BlockingEncoder(), meterRegistry, 1, 1, Duration.ofMillis(50));
+        CompletableFuture<String> running = executor.encode("first");
+        CompletableFuture<String> stale = executor.encode("second");
+
+        // When
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> stale.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingBusyException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("invoiceme.auth.hash.shed").count());
+    }
+
+    /** Stands in for BCrypt, holding its thread until the test releases it. */
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
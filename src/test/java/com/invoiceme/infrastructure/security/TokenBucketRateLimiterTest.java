@@ -0,0 +1,103 @@
+package com.invoiceme.infrastructure.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token Bucket Rate Limiter Tests")
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should allow a burst, then report the wait until the next token")
+    void shouldLimitAfterBurst() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 60, 1000, clock::get);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+
+        // Then
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.waitNanos("10.0.0.1"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, limiter.waitNanos("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("Should put a refunded token back, up to the burst")
+    void shouldRefundTokens() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 60, 1000, clock::get);
+        limiter.tryAcquire("key");
+        limiter.tryAcquire("key");
+
+        // When
+        limiter.refund("key");
+        limiter.refund("key");
+        limiter.refund("key");
+        limiter.refund("unknown");
+
+        // Then
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+    }
+
+    @Test
+    @DisplayName("Should not refill beyond the burst")
+    void shouldCapRefillAtBurst() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 60, 1000, clock::get);
+        limiter.tryAcquire("key");
+
+        // When
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        // Then
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+    }
+
+    @Test
+    @DisplayName("Should hold a bounded number of buckets and evict those that refilled")
+    void shouldBoundAndEvictBuckets() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 60, 640, clock::get);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+
+        // Then
+        assertTrue(limiter.size() <= 640, "held " + limiter.size() + " buckets");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        limiter.tryAcquire("recent");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.evictIdle();
+        // Only the bucket that has not refilled yet is kept
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    @DisplayName("Should reject limits that are not positive")
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 60, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(5, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(5, 60, 10));
+    }
+}
@@ -0,0 +1,66 @@
+package com.invoiceme.infrastructure.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UUID Bloom Filter Tests")
+class UuidBloomFilterTest {
+
+    @Test
+    @DisplayName("Should report every added id")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        UuidBloomFilter filter = new UuidBloomFilter(10_000, 0.01);
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            added.add(id);
+            filter.put(id);
+        }
+
+        // When / Then
+        for (UUID id : added) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the rate it was sized for")
+    void shouldKeepFalsePositiveRate() {
+        // Given
+        UuidBloomFilter filter = new UuidBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID());
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        double rate = falsePositives / 100_000.0;
+        assertTrue(rate < 0.02, "False positive rate " + rate);
+    }
+
+    @Test
+    @DisplayName("Should contain nothing when empty")
+    void shouldRejectEverythingWhenEmpty() {
+        // Given
+        UuidBloomFilter filter = new UuidBloomFilter(1024, 0.01);
+
+        // When / Then
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(filter.mightContain(UUID.randomUUID()));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.invoiceme.infrastructure.security;
+
+import com.invoiceme.domain.user.Role;
+import org.springframework.security.test.context.support.WithSecurityContext;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test as a user of the given role, with the authorities a token of that role grants.
+ * For tests that call controllers with the security filters switched off.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@WithSecurityContext(factory = WithRoleSecurityContextFactory.class)
+public @interface WithRole {
+    Role value() default Role.ACCOUNTANT;
+
+    String email() default "test@example.com";
+}
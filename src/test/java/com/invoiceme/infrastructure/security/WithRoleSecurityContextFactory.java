@@ -0,0 +1,17 @@
+package com.invoiceme.infrastructure.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+
+class WithRoleSecurityContextFactory implements WithSecurityContextFactory<WithRole> {
+
+    @Override
+    public SecurityContext createSecurityContext(WithRole withRole) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(
+                withRole.email(), null, RoleAuthorities.of(withRole.value())));
+        return context;
+    }
+}
@@ -0,0 +1,87 @@
+package com.invoiceme.infrastructure.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Query Budget Tests")
+class QueryBudgetTest {
+
+    @Test
+    @DisplayName("Should count a statement towards every scope open on the thread")
+    void shouldCountNestedScopes() {
+        // Given
+        QueryStatistics request = QueryStatistics.open();
+        QueryStatistics handler;
+
+        // When
+        QueryStatistics.recordStatement(1_000, 0);
+        try (QueryStatistics scope = QueryStatistics.open()) {
+            handler = scope;
+            QueryStatistics.recordStatement(2_000, 1);
+            QueryStatistics.recordRow();
+        }
+        QueryStatistics.recordStatement(3_000, 0);
+        request.close();
+        QueryStatistics.recordStatement(4_000, 0);
+
+        // Then
+        assertEquals(1, handler.getStatements());
+        assertEquals(2_000, handler.getNanos());
+        assertEquals(2, handler.getRows());
+        assertEquals(3, request.getStatements());
+        assertEquals(6_000, request.getNanos());
+        assertEquals(2, request.getRows());
+    }
+
+    @Test
+    @DisplayName("Should fail an endpoint over its budget in fail mode")
+    void shouldFailOverBudget() {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryBudget budget = new QueryBudget(meterRegistry, "fail",
+                List.of("GET /api/invoices=2", " GET /api/invoices/{id} = 1"), List.of("ListInvoicesQueryHandler=1"));
+
+        // When
+        QueryStatistics statistics = statements(3);
+
+        // Then
+        QueryBudgetExceededException exceeded = assertThrows(QueryBudgetExceededException.class,
+                () -> budget.checkRequest("GET /api/invoices", statistics));
+        assertEquals("GET /api/invoices ran 3 SQL statements; its budget is 2", exceeded.getMessage());
+        assertThrows(QueryBudgetExceededException.class, () -> budget.checkRequest("GET /api/invoices/{id}", statistics));
+        assertThrows(QueryBudgetExceededException.class, () -> budget.checkHandler("ListInvoicesQueryHandler", statistics));
+        assertDoesNotThrow(() -> budget.checkRequest("GET /api/customers", statistics));
+        assertDoesNotThrow(() -> budget.checkRequest("GET /api/invoices", statements(2)));
+        assertEquals(3, meterRegistry.counter("invoiceme.sql.budget.exceeded", "scope", "request").count()
+                + meterRegistry.counter("invoiceme.sql.budget.exceeded", "scope", "handler").count());
+    }
+
+    @Test
+    @DisplayName("Should only count overruns in log mode")
+    void shouldLogOverBudget() {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryBudget budget = new QueryBudget(meterRegistry, "log", List.of("GET /api/invoices=2"), List.of(""));
+
+        // When
+        budget.checkRequest("GET /api/invoices", statements(5));
+
+        // Then
+        assertEquals(1, meterRegistry.counter("invoiceme.sql.budget.exceeded", "scope", "request").count());
+    }
+
+    private static QueryStatistics statements(int count) {
+        try (QueryStatistics statistics = QueryStatistics.open()) {
+            for (int i = 0; i < count; i++) {
+                QueryStatistics.recordStatement(1_000, 1);
+            }
+            return statistics;
+        }
+    }
+}
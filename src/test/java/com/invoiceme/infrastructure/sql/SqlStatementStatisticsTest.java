@@ -0,0 +1,96 @@
+package com.invoiceme.infrastructure.sql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SQL Statement Statistics Tests")
+class SqlStatementStatisticsTest {
+
+    @Test
+    @DisplayName("Should fingerprint statements that differ only in literals alike")
+    void shouldNormalizeLiterals() {
+        // Given
+        String first = "select * from invoices i where i.customer_id = 'a1' and i.total > 10.50 and i.id in (?, ?, ?)";
+        String second = "select *  from invoices i\n where i.customer_id = 'O''Brien' and i.total > 3 and i.id in (?)";
+
+        // When
+        String fingerprint = SqlFingerprint.of(first);
+
+        // Then
+        assertEquals("select * from invoices i where i.customer_id = ? and i.total > ? and i.id in (?)", fingerprint);
+        assertEquals(fingerprint, SqlFingerprint.of(second));
+        assertEquals("select l1_0.id from line_items l1_0", SqlFingerprint.of("select l1_0.id from line_items l1_0"));
+    }
+
+    @Test
+    @DisplayName("Should fingerprint a batch load with thousands of IN parameters")
+    void shouldNormalizeLongInLists() {
+        // Given
+        String sql = "select * from invoices i where i.id in (?" + ", ?".repeat(10_000) + ")";
+
+        // When
+        String fingerprint = SqlFingerprint.of(sql);
+
+        // Then
+        assertEquals("select * from invoices i where i.id in (?)", fingerprint);
+    }
+
+    @Test
+    @DisplayName("Should total each statement per origin and list the most expensive first")
+    void shouldRankByTotalTime() {
+        // Given
+        SqlStatementStatistics statistics = new SqlStatementStatistics(10);
+
+        // When
+        String previous = SqlOrigin.enter("InvoiceRepository.findByCustomerIdAndStatus");
+        try {
+            statistics.recordExecution("select * from invoices where customer_id = 'a'", 3_000_000, 0);
+            statistics.recordRowRead();
+            statistics.recordRowRead();
+            statistics.recordExecution("select * from invoices where customer_id = 'b'", 1_000_000, 0);
+        } finally {
+            SqlOrigin.restore(previous);
+        }
+        statistics.recordExecution("update invoices set status = 'PAID' where id = 1", 1_000_000, 1);
+        List<SqlStatementStatistics.StatementStatistics> top = statistics.top(10);
+
+        // Then
+        assertEquals(2, top.size());
+        SqlStatementStatistics.StatementStatistics slowest = top.get(0);
+        assertEquals("InvoiceRepository.findByCustomerIdAndStatus", slowest.origin());
+        assertEquals("select * from invoices where customer_id = ?", slowest.statement());
+        assertEquals(2, slowest.calls());
+        assertEquals(4.0, slowest.totalMs());
+        assertEquals(2.0, slowest.meanMs());
+        assertEquals(3.0, slowest.maxMs());
+        assertEquals(2, slowest.rows());
+        assertEquals(SqlOrigin.UNKNOWN, top.get(1).origin());
+        assertEquals(1, top.get(1).rows());
+    }
+
+    @Test
+    @DisplayName("Should count statements beyond the limit together")
+    void shouldBoundDistinctStatements() {
+        // Given
+        SqlStatementStatistics statistics = new SqlStatementStatistics(1);
+
+        // When
+        statistics.recordExecution("select * from customers", 1_000, 0);
+        statistics.recordExecution("select * from invoices", 1_000, 0);
+        statistics.recordExecution("select * from payments", 1_000, 0);
+
+        // Then
+        List<SqlStatementStatistics.StatementStatistics> top = statistics.top(10);
+        assertEquals(2, top.size());
+        assertEquals(2, top.stream()
+                .filter(statement -> statement.statement().equals(SqlStatementStatistics.OTHER_STATEMENTS))
+                .findFirst().orElseThrow().calls());
+
+        statistics.reset();
+        assertTrue(statistics.top(10).isEmpty());
+    }
+}
@@ -0,0 +1,180 @@
+package com.invoiceme.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.api.customers.CreateCustomerRequest;
+import com.invoiceme.api.users.CreateApiKeyRequest;
+import com.invoiceme.domain.user.Permission;
+import com.invoiceme.domain.user.Role;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.ApiKeyRepository;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.invoiceme.infrastructure.security.ApiKeyAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("API Key Tests")
+class ApiKeyTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        // The default client cannot read a 401 answer to a streamed POST
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        apiKeyRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("admin@example.com", passwordEncoder.encode("password123"), Role.ADMIN));
+        adminToken = restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest("admin@example.com", "password123"), LoginResponse.class).getBody().token();
+    }
+
+    @Test
+    @DisplayName("Should authenticate a machine client by key within the key's scopes")
+    void shouldAuthorizeWithinScopes() throws Exception {
+        // Given
+        String key = createKey(Set.of(Permission.CUSTOMERS_READ));
+
+        // When
+        ResponseEntity<String> list = withKey(HttpMethod.GET, "/api/customers", key, null);
+        ResponseEntity<String> create = withKey(HttpMethod.POST, "/api/customers", key,
+                new CreateCustomerRequest("Acme", "billing@acme.example"));
+
+        // Then
+        assertEquals(HttpStatus.OK, list.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, create.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, withKey(HttpMethod.GET, "/api/invoices", key, null).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should verify keys without hashing a password or loading a user")
+    void shouldVerifyWithoutBcryptOrUserLookup() throws Exception {
+        // Given
+        String key = createKey(Set.of(Permission.CUSTOMERS_READ));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double hashesBefore = meterRegistry.timer("invoiceme.auth.hash.time", "operation", "matches").count();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK, withKey(HttpMethod.GET, "/api/customers", key, null).getStatusCode());
+        }
+
+        // Then
+        assertEquals(hashesBefore, meterRegistry.timer("invoiceme.auth.hash.time", "operation", "matches").count());
+        NaturalIdStatistics byEmail = statistics.getNaturalIdStatistics(User.class.getName());
+        assertEquals(0, byEmail.getExecutionCount() + byEmail.getCacheHitCount());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should reject a wrong secret for a known prefix and keys once revoked")
+    void shouldRejectWrongAndRevokedKeys() throws Exception {
+        // Given
+        ResponseEntity<String> created = createKeyResponse(Set.of(Permission.CUSTOMERS_READ));
+        JsonNode body = objectMapper.readTree(created.getBody());
+        String key = body.path("key").asText();
+        String forged = key.substring(0, key.lastIndexOf('_') + 1) + "forged-secret";
+
+        // When
+        ResponseEntity<String> wrong = withKey(HttpMethod.GET, "/api/customers", forged, null);
+        ResponseEntity<String> revoked = exchange(HttpMethod.DELETE,
+                "/api/api-keys/" + body.path("apiKey").path("id").asText(), null);
+
+        // Then
+        assertEquals(HttpStatus.FORBIDDEN, wrong.getStatusCode());
+        assertEquals(HttpStatus.OK, revoked.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, withKey(HttpMethod.GET, "/api/customers", key, null).getStatusCode());
+        ResponseEntity<String> listed = exchange(HttpMethod.GET, "/api/api-keys", null);
+        assertTrue(listed.getBody().contains("\"revokedAt\":\""));
+        assertFalse(listed.getBody().contains(key.substring(key.lastIndexOf('_') + 1)));
+    }
+
+    @Test
+    @DisplayName("Should refuse keys that could manage users")
+    void shouldRefuseUserManagementScope() {
+        // When
+        ResponseEntity<String> response = createKeyResponse(Set.of(Permission.USERS_MANAGE));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(0, apiKeyRepository.count());
+    }
+
+    private String createKey(Set<Permission> scopes) throws Exception {
+        ResponseEntity<String> response = createKeyResponse(scopes);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return objectMapper.readTree(response.getBody()).path("key").asText();
+    }
+
+    private ResponseEntity<String> createKeyResponse(Set<Permission> scopes) {
+        return exchange(HttpMethod.POST, "/api/api-keys", new CreateApiKeyRequest("ERP integration", scopes, null));
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String path, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(adminToken);
+        return restTemplate.exchange(url(path), method, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private ResponseEntity<String> withKey(HttpMethod method, String path, String key, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ApiKeyAuthenticationFilter.HEADER, key);
+        return restTemplate.exchange(url(path), method, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
@@ -0,0 +1,139 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.RegisterRequest;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.invoiceme.infrastructure.security.RefreshTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Sends a burst of logins at a hashing pool of one thread and one queue slot, so most of the
+ * burst has to be shed, and checks that the hashing threads only hash.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "invoiceme.auth.hashing.threads=1",
+        "invoiceme.auth.hashing.queue-capacity=1"
+})
+@ActiveProfiles("test")
+@DisplayName("Auth Load Shedding Tests")
+class AuthLoadSheddingTest {
+
+    private static final int BURST = 12;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        // The default client cannot read an error answer to a streamed POST
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        userRepository.deleteAll();
+        userRepository.save(new User("burst@example.com", passwordEncoder.encode("password123")));
+    }
+
+    @Test
+    @DisplayName("Should shed logins beyond the hashing queue with 503 and Retry-After")
+    void shouldShedLoginBurst() throws Exception {
+        // Given
+        double shedBefore = meterRegistry.counter("invoiceme.auth.hash.shed").count();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(BURST);
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < BURST; i++) {
+                responses.add(clients.submit(() -> {
+                    start.await();
+                    return restTemplate.postForEntity("http://localhost:" + port + "/api/auth/login",
+                            new LoginRequest("burst@example.com", "password123"), String.class);
+                }));
+            }
+            start.countDown();
+
+            // Then
+            int succeeded = 0;
+            int shed = 0;
+            for (Future<ResponseEntity<String>> future : responses) {
+                ResponseEntity<String> response = future.get();
+                if (response.getStatusCode() == HttpStatus.OK) {
+                    succeeded++;
+                } else {
+                    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+                    assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                    shed++;
+                }
+            }
+            assertTrue(succeeded >= 1, "some logins should get through");
+            assertTrue(shed >= 1, "the burst should overflow a pool of one thread and one queue slot");
+            assertEquals(shedBefore + shed, meterRegistry.counter("invoiceme.auth.hash.shed").count());
+            assertTrue(meterRegistry.timer("invoiceme.auth.hash.time", "operation", "matches").count() >= succeeded);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should save users and issue refresh tokens off the hashing threads")
+    void shouldPersistOffHashingThreads() {
+        // Given
+        List<String> issuingThreads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            issuingThreads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(refreshTokenService).issue(any());
+
+        // When
+        ResponseEntity<String> registered = restTemplate.postForEntity("http://localhost:" + port + "/api/auth/register",
+                new RegisterRequest("new@example.com", "password123"), String.class);
+        ResponseEntity<String> loggedIn = restTemplate.postForEntity("http://localhost:" + port + "/api/auth/login",
+                new LoginRequest("burst@example.com", "password123"), String.class);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, registered.getStatusCode());
+        assertEquals(HttpStatus.OK, loggedIn.getStatusCode());
+        assertTrue(userRepository.findByEmail("new@example.com").isPresent());
+        assertEquals(2, issuingThreads.size());
+        issuingThreads.forEach(thread -> assertFalse(thread.startsWith("password-hash-"), thread));
+    }
+}
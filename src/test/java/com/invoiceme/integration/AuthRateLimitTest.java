@@ -0,0 +1,164 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each test logs in from its own client address, passed through X-Forwarded-For as a
+ * reverse proxy would, so the tests do not share address buckets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "invoiceme.auth.rate-limit.enabled=true",
+        "invoiceme.auth.rate-limit.ip.burst=6",
+        "invoiceme.auth.rate-limit.ip.per-minute=1",
+        "invoiceme.auth.rate-limit.email.burst=2",
+        "invoiceme.auth.rate-limit.email.per-minute=1",
+        "server.forward-headers-strategy=native"
+})
+@ActiveProfiles("test")
+@DisplayName("Auth Rate Limit Tests")
+class AuthRateLimitTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // The default client cannot read a 401 answer to a streamed POST
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        userRepository.deleteAll();
+        userRepository.save(new User("owner@example.com", passwordEncoder.encode("password123")));
+        userRepository.save(new User("other@example.com", passwordEncoder.encode("password123")));
+    }
+
+    @Test
+    @DisplayName("Should lock an email out after repeated failed logins, from any address")
+    void shouldThrottleFailedLoginsPerEmail() {
+        // Given
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.10", "owner@example.com", "wrong").getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.10", "Owner@Example.com", "wrong").getStatusCode());
+
+        // When
+        ResponseEntity<String> limited = login("203.0.113.11", "owner@example.com", "password123");
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        long retryAfter = Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter > 0 && retryAfter <= 60, "Retry-After " + retryAfter);
+        assertTrue(limited.getBody().contains("Too many authentication attempts"));
+        // Successful logins of other accounts are not charged to any email
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.OK, login("203.0.113.11", "other@example.com", "password123").getStatusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Should let no more concurrent failed logins through than the email burst")
+    void shouldChargeEmailBeforeCheckingPassword() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<HttpStatusCode>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 8; i++) {
+                String clientAddress = "203.0.113." + (100 + i);
+                results.add(pool.submit(() -> login(clientAddress, "target@example.com", "wrong").getStatusCode()));
+            }
+            for (Future<HttpStatusCode> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Then
+        long unauthorized = 0;
+        for (Future<HttpStatusCode> result : results) {
+            HttpStatusCode status = result.get();
+            assertTrue(status == HttpStatus.UNAUTHORIZED || status == HttpStatus.TOO_MANY_REQUESTS, status.toString());
+            unauthorized += status == HttpStatus.UNAUTHORIZED ? 1 : 0;
+        }
+        assertEquals(2, unauthorized);
+    }
+
+    @Test
+    @DisplayName("Should reject auth requests from an address once its burst is spent")
+    void shouldThrottleRequestsPerAddress() {
+        // Given
+        double limitedBefore = meterRegistry.counter("invoiceme.auth.rate-limited", "key", "ip").count();
+        for (int i = 0; i < 6; i++) {
+            assertEquals(HttpStatus.OK, login("203.0.113.20", "other@example.com", "password123").getStatusCode());
+        }
+
+        // When
+        ResponseEntity<String> limited = login("203.0.113.20", "other@example.com", "password123");
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        // One token a minute, less whatever refilled during the six logins
+        long retryAfter = Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter > 45 && retryAfter <= 60, "Retry-After " + retryAfter);
+        assertEquals(HttpStatus.OK, login("203.0.113.21", "other@example.com", "password123").getStatusCode());
+        assertEquals(limitedBefore + 1, meterRegistry.counter("invoiceme.auth.rate-limited", "key", "ip").count());
+    }
+
+    @Test
+    @DisplayName("Should reject login bodies too large to find the email in, instead of skipping the email limit")
+    void shouldRejectOversizedLoginBodies() {
+        // Given
+        userRepository.save(new User("padded@example.com", passwordEncoder.encode("password123")));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", "203.0.113.30");
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String padded = "{\"email\":\"padded@example.com\",\"password\":\"wrong\"" + " ".repeat(5000) + "}";
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity("http://localhost:" + port + "/api/auth/login",
+                new HttpEntity<>(padded, headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        assertEquals(HttpStatus.OK, login("203.0.113.31", "padded@example.com", "password123").getStatusCode());
+    }
+
+    private ResponseEntity<String> login(String clientAddress, String email, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientAddress);
+        return restTemplate.postForEntity("http://localhost:" + port + "/api/auth/login",
+                new HttpEntity<>(new LoginRequest(email, password), headers), String.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.InvoiceMeApplication;
+import com.invoiceme.application.commands.customer.UpdateCustomerCommand;
+import com.invoiceme.application.commands.customer.UpdateCustomerCommandHandler;
+import com.invoiceme.application.queries.customer.GetCustomerQuery;
+import com.invoiceme.application.queries.customer.GetCustomerQueryHandler;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts ("nodes") sharing one Postgres database: a write on node A
+ * must evict node B's cached copy. Requires a local Postgres, e.g.
+ * {@code INVOICEME_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/invoiceme_test}
+ * with INVOICEME_TEST_POSTGRES_USER / INVOICEME_TEST_POSTGRES_PASSWORD.
+ */
+@EnabledIfEnvironmentVariable(named = "INVOICEME_TEST_POSTGRES_URL", matches = ".+")
+@DisplayName("Cache Invalidation Postgres Tests")
+class CacheInvalidationPostgresTest {
+    
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    
+    @BeforeEach
+    void setUp() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+    
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(InvoiceMeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getenv("INVOICEME_TEST_POSTGRES_URL"),
+                        "spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "spring.datasource.username=" + System.getenv().getOrDefault("INVOICEME_TEST_POSTGRES_USER", "postgres"),
+                        "spring.datasource.password=" + System.getenv().getOrDefault("INVOICEME_TEST_POSTGRES_PASSWORD", "postgres"),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                        "jwt.secret=test-secret-key-for-jwt-token-generation-must-be-at-least-256-bits-long",
+                        "invoiceme.cache.invalidation.enabled=true",
+                        "invoiceme.cache.invalidation.poll-timeout-ms=50")
+                .run();
+    }
+    
+    @Test
+    @DisplayName("Should evict node B's cached customer after node A commits an update")
+    void shouldEvictAcrossNodes() throws Exception {
+        UUID id = nodeA.getBean(CustomerRepository.class)
+                .save(new Customer("Before", "pg-" + UUID.randomUUID() + "@example.com")).getId();
+        
+        GetCustomerQueryHandler readerB = nodeB.getBean(GetCustomerQueryHandler.class);
+        assertEquals("Before", readerB.handle(new GetCustomerQuery(id)).orElseThrow().getName());
+        EntityManagerFactory cacheB = nodeB.getBean(EntityManagerFactory.class);
+        assertTrue(cacheB.getCache().contains(Customer.class, id));
+        
+        nodeA.getBean(UpdateCustomerCommandHandler.class)
+                .handle(new UpdateCustomerCommand(id, "After", "pg-" + UUID.randomUUID() + "@example.com"));
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cacheB.getCache().contains(Customer.class, id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertFalse(cacheB.getCache().contains(Customer.class, id));
+        assertEquals("After", readerB.handle(new GetCustomerQuery(id)).orElseThrow().getName());
+    }
+}
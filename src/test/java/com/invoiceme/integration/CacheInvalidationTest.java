@@ -0,0 +1,140 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.commands.customer.UpdateCustomerCommand;
+import com.invoiceme.application.commands.customer.UpdateCustomerCommandHandler;
+import com.invoiceme.application.queries.customer.GetCustomerQuery;
+import com.invoiceme.application.queries.customer.GetCustomerQueryHandler;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.infrastructure.cache.CacheInvalidationListener;
+import com.invoiceme.infrastructure.cache.CacheInvalidationMessage;
+import com.invoiceme.infrastructure.cache.CacheInvalidationPublisher;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the publishing side against H2, where {@code pg_notify} is aliased to a recorder.
+ * The Postgres round trip between two nodes is covered by {@link CacheInvalidationPostgresTest}.
+ */
+@SpringBootTest(properties = "invoiceme.cache.invalidation.enabled=true")
+@ActiveProfiles("test")
+@DisplayName("Cache Invalidation Tests")
+class CacheInvalidationTest {
+    
+    private static final List<String[]> notifications = new CopyOnWriteArrayList<>();
+    
+    public static class PgNotifyRecorder {
+        public static String pgNotify(Connection connection, String channel, String payload) throws SQLException {
+            // Records whether the notification was issued inside the writing transaction
+            notifications.add(new String[] {channel, payload, Boolean.toString(connection.getAutoCommit())});
+            return null;
+        }
+    }
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    
+    @Autowired
+    private UpdateCustomerCommandHandler updateCustomerCommandHandler;
+    
+    @Autowired
+    private GetCustomerQueryHandler getCustomerQueryHandler;
+    
+    @Autowired
+    private CacheInvalidationPublisher publisher;
+    
+    @Autowired
+    private CacheInvalidationListener listener;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private UUID customerId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create alias if not exists pg_notify for '" + PgNotifyRecorder.class.getName() + ".pgNotify'");
+        customerRepository.deleteAll();
+        customerId = customerRepository.save(new Customer("Original", "original@example.com")).getId();
+        notifications.clear();
+    }
+    
+    @Test
+    @DisplayName("Should publish one notification for a committed customer update")
+    void shouldPublishOnCommit() throws Exception {
+        updateCustomerCommandHandler.handle(new UpdateCustomerCommand(customerId, "Renamed", "renamed@example.com"));
+        
+        assertEquals(1, notifications.size());
+        assertEquals(CacheInvalidationPublisher.CHANNEL, notifications.get(0)[0]);
+        assertEquals("false", notifications.get(0)[2]);
+        CacheInvalidationMessage message = objectMapper.readValue(notifications.get(0)[1], CacheInvalidationMessage.class);
+        assertEquals(publisher.getNodeId(), message.origin());
+        assertEquals(Customer.class.getName(), message.entityName());
+        assertEquals(List.of(customerId), message.ids());
+    }
+    
+    @Test
+    @DisplayName("Should not publish for rolled-back transactions or uncached entities")
+    void shouldNotPublishForRollbackOrUncachedEntities() {
+        transactionTemplate.executeWithoutResult(status -> {
+            customerRepository.findById(customerId).orElseThrow().setName("Never committed");
+            customerRepository.flush();
+            status.setRollbackOnly();
+        });
+        
+        Invoice invoice = new Invoice(customerId);
+        invoice.addLineItem(new InvoiceLineItem("Service", 1, new BigDecimal("10.00")));
+        invoice = invoiceRepository.save(invoice);
+        invoice.markAsSent();
+        invoiceRepository.save(invoice);
+        
+        assertTrue(notifications.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should evict locally for notifications from other nodes and ignore its own")
+    void shouldEvictForRemoteNotifications() throws Exception {
+        getCustomerQueryHandler.handle(new GetCustomerQuery(customerId));
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, customerId));
+        
+        listener.handle(objectMapper.writeValueAsString(
+                new CacheInvalidationMessage(publisher.getNodeId(), Customer.class.getName(), List.of(customerId))));
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, customerId));
+        
+        listener.handle(objectMapper.writeValueAsString(
+                new CacheInvalidationMessage("other-node", Customer.class.getName(), List.of(customerId))));
+        assertFalse(entityManagerFactory.getCache().contains(Customer.class, customerId));
+    }
+}
@@ -0,0 +1,242 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.api.invoices.InvoiceDto;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.*;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that with open-session-in-view disabled a JDBC connection is only held
+ * for the duration of the handler's transaction, and is back in the pool before
+ * the InvoiceDto is serialized.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import({ConnectionHoldTimeTest.ConnectionTrackingConfig.class, ConnectionHoldTimeTest.SerializationProbe.class})
+@DisplayName("Connection Hold Time Tests")
+class ConnectionHoldTimeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionHoldTimeTest.class);
+
+    private static final int REQUESTS = 50;
+
+    static final AtomicInteger leasedConnections = new AtomicInteger();
+    static final AtomicLong heldNanos = new AtomicLong();
+    static final AtomicInteger leasedDuringSerialization = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String baseUrl;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = "http://localhost:" + port;
+
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userRepository.save(new User("hold@example.com", passwordEncoder.encode("password123")));
+        ResponseEntity<LoginResponse> login = restTemplate.postForEntity(
+                baseUrl + "/api/auth/login",
+                new LoginRequest("hold@example.com", "password123"),
+                LoginResponse.class
+        );
+        assertEquals(HttpStatus.OK, login.getStatusCode());
+
+        headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().token());
+    }
+
+    @Test
+    @DisplayName("OSIV interceptor should not be registered")
+    void openEntityManagerInViewShouldBeDisabled() {
+        assertFalse(applicationContext.containsBean("openEntityManagerInViewInterceptor"));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id} - connection is released before the response body is written")
+    void connectionShouldBeReleasedBeforeSerialization() {
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        for (int i = 0; i < 20; i++) {
+            invoice.addLineItem(new InvoiceLineItem("Item " + i, i + 1, new BigDecimal("9.99")));
+        }
+        UUID invoiceId = invoiceRepository.save(invoice).getId();
+
+        // Warm up so class loading does not skew the numbers
+        fetchInvoice(invoiceId);
+
+        heldNanos.set(0);
+        leasedDuringSerialization.set(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            ResponseEntity<InvoiceDto> response = fetchInvoice(invoiceId);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(20, response.getBody().getLineItems().size());
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        double holdPerRequestMs = heldNanos.get() / 1_000_000.0 / REQUESTS;
+        double wallPerRequestMs = wallNanos / 1_000_000.0 / REQUESTS;
+        log.info("Connection hold time per request: {} ms (request wall time {} ms)",
+                String.format("%.3f", holdPerRequestMs), String.format("%.3f", wallPerRequestMs));
+
+        assertEquals(0, leasedDuringSerialization.get(),
+                "A JDBC connection was still checked out while the response body was serialized");
+        assertEquals(0, leasedConnections.get());
+        assertTrue(heldNanos.get() < wallNanos);
+    }
+
+    private ResponseEntity<InvoiceDto> fetchInvoice(UUID invoiceId) {
+        return restTemplate.exchange(
+                baseUrl + "/api/invoices/" + invoiceId,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                InvoiceDto.class
+        );
+    }
+
+    /**
+     * Wraps the pooled DataSource so every checkout/close pair is timed.
+     */
+    @TestConfiguration
+    static class ConnectionTrackingConfig {
+
+        @Bean
+        static BeanPostProcessor connectionTrackingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                        return new TrackingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class TrackingDataSource extends DelegatingDataSource {
+
+        TrackingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return track(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return track(super.getConnection(username, password));
+        }
+
+        private Connection track(Connection connection) {
+            long leasedAt = System.nanoTime();
+            leasedConnections.incrementAndGet();
+            AtomicInteger closed = new AtomicInteger();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(0, 1)) {
+                            leasedConnections.decrementAndGet();
+                            heldNanos.addAndGet(System.nanoTime() - leasedAt);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (java.lang.reflect.InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Samples the number of checked-out connections right before the body is written.
+     */
+    @ControllerAdvice
+    static class SerializationProbe implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            if (body instanceof InvoiceDto) {
+                leasedDuringSerialization.addAndGet(leasedConnections.get());
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.application.commands.customer.CustomerImportResult;
+import com.invoiceme.application.commands.customer.CustomerImportResult.Outcome;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Customer Bulk Import Integration Test")
+class CustomerImportTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private String baseUrl;
+    private HttpHeaders headers;
+    
+    @BeforeEach
+    void setUp() {
+        baseUrl = "http://localhost:" + port;
+        
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+        
+        userRepository.save(new User("import@example.com", passwordEncoder.encode("password123")));
+        ResponseEntity<LoginResponse> login = restTemplate.postForEntity(
+                baseUrl + "/api/auth/login",
+                new LoginRequest("import@example.com", "password123"),
+                LoginResponse.class
+        );
+        
+        headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().token());
+    }
+    
+    private List<CustomerImportResult> importCustomers(String body, MediaType contentType) throws Exception {
+        headers.setContentType(contentType);
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/customers/import",
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                String.class
+        );
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        
+        List<CustomerImportResult> results = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            results.add(objectMapper.readValue(line, CustomerImportResult.class));
+        }
+        return results;
+    }
+    
+    @Test
+    @DisplayName("POST /api/customers/import - CSV rows report created, duplicate and invalid outcomes in order")
+    void shouldImportCsvWithPerRowResults() throws Exception {
+        // Given
+        customerRepository.save(new Customer("Existing", "existing@example.com"));
+        String csv = """
+                email,name
+                alice@example.com,Alice
+                existing@example.com,Already There
+                "bob@example.com","Bob, Jr."
+                not-an-email,Nobody
+                alice@example.com,Alice Again
+                """;
+        
+        // When
+        List<CustomerImportResult> results = importCustomers(csv, MediaType.parseMediaType("text/csv"));
+        
+        // Then
+        assertEquals(List.of(Outcome.CREATED, Outcome.DUPLICATE, Outcome.CREATED, Outcome.INVALID, Outcome.DUPLICATE),
+                results.stream().map(CustomerImportResult::outcome).toList());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), results.stream().map(CustomerImportResult::lineNumber).toList());
+        assertEquals("Email must be valid", results.get(3).message());
+        
+        Customer bob = customerRepository.findById(results.get(2).customerId()).orElseThrow();
+        assertEquals("Bob, Jr.", bob.getName());
+        assertEquals(0L, bob.getVersion());
+        assertEquals(3, customerRepository.count());
+    }
+    
+    @Test
+    @DisplayName("POST /api/customers/import - NDJSON rows are imported and malformed lines reported")
+    void shouldImportNdjson() throws Exception {
+        // Given
+        String ndjson = """
+                {"name": "Carol", "email": "carol@example.com"}
+                {"name": "Dave"
+                {"name": "", "email": "empty@example.com"}
+                """;
+        
+        // When
+        List<CustomerImportResult> results = importCustomers(ndjson, MediaType.APPLICATION_NDJSON);
+        
+        // Then
+        assertEquals(List.of(Outcome.CREATED, Outcome.INVALID, Outcome.INVALID),
+                results.stream().map(CustomerImportResult::outcome).toList());
+        assertEquals("Malformed JSON", results.get(1).message());
+        assertEquals("Name is required", results.get(2).message());
+        assertEquals(1, customerRepository.count());
+    }
+    
+    @Test
+    @DisplayName("POST /api/customers/import - CSV without an email column is rejected")
+    void shouldRejectCsvWithoutRequiredColumns() {
+        // Given
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/customers/import",
+                HttpMethod.POST,
+                new HttpEntity<>("name\nAlice\n", headers),
+                String.class
+        );
+        
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
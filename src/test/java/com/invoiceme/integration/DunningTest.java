@@ -0,0 +1,190 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.commands.invoice.SendInvoiceCommand;
+import com.invoiceme.application.commands.invoice.SendInvoiceCommandHandler;
+import com.invoiceme.application.commands.payment.RecordPaymentCommand;
+import com.invoiceme.application.commands.payment.RecordPaymentCommandHandler;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.dunning.InvoiceDunning;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.infrastructure.dunning.DunningEngine;
+import com.invoiceme.infrastructure.dunning.DunningEngine.DunningReport;
+import com.invoiceme.infrastructure.dunning.DunningLadder;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository;
+import com.invoiceme.infrastructure.persistence.dunning.InvoiceDunningRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Dunning Tests")
+class DunningTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private DunningEngine dunningEngine;
+
+    @Autowired
+    private DunningBulkRepository dunningBulkRepository;
+
+    @Autowired
+    private DunningLadder dunningLadder;
+
+    @Autowired
+    private InvoiceDunningRepository invoiceDunningRepository;
+
+    @Autowired
+    private SendInvoiceCommandHandler sendInvoiceCommandHandler;
+
+    @Autowired
+    private RecordPaymentCommandHandler recordPaymentCommandHandler;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from invoice_deliveries");
+        invoiceDunningRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Acme Corporation", "billing@acme.example"));
+    }
+
+    @Test
+    @DisplayName("Should enroll a sent invoice and queue one escalating reminder per rung")
+    void shouldWalkReminderLadder() {
+        // Given
+        Invoice invoice = sentInvoice();
+        InvoiceDunning state = invoiceDunningRepository.findById(invoice.getId()).orElseThrow();
+        assertEquals(TODAY, state.getSentOn());
+        assertEquals(TODAY.plusDays(3), state.getNextReminderOn());
+
+        // When / Then
+        assertEquals(new DunningReport(0, 0), dunningEngine.run(TODAY.plusDays(2)));
+        assertEquals(new DunningReport(1, 0), dunningEngine.run(TODAY.plusDays(3)));
+        assertEquals(new DunningReport(0, 0), dunningEngine.run(TODAY.plusDays(3)));
+        assertEquals(List.of(1), reminderNumbers(invoice));
+        assertEquals(TODAY.plusDays(10), invoiceDunningRepository.findById(invoice.getId()).orElseThrow().getNextReminderOn());
+
+        assertEquals(new DunningReport(1, 0), dunningEngine.run(TODAY.plusDays(10)));
+        assertEquals(new DunningReport(1, 0), dunningEngine.run(TODAY.plusDays(30)));
+        assertEquals(List.of(1, 2, 3), reminderNumbers(invoice));
+        // The ladder is exhausted, so the state is gone and later runs never read it
+        assertTrue(invoiceDunningRepository.findById(invoice.getId()).isEmpty());
+        assertEquals(new DunningReport(0, 0), dunningEngine.run(TODAY.plusDays(60)));
+        assertEquals("billing@acme.example", jdbcTemplate.queryForObject(
+                "select distinct recipient from invoice_deliveries where kind = 'REMINDER'", String.class));
+    }
+
+    @Test
+    @DisplayName("Should stop chasing an invoice once it is paid")
+    void shouldCloseStateOfPaidInvoice() {
+        // Given
+        Invoice paid = sentInvoice();
+        Invoice unpaid = sentInvoice();
+        recordPaymentCommandHandler.handle(new RecordPaymentCommand(paid.getId(), paid.getBalance(), LocalDateTime.now()));
+
+        // When
+        DunningReport report = dunningEngine.run(TODAY.plusDays(3));
+
+        // Then
+        assertEquals(new DunningReport(1, 1), report);
+        assertTrue(reminderNumbers(paid).isEmpty());
+        assertEquals(List.of(1), reminderNumbers(unpaid));
+        assertTrue(invoiceDunningRepository.findById(paid.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should send only the most escalated reminder after missed runs")
+    void shouldCatchUpWithLatestReminder() {
+        // Given
+        Invoice invoice = sentInvoice();
+
+        // When
+        DunningReport report = dunningEngine.run(TODAY.plusDays(15));
+
+        // Then
+        assertEquals(new DunningReport(1, 0), report);
+        assertEquals(List.of(2), reminderNumbers(invoice));
+        assertEquals(TODAY.plusDays(30), invoiceDunningRepository.findById(invoice.getId()).orElseThrow().getNextReminderOn());
+    }
+
+    @Test
+    @DisplayName("Should page through due states and space reminders at the configured rate")
+    void shouldPageAndThrottleReminders() {
+        // Given
+        for (int i = 0; i < 7; i++) {
+            sentInvoice();
+        }
+        DunningEngine engine = new DunningEngine(dunningBulkRepository, dunningLadder, transactionTemplate,
+                new SimpleMeterRegistry(), 3, 60);
+
+        // When
+        DunningReport first = engine.run(TODAY.plusDays(3));
+        Invoice late = sentInvoice();
+        DunningReport second = engine.run(TODAY.plusDays(3));
+
+        // Then
+        assertEquals(new DunningReport(7, 0), first);
+        assertEquals(new DunningReport(1, 0), second);
+        List<LocalDateTime> dueTimes = jdbcTemplate.queryForList(
+                "select next_attempt_at from invoice_deliveries where kind = 'REMINDER' order by next_attempt_at",
+                Timestamp.class).stream().map(Timestamp::toLocalDateTime).toList();
+        assertEquals(8, dueTimes.size());
+        // One reminder per second at 60 a minute, the second run continuing after the first
+        for (int i = 1; i < dueTimes.size(); i++) {
+            assertEquals(Duration.ofSeconds(1), Duration.between(dueTimes.get(i - 1), dueTimes.get(i)));
+        }
+        assertEquals(List.of(1), reminderNumbers(late));
+    }
+
+    private Invoice sentInvoice() {
+        Invoice invoice = new Invoice(customer.getId());
+        invoice.addLineItem(new InvoiceLineItem("Consulting services", 2, new BigDecimal("150.00")));
+        invoice = invoiceRepository.save(invoice);
+        return sendInvoiceCommandHandler.handle(new SendInvoiceCommand(invoice.getId()));
+    }
+
+    private List<Integer> reminderNumbers(Invoice invoice) {
+        return jdbcTemplate.queryForList(
+                "select reminder_number from invoice_deliveries where invoice_id = ? and kind = 'REMINDER' "
+                        + "order by reminder_number", Integer.class, invoice.getId());
+    }
+}
@@ -0,0 +1,268 @@
+package com.invoiceme.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.application.queries.invoice.GetInvoiceQuery;
+import com.invoiceme.application.queries.invoice.GetInvoiceQueryHandler;
+import com.invoiceme.application.queries.invoice.GetInvoiceVersionQuery;
+import com.invoiceme.application.queries.invoice.GetInvoiceVersionQueryHandler;
+import com.invoiceme.application.queries.payment.GetPaymentQuery;
+import com.invoiceme.application.queries.payment.GetPaymentQueryHandler;
+import com.invoiceme.application.queries.payment.GetPaymentVersionQuery;
+import com.invoiceme.application.queries.payment.GetPaymentVersionQueryHandler;
+import com.invoiceme.application.queries.payment.ListPaymentsQuery;
+import com.invoiceme.application.queries.payment.ListPaymentsQueryHandler;
+import com.invoiceme.application.queries.payment.PaymentSearchResult;
+import com.invoiceme.application.queries.payment.SearchPaymentsQuery;
+import com.invoiceme.application.queries.payment.SearchPaymentsQueryHandler;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.archive.InvoiceArchive;
+import com.invoiceme.infrastructure.jobs.InvoiceArchiveJob;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Invoice Archive Tests")
+class InvoiceArchiveTest {
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("invoiceme.archive.directory", () -> archiveDirectory.toString());
+    }
+
+    @Autowired
+    private InvoiceArchiveJob job;
+
+    @Autowired
+    private GetInvoiceQueryHandler getInvoiceQueryHandler;
+
+    @Autowired
+    private GetInvoiceVersionQueryHandler getInvoiceVersionQueryHandler;
+
+    @Autowired
+    private ListPaymentsQueryHandler listPaymentsQueryHandler;
+
+    @Autowired
+    private GetPaymentQueryHandler getPaymentQueryHandler;
+
+    @Autowired
+    private SearchPaymentsQueryHandler searchPaymentsQueryHandler;
+
+    @Autowired
+    private GetPaymentVersionQueryHandler getPaymentVersionQueryHandler;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should move old PAID invoices to the archive and read them back transparently")
+    void shouldArchiveOldPaidInvoices() {
+        // Given
+        Invoice old = paidInvoice();
+        Payment payment = paymentRepository.findByInvoiceId(old.getId()).get(0);
+        backdate(old.getId(), 400);
+        Invoice recent = paidInvoice();
+        Invoice unpaid = invoiceRepository.save(sentInvoice());
+        backdate(unpaid.getId(), 400);
+
+        // When
+        InvoiceArchiveJob.ArchiveResult result = job.run(LocalDateTime.now());
+
+        // Then
+        assertEquals(1, result.invoices());
+        assertEquals(1, result.payments());
+        assertTrue(invoiceRepository.findById(old.getId()).isEmpty());
+        assertTrue(paymentRepository.findByInvoiceId(old.getId()).isEmpty());
+        assertTrue(invoiceRepository.findById(recent.getId()).isPresent());
+        assertTrue(invoiceRepository.findById(unpaid.getId()).isPresent());
+
+        Invoice archived = getInvoiceQueryHandler.handle(new GetInvoiceQuery(old.getId())).orElseThrow();
+        assertEquals(InvoiceStatus.PAID, archived.getStatus());
+        assertEquals(old.getCustomerId(), archived.getCustomerId());
+        assertEquals(0, old.getTotal().compareTo(archived.getTotal()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(archived.getBalance()));
+        assertEquals(old.getLineItems().get(0).getLineItemId(), archived.getLineItems().get(0).getLineItemId());
+        assertEquals(2, archived.getLineItems().size());
+        assertEquals(old.getVersion(), archived.getVersion());
+        assertEquals(old.getVersion(), getInvoiceVersionQueryHandler.handle(new GetInvoiceVersionQuery(old.getId())).orElseThrow());
+
+        List<Payment> payments = listPaymentsQueryHandler.handle(new ListPaymentsQuery(old.getId()));
+        assertEquals(1, payments.size());
+        assertEquals(payment.getId(), payments.get(0).getId());
+        assertEquals(0, payment.getAmount().compareTo(payments.get(0).getAmount()));
+
+        Payment archivedPayment = getPaymentQueryHandler.handle(new GetPaymentQuery(payment.getId())).orElseThrow();
+        assertEquals(old.getId(), archivedPayment.getInvoiceId());
+        assertEquals(0, payment.getAmount().compareTo(archivedPayment.getAmount()));
+        assertEquals(payment.getVersion(), getPaymentVersionQueryHandler.handle(new GetPaymentVersionQuery(payment.getId())).orElseThrow());
+        assertTrue(getPaymentQueryHandler.handle(new GetPaymentQuery(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should merge archived payments into payment search in keyset order")
+    void shouldSearchArchivedPayments() {
+        // Given
+        Invoice old = paidInvoice(LocalDateTime.of(2023, 3, 1, 10, 0));
+        Invoice older = paidInvoice(LocalDateTime.of(2023, 2, 1, 10, 0));
+        backdate(old.getId(), 400);
+        backdate(older.getId(), 400);
+        job.run(LocalDateTime.now());
+        Invoice recent = paidInvoice(LocalDateTime.of(2023, 2, 15, 10, 0));
+
+        // When
+        PaymentSearchResult firstPage = searchPaymentsQueryHandler.handle(new SearchPaymentsQuery(
+                Optional.of(LocalDateTime.of(2023, 1, 1, 0, 0)), Optional.of(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 2));
+        PaymentSearchResult secondPage = searchPaymentsQueryHandler.handle(new SearchPaymentsQuery(
+                Optional.of(LocalDateTime.of(2023, 1, 1, 0, 0)), Optional.of(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                Optional.empty(), Optional.empty(), Optional.empty(), firstPage.nextCursor(), 2));
+        PaymentSearchResult byCustomer = searchPaymentsQueryHandler.handle(new SearchPaymentsQuery(
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.of(old.getCustomerId()), Optional.empty(), 10));
+
+        // Then
+        assertEquals(List.of(older.getId(), recent.getId()),
+                firstPage.payments().stream().map(Payment::getInvoiceId).toList());
+        assertTrue(firstPage.nextCursor().isPresent());
+        assertEquals(List.of(old.getId()), secondPage.payments().stream().map(Payment::getInvoiceId).toList());
+        assertTrue(secondPage.nextCursor().isEmpty());
+        assertEquals(List.of(old.getId()), byCustomer.payments().stream().map(Payment::getInvoiceId).toList());
+        assertTrue(listPaymentsQueryHandler.handle(new ListPaymentsQuery(invoiceRepository.save(sentInvoice()).getId())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from segment files on disk")
+    void shouldReloadIndexFromDisk() throws IOException {
+        // Given
+        Invoice old = paidInvoice();
+        Payment payment = paymentRepository.findByInvoiceId(old.getId()).get(0);
+        backdate(old.getId(), 400);
+        job.run(LocalDateTime.now());
+
+        // When
+        InvoiceArchive reopened = new InvoiceArchive(objectMapper, archiveDirectory, Duration.ZERO);
+
+        // Then
+        Invoice archived = reopened.find(old.getId()).orElseThrow().toInvoice();
+        assertEquals(old.getId(), archived.getId());
+        assertEquals(0, old.getTotal().compareTo(archived.getTotal()));
+        assertTrue(reopened.find(UUID.randomUUID()).isEmpty());
+        assertEquals(old.getId(), reopened.findByPaymentId(payment.getId()).orElseThrow().id());
+
+        // Segments without a payment index are indexed from their records
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            files.filter(file -> file.toString().endsWith(".pidx")).forEach(file -> file.toFile().delete());
+        }
+        InvoiceArchive withoutPaymentIndex = new InvoiceArchive(objectMapper, archiveDirectory, Duration.ZERO);
+        assertEquals(old.getId(), withoutPaymentIndex.findByPaymentId(payment.getId()).orElseThrow().id());
+    }
+
+    @Test
+    @DisplayName("Should keep line items and payments of an invoice that leaves PAID while the job waits for it")
+    void shouldNotDeleteChildrenOfInvoiceReopenedConcurrently() throws Exception {
+        // Given
+        Invoice reopened = paidInvoice();
+        backdate(reopened.getId(), 400);
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("update invoices set status = 'SENT' where id = ?", reopened.getId());
+            locked.countDown();
+            sleep(500);
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // When
+        InvoiceArchiveJob.ArchiveResult result = job.run(LocalDateTime.now());
+        reconcile.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(0, result.invoices());
+        Invoice kept = invoiceRepository.findWithLineItemsById(reopened.getId()).orElseThrow();
+        assertEquals(InvoiceStatus.SENT, kept.getStatus());
+        assertEquals(2, kept.getLineItems().size());
+        assertEquals(1, paymentRepository.findByInvoiceId(reopened.getId()).size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Invoice sentInvoice() {
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        invoice.addLineItem(new InvoiceLineItem("Consulting", 2, new BigDecimal("150.00")));
+        invoice.addLineItem(new InvoiceLineItem("Travel", 1, new BigDecimal("75.50")));
+        invoice.markAsSent();
+        return invoice;
+    }
+
+    private Invoice paidInvoice() {
+        return paidInvoice(LocalDateTime.now());
+    }
+
+    private Invoice paidInvoice(LocalDateTime paymentDate) {
+        Invoice invoice = sentInvoice();
+        invoice.applyPayment(invoice.getBalance());
+        invoice = invoiceRepository.save(invoice);
+        paymentRepository.save(new Payment(invoice.getId(), invoice.getTotal(), paymentDate));
+        return invoiceRepository.findWithLineItemsById(invoice.getId()).orElseThrow();
+    }
+
+    private void backdate(UUID invoiceId, int days) {
+        jdbcTemplate.update("update invoices set updated_at = ? where id = ?", LocalDateTime.now().minusDays(days), invoiceId);
+    }
+}
@@ -0,0 +1,396 @@
+package com.invoiceme.integration;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.invoiceme.application.commands.invoice.SendInvoiceCommand;
+import com.invoiceme.application.commands.invoice.SendInvoiceCommandHandler;
+import com.invoiceme.application.queries.invoice.GetInvoicePdfQueryHandler;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.delivery.DeliveryKind;
+import com.invoiceme.domain.delivery.DeliveryStatus;
+import com.invoiceme.domain.delivery.InvoiceDelivery;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.delivery.InvoiceDeliveryEnqueued;
+import com.invoiceme.infrastructure.delivery.InvoiceDeliveryTransport;
+import com.invoiceme.infrastructure.delivery.InvoiceDeliveryWorker;
+import com.invoiceme.infrastructure.dunning.DunningEngine;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.delivery.InvoiceDeliveryRepository;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository;
+import com.invoiceme.infrastructure.persistence.dunning.DunningBulkRepository.NewReminder;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drains the delivery queue against an in-process SMTP server on a fixed local port,
+ * which is stopped to simulate a relay outage.
+ */
+@SpringBootTest(properties = {
+        "invoiceme.delivery.enabled=true",
+        "invoiceme.delivery.transport=smtp",
+        "invoiceme.delivery.backoff-base=PT0.2S",
+        "invoiceme.delivery.backoff-max=PT1S",
+        "invoiceme.delivery.poll-interval-ms=100",
+        "spring.mail.host=127.0.0.1"
+})
+@ActiveProfiles("test")
+@DisplayName("Invoice Delivery Tests")
+class InvoiceDeliveryTest {
+
+    private static final int SMTP_PORT = freePort();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", () -> SMTP_PORT);
+    }
+
+    @Autowired
+    private SendInvoiceCommandHandler sendInvoiceCommandHandler;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceDeliveryRepository invoiceDeliveryRepository;
+
+    @Autowired
+    private DunningEngine dunningEngine;
+
+    @Autowired
+    private DunningBulkRepository dunningBulkRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InvoiceDeliveryWorker worker;
+
+    @Autowired
+    private GetInvoicePdfQueryHandler getInvoicePdfQueryHandler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private GreenMail smtp;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        invoiceDeliveryRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Acme Corporation", "billing@acme.example"));
+        smtp = startSmtp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        smtp.stop();
+    }
+
+    @Test
+    @DisplayName("Should queue a delivery with the send and mail the invoice PDF off the request thread")
+    void shouldDeliverSentInvoice() throws Exception {
+        // Given
+        Invoice invoice = draftInvoice();
+        double sentBefore = meterRegistry.counter("invoiceme.delivery.sent").count();
+        long lagSamplesBefore = meterRegistry.timer("invoiceme.delivery.lag").count();
+
+        // When
+        sendInvoiceCommandHandler.handle(new SendInvoiceCommand(invoice.getId()));
+
+        // Then
+        assertEquals(1, invoiceDeliveryRepository.findByInvoiceId(invoice.getId()).size());
+        assertTrue(smtp.waitForIncomingEmail(10_000, 1));
+        MimeMessage message = smtp.getReceivedMessages()[0];
+        assertEquals("billing@acme.example", message.getAllRecipients()[0].toString());
+        assertEquals("Invoice " + invoice.getId(), message.getSubject());
+        Part attachment = ((Multipart) message.getContent()).getBodyPart(1);
+        assertEquals("invoice-" + invoice.getId() + ".pdf", attachment.getFileName());
+        assertTrue(attachment.getContentType().startsWith("application/pdf"));
+        assertEquals("%PDF-", new String(attachment.getInputStream().readNBytes(5)));
+
+        InvoiceDelivery delivery = awaitStatus(invoice.getId(), DeliveryStatus.SENT);
+        assertEquals(1, delivery.getAttempts());
+        assertNotNull(delivery.getSentAt());
+        assertEquals(sentBefore + 1, meterRegistry.counter("invoiceme.delivery.sent").count());
+        assertEquals(lagSamplesBefore + 1, meterRegistry.timer("invoiceme.delivery.lag").count());
+    }
+
+    @Test
+    @DisplayName("Should retry with backoff while the relay is down and deliver once it is back")
+    void shouldRetryUntilRelayRecovers() throws Exception {
+        // Given
+        smtp.stop();
+        Invoice invoice = draftInvoice();
+        double retriedBefore = meterRegistry.counter("invoiceme.delivery.retried").count();
+
+        // When
+        sendInvoiceCommandHandler.handle(new SendInvoiceCommand(invoice.getId()));
+        await(() -> {
+            InvoiceDelivery delivery = invoiceDeliveryRepository.findByInvoiceId(invoice.getId()).get(0);
+            return delivery.getStatus() == DeliveryStatus.PENDING && delivery.getLastError() != null;
+        }, "first attempt to fail");
+        smtp = startSmtp();
+
+        // Then
+        InvoiceDelivery delivery = awaitStatus(invoice.getId(), DeliveryStatus.SENT);
+        assertTrue(delivery.getAttempts() >= 2);
+        assertNull(delivery.getLastError());
+        assertEquals(1, smtp.getReceivedMessages().length);
+        assertTrue(meterRegistry.counter("invoiceme.delivery.retried").count() > retriedBefore);
+    }
+
+    @Test
+    @DisplayName("Should give up without retrying when the invoice no longer exists")
+    void shouldFailPermanentlyForMissingInvoice() {
+        // Given
+        UUID missingInvoiceId = UUID.randomUUID();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            InvoiceDelivery delivery = invoiceDeliveryRepository.save(new InvoiceDelivery(missingInvoiceId, "billing@acme.example"));
+            eventPublisher.publishEvent(new InvoiceDeliveryEnqueued(delivery.getId()));
+        });
+
+        // Then
+        InvoiceDelivery delivery = awaitStatus(missingInvoiceId, DeliveryStatus.FAILED);
+        assertEquals(1, delivery.getAttempts());
+        assertTrue(delivery.getLastError().contains(missingInvoiceId.toString()));
+        assertEquals(0, smtp.getReceivedMessages().length);
+    }
+
+    @Test
+    @DisplayName("Should not queue a delivery when the send is rejected")
+    void shouldNotQueueDeliveryForRejectedSend() {
+        // Given
+        Invoice invoice = draftInvoice();
+        sendInvoiceCommandHandler.handle(new SendInvoiceCommand(invoice.getId()));
+        Invoice orphaned = draftInvoice();
+
+        // When / Then
+        assertThrows(IllegalStateException.class,
+                () -> sendInvoiceCommandHandler.handle(new SendInvoiceCommand(invoice.getId())));
+        customerRepository.delete(customer);
+        assertThrows(IllegalStateException.class,
+                () -> sendInvoiceCommandHandler.handle(new SendInvoiceCommand(orphaned.getId())));
+        assertEquals(1, invoiceDeliveryRepository.findByInvoiceId(invoice.getId()).size());
+        assertTrue(invoiceDeliveryRepository.findByInvoiceId(orphaned.getId()).isEmpty());
+        assertEquals(InvoiceStatus.DRAFT, invoiceRepository.findById(orphaned.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should mail due reminders and cancel one whose invoice was paid while it waited")
+    void shouldDeliverRemindersForOpenInvoicesOnly() throws Exception {
+        // Given
+        Invoice invoice = draftInvoice();
+        sendInvoiceCommandHandler.handle(new SendInvoiceCommand(invoice.getId()));
+        assertTrue(smtp.waitForIncomingEmail(10_000, 1));
+        double cancelledBefore = meterRegistry.counter("invoiceme.delivery.cancelled").count();
+
+        // When
+        dunningEngine.run(LocalDate.now().plusDays(3));
+
+        // Then
+        InvoiceDelivery reminder = awaitReminder(invoice.getId(), 1, DeliveryStatus.SENT);
+        assertTrue(subjects().contains("Payment reminder: invoice " + invoice.getId()));
+        assertEquals(DeliveryKind.REMINDER, reminder.getKind());
+
+        // When the invoice is paid before its next reminder goes out
+        Invoice paid = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        paid.applyPayment(paid.getBalance());
+        invoiceRepository.save(paid);
+        dunningBulkRepository.queueReminders(
+                List.of(new NewReminder(invoice.getId(), customer.getEmail(), 2, LocalDateTime.now())), LocalDateTime.now());
+
+        // Then
+        InvoiceDelivery cancelled = awaitReminder(invoice.getId(), 2, DeliveryStatus.CANCELLED);
+        assertTrue(cancelled.getLastError().contains("PAID"));
+        assertFalse(subjects().contains("Reminder 2: invoice " + invoice.getId() + " is overdue"));
+        assertEquals(cancelledBefore + 1, meterRegistry.counter("invoiceme.delivery.cancelled").count());
+    }
+
+    @Test
+    @DisplayName("Should cap deliveries per domain without letting a backlog for one domain hold up the others")
+    void shouldShareWorkersFairlyAcrossDomains() throws Exception {
+        // Given a backlog for one domain, due before a few deliveries to another
+        List<UUID> backlog = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            backlog.add(queue("customer" + i + "@mail.example", LocalDateTime.now().minusMinutes(10)));
+        }
+        UUID first = queue("billing@other.example", LocalDateTime.now().minusMinutes(1));
+        UUID second = queue("accounts@other.example", LocalDateTime.now().minusMinutes(1));
+
+        Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        Map<String, Integer> peak = new ConcurrentHashMap<>();
+        List<String> started = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        InvoiceDeliveryTransport slowTransport = email -> {
+            String domain = email.recipient().substring(email.recipient().indexOf('@') + 1);
+            int load = inFlight.computeIfAbsent(domain, d -> new AtomicInteger()).incrementAndGet();
+            peak.merge(domain, load, Math::max);
+            started.add(domain);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.get(domain).decrementAndGet();
+        };
+        InvoiceDeliveryWorker fairWorker = new InvoiceDeliveryWorker(jdbcTemplate, getInvoicePdfQueryHandler,
+                slowTransport, new SimpleMeterRegistry(), 4, 4, 2, 8,
+                Duration.ofMillis(200), Duration.ofSeconds(1), Duration.ofMinutes(5), 50);
+
+        // When
+        worker.stop();
+        fairWorker.start();
+        try {
+            await(() -> started.size() == 4, "all four workers to be busy");
+
+            // Then the other domain gets the two slots the backlog may not use
+            assertEquals(2, started.stream().filter("mail.example"::equals).count());
+            assertEquals(2, started.stream().filter("other.example"::equals).count());
+            release.countDown();
+            for (UUID deliveryId : backlog) {
+                awaitDeliveryStatus(deliveryId, DeliveryStatus.SENT);
+            }
+            awaitDeliveryStatus(first, DeliveryStatus.SENT);
+            awaitDeliveryStatus(second, DeliveryStatus.SENT);
+            assertEquals(2, peak.get("mail.example"));
+        } finally {
+            release.countDown();
+            fairWorker.stop();
+            worker.start();
+        }
+    }
+
+    private UUID queue(String recipient, LocalDateTime dueAt) {
+        UUID invoiceId = draftInvoice().getId();
+        UUID deliveryId = invoiceDeliveryRepository.save(new InvoiceDelivery(invoiceId, recipient)).getId();
+        jdbcTemplate.update("update invoice_deliveries set next_attempt_at = ? where id = ?", dueAt, deliveryId);
+        return deliveryId;
+    }
+
+    private void awaitDeliveryStatus(UUID deliveryId, DeliveryStatus status) {
+        await(() -> invoiceDeliveryRepository.findById(deliveryId).orElseThrow().getStatus() == status,
+                "delivery " + deliveryId + " to become " + status);
+    }
+
+    private Invoice draftInvoice() {
+        Invoice invoice = new Invoice(customer.getId());
+        invoice.addLineItem(new InvoiceLineItem("Consulting services", 2, new BigDecimal("150.00")));
+        return invoiceRepository.save(invoice);
+    }
+
+    private InvoiceDelivery awaitStatus(UUID invoiceId, DeliveryStatus status) {
+        await(() -> {
+            List<InvoiceDelivery> deliveries = invoiceDeliveryRepository.findByInvoiceId(invoiceId);
+            return deliveries.size() == 1 && deliveries.get(0).getStatus() == status;
+        }, "delivery to become " + status);
+        return invoiceDeliveryRepository.findByInvoiceId(invoiceId).get(0);
+    }
+
+    private List<String> subjects() throws MessagingException {
+        List<String> subjects = new ArrayList<>();
+        for (MimeMessage message : smtp.getReceivedMessages()) {
+            subjects.add(message.getSubject());
+        }
+        return subjects;
+    }
+
+    private InvoiceDelivery awaitReminder(UUID invoiceId, int reminderNumber, DeliveryStatus status) {
+        await(() -> findReminder(invoiceId, reminderNumber) != null
+                && findReminder(invoiceId, reminderNumber).getStatus() == status,
+                "reminder " + reminderNumber + " to become " + status);
+        return findReminder(invoiceId, reminderNumber);
+    }
+
+    private InvoiceDelivery findReminder(UUID invoiceId, int reminderNumber) {
+        return invoiceDeliveryRepository.findByInvoiceId(invoiceId).stream()
+                .filter(delivery -> Integer.valueOf(reminderNumber).equals(delivery.getReminderNumber()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static void await(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for " + description);
+            }
+        }
+    }
+
+    private static GreenMail startSmtp() {
+        GreenMail greenMail = new GreenMail(new ServerSetup(SMTP_PORT, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+        return greenMail;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.invoiceme.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.invoices.ExportInvoicePdfsRequest;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import com.invoiceme.infrastructure.pdf.InvoicePdfRenderer;
+import com.invoiceme.infrastructure.pdf.RenderedDocumentCache;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.security.WithRole;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@WithRole
+@ActiveProfiles("test")
+@DisplayName("Invoice PDF Tests")
+class InvoicePdfTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RenderedDocumentCache documentCache;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Müller & Söhne (GmbH)", "billing@mueller.example"));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should render the invoice as a readable PDF")
+    void shouldRenderInvoicePdf() throws Exception {
+        // Given
+        Invoice invoice = new Invoice(customer.getId());
+        invoice.addLineItem(new InvoiceLineItem("Café consulting – phase (1)", 3, new BigDecimal("400.00")));
+        invoice.addLineItem(new InvoiceLineItem("Travel \\ expenses", 1, new BigDecimal("34.50")));
+        invoice.markAsSent();
+        invoice = invoiceRepository.save(invoice);
+
+        // When
+        byte[] pdf = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"invoice-" + invoice.getId() + ".pdf\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            assertEquals(1, document.getNumberOfPages());
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("INVOICE"));
+            assertTrue(text.contains(invoice.getId().toString()));
+            assertTrue(text.contains("Müller & Söhne (GmbH)"));
+            assertTrue(text.contains("Café consulting – phase (1)"));
+            assertTrue(text.contains("Travel \\ expenses"));
+            assertTrue(text.contains("1,234.50"));
+            assertTrue(text.contains("SENT"));
+            assertTrue(text.contains("Page 1 of 1"));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should paginate long invoices and truncate long descriptions")
+    void shouldPaginateLongInvoices() throws Exception {
+        // Given
+        Invoice invoice = new Invoice(customer.getId());
+        for (int i = 0; i < 100; i++) {
+            invoice.addLineItem(new InvoiceLineItem("Item " + i + " " + "x".repeat(i), 1, BigDecimal.ONE));
+        }
+        invoice = invoiceRepository.save(invoice);
+
+        // When
+        byte[] pdf = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            assertEquals(3, document.getNumberOfPages());
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Item 99 "));
+            assertTrue(text.contains("x..."));
+            assertTrue(text.contains("Page 3 of 3"));
+            assertTrue(text.contains("100.00"));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should render a sent invoice once and serve repeats from the document cache")
+    void shouldServeSentInvoiceFromDocumentCache() throws Exception {
+        // Given
+        Invoice invoice = sentInvoice(3);
+        int cachedBefore = documentCache.size();
+        byte[] first = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Path cached = documentCache.get(invoice.getId(), documentVersion(invoice)).orElseThrow();
+        long modified = Files.getLastModifiedTime(cached).toMillis();
+
+        // When
+        byte[] second = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + InvoicePdfRenderer.LAYOUT_VERSION + "." + invoice.getVersion() + "." + customer.getVersion() + "\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, first.length))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertArrayEquals(first, second);
+        assertArrayEquals(first, Files.readAllBytes(cached));
+        assertEquals(modified, Files.getLastModifiedTime(cached).toMillis());
+        assertEquals(cachedBefore + 1, documentCache.size());
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should not cache drafts, which change with every edit")
+    void shouldNotCacheDrafts() throws Exception {
+        // Given
+        Invoice invoice = new Invoice(customer.getId());
+        invoice.addLineItem(new InvoiceLineItem("Draft work", 1, BigDecimal.TEN));
+        invoice = invoiceRepository.save(invoice);
+
+        // When
+        mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk());
+
+        // Then
+        assertTrue(documentCache.get(invoice.getId(), documentVersion(invoice)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should answer If-None-Match with 304 from the version alone")
+    void shouldReturnNotModifiedForCurrentDocument() throws Exception {
+        // Given
+        Invoice invoice = sentInvoice(1);
+        String eTag = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When / Then
+        mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf").header(HttpHeaders.IF_NONE_MATCH, "\"" + invoice.getVersion() + "\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should render a new document once the customer changes")
+    void shouldRenderAgainAfterCustomerChange() throws Exception {
+        // Given
+        Invoice invoice = sentInvoice(1);
+        String eTag = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        customer.setName("Schmidt Holding AG");
+        customer = customerRepository.save(customer);
+
+        // When
+        var response = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        // Then
+        assertNotEquals(eTag, response.getHeader(HttpHeaders.ETAG));
+        try (PDDocument document = Loader.loadPDF(response.getContentAsByteArray())) {
+            assertTrue(new PDFTextStripper().getText(document).contains("Schmidt Holding AG"));
+        }
+        assertTrue(documentCache.get(invoice.getId(), documentVersion(invoice)).isPresent());
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should answer a byte range with 206 and the requested slice")
+    void shouldServeByteRange() throws Exception {
+        // Given
+        Invoice invoice = sentInvoice(2);
+        byte[] full = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // When
+        byte[] part = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf").header(HttpHeaders.RANGE, "bytes=100-299"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-299/" + full.length))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertArrayEquals(Arrays.copyOfRange(full, 100, 300), part);
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should hand large cached documents to the container's sendfile")
+    void shouldOfferLargeDocumentsToSendfile() throws Exception {
+        // Given
+        Invoice invoice = sentInvoice(400);
+
+        // When
+        var response = mockMvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        Path cached = documentCache.get(invoice.getId(), documentVersion(invoice)).orElseThrow();
+        assertTrue(Files.size(cached) > 48 * 1024);
+        assertEquals(cached.toAbsolutePath().toString(), response.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(Files.size(cached), response.getRequest().getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(Files.size(cached), response.getResponse().getContentLengthLong());
+        assertEquals(0, response.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - should return 404 for an unknown invoice")
+    void shouldReturnNotFoundForUnknownInvoice() throws Exception {
+        mockMvc.perform(get("/api/invoices/" + UUID.randomUUID() + "/pdf"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/pdf - should stream a zip with one PDF per known invoice")
+    void shouldExportPdfBatch() throws Exception {
+        // Given
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Invoice invoice = new Invoice(customer.getId());
+            invoice.addLineItem(new InvoiceLineItem("Service " + i, 1, new BigDecimal("10.00")));
+            ids.add(invoiceRepository.save(invoice).getId());
+        }
+        ids.add(UUID.randomUUID());
+
+        // When
+        byte[] zip = mockMvc.perform(post("/api/invoices/pdf")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExportInvoicePdfsRequest(ids))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream entries = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                names.add(entry.getName());
+                try (PDDocument document = Loader.loadPDF(entries.readAllBytes())) {
+                    assertEquals(1, document.getNumberOfPages());
+                }
+            }
+        }
+        assertEquals(List.of(
+                "invoice-" + ids.get(0) + ".pdf",
+                "invoice-" + ids.get(1) + ".pdf",
+                "invoice-" + ids.get(2) + ".pdf"), names);
+    }
+
+    @Test
+    @DisplayName("POST /api/invoices/pdf - should return 400 without invoice ids")
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/invoices/pdf")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"invoiceIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Invoice sentInvoice(int lineItems) {
+        Invoice invoice = new Invoice(customer.getId());
+        for (int i = 0; i < lineItems; i++) {
+            invoice.addLineItem(new InvoiceLineItem("Consulting services - work package " + i, 1, new BigDecimal("125.50")));
+        }
+        invoice.markAsSent();
+        return invoiceRepository.save(invoice);
+    }
+
+    private DocumentVersion documentVersion(Invoice invoice) {
+        return new DocumentVersion(invoice.getVersion(), customer.getVersion());
+    }
+}
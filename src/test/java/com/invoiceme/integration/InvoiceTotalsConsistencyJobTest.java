@@ -0,0 +1,149 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.commands.invoice.ReconcileInvoiceTotalsCommand;
+import com.invoiceme.application.commands.invoice.ReconcileInvoiceTotalsCommandHandler;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.jobs.InvoiceTotalsConsistencyJob;
+import com.invoiceme.infrastructure.jobs.InvoiceTotalsConsistencyJob.ConsistencyReport;
+import com.invoiceme.infrastructure.jobs.StoredTotalsBackfill;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Invoice Totals Consistency Job Tests")
+class InvoiceTotalsConsistencyJobTest {
+    
+    @Autowired
+    private InvoiceTotalsConsistencyJob job;
+    
+    @Autowired
+    private StoredTotalsBackfill backfill;
+    
+    @Autowired
+    private ReconcileInvoiceTotalsCommandHandler reconcileHandler;
+    
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private UUID invoiceId;
+    
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        invoice.addLineItem(new InvoiceLineItem("Item 1", 2, new BigDecimal("10.00")));
+        invoice.addLineItem(new InvoiceLineItem("Item 2", 3, new BigDecimal("15.00")));
+        invoice.markAsSent();
+        invoice.applyPayment(new BigDecimal("30.00"));
+        invoiceId = invoiceRepository.save(invoice).getId();
+        paymentRepository.save(new Payment(invoiceId, new BigDecimal("30.00"), LocalDateTime.now()));
+    }
+    
+    @Test
+    @DisplayName("Should report no mismatches for values written through the domain model")
+    void shouldPassForConsistentData() {
+        ConsistencyReport report = job.run();
+        
+        assertFalse(report.hasMismatches(), report.toString());
+    }
+    
+    @Test
+    @DisplayName("Should report mismatches and their invoices without repairing them")
+    void shouldOnlyReport() {
+        jdbcTemplate.update("update invoice_line_items set subtotal = 0 where invoice_id = ?", invoiceId);
+        
+        ConsistencyReport report = job.run();
+        
+        assertEquals(2, report.lineItemSubtotals());
+        assertEquals(List.of(invoiceId), report.invoiceIds());
+        assertEquals(2, job.run().lineItemSubtotals());
+    }
+    
+    @Test
+    @DisplayName("Should repair legacy rows with zero subtotal, total and amount paid when reconciled")
+    void shouldReconcileLegacyRows() {
+        // Rows created before the columns existed get the column default of 0
+        jdbcTemplate.update("update invoice_line_items set subtotal = 0 where invoice_id = ?", invoiceId);
+        jdbcTemplate.update("update invoices set total = 0, amount_paid = 0 where id = ?", invoiceId);
+        
+        ConsistencyReport report = job.run();
+        
+        assertEquals(2, report.lineItemSubtotals());
+        // The zero total agrees with the zero subtotals; it is wrong only once they are fixed
+        assertEquals(0, report.invoiceTotals());
+        assertEquals(1, report.amountsPaid());
+        assertEquals(1, report.balances());
+        
+        Invoice repaired = reconcileHandler.handle(new ReconcileInvoiceTotalsCommand(invoiceId));
+        assertEquals(0, new BigDecimal("65.00").compareTo(repaired.getTotal()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(repaired.getAmountPaid()));
+        assertEquals(0, new BigDecimal("35.00").compareTo(repaired.getBalance()));
+        assertFalse(job.run().hasMismatches());
+    }
+    
+    @Test
+    @DisplayName("Should backfill legacy rows still at the column defaults once")
+    void shouldBackfillLegacyRows() {
+        jdbcTemplate.update("update invoice_line_items set subtotal = 0 where invoice_id = ?", invoiceId);
+        jdbcTemplate.update("update invoices set total = 0, amount_paid = 0 where id = ?", invoiceId);
+        Invoice current = new Invoice(UUID.randomUUID());
+        current.addLineItem(new InvoiceLineItem("Item", 1, new BigDecimal("40.00")));
+        UUID currentId = invoiceRepository.save(current).getId();
+        // Wrong but not a column default: left for the consistency report
+        jdbcTemplate.update("update invoices set total = 1 where id = ?", currentId);
+        Long version = invoiceRepository.findById(invoiceId).orElseThrow().getVersion();
+        
+        assertEquals(1, backfill.run());
+        
+        Invoice backfilled = invoiceRepository.findWithLineItemsById(invoiceId).orElseThrow();
+        assertEquals(0, new BigDecimal("20.00").compareTo(backfilled.getLineItems().get(0).getSubtotal()));
+        assertEquals(0, new BigDecimal("65.00").compareTo(backfilled.getTotal()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(backfilled.getAmountPaid()));
+        assertEquals(0, new BigDecimal("35.00").compareTo(backfilled.getBalance()));
+        assertEquals(version + 1, backfilled.getVersion());
+        assertEquals(0, BigDecimal.ONE.compareTo(invoiceRepository.findById(currentId).orElseThrow().getTotal()));
+        assertEquals(List.of(currentId), job.run().invoiceIds());
+        assertEquals(0, backfill.run());
+    }
+    
+    @Test
+    @DisplayName("Should mark an invoice paid when reconciling payments its stored amount missed")
+    void shouldReconcileStatusWithBalance() {
+        paymentRepository.save(new Payment(invoiceId, new BigDecimal("35.00"), LocalDateTime.now()));
+        assertEquals(List.of(invoiceId), job.run().invoiceIds());
+        
+        reconcileHandler.handle(new ReconcileInvoiceTotalsCommand(invoiceId));
+        
+        Invoice reconciled = invoiceRepository.findWithLineItemsById(invoiceId).orElseThrow();
+        assertEquals(0, new BigDecimal("65.00").compareTo(reconciled.getAmountPaid()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(reconciled.getBalance()));
+        assertEquals(InvoiceStatus.PAID, reconciled.getStatus());
+        assertFalse(job.run().hasMismatches());
+    }
+}
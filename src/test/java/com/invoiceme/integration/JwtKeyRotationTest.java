@@ -0,0 +1,185 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.domain.user.Role;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.invoiceme.infrastructure.security.JwtKeyRing;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("JWT Key Rotation Tests")
+class JwtKeyRotationTest {
+
+    private static final Path KEYS;
+
+    static {
+        try {
+            KEYS = Files.createTempDirectory("jwt-keys");
+            writeEd25519("key-1");
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void keyDirectory(DynamicPropertyRegistry registry) {
+        registry.add("jwt.keys.directory", KEYS::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("reader@example.com", passwordEncoder.encode("password123"), Role.READ_ONLY));
+        try (var files = Files.list(KEYS)) {
+            files.filter(file -> !file.getFileName().toString().startsWith("key-1")).forEach(JwtKeyRotationTest::delete);
+        }
+        keyRing.reload();
+    }
+
+    @Test
+    @DisplayName("Should publish keys a gateway can verify tokens with, without credentials")
+    void shouldVerifyTokensWithPublishedKeys() {
+        // Given
+        String token = login();
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(url("/.well-known/jwks.json"), String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("max-age=300, public", response.getHeaders().getCacheControl());
+        assertEquals("reader@example.com", verifyLikeGateway(response.getBody(), token));
+    }
+
+    @Test
+    @DisplayName("Should sign with a new key without a restart and still accept the previous key's tokens")
+    void shouldRotateWithoutRestart() throws Exception {
+        // Given
+        String oldToken = login();
+
+        // When
+        writeEd25519("key-2");
+        Files.writeString(KEYS.resolve("active"), "key-2");
+        keyRing.reload();
+        String newToken = login();
+
+        // Then
+        assertEquals(HttpStatus.OK, get("/api/customers", oldToken).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/api/customers", newToken).getStatusCode());
+        String jwks = restTemplate.getForObject(url("/.well-known/jwks.json"), String.class);
+        assertEquals("reader@example.com", verifyLikeGateway(jwks, oldToken));
+        assertEquals("reader@example.com", verifyLikeGateway(jwks, newToken));
+
+        // When the previous key is retired
+        delete(KEYS.resolve("key-1.pem"));
+        delete(KEYS.resolve("key-1.pub.pem"));
+        keyRing.reload();
+
+        // Then
+        assertEquals(HttpStatus.FORBIDDEN, get("/api/customers", oldToken).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/api/customers", newToken).getStatusCode());
+        // Put the first key back for the other tests
+        writeEd25519("key-1");
+    }
+
+    private String verifyLikeGateway(String jwks, String token) {
+        JwkSet keys = Jwks.setParser().build().parse(jwks);
+        return Jwts.parser()
+                .keyLocator(header -> keys.getKeys().stream()
+                        .filter(jwk -> jwk.getId().equals(((JwsHeader) header).getKeyId()))
+                        .findFirst()
+                        .orElseThrow()
+                        .toKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    private String login() {
+        return restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest("reader@example.com", "password123"), LoginResponse.class).getBody().token();
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange(url(path), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private static void writeEd25519(String kid) throws IOException, NoSuchAlgorithmException {
+        KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Files.writeString(KEYS.resolve(kid + ".pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        Files.writeString(KEYS.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.commands.payment.RecordPaymentCommand;
+import com.invoiceme.application.commands.payment.RecordPaymentCommandHandler;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.jobs.OverdueInvoiceJob;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.security.WithRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@WithRole
+@ActiveProfiles("test")
+@DisplayName("Overdue Invoice Job Tests")
+class OverdueInvoiceJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OverdueInvoiceJob job;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RecordPaymentCommandHandler recordPaymentCommandHandler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should mark only SENT invoices due before today as OVERDUE")
+    void shouldMarkPastDueSentInvoices() throws Exception {
+        // Given
+        Invoice pastDue = sentInvoice(TODAY.minusDays(1));
+        Invoice longPastDue = sentInvoice(TODAY.minusDays(45));
+        Invoice dueToday = sentInvoice(TODAY);
+        Invoice notYetDue = sentInvoice(TODAY.plusDays(10));
+        Invoice draft = invoiceRepository.save(draftInvoice());
+        Invoice paid = draftInvoice();
+        paid.markAsSent(TODAY.minusDays(5));
+        paid.applyPayment(paid.getBalance());
+        paid = invoiceRepository.save(paid);
+
+        // When
+        int marked = job.run(TODAY);
+
+        // Then
+        assertEquals(2, marked);
+        assertStatus(pastDue, InvoiceStatus.OVERDUE);
+        assertStatus(longPastDue, InvoiceStatus.OVERDUE);
+        assertStatus(dueToday, InvoiceStatus.SENT);
+        assertStatus(notYetDue, InvoiceStatus.SENT);
+        assertStatus(draft, InvoiceStatus.DRAFT);
+        assertStatus(paid, InvoiceStatus.PAID);
+        // The version bump invalidates ETags and cached documents of the old status
+        assertEquals(pastDue.getVersion() + 1, invoiceRepository.findById(pastDue.getId()).orElseThrow().getVersion());
+        assertEquals(0, job.run(TODAY));
+
+        mockMvc.perform(get("/api/invoices").param("status", "OVERDUE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("OVERDUE"))
+                .andExpect(jsonPath("$[0].dueDate").exists());
+    }
+
+    @Test
+    @DisplayName("Should catch up in batches when more invoices fell due than fit in one")
+    void shouldMarkInBatches() {
+        // Given
+        for (int i = 0; i < 7; i++) {
+            sentInvoice(TODAY.minusDays(i + 1));
+        }
+        sentInvoice(TODAY.plusDays(1));
+
+        // When
+        int marked = new OverdueInvoiceJob(jdbcTemplate, 3, 30).run(TODAY);
+
+        // Then
+        assertEquals(7, marked);
+        assertEquals(7, invoiceRepository.findByStatus(InvoiceStatus.OVERDUE).size());
+        assertEquals(1, invoiceRepository.findByStatus(InvoiceStatus.SENT).size());
+    }
+
+    @Test
+    @DisplayName("Should give SENT invoices without a due date one a payment term after they were sent")
+    void shouldBackfillMissingDueDates() {
+        // Given invoices sent before due dates were stored
+        Invoice sentLongAgo = sentInvoice(TODAY.plusDays(1));
+        Invoice sentRecently = sentInvoice(TODAY.plusDays(1));
+        jdbcTemplate.update("update invoices set due_date = null, updated_at = ? where id = ?",
+                TODAY.minusDays(45).atTime(9, 0), sentLongAgo.getId());
+        jdbcTemplate.update("update invoices set due_date = null, updated_at = ? where id = ?",
+                TODAY.minusDays(10).atTime(9, 0), sentRecently.getId());
+
+        // When
+        int marked = new OverdueInvoiceJob(jdbcTemplate, 1, 30).run(TODAY);
+
+        // Then
+        assertEquals(1, marked);
+        Invoice overdue = invoiceRepository.findById(sentLongAgo.getId()).orElseThrow();
+        assertEquals(InvoiceStatus.OVERDUE, overdue.getStatus());
+        assertEquals(TODAY.minusDays(15), overdue.getDueDate());
+        Invoice open = invoiceRepository.findById(sentRecently.getId()).orElseThrow();
+        assertEquals(InvoiceStatus.SENT, open.getStatus());
+        assertEquals(TODAY.plusDays(20), open.getDueDate());
+    }
+
+    @Test
+    @DisplayName("Should accept payments on overdue invoices")
+    void shouldPayOverdueInvoice() {
+        // Given
+        Invoice invoice = sentInvoice(TODAY.minusDays(3));
+        job.run(TODAY);
+
+        // When
+        recordPaymentCommandHandler.handle(new RecordPaymentCommand(invoice.getId(), invoice.getBalance(), LocalDateTime.now()));
+
+        // Then
+        Invoice paid = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertEquals(InvoiceStatus.PAID, paid.getStatus());
+        assertEquals(0, BigDecimal.ZERO.compareTo(paid.getBalance()));
+    }
+
+    private Invoice sentInvoice(LocalDate dueDate) {
+        Invoice invoice = draftInvoice();
+        invoice.markAsSent(dueDate);
+        return invoiceRepository.save(invoice);
+    }
+
+    private Invoice draftInvoice() {
+        Invoice invoice = new Invoice(UUID.randomUUID());
+        invoice.addLineItem(new InvoiceLineItem("Consulting services", 2, new BigDecimal("150.00")));
+        return invoice;
+    }
+
+    private void assertStatus(Invoice invoice, InvoiceStatus expected) {
+        assertEquals(expected, invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,70 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.queries.invoice.ListInvoicesQuery;
+import com.invoiceme.application.queries.invoice.ListInvoicesQueryHandler;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.infrastructure.jobs.PartitionMaintenanceJob;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Partition Maintenance Tests")
+class PartitionMaintenanceJobTest {
+    
+    @Autowired
+    private PartitionMaintenanceJob job;
+    
+    @Autowired
+    private ListInvoicesQueryHandler listInvoicesQueryHandler;
+    
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    @DisplayName("Should do nothing on databases other than Postgres")
+    void shouldSkipNonPostgres() {
+        assertTrue(job.run(YearMonth.of(2024, 12)).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should filter invoices by creation date range on the partition key")
+    void shouldFilterInvoicesByCreatedRange() {
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        UUID customerId = UUID.randomUUID();
+        UUID march = invoiceRepository.save(new Invoice(customerId)).getId();
+        UUID april = invoiceRepository.save(new Invoice(customerId)).getId();
+        jdbcTemplate.update("update invoices set created_at = ? where id = ?", LocalDateTime.of(2024, 3, 31, 23, 59), march);
+        jdbcTemplate.update("update invoices set created_at = ? where id = ?", LocalDateTime.of(2024, 4, 1, 0, 0), april);
+        
+        List<Invoice> result = listInvoicesQueryHandler.handle(new ListInvoicesQuery(
+                Optional.of(customerId),
+                Optional.empty(),
+                Optional.of(LocalDateTime.of(2024, 3, 1, 0, 0)),
+                Optional.of(LocalDateTime.of(2024, 4, 1, 0, 0))
+        ));
+        
+        assertEquals(List.of(march), result.stream().map(Invoice::getId).toList());
+    }
+}
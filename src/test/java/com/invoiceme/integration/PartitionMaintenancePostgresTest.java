@@ -0,0 +1,84 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.infrastructure.jobs.PartitionMaintenanceJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the partition DDL against a real partitioned table, in a schema of its own that is
+ * dropped afterwards. Requires a local Postgres, e.g.
+ * {@code INVOICEME_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/invoiceme_test}
+ * with INVOICEME_TEST_POSTGRES_USER / INVOICEME_TEST_POSTGRES_PASSWORD.
+ */
+@EnabledIfEnvironmentVariable(named = "INVOICEME_TEST_POSTGRES_URL", matches = ".+")
+@DisplayName("Partition Maintenance Postgres Tests")
+class PartitionMaintenancePostgresTest {
+
+    private final String schema = "partition_test_" + UUID.randomUUID().toString().replace("-", "");
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        String url = System.getenv("INVOICEME_TEST_POSTGRES_URL");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                System.getenv().getOrDefault("INVOICEME_TEST_POSTGRES_USER", "postgres"),
+                System.getenv().getOrDefault("INVOICEME_TEST_POSTGRES_PASSWORD", "postgres"));
+        dataSource.setDriverClassName("org.postgresql.Driver");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create schema " + schema);
+        jdbcTemplate.execute("create table invoices (id uuid not null, status varchar(20) default 'DRAFT' not null, "
+                + "created_at timestamp(6) not null) partition by range (created_at)");
+        jdbcTemplate.execute("create table invoices_p2024_11 partition of invoices "
+                + "for values from ('2024-11-01') to ('2024-12-01')");
+        jdbcTemplate.execute("create table invoices_default partition of invoices default");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop schema " + schema + " cascade");
+    }
+
+    @Test
+    @DisplayName("Should create missing months and move their rows out of the default partition")
+    void shouldCreatePartitionsAndMoveDefaultRows() {
+        // Given rows that fell into the default partition, one either side of the year boundary
+        UUID december = insertInvoice(LocalDateTime.of(2024, 12, 31, 23, 59));
+        UUID january = insertInvoice(LocalDateTime.of(2025, 1, 1, 0, 0));
+        UUID beyondHorizon = insertInvoice(LocalDateTime.of(2025, 6, 1, 0, 0));
+
+        // When
+        List<String> created = new PartitionMaintenanceJob(jdbcTemplate, 2).run(YearMonth.of(2024, 11));
+
+        // Then
+        assertEquals(List.of("invoices_p2024_12", "invoices_p2025_01"), created);
+        assertEquals(List.of(december), idsIn("invoices_p2024_12"));
+        assertEquals(List.of(january), idsIn("invoices_p2025_01"));
+        assertEquals(List.of(beyondHorizon), idsIn("invoices_default"));
+        assertEquals("DRAFT", jdbcTemplate.queryForObject("select status from invoices where id = ?", String.class, december));
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from invoices", Integer.class));
+        assertTrue(new PartitionMaintenanceJob(jdbcTemplate, 2).run(YearMonth.of(2024, 11)).isEmpty());
+    }
+
+    private UUID insertInvoice(LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into invoices (id, created_at) values (?, ?)", id, createdAt);
+        return id;
+    }
+
+    private List<UUID> idsIn(String partition) {
+        return jdbcTemplate.queryForList("select id from " + partition, UUID.class);
+    }
+}
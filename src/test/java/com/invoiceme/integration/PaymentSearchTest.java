@@ -0,0 +1,134 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.queries.payment.PaymentCursor;
+import com.invoiceme.application.queries.payment.PaymentSearchResult;
+import com.invoiceme.application.queries.payment.SearchPaymentsQuery;
+import com.invoiceme.application.queries.payment.SearchPaymentsQueryHandler;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.payment.Payment;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Payment Search Tests")
+class PaymentSearchTest {
+    
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2024, 1, 1, 9, 0);
+    
+    @Autowired
+    private SearchPaymentsQueryHandler handler;
+    
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    private UUID customerA;
+    private UUID customerB;
+    
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        
+        customerA = UUID.randomUUID();
+        customerB = UUID.randomUUID();
+        UUID invoiceA = createSentInvoice(customerA);
+        UUID invoiceB = createSentInvoice(customerB);
+        
+        // 10 payments per customer, one per day; days 0 and 1 share a timestamp to exercise the id tiebreak
+        List<Payment> payments = new ArrayList<>();
+        for (int day = 0; day < 10; day++) {
+            LocalDateTime date = JAN_1.plusDays(Math.max(day, 1));
+            payments.add(new Payment(invoiceA, new BigDecimal(10 * (day + 1)), date));
+            payments.add(new Payment(invoiceB, new BigDecimal(10 * (day + 1)), date));
+        }
+        paymentRepository.saveAll(payments);
+    }
+    
+    private UUID createSentInvoice(UUID customerId) {
+        Invoice invoice = new Invoice(customerId);
+        invoice.addLineItem(new InvoiceLineItem("Service", 1, new BigDecimal("10000.00")));
+        invoice.markAsSent();
+        return invoiceRepository.save(invoice).getId();
+    }
+    
+    private SearchPaymentsQuery query(Optional<UUID> customerId, Optional<PaymentCursor> after, int limit) {
+        return new SearchPaymentsQuery(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                customerId, after, limit);
+    }
+    
+    @Test
+    @DisplayName("Should walk every payment exactly once in (paymentDate, id) order using the cursor")
+    void shouldPageThroughAllPaymentsWithKeyset() {
+        Set<UUID> seen = new HashSet<>();
+        Payment previous = null;
+        Optional<PaymentCursor> cursor = Optional.empty();
+        int pages = 0;
+        do {
+            PaymentSearchResult page = handler.handle(query(Optional.empty(), cursor, 3));
+            for (Payment payment : page.payments()) {
+                assertTrue(seen.add(payment.getId()), "payment returned twice");
+                // Ids are ordered by the database's UUID collation, which differs from UUID.compareTo
+                if (previous != null) {
+                    assertFalse(payment.getPaymentDate().isBefore(previous.getPaymentDate()));
+                }
+                previous = payment;
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor.isPresent());
+        
+        assertEquals(20, seen.size());
+        assertEquals(7, pages);
+    }
+    
+    @Test
+    @DisplayName("Should combine customer, date-range and amount-range filters")
+    void shouldApplyFilters() {
+        PaymentSearchResult result = handler.handle(new SearchPaymentsQuery(
+                Optional.of(JAN_1.plusDays(3)),
+                Optional.of(JAN_1.plusDays(8)),
+                Optional.of(new BigDecimal("50")),
+                Optional.of(new BigDecimal("70")),
+                Optional.of(customerA),
+                Optional.empty(),
+                SearchPaymentsQuery.DEFAULT_LIMIT
+        ));
+        
+        // Days 3..7 carry amounts 40..80; the amount filter keeps 50, 60, 70
+        assertEquals(3, result.payments().size());
+        assertTrue(result.nextCursor().isEmpty());
+        Set<UUID> invoicesOfA = new HashSet<>();
+        invoiceRepository.findByCustomerId(customerA).forEach(i -> invoicesOfA.add(i.getId()));
+        assertTrue(result.payments().stream().allMatch(p -> invoicesOfA.contains(p.getInvoiceId())));
+    }
+    
+    @Test
+    @DisplayName("Should reject limits outside the allowed range")
+    void shouldRejectInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> query(Optional.empty(), Optional.empty(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> query(Optional.empty(), Optional.empty(), SearchPaymentsQuery.MAX_LIMIT + 1));
+    }
+}
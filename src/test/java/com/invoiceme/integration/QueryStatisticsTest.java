@@ -0,0 +1,221 @@
+package com.invoiceme.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.api.customers.CreateCustomerRequest;
+import com.invoiceme.api.invoices.AddLineItemRequest;
+import com.invoiceme.api.invoices.CreateInvoiceRequest;
+import com.invoiceme.api.payments.RecordPaymentRequest;
+import com.invoiceme.domain.user.Role;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.invoiceme.infrastructure.sql.SqlStatementStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Query Statistics Tests")
+class QueryStatisticsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementStatistics statementStatistics;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("accountant@example.com", passwordEncoder.encode("password123"), Role.ACCOUNTANT));
+        String token = restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest("accountant@example.com", "password123"), LoginResponse.class).getBody().token();
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+    }
+
+    @Test
+    @DisplayName("Should run as many statements for many rows as for one on every list endpoint")
+    void shouldNotGrowWithData() throws Exception {
+        // Given
+        UUID customerId = UUID.fromString(send(HttpMethod.POST, "/api/customers",
+                new CreateCustomerRequest("Acme", "billing@acme.example")).getBody().path("id").asText());
+        UUID invoiceId = createPaidInvoice(customerId);
+        Map<String, Integer> one = listCounts(customerId, invoiceId);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            createPaidInvoice(customerId);
+        }
+        Map<String, Integer> many = listCounts(customerId, invoiceId);
+
+        // Then
+        assertEquals(one, many);
+        assertTrue(many.get("/api/invoices") < 3, "GET /api/invoices must stay under 3 statements");
+    }
+
+    @Test
+    @DisplayName("Should report the statements, time and rows behind each response")
+    void shouldReportStatisticsInHeaders() {
+        // Given
+        UUID customerId = UUID.fromString(send(HttpMethod.POST, "/api/customers",
+                new CreateCustomerRequest("Acme", "billing@acme.example")).getBody().path("id").asText());
+        createPaidInvoice(customerId);
+        createPaidInvoice(customerId);
+
+        // When
+        ResponseEntity<JsonNode> invoices = send(HttpMethod.GET, "/api/invoices", null);
+        ResponseEntity<JsonNode> payment = send(HttpMethod.POST, "/api/payments",
+                new RecordPaymentRequest(UUID.fromString(invoices.getBody().path(0).path("id").asText()),
+                        new BigDecimal("10.00"), LocalDateTime.now()));
+
+        // Then
+        HttpHeaders listed = invoices.getHeaders();
+        assertEquals("1", listed.getFirst("X-Query-Count"));
+        // Two invoices with two line items each, read through one join
+        assertEquals("4", listed.getFirst("X-Query-Rows"));
+        assertTrue(Double.parseDouble(listed.getFirst("X-Query-Time-Ms")) > 0);
+        assertTrue(Integer.parseInt(payment.getHeaders().getFirst("X-Query-Count")) <= 4);
+    }
+
+    private Map<String, Integer> listCounts(UUID customerId, UUID invoiceId) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String path : new String[] {"/api/customers", "/api/customers/" + customerId, "/api/invoices",
+                "/api/invoices?customerId=" + customerId, "/api/invoices/" + invoiceId, "/api/payments",
+                "/api/payments/invoice/" + invoiceId}) {
+            ResponseEntity<JsonNode> response = send(HttpMethod.GET, path, null);
+            assertEquals(HttpStatus.OK, response.getStatusCode(), path);
+            counts.put(path.replace(customerId.toString(), "{customerId}").replace(invoiceId.toString(), "{id}"),
+                    Integer.parseInt(response.getHeaders().getFirst("X-Query-Count")));
+        }
+        return counts;
+    }
+
+    @Test
+    @DisplayName("Should list statements by total time with their repository method, for admins only")
+    void shouldListStatementsByTotalTime() {
+        // Given
+        userRepository.save(new User("admin@example.com", passwordEncoder.encode("password123"), Role.ADMIN));
+        HttpHeaders admin = new HttpHeaders();
+        admin.setBearerAuth(restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest("admin@example.com", "password123"), LoginResponse.class).getBody().token());
+        UUID customerId = UUID.fromString(send(HttpMethod.POST, "/api/customers",
+                new CreateCustomerRequest("Acme", "billing@acme.example")).getBody().path("id").asText());
+        createPaidInvoice(customerId);
+        statementStatistics.reset();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            send(HttpMethod.GET, "/api/invoices", null);
+        }
+        ResponseEntity<JsonNode> statements = restTemplate.exchange(url("/actuator/sqlstatements?limit=5"),
+                HttpMethod.GET, new HttpEntity<>(admin), JsonNode.class);
+        ResponseEntity<JsonNode> denied = restTemplate.exchange(url("/actuator/sqlstatements"),
+                HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+        ResponseEntity<JsonNode> metrics = restTemplate.exchange(url("/actuator/metrics/invoiceme.auth.rate-limited"),
+                HttpMethod.GET, new HttpEntity<>(admin), JsonNode.class);
+        ResponseEntity<JsonNode> metricsDenied = restTemplate.exchange(url("/actuator/metrics"),
+                HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, statements.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, denied.getStatusCode());
+        assertEquals(HttpStatus.OK, metrics.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, metricsDenied.getStatusCode());
+        JsonNode listed = statements.getBody();
+        assertTrue(listed.size() <= 5);
+        JsonNode findAll = null;
+        for (int i = 0; i < listed.size(); i++) {
+            if (i > 0) {
+                assertTrue(listed.path(i - 1).path("totalMs").asDouble() >= listed.path(i).path("totalMs").asDouble());
+            }
+            if (listed.path(i).path("origin").asText().equals("InvoiceRepository.findAll")) {
+                findAll = listed.path(i);
+            }
+        }
+        assertNotNull(findAll, listed.toString());
+        assertEquals(3, findAll.path("calls").asInt());
+        // One invoice with two line items, read three times through one join
+        assertEquals(6, findAll.path("rows").asInt());
+        assertFalse(findAll.path("statement").asText().contains(customerId.toString()));
+    }
+
+    private UUID createPaidInvoice(UUID customerId) {
+        String invoiceId = send(HttpMethod.POST, "/api/invoices", new CreateInvoiceRequest(customerId))
+                .getBody().path("id").asText();
+        send(HttpMethod.POST, "/api/invoices/" + invoiceId + "/items",
+                new AddLineItemRequest("Consulting", 2, new BigDecimal("50.00")));
+        send(HttpMethod.POST, "/api/invoices/" + invoiceId + "/items",
+                new AddLineItemRequest("Travel", 1, new BigDecimal("20.00")));
+        send(HttpMethod.POST, "/api/invoices/" + invoiceId + "/send", null);
+        send(HttpMethod.POST, "/api/payments",
+                new RecordPaymentRequest(UUID.fromString(invoiceId), new BigDecimal("40.00"), LocalDateTime.now()));
+        return UUID.fromString(invoiceId);
+    }
+
+    private ResponseEntity<JsonNode> send(HttpMethod method, String path, Object body) {
+        ResponseEntity<JsonNode> response = restTemplate.exchange(url(path), method,
+                new HttpEntity<>(body, headers), JsonNode.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful(), path + ": " + response.getBody());
+        return response;
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
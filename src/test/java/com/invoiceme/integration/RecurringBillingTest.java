@@ -0,0 +1,242 @@
+package com.invoiceme.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.billing.BillingRunDto;
+import com.invoiceme.api.billing.CreateRecurringInvoiceRequest;
+import com.invoiceme.api.billing.StartBillingRunRequest;
+import com.invoiceme.api.invoices.AddLineItemRequest;
+import com.invoiceme.application.commands.billing.StartBillingRunCommand;
+import com.invoiceme.application.commands.billing.StartBillingRunCommandHandler;
+import com.invoiceme.domain.billing.BillingRun;
+import com.invoiceme.domain.billing.BillingRunStatus;
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import com.invoiceme.domain.billing.TemplateLineItem;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceStatus;
+import com.invoiceme.infrastructure.billing.BillingRunEngine;
+import com.invoiceme.infrastructure.persistence.billing.BillingRunRepository;
+import com.invoiceme.infrastructure.persistence.billing.RecurringInvoiceTemplateRepository;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.security.WithRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@WithRole
+@ActiveProfiles("test")
+@DisplayName("Recurring Billing Tests")
+class RecurringBillingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RecurringInvoiceTemplateRepository templateRepository;
+
+    @Autowired
+    private BillingRunRepository billingRunRepository;
+
+    @Autowired
+    private StartBillingRunCommandHandler startBillingRunCommandHandler;
+
+    @Autowired
+    private BillingRunEngine billingRunEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from billed_templates");
+        billingRunRepository.deleteAll();
+        templateRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /api/billing-runs - should generate one draft invoice per active template in the background")
+    void shouldBillActiveTemplates() throws Exception {
+        // Given
+        Customer acme = customerRepository.save(new Customer("Acme Corporation", "billing@acme.example"));
+        Customer globex = customerRepository.save(new Customer("Globex", "ap@globex.example"));
+        createTemplate(acme, new AddLineItemRequest("Hosting plan", 1, new BigDecimal("49.00")),
+                new AddLineItemRequest("Support hours", 3, new BigDecimal("80.00")));
+        createTemplate(globex, new AddLineItemRequest("Hosting plan", 2, new BigDecimal("49.00")));
+
+        // When
+        BillingRunDto started = startRun("2026-11-01");
+        BillingRunDto finished = awaitCompleted(started.getId());
+
+        // Then
+        assertEquals(LocalDate.of(2026, 11, 1), finished.getBillingCycle());
+        assertEquals(2, finished.getTemplatesTotal());
+        assertEquals(2, finished.getInvoicesCreated());
+        assertTrue(finished.getInvoicesPerSecond() > 0);
+
+        List<Invoice> acmeInvoices = invoiceRepository.findByCustomerId(acme.getId());
+        assertEquals(1, acmeInvoices.size());
+        Invoice invoice = acmeInvoices.get(0);
+        assertEquals(InvoiceStatus.DRAFT, invoice.getStatus());
+        assertEquals(List.of("Hosting plan", "Support hours"),
+                invoice.getLineItems().stream().map(item -> item.getDescription()).toList());
+        assertEquals(0, new BigDecimal("289.00").compareTo(invoice.getTotal()));
+        assertEquals(0, new BigDecimal("289.00").compareTo(invoice.getBalance()));
+        assertEquals(0, new BigDecimal("98.00").compareTo(invoiceRepository.findByCustomerId(globex.getId()).get(0).getTotal()));
+
+        // Starting the same cycle again returns the completed run without billing anyone twice
+        BillingRunDto again = startRun("2026-11-01");
+        assertEquals(started.getId(), again.getId());
+        assertEquals(BillingRunStatus.COMPLETED, again.getStatus());
+        assertEquals(2, invoiceRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted run from the templates it has not billed yet")
+    void shouldResumeWithoutDuplicates() throws Exception {
+        // Given - a run that billed two templates and then crashed before finishing
+        LocalDate cycle = LocalDate.of(2026, 12, 1);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            customers.add(customerRepository.save(new Customer("Customer " + i, "customer" + i + "@example.com")));
+        }
+        saveTemplate(customers.get(0));
+        saveTemplate(customers.get(1));
+        BillingRun run = billingRunRepository.save(new BillingRun(cycle));
+        assertEquals(2, billingRunEngine.run(run.getId(), cycle));
+        jdbcTemplate.update("update billing_runs set status = 'RUNNING', finished_at = null where id = ?", run.getId());
+        for (int i = 2; i < 5; i++) {
+            saveTemplate(customers.get(i));
+        }
+
+        // When
+        BillingRun resumed = startBillingRunCommandHandler.handle(new StartBillingRunCommand(cycle));
+        BillingRunDto finished = awaitCompleted(resumed.getId());
+
+        // Then
+        assertEquals(run.getId(), resumed.getId());
+        assertEquals(5, finished.getInvoicesCreated());
+        assertEquals(5, finished.getTemplatesTotal());
+        for (Customer customer : customers) {
+            assertEquals(1, invoiceRepository.findByCustomerId(customer.getId()).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip deactivated templates and templates of deleted customers")
+    void shouldSkipInactiveTemplates() throws Exception {
+        // Given
+        Customer active = customerRepository.save(new Customer("Active", "active@example.com"));
+        Customer cancelled = customerRepository.save(new Customer("Cancelled", "cancelled@example.com"));
+        Customer deleted = customerRepository.save(new Customer("Deleted", "deleted@example.com"));
+        saveTemplate(active);
+        RecurringInvoiceTemplate cancelledTemplate = saveTemplate(cancelled);
+        saveTemplate(deleted);
+        mockMvc.perform(delete("/api/customers/" + cancelled.getId() + "/recurring-invoices/" + cancelledTemplate.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+        customerRepository.delete(deleted);
+
+        // When
+        BillingRunDto finished = awaitCompleted(startRun("2027-01-01").getId());
+
+        // Then
+        assertEquals(1, finished.getInvoicesCreated());
+        assertEquals(1, invoiceRepository.findByCustomerId(active.getId()).size());
+        assertTrue(invoiceRepository.findByCustomerId(cancelled.getId()).isEmpty());
+        assertTrue(invoiceRepository.findByCustomerId(deleted.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("POST /api/billing-runs - should reject a billing cycle that is not the first of a month")
+    void shouldRejectMidMonthCycle() throws Exception {
+        mockMvc.perform(post("/api/billing-runs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"billingCycle\":\"2026-11-15\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/customers/{id}/recurring-invoices - should return 404 for an unknown customer")
+    void shouldRejectTemplateForUnknownCustomer() throws Exception {
+        mockMvc.perform(post("/api/customers/" + UUID.randomUUID() + "/recurring-invoices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateRecurringInvoiceRequest(
+                                List.of(new AddLineItemRequest("Hosting plan", 1, BigDecimal.TEN))))))
+                .andExpect(status().isNotFound());
+    }
+
+    private void createTemplate(Customer customer, AddLineItemRequest... lineItems) throws Exception {
+        mockMvc.perform(post("/api/customers/" + customer.getId() + "/recurring-invoices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateRecurringInvoiceRequest(List.of(lineItems)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.customerId").value(customer.getId().toString()))
+                .andExpect(jsonPath("$.lineItems.length()").value(lineItems.length));
+    }
+
+    private RecurringInvoiceTemplate saveTemplate(Customer customer) {
+        return templateRepository.save(new RecurringInvoiceTemplate(customer.getId(),
+                List.of(new TemplateLineItem("Subscription", 1, new BigDecimal("25.00")))));
+    }
+
+    private BillingRunDto startRun(String cycle) throws Exception {
+        String body = mockMvc.perform(post("/api/billing-runs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StartBillingRunRequest(LocalDate.parse(cycle)))))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, BillingRunDto.class);
+    }
+
+    private BillingRunDto awaitCompleted(UUID runId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/billing-runs/" + runId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            BillingRunDto run = objectMapper.readValue(body, BillingRunDto.class);
+            if (run.getStatus() == BillingRunStatus.COMPLETED && !billingRunEngine.isActive(runId)) {
+                return run;
+            }
+            assertNotEquals(BillingRunStatus.FAILED, run.getStatus(), run.getLastError());
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for billing run " + runId);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.pdf.DocumentVersion;
+import com.invoiceme.infrastructure.pdf.RenderedDocumentCache;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Response Compression Integration Test")
+class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RenderedDocumentCache documentCache;
+
+    private String baseUrl;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = "http://localhost:" + port;
+
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userRepository.save(new User("gzip@example.com", passwordEncoder.encode("password123")));
+        ResponseEntity<LoginResponse> login = restTemplate.postForEntity(
+                baseUrl + "/api/auth/login",
+                new LoginRequest("gzip@example.com", "password123"),
+                LoginResponse.class
+        );
+
+        headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().token());
+    }
+
+    @Test
+    @DisplayName("GET /api/customers - large JSON list is gzip encoded when the client accepts it")
+    void shouldGzipLargeJsonList() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            customers.add(new Customer("Customer " + i, "customer" + i + "@example.com"));
+        }
+        customerRepository.saveAll(customers);
+
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                baseUrl + "/api/customers",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices/{id}/pdf - large cached PDF is sent unencoded and intact through sendfile")
+    void shouldSendLargePdfUncompressed() {
+        Customer customer = customerRepository.save(new Customer("Sendfile Customer", "sendfile@example.com"));
+        Invoice invoice = new Invoice(customer.getId());
+        for (int i = 0; i < 400; i++) {
+            invoice.addLineItem(new InvoiceLineItem("Consulting services - work package " + i, 1, new BigDecimal("125.50")));
+        }
+        invoice.markAsSent();
+        invoice = invoiceRepository.save(invoice);
+
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                baseUrl + "/api/invoices/" + invoice.getId() + "/pdf",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Path cached = documentCache.get(invoice.getId(), new DocumentVersion(invoice.getVersion(), customer.getVersion())).orElseThrow();
+        assertTrue(response.getBody().length > 48 * 1024);
+        assertEquals(response.getBody().length, response.getHeaders().getContentLength());
+        assertArrayEquals(assertDoesNotThrow(() -> Files.readAllBytes(cached)), response.getBody());
+    }
+}
@@ -0,0 +1,163 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.api.auth.RefreshRequest;
+import com.invoiceme.api.customers.CreateCustomerRequest;
+import com.invoiceme.api.users.ChangeUserRoleRequest;
+import com.invoiceme.domain.user.Role;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Role Authorization Tests")
+class RoleAuthorizationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User reader;
+
+    @BeforeEach
+    void setUp() {
+        // The default client cannot read a 401 answer to a streamed POST
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        refreshTokenRepository.deleteAll();
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+        String password = passwordEncoder.encode("password123");
+        userRepository.save(new User("admin@example.com", password, Role.ADMIN));
+        userRepository.save(new User("accountant@example.com", password, Role.ACCOUNTANT));
+        reader = userRepository.save(new User("reader@example.com", password, Role.READ_ONLY));
+    }
+
+    @Test
+    @DisplayName("Should let a read-only user read but not write")
+    void shouldRestrictReadOnlyUser() {
+        // Given
+        String token = login("reader@example.com").token();
+
+        // When
+        ResponseEntity<String> list = exchange(HttpMethod.GET, "/api/customers", token, null);
+        ResponseEntity<String> create = exchange(HttpMethod.POST, "/api/customers", token,
+                new CreateCustomerRequest("Acme", "billing@acme.example"));
+
+        // Then
+        assertEquals(HttpStatus.OK, list.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, create.getStatusCode());
+        assertTrue(create.getBody().contains("Your role does not permit this action"));
+        assertEquals(0, customerRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reserve user management for admins")
+    void shouldReserveUserManagementForAdmins() {
+        // Given
+        String accountant = login("accountant@example.com").token();
+        String admin = login("admin@example.com").token();
+
+        // When / Then
+        assertEquals(HttpStatus.CREATED, exchange(HttpMethod.POST, "/api/customers", accountant,
+                new CreateCustomerRequest("Acme", "billing@acme.example")).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.GET, "/api/users", accountant, null).getStatusCode());
+        ResponseEntity<String> users = exchange(HttpMethod.GET, "/api/users", admin, null);
+        assertEquals(HttpStatus.OK, users.getStatusCode());
+        assertTrue(users.getBody().contains("\"role\":\"READ_ONLY\""));
+    }
+
+    @Test
+    @DisplayName("Should apply a role change from the user's next token")
+    void shouldApplyRoleChangeOnRefresh() {
+        // Given
+        LoginResponse session = login("reader@example.com");
+        String admin = login("admin@example.com").token();
+
+        // When
+        ResponseEntity<String> changed = exchange(HttpMethod.PUT, "/api/users/" + reader.getId() + "/role", admin,
+                new ChangeUserRoleRequest(Role.ACCOUNTANT));
+
+        // Then
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        // The current token still carries the old role
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.POST, "/api/customers", session.token(),
+                new CreateCustomerRequest("Acme", "billing@acme.example")).getStatusCode());
+        LoginResponse refreshed = restTemplate.postForEntity(url("/api/auth/refresh"),
+                new RefreshRequest(session.refreshToken()), LoginResponse.class).getBody();
+        assertEquals(HttpStatus.CREATED, exchange(HttpMethod.POST, "/api/customers", refreshed.token(),
+                new CreateCustomerRequest("Acme", "billing@acme.example")).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should authorize requests from the token without loading the user")
+    void shouldAuthorizeWithoutLoadingUser() {
+        // Given
+        String token = login("reader@example.com").token();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK, exchange(HttpMethod.GET, "/api/customers", token, null).getStatusCode());
+        }
+
+        // Then
+        NaturalIdStatistics byEmail = statistics.getNaturalIdStatistics(User.class.getName());
+        assertEquals(0, byEmail.getExecutionCount() + byEmail.getCacheHitCount());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    private LoginResponse login(String email) {
+        ResponseEntity<LoginResponse> response = restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest(email, "password123"), LoginResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String path, String token, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange(url(path), method, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
@@ -0,0 +1,120 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.application.commands.customer.DeleteCustomerCommand;
+import com.invoiceme.application.commands.customer.DeleteCustomerCommandHandler;
+import com.invoiceme.application.commands.customer.UpdateCustomerCommand;
+import com.invoiceme.application.commands.customer.UpdateCustomerCommandHandler;
+import com.invoiceme.application.queries.customer.GetCustomerQuery;
+import com.invoiceme.application.queries.customer.GetCustomerQueryHandler;
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Second-Level Cache Tests")
+class SecondLevelCacheTest {
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private GetCustomerQueryHandler getCustomerQueryHandler;
+    
+    @Autowired
+    private UpdateCustomerCommandHandler updateCustomerCommandHandler;
+    
+    @Autowired
+    private DeleteCustomerCommandHandler deleteCustomerCommandHandler;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    @DisplayName("Should serve repeat customer reads from the cache without SQL")
+    void shouldServeCustomerFromCache() {
+        UUID id = customerRepository.save(new Customer("Cached", "cached@example.com")).getId();
+        getCustomerQueryHandler.handle(new GetCustomerQuery(id));
+        statistics.clear();
+        
+        Customer customer = getCustomerQueryHandler.handle(new GetCustomerQuery(id)).orElseThrow();
+        
+        assertEquals("Cached", customer.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("customers").getHitCount());
+    }
+    
+    @Test
+    @DisplayName("Should return fresh data after UpdateCustomerCommandHandler and DeleteCustomerCommandHandler")
+    void shouldInvalidateOnUpdateAndDelete() {
+        UUID id = customerRepository.save(new Customer("Before", "before@example.com")).getId();
+        getCustomerQueryHandler.handle(new GetCustomerQuery(id));
+        
+        updateCustomerCommandHandler.handle(new UpdateCustomerCommand(id, "After", "after@example.com"));
+        Customer updated = getCustomerQueryHandler.handle(new GetCustomerQuery(id)).orElseThrow();
+        assertEquals("After", updated.getName());
+        assertEquals("after@example.com", updated.getEmail());
+        assertEquals(1L, updated.getVersion());
+        
+        deleteCustomerCommandHandler.handle(new DeleteCustomerCommand(id));
+        assertTrue(getCustomerQueryHandler.handle(new GetCustomerQuery(id)).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should resolve users by email through the natural-id cache")
+    void shouldResolveUserByEmailFromNaturalIdCache() {
+        userRepository.save(new User("natural@example.com", "hash"));
+        userRepository.findByEmail("natural@example.com");
+        statistics.clear();
+        
+        User user = userRepository.findByEmail("natural@example.com").orElseThrow();
+        
+        assertEquals("natural@example.com", user.getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdStatistics(User.class.getName()).getCacheHitCount());
+        assertTrue(userRepository.findByEmail("missing@example.com").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should publish second-level cache statistics as metrics")
+    void shouldPublishCacheMetrics() {
+        UUID id = customerRepository.save(new Customer("Metered", "metered@example.com")).getId();
+        getCustomerQueryHandler.handle(new GetCustomerQuery(id));
+        
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "customers")
+                .tag("result", "hit")
+                .functionCounter());
+    }
+}
@@ -0,0 +1,171 @@
+package com.invoiceme.integration;
+
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.api.auth.LogoutRequest;
+import com.invoiceme.api.auth.RefreshRequest;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.invoiceme.infrastructure.security.TokenRevocationList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Token Refresh and Revocation Tests")
+class TokenRefreshTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // The default client cannot read a 401 answer to a streamed POST
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("session@example.com", passwordEncoder.encode("password123")));
+    }
+
+    @Test
+    @DisplayName("Should issue a short-lived access token with a refresh token that rotates")
+    void shouldRotateRefreshToken() {
+        // Given
+        LoginResponse login = login();
+        assertNotNull(login.refreshToken());
+        // The test profile's access token lifetime, in seconds
+        assertEquals(86400, login.expiresIn());
+
+        // When
+        ResponseEntity<LoginResponse> refreshed = refresh(login.refreshToken(), LoginResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+        LoginResponse next = refreshed.getBody();
+        assertEquals("session@example.com", next.email());
+        assertNotEquals(login.refreshToken(), next.refreshToken());
+        assertNotEquals(login.token(), next.token());
+        assertEquals(HttpStatus.OK, customers(next.token()).getStatusCode());
+        assertEquals(HttpStatus.OK, refresh(next.refreshToken(), LoginResponse.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should end the whole session when a used refresh token is replayed")
+    void shouldRevokeFamilyOnReuse() {
+        // Given
+        LoginResponse login = login();
+        LoginResponse next = refresh(login.refreshToken(), LoginResponse.class).getBody();
+
+        // When
+        ResponseEntity<String> replay = refresh(login.refreshToken(), String.class);
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, replay.getStatusCode());
+        assertTrue(replay.getBody().contains("Invalid or expired refresh token"));
+        assertEquals(HttpStatus.UNAUTHORIZED, refresh(next.refreshToken(), String.class).getStatusCode());
+        // A separate login is a separate session and is unaffected
+        assertEquals(HttpStatus.OK, refresh(login().refreshToken(), String.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should reject the access and refresh tokens after logout")
+    void shouldRevokeTokensOnLogout() {
+        // Given
+        LoginResponse login = login();
+        LoginResponse other = login();
+        assertEquals(HttpStatus.OK, customers(login.token()).getStatusCode());
+
+        // When
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.token());
+        ResponseEntity<Void> logout = restTemplate.postForEntity(url("/api/auth/logout"),
+                new HttpEntity<>(new LogoutRequest(login.refreshToken()), headers), Void.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, logout.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, customers(login.token()).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, refresh(login.refreshToken(), String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, customers(other.token()).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations made elsewhere and keep them across rebuilds")
+    void shouldLoadRevocationsFromTable() {
+        // Given
+        UUID revokedElsewhere = UUID.randomUUID();
+        jdbcTemplate.update("insert into revoked_access_tokens (jti, expires_at, revoked_at) values (?, ?, ?)",
+                revokedElsewhere, Timestamp.valueOf(LocalDateTime.now().plusMinutes(15)),
+                Timestamp.valueOf(LocalDateTime.now()));
+        UUID expired = UUID.randomUUID();
+        jdbcTemplate.update("insert into revoked_access_tokens (jti, expires_at, revoked_at) values (?, ?, ?)",
+                expired, Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)),
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(16)));
+
+        // When
+        tokenRevocationList.refresh();
+
+        // Then
+        assertTrue(tokenRevocationList.isRevoked(revokedElsewhere));
+        tokenRevocationList.rebuild();
+        assertTrue(tokenRevocationList.isRevoked(revokedElsewhere));
+        assertFalse(tokenRevocationList.isRevoked(UUID.randomUUID()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from revoked_access_tokens where jti = ?", Integer.class, expired));
+    }
+
+    private LoginResponse login() {
+        ResponseEntity<LoginResponse> response = restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest("session@example.com", "password123"), LoginResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private <T> ResponseEntity<T> refresh(String refreshToken, Class<T> type) {
+        return restTemplate.postForEntity(url("/api/auth/refresh"), new RefreshRequest(refreshToken), type);
+    }
+
+    private ResponseEntity<String> customers(String accessToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        return restTemplate.exchange(url("/api/customers"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
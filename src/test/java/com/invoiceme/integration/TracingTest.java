@@ -0,0 +1,162 @@
+package com.invoiceme.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.auth.LoginRequest;
+import com.invoiceme.api.auth.LoginResponse;
+import com.invoiceme.api.customers.CreateCustomerRequest;
+import com.invoiceme.domain.user.Role;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.tracing.sampling.probability=1.0",
+        "invoiceme.tracing.file.enabled=true",
+        "invoiceme.tracing.file.path=${java.io.tmpdir}/invoiceme-test/traces.jsonl"
+})
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@DisplayName("Tracing Tests")
+class TracingTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${invoiceme.tracing.file.path}")
+    private Path traceFile;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("accountant@example.com", passwordEncoder.encode("password123"), Role.ACCOUNTANT));
+    }
+
+    @Test
+    @DisplayName("Should trace a request through the token check, controller, handler and SQL")
+    void shouldTraceRequestLayers() throws Exception {
+        // Given
+        String token = restTemplate.postForEntity(url("/api/auth/login"),
+                new LoginRequest("accountant@example.com", "password123"), LoginResponse.class).getBody().token();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(url("/api/customers"), HttpMethod.POST,
+                new HttpEntity<>(new CreateCustomerRequest("Acme", "billing@acme.example"), headers), String.class);
+        assertTrue(tracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess());
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(traceFile)) {
+            spans.add(objectMapper.readTree(line));
+        }
+        JsonNode server = spans.stream()
+                .filter(span -> span.path("kind").asText().equals("SERVER")
+                        && span.path("name").asText().equals("http post /api/customers"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        Map<String, JsonNode> trace = spans.stream()
+                .filter(span -> span.path("traceId").equals(server.path("traceId")))
+                .collect(Collectors.toMap(span -> span.path("spanId").asText(), Function.identity()));
+        JsonNode jwt = named(trace, "jwt-authentication-filter.authenticate");
+        JsonNode controller = named(trace, "customer-controller.create-customer");
+        JsonNode handler = named(trace, "create-customer-command-handler.handle");
+        assertTrue(isWithin(jwt, server, trace));
+        assertTrue(isWithin(handler, controller, trace));
+        assertTrue(isWithin(controller, server, trace));
+        assertTrue(trace.values().stream()
+                .anyMatch(span -> span.path("name").asText().equals("query") && isWithin(span, handler, trace)),
+                "Expected a SQL statement span under the handler");
+    }
+
+    @Test
+    @DisplayName("Should put the current trace id in the logging context")
+    void shouldCorrelateLogs() {
+        // Given
+        Span span = tracer.nextSpan().name("log-correlation").start();
+
+        // When / Then
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            assertEquals(span.context().traceId(), MDC.get("traceId"));
+            assertEquals(span.context().spanId(), MDC.get("spanId"));
+        } finally {
+            span.end();
+        }
+        assertNull(MDC.get("traceId"));
+    }
+
+    private static JsonNode named(Map<String, JsonNode> trace, String name) {
+        return trace.values().stream()
+                .filter(span -> span.path("name").asText().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in " + trace.values().stream()
+                        .map(span -> span.path("name").asText()).toList()));
+    }
+
+    private static boolean isWithin(JsonNode span, JsonNode ancestor, Map<String, JsonNode> trace) {
+        for (JsonNode parent = trace.get(span.path("parentSpanId").asText()); parent != null;
+                parent = trace.get(parent.path("parentSpanId").asText())) {
+            if (parent == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
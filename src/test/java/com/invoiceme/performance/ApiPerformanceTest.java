@@ -1,5 +1,6 @@
 package com.invoiceme.performance;
 
+import com.invoiceme.infrastructure.security.WithRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -22,6 +23,7 @@ import java.time.Instant;
  */
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
+@WithRole
 @ActiveProfiles("test")
 public abstract class ApiPerformanceTest {
     
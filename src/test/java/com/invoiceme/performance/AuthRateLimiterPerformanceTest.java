@@ -0,0 +1,104 @@
+package com.invoiceme.performance;
+
+import com.invoiceme.infrastructure.security.TokenBucketRateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Microbenchmark for the auth rate limiter: the cost it adds to one failed login request,
+ * which is an address bucket acquire and an email bucket acquire. The address limit is set
+ * high so every request reaches the email bucket, as in a password-guessing run spread over
+ * many addresses. Measured on one thread and on all cores at once, where requests contend
+ * for the lock stripes; the best of several rounds is reported to keep scheduler noise out
+ * of the figure.
+ * Results are logged so they can be copied into docs/performance-test-results.md.
+ */
+@DisplayName("Auth Rate Limiter Performance Tests")
+@Tag("benchmark")
+class AuthRateLimiterPerformanceTest extends ApiPerformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthRateLimiterPerformanceTest.class);
+
+    private static final int KEYS = 10_000;
+    private static final int REQUESTS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final String[] addresses = new String[KEYS];
+    private final String[] emails = new String[KEYS];
+    private final TokenBucketRateLimiter byAddress = new TokenBucketRateLimiter(20, 6_000_000, 100_000);
+    private final TokenBucketRateLimiter byEmail = new TokenBucketRateLimiter(5, 5, 100_000);
+
+    @Test
+    @DisplayName("Rate limiter overhead - nanoseconds per login request, single thread and all cores")
+    void testLimiterOverhead() throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            addresses[i] = "198.51." + (i >> 8) + "." + (i & 0xff);
+            emails[i] = "user" + i + "@example.com";
+        }
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            simulate(0);
+        }
+
+        long singleThreadMs = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            PerformanceTimer timer = createTimer();
+            timer.start();
+            simulate(0);
+            timer.stop();
+            singleThreadMs = Math.min(singleThreadMs, timer.getElapsedMs());
+        }
+        double singleThreadNanos = singleThreadMs * 1_000_000.0 / REQUESTS;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        long concurrentMs = Long.MAX_VALUE;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                PerformanceTimer timer = createTimer();
+                timer.start();
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int offset = t * (KEYS / threads);
+                    results.add(pool.submit(() -> simulate(offset)));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+                timer.stop();
+                concurrentMs = Math.min(concurrentMs, timer.getElapsedMs());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        log.info("Auth rate limiter, {} requests over {} addresses and emails, best of {} rounds: "
+                + "single thread {} ns per request ({} ms), {} threads {} ns per request per thread ({} ms)",
+                REQUESTS, KEYS, MEASURED_ROUNDS, Math.round(singleThreadNanos), singleThreadMs,
+                threads, Math.round(concurrentMs * 1_000_000.0 / REQUESTS), concurrentMs);
+
+        assertTrue(byAddress.size() <= 100_000);
+        assertTrue(singleThreadNanos < 1000, "The limiter should add under a microsecond per request");
+    }
+
+    /** Makes the limiter calls of {@link #REQUESTS} failed logins. */
+    private void simulate(int offset) {
+        for (int i = 0; i < REQUESTS; i++) {
+            int key = (offset + i) % KEYS;
+            if (byAddress.tryAcquire(addresses[key]) == 0) {
+                byEmail.tryAcquire(emails[key]);
+            }
+        }
+    }
+}
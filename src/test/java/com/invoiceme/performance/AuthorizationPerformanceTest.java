@@ -0,0 +1,120 @@
+package com.invoiceme.performance;
+
+import com.invoiceme.api.customers.CustomerController;
+import com.invoiceme.domain.user.Role;
+import com.invoiceme.domain.user.User;
+import com.invoiceme.infrastructure.persistence.user.RefreshTokenRepository;
+import com.invoiceme.infrastructure.persistence.user.UserRepository;
+import com.invoiceme.infrastructure.security.JwtUtil;
+import com.invoiceme.infrastructure.security.RoleAuthorities;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Microbenchmark for the authorization work added to each API request: authenticating the
+ * bearer token and evaluating the controller method's {@code @PreAuthorize} expression.
+ * Authentication is measured both from the role claim, as the filter does, and by loading the
+ * user as it did before, to show the cost the claim saves. The best of several rounds is
+ * reported. Results are printed so they can be copied into docs/performance-test-results.md.
+ */
+@DisplayName("Authorization Performance Tests")
+@Tag("benchmark")
+class AuthorizationPerformanceTest extends ApiPerformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationPerformanceTest.class);
+
+    private static final int AUTHENTICATIONS = 5_000;
+    private static final int CHECKS = 200_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private CustomerController customerController;
+
+    @Test
+    @DisplayName("Authorization overhead - nanoseconds per request to authenticate and check a permission")
+    void testAuthorizationOverhead() throws Exception {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("bench@example.com", "hash", Role.ACCOUNTANT));
+        String token = jwtUtil.generateToken("bench@example.com", Role.ACCOUNTANT);
+
+        PreAuthorizeAuthorizationManager preAuthorize = new PreAuthorizeAuthorizationManager();
+        SimpleMethodInvocation listCustomers = new SimpleMethodInvocation(customerController,
+                CustomerController.class.getMethod("listCustomers"));
+        Supplier<Authentication> authentication = () -> fromClaims(token);
+        assertTrue(preAuthorize.check(authentication, listCustomers).isGranted());
+
+        double claimsNanos = best(AUTHENTICATIONS, () -> fromClaims(token));
+        double loadNanos = best(AUTHENTICATIONS, () -> byLoadingUser(token));
+        Authentication authenticated = fromClaims(token);
+        double checkNanos = best(CHECKS, () -> preAuthorize.check(() -> authenticated, listCustomers));
+
+        log.info("Authorization, best of {} rounds: authenticate from role claim {} ns, by loading user {} ns, "
+                + "@PreAuthorize hasAuthority check {} ns per request",
+                MEASURED_ROUNDS, Math.round(claimsNanos), Math.round(loadNanos), Math.round(checkNanos));
+
+        assertTrue(claimsNanos < loadNanos, "Reading the role claim should be cheaper than loading the user");
+        assertTrue(checkNanos < 10_000, "A permission check should take under ten microseconds");
+    }
+
+    private Authentication fromClaims(String token) {
+        Claims claims = jwtUtil.parse(token);
+        return new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+                RoleAuthorities.of(jwtUtil.extractRole(claims)));
+    }
+
+    private Authentication byLoadingUser(String token) {
+        UserDetails user = userDetailsService.loadUserByUsername(jwtUtil.parse(token).getSubject());
+        return new UsernamePasswordAuthenticationToken(user.getUsername(), null, user.getAuthorities());
+    }
+
+    /** Runs the operation {@code iterations} times per round and returns the best mean in nanoseconds. */
+    private double best(int iterations, Supplier<?> operation) {
+        Object sink = null;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < iterations; i++) {
+                sink = operation.get();
+            }
+        }
+        long bestMs = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            PerformanceTimer timer = createTimer();
+            timer.start();
+            for (int i = 0; i < iterations; i++) {
+                sink = operation.get();
+            }
+            timer.stop();
+            bestMs = Math.min(bestMs, timer.getElapsedMs());
+        }
+        assertNotNull(sink);
+        return bestMs * 1_000_000.0 / iterations;
+    }
+}
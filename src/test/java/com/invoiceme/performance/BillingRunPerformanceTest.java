@@ -0,0 +1,156 @@
+package com.invoiceme.performance;
+
+import com.invoiceme.domain.billing.BillingRun;
+import com.invoiceme.domain.billing.RecurringInvoiceTemplate;
+import com.invoiceme.infrastructure.billing.BillingRunEngine;
+import com.invoiceme.infrastructure.persistence.billing.BillingRunRepository;
+import com.invoiceme.infrastructure.persistence.billing.RecurringInvoiceTemplateRepository;
+import com.invoiceme.infrastructure.persistence.customer.CustomerBulkRepository.NewCustomer;
+import com.invoiceme.infrastructure.persistence.customer.CustomerBulkRepository;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import com.invoiceme.infrastructure.persistence.invoice.InvoiceRepository;
+import com.invoiceme.infrastructure.persistence.payment.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for {@link BillingRunEngine} against the H2 test database.
+ *
+ * Bills 20,000 templates of three line items each and compares invoices per second with
+ * saving the same invoices one at a time through {@link InvoiceRepository}. Results are
+ * printed for docs/performance-test-results.md.
+ */
+@DisplayName("Billing Run Performance Tests")
+@Tag("benchmark")
+class BillingRunPerformanceTest extends ApiPerformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingRunPerformanceTest.class);
+
+    private static final int TEMPLATES = 20_000;
+    private static final int SINGLE_INVOICES = 2_000;
+
+    @Autowired
+    private BillingRunEngine billingRunEngine;
+
+    @Autowired
+    private BillingRunRepository billingRunRepository;
+
+    @Autowired
+    private RecurringInvoiceTemplateRepository templateRepository;
+
+    @Autowired
+    private CustomerBulkRepository customerBulkRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        super.setUp();
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("Billing run throughput vs saving invoices one at a time")
+    void testBillingRunThroughput() {
+        // Given
+        List<UUID> templateIds = seedTemplates(TEMPLATES);
+        LocalDate cycle = LocalDate.of(2026, 11, 1);
+        BillingRun run = billingRunRepository.save(new BillingRun(cycle));
+
+        // When
+        PerformanceTimer runTimer = createTimer();
+        runTimer.start();
+        int created = billingRunEngine.run(run.getId(), cycle);
+        runTimer.stop();
+
+        List<RecurringInvoiceTemplate> templates = templateRepository.findByIdIn(templateIds.subList(0, SINGLE_INVOICES));
+        PerformanceTimer singleTimer = createTimer();
+        singleTimer.start();
+        for (RecurringInvoiceTemplate template : templates) {
+            invoiceRepository.save(template.toInvoice());
+        }
+        singleTimer.stop();
+
+        // Then
+        assertEquals(TEMPLATES, created);
+        double runInvoicesPerSecond = TEMPLATES * 1000.0 / Math.max(1, runTimer.getElapsedMs());
+        double singleInvoicesPerSecond = SINGLE_INVOICES * 1000.0 / Math.max(1, singleTimer.getElapsedMs());
+        log.info("Billing run: {} invoices in {} ms ({} invoices/s, {} threads), single {} invoices in {} ms ({} invoices/s)",
+                TEMPLATES, runTimer.getElapsedMs(), Math.round(runInvoicesPerSecond), billingRunEngine.poolSize(),
+                SINGLE_INVOICES, singleTimer.getElapsedMs(), Math.round(singleInvoicesPerSecond));
+
+        assertTrue(runInvoicesPerSecond > singleInvoicesPerSecond, "billing run should outperform per-invoice saves");
+    }
+
+    private List<UUID> seedTemplates(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NewCustomer> customers = new ArrayList<>(count);
+        List<UUID> templateIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add(new NewCustomer(UUID.randomUUID(), "Subscriber " + i, "subscriber" + i + "@example.com", now));
+            templateIds.add(UUID.randomUUID());
+        }
+        customerBulkRepository.insertAll(customers);
+        List<Object[]> templates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            templates.add(new Object[] {templateIds.get(i), customers.get(i).id(), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into recurring_invoice_templates (id, customer_id, active, created_at, version) values (?, ?, true, ?, 0)",
+                templates);
+        List<Object[]> items = new ArrayList<>(count * 3);
+        for (UUID id : templateIds) {
+            items.add(new Object[] {id, 0, "Hosting plan", 1, new BigDecimal("49.00")});
+            items.add(new Object[] {id, 1, "Support hours", 3, new BigDecimal("80.00")});
+            items.add(new Object[] {id, 2, "Backup storage", 10, new BigDecimal("0.25")});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into recurring_invoice_template_items (template_id, position, description, quantity, unit_price) values (?, ?, ?, ?, ?)",
+                items);
+        return templateIds;
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("delete from billed_templates");
+        billingRunRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from recurring_invoice_template_items");
+        jdbcTemplate.update("delete from recurring_invoice_templates");
+        paymentRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from invoice_line_items");
+        invoiceRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,102 @@
+package com.invoiceme.performance;
+
+import com.invoiceme.application.commands.customer.CreateCustomerCommand;
+import com.invoiceme.application.commands.customer.CreateCustomerCommandHandler;
+import com.invoiceme.infrastructure.persistence.customer.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Throughput benchmark for the bulk customer import endpoint against the H2 test database.
+ *
+ * Compares rows per second for {@code POST /api/customers/import} (chunked email pre-check
+ * plus JDBC batch inserts) with creating the same customers one at a time through
+ * {@link CreateCustomerCommandHandler}. Results are printed for docs/performance-test-results.md.
+ */
+@DisplayName("Customer Import Performance Tests")
+@Tag("benchmark")
+class CustomerImportPerformanceTest extends ApiPerformanceTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportPerformanceTest.class);
+    
+    private static final int IMPORT_ROWS = 20_000;
+    private static final int SINGLE_ROWS = 2_000;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private CreateCustomerCommandHandler createCustomerCommandHandler;
+    
+    @BeforeEach
+    @Override
+    void setUp() {
+        super.setUp();
+        customerRepository.deleteAllInBatch();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    @DisplayName("POST /api/customers/import - bulk import throughput vs one-at-a-time creation")
+    void testImportThroughput() throws Exception {
+        // Warm up both paths
+        importCsv("warmup", 1_000);
+        for (int i = 0; i < 200; i++) {
+            createCustomerCommandHandler.handle(new CreateCustomerCommand("Warmup " + i, "warmup-single" + i + "@example.com"));
+        }
+        
+        // 10% of rows repeat an earlier email to exercise the duplicate path
+        PerformanceTimer bulkTimer = createTimer();
+        bulkTimer.start();
+        MvcResult result = importCsv("bulk", IMPORT_ROWS);
+        bulkTimer.stop();
+        String body = result.getResponse().getContentAsString();
+        long created = body.lines().filter(line -> line.contains("\"CREATED\"")).count();
+        long duplicates = body.lines().filter(line -> line.contains("\"DUPLICATE\"")).count();
+        assertEquals(IMPORT_ROWS - IMPORT_ROWS / 10, created);
+        assertEquals(IMPORT_ROWS / 10, duplicates);
+        
+        PerformanceTimer singleTimer = createTimer();
+        singleTimer.start();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            createCustomerCommandHandler.handle(new CreateCustomerCommand("Single " + i, "single" + i + "@example.com"));
+        }
+        singleTimer.stop();
+        
+        double bulkRowsPerSecond = IMPORT_ROWS * 1000.0 / Math.max(1, bulkTimer.getElapsedMs());
+        double singleRowsPerSecond = SINGLE_ROWS * 1000.0 / Math.max(1, singleTimer.getElapsedMs());
+        log.info("Customer import: bulk {} rows in {} ms ({} rows/s), single {} rows in {} ms ({} rows/s)",
+                IMPORT_ROWS, bulkTimer.getElapsedMs(), Math.round(bulkRowsPerSecond),
+                SINGLE_ROWS, singleTimer.getElapsedMs(), Math.round(singleRowsPerSecond));
+        
+        assertTrue(bulkRowsPerSecond > singleRowsPerSecond, "bulk import should outperform per-row creation");
+    }
+    
+    private MvcResult importCsv(String prefix, int rows) throws Exception {
+        StringBuilder csv = new StringBuilder("name,email\n");
+        for (int i = 0; i < rows; i++) {
+            int n = i % 10 == 9 ? i - 1 : i;
+            csv.append("Customer ").append(i).append(',').append(prefix).append(n).append("@example.com\n");
+        }
+        return mockMvc.perform(post("/api/customers/import")
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
@@ -0,0 +1,111 @@
+package com.invoiceme.performance;
+
+import com.invoiceme.domain.customer.Customer;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import com.invoiceme.infrastructure.pdf.InvoicePdfBatchRenderer;
+import com.invoiceme.infrastructure.pdf.InvoicePdfRenderer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for the PDF renderer, reported as pages per second per core.
+ *
+ * Single-threaded rendering measures per-core throughput directly; the batch run renders
+ * the same invoices on the bounded worker pool and divides by the pool size.
+ * Results are printed so they can be copied into docs/performance-test-results.md.
+ */
+@DisplayName("Invoice PDF Render Performance Tests")
+@Tag("benchmark")
+class InvoicePdfRenderPerformanceTest extends ApiPerformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicePdfRenderPerformanceTest.class);
+
+    private static final int INVOICES = 4000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Autowired
+    private InvoicePdfRenderer renderer;
+
+    @Autowired
+    private InvoicePdfBatchRenderer batchRenderer;
+
+    private List<Invoice> invoices;
+    private Customer customer;
+    private int totalPages;
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        super.setUp();
+        customer = new Customer("Acme Corporation", "accounts@acme.example");
+        invoices = new ArrayList<>(INVOICES);
+        totalPages = 0;
+        for (int i = 0; i < INVOICES; i++) {
+            Invoice invoice = new Invoice(UUID.randomUUID());
+            // Mostly single-page invoices with an occasional long multi-page one
+            int lineItems = i % 50 == 0 ? 120 : 5 + i % 20;
+            for (int j = 0; j < lineItems; j++) {
+                invoice.addLineItem(new InvoiceLineItem("Consulting services - work package " + j, j + 1, new BigDecimal("125.50")));
+            }
+            invoice.markAsSent();
+            ReflectionTestUtils.setField(invoice, "id", UUID.randomUUID());
+            invoices.add(invoice);
+            totalPages += InvoicePdfRenderer.pageCount(lineItems);
+        }
+    }
+
+    @Test
+    @DisplayName("PDF rendering throughput - pages per second per core, single thread and batch pool")
+    void testRenderThroughput() {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            renderSequentially();
+        }
+
+        PerformanceTimer timer = new PerformanceTimer();
+        timer.start();
+        long bytes = renderSequentially();
+        timer.stop();
+        double singleThreadPagesPerSecond = totalPages * 1000.0 / Math.max(1, timer.getElapsedMs());
+
+        AtomicInteger rendered = new AtomicInteger();
+        batchRenderer.renderAll(invoices, id -> customer, pdf -> rendered.incrementAndGet());
+        rendered.set(0);
+        PerformanceTimer batchTimer = new PerformanceTimer();
+        batchTimer.start();
+        batchRenderer.renderAll(invoices, id -> customer, pdf -> rendered.incrementAndGet());
+        batchTimer.stop();
+        double batchPagesPerSecond = totalPages * 1000.0 / Math.max(1, batchTimer.getElapsedMs());
+        int threads = batchRenderer.poolSize();
+
+        log.info("PDF render, {} invoices / {} pages, avg {} bytes per invoice: single thread {} pages/s per core ({} ms), "
+                + "batch pool ({} threads) {} pages/s total, {} pages/s per core ({} ms)",
+                INVOICES, totalPages, bytes / INVOICES, Math.round(singleThreadPagesPerSecond), timer.getElapsedMs(),
+                threads, Math.round(batchPagesPerSecond), Math.round(batchPagesPerSecond / threads), batchTimer.getElapsedMs());
+
+        assertEquals(INVOICES, rendered.get());
+        assertTrue(singleThreadPagesPerSecond > 1000, "Rendering should exceed 1000 pages/s on one core");
+    }
+
+    private long renderSequentially() {
+        long bytes = 0;
+        for (Invoice invoice : invoices) {
+            bytes += renderer.render(invoice, customer).content().length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,145 @@
+package com.invoiceme.performance;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoiceme.api.invoices.InvoiceDto;
+import com.invoiceme.application.queries.invoice.ListInvoicesQuery;
+import com.invoiceme.application.queries.invoice.ListInvoicesQueryHandler;
+import com.invoiceme.domain.invoice.Invoice;
+import com.invoiceme.domain.invoice.InvoiceLineItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Payload size and serialization CPU benchmark for large invoice list responses.
+ *
+ * Compares the default JSON representation with gzip-compressed JSON and the
+ * opt-in CBOR representation negotiated through {@code Accept: application/cbor}.
+ * Results are printed so they can be copied into docs/performance-test-results.md.
+ */
+@DisplayName("List Payload Performance Tests")
+class ListPayloadPerformanceTest extends ApiPerformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ListPayloadPerformanceTest.class);
+
+    private static final int INVOICES = 500;
+    private static final int LINE_ITEMS_PER_INVOICE = 10;
+    private static final int ITERATIONS = 50;
+
+    @MockBean
+    private ListInvoicesQueryHandler listInvoicesQueryHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private List<Invoice> invoices;
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        super.setUp();
+        invoices = new ArrayList<>();
+        for (int i = 0; i < INVOICES; i++) {
+            Invoice invoice = new Invoice(UUID.randomUUID());
+            for (int j = 0; j < LINE_ITEMS_PER_INVOICE; j++) {
+                invoice.addLineItem(new InvoiceLineItem("Consulting services - item " + j, j + 1, new BigDecimal("125.50")));
+            }
+            invoices.add(invoice);
+        }
+        when(listInvoicesQueryHandler.handle(any(ListInvoicesQuery.class))).thenReturn(invoices);
+    }
+
+    @Test
+    @DisplayName("GET /api/invoices - CBOR and gzip JSON should be smaller than plain JSON")
+    void testListPayloadSize() throws Exception {
+        MvcResult json = mockMvc.perform(get("/api/invoices").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/invoices").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        byte[] jsonBytes = json.getResponse().getContentAsByteArray();
+        byte[] cborBytes = cbor.getResponse().getContentAsByteArray();
+        byte[] gzipJsonBytes = gzip(jsonBytes);
+
+        List<InvoiceDto> decoded = cborConverter.getObjectMapper()
+                .readValue(cborBytes, new TypeReference<List<InvoiceDto>>() {});
+        assertEquals(INVOICES, decoded.size());
+        assertEquals(LINE_ITEMS_PER_INVOICE, decoded.get(0).getLineItems().size());
+
+        log.info("Payload for {} invoices x {} line items: JSON {} bytes, gzip JSON {} bytes, CBOR {} bytes",
+                INVOICES, LINE_ITEMS_PER_INVOICE, jsonBytes.length, gzipJsonBytes.length, cborBytes.length);
+
+        assertTrue(cborBytes.length < jsonBytes.length, "CBOR payload should be smaller than JSON");
+        assertTrue(gzipJsonBytes.length < jsonBytes.length, "gzip JSON payload should be smaller than JSON");
+    }
+
+    @Test
+    @DisplayName("Serialization CPU time per list response - JSON vs CBOR")
+    void testSerializationCpuTime() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/invoices").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<InvoiceDto> dtos = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), new TypeReference<List<InvoiceDto>>() {});
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+
+        double jsonMs = cpuMillisPerOp(objectMapper, dtos);
+        double cborMs = cpuMillisPerOp(cborMapper, dtos);
+
+        log.info("Serialization CPU per list response: JSON {} ms, CBOR {} ms",
+                String.format("%.3f", jsonMs), String.format("%.3f", cborMs));
+
+        assertTrue(jsonMs < API_PERFORMANCE_THRESHOLD_MS);
+        assertTrue(cborMs < API_PERFORMANCE_THRESHOLD_MS);
+    }
+
+    private double cpuMillisPerOp(ObjectMapper mapper, List<InvoiceDto> dtos) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(dtos);
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(dtos);
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
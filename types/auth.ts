@@ -6,6 +6,9 @@ export interface LoginRequest {
 export interface LoginResponse {
   token: string;
   email: string;
+  refreshToken: string;
+  /** Lifetime of the access token, in seconds. */
+  expiresIn: number;
 }
 
 
@@ -1,4 +1,4 @@
-export type InvoiceStatus = 'DRAFT' | 'SENT' | 'PAID';
+export type InvoiceStatus = 'DRAFT' | 'SENT' | 'OVERDUE' | 'PAID';
 
 export type InvoiceLineItem = {
   lineItemId: string;
@@ -13,7 +13,10 @@ export type Invoice = {
   customerId: string;
   status: InvoiceStatus;
   lineItems: InvoiceLineItem[];
+  total: number;
+  amountPaid: number;
   balance: number;
+  dueDate?: string;
   createdAt?: string;
   updatedAt?: string;
 };
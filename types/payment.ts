@@ -13,3 +13,8 @@ export type RecordPaymentRequest = {
 };
 
 
+
+export type PaymentPage = {
+  items: Payment[];
+  nextCursor: string | null;
+};